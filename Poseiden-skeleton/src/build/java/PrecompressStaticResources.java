@@ -0,0 +1,121 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Variantes précompressées des ressources statiques (fichier.css.gz, fichier.css.br à côté de
+ * fichier.css), servies par EncodedResourceResolver selon l'Accept-Encoding du navigateur.
+ *
+ * Lancé par le build (exec-maven-plugin, phase process-resources) en mode fichier source unique :
+ * java PrecompressStaticResources.java target/classes/static
+ *
+ * - gzip au niveau maximal, avec le JDK ;
+ * - brotli (qualité 11) si la commande brotli est disponible dans le PATH, sinon ignoré : le
+ *   navigateur reçoit alors la variante gzip.
+ * Une variante n'est conservée que si elle fait gagner au moins 10 % ; elle n'est régénérée que si
+ * la ressource est plus récente.
+ */
+public class PrecompressStaticResources {
+
+    private static final Set<String> EXTENSIONS = Set.of("css", "js", "mjs", "svg", "json", "map", "txt", "html");
+    private static final double MIN_RATIO = 0.9;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage : java PrecompressStaticResources.java <repertoire>");
+        }
+        Path root = Path.of(args[0]);
+        if (!Files.isDirectory(root)) {
+            System.out.println("[precompress] " + root + " absent, rien a compresser");
+            return;
+        }
+        boolean brotli = brotliAvailable();
+        if (!brotli) {
+            System.out.println("[precompress] commande brotli introuvable, variantes .br non generees");
+        }
+        List<Path> resources;
+        try (Stream<Path> files = Files.walk(root)) {
+            resources = files.filter(Files::isRegularFile).filter(PrecompressStaticResources::compressible).toList();
+        }
+        int written = 0;
+        for (Path resource : resources) {
+            if (gzip(resource)) {
+                written++;
+            }
+            if (brotli && brotli(resource)) {
+                written++;
+            }
+        }
+        System.out.println("[precompress] " + resources.size() + " ressource(s), " + written + " variante(s) ecrite(s)");
+    }
+
+    private static boolean compressible(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && EXTENSIONS.contains(name.substring(dot + 1));
+    }
+
+    private static boolean upToDate(Path resource, Path variant) throws IOException {
+        return Files.exists(variant)
+                && Files.getLastModifiedTime(variant).compareTo(Files.getLastModifiedTime(resource)) >= 0;
+    }
+
+    private static boolean gzip(Path resource) throws IOException {
+        Path variant = resource.resolveSibling(resource.getFileName() + ".gz");
+        if (upToDate(resource, variant)) {
+            return false;
+        }
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(variant)) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            Files.copy(resource, out);
+        }
+        return keepIfSmaller(resource, variant);
+    }
+
+    private static boolean brotli(Path resource) throws IOException, InterruptedException {
+        Path variant = resource.resolveSibling(resource.getFileName() + ".br");
+        if (upToDate(resource, variant)) {
+            return false;
+        }
+        Process process = new ProcessBuilder("brotli", "--quality=11", "--force", "--keep",
+                "--output=" + variant, resource.toString())
+                .inheritIO()
+                .start();
+        if (!process.waitFor(2, TimeUnit.MINUTES) || process.exitValue() != 0) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Echec de brotli pour " + resource);
+        }
+        return keepIfSmaller(resource, variant);
+    }
+
+    private static boolean keepIfSmaller(Path resource, Path variant) throws IOException {
+        if (Files.size(variant) > Files.size(resource) * MIN_RATIO) {
+            Files.delete(variant);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean brotliAvailable() {
+        try {
+            Process process = new ProcessBuilder("brotli", "--version").redirectErrorStream(true).start();
+            process.getInputStream().transferTo(OutputStream.nullOutputStream());
+            return process.waitFor(30, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
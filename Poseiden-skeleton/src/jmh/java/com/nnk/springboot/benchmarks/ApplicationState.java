@@ -0,0 +1,147 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.Application;
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.repositories.RatingRepository;
+import com.nnk.springboot.repositories.RuleNameRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.repositories.UserRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Application complète démarrée sur une base H2 en mémoire (schéma généré par Hibernate,
+ * Flyway désactivé), peuplée de "rows" lignes par table. Les valeurs par défaut de devtools
+ * (cache Thymeleaf coupé, redémarrage à chaud) sont neutralisées pour mesurer la configuration
+ * de production.
+ *
+ * Partagée par les benchmarks de services, de rendu Thymeleaf et de sérialisation JSON :
+ * le contexte est démarré une fois par fork JMH.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    /** Passées en arguments de ligne de commande pour primer sur application.properties. */
+    private static final String[] PROPERTIES = {
+            "--spring.main.banner-mode=off",
+            "--server.port=0",
+            "--spring.devtools.add-properties=false",
+            "--spring.devtools.restart.enabled=false",
+            "--spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.flyway.enabled=false",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.jpa.show-sql=false",
+            "--app.export.trade.fetch-size=1000",
+            "--app.changefeed.directory=target/jmh-changefeed",
+            "--logging.level.root=WARN",
+            "--logging.level.org.springframework=WARN",
+            "--logging.level.com.nnk.springboot=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.orm.jdbc.bind=WARN"
+    };
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    public ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(Application.class)
+                .logStartupInfo(false)
+                .run(PROPERTIES);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed() {
+        bean(BidListRepository.class).saveAll(build(i -> {
+            BidList bid = new BidList();
+            bid.setAccount("account" + i % 50);
+            bid.setType("type" + i % 5);
+            bid.setBidQuantity(BigDecimal.valueOf(i, 2));
+            return bid;
+        }));
+        bean(TradeRepository.class).saveAll(build(i -> {
+            Trade trade = new Trade();
+            trade.setAccount("account" + i % 50);
+            trade.setType("type" + i % 5);
+            trade.setBuyQuantity(BigDecimal.valueOf(i, 2));
+            return trade;
+        }));
+        LocalDateTime now = LocalDateTime.now();
+        bean(CurvePointRepository.class).saveAll(build(i -> {
+            CurvePoint point = new CurvePoint();
+            point.setCurveId(i % 10);
+            point.setAsOfDate(now);
+            point.setTerm((double) i);
+            point.setValue(i * 0.5);
+            point.setCreationDate(now);
+            return point;
+        }));
+        bean(RatingRepository.class).saveAll(build(i -> {
+            Rating rating = new Rating();
+            rating.setMoodysRating("Aa" + i % 3);
+            rating.setSandpRating("AA" + i % 3);
+            rating.setFitchRating("AA" + i % 3);
+            rating.setOrderNumber(i % 100);
+            return rating;
+        }));
+        bean(RuleNameRepository.class).saveAll(build(i -> {
+            RuleName rule = new RuleName();
+            rule.setName("rule" + i);
+            rule.setDescription("description " + i);
+            rule.setJson("{}");
+            rule.setTemplate("template");
+            rule.setSqlStr("select 1");
+            rule.setSqlPart("1 = 1");
+            return rule;
+        }));
+        bean(UserRepository.class).saveAll(build(i -> {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setFullname("Utilisateur " + i);
+            user.setPassword("$2a$10$u8528uRHQTq0bCm7j7flg.MNVL8dtUtTHHg2m6UvpSTKXZzDkRfUe");
+            user.setRole(i % 10 == 0 ? "ADMIN" : "USER");
+            return user;
+        }));
+    }
+
+    private <T> List<T> build(IntFunction<T> factory) {
+        List<T> list = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            list.add(factory.apply(i));
+        }
+        return list;
+    }
+}
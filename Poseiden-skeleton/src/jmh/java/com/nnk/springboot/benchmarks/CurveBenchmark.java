@@ -0,0 +1,64 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.services.InterpolationMethod;
+import com.nnk.springboot.services.impl.Curve;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interpolation en lot de 1000 termes aléatoires sur une courbe de "points" points, sans contexte
+ * Spring. gc.alloc.rate.norm doit rester nul : le tableau de sortie est réutilisé.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CurveBenchmark {
+
+    @Param({"10", "1000"})
+    public int points;
+
+    @Param({"LINEAR", "CUBIC_SPLINE"})
+    public InterpolationMethod method;
+
+    private Curve curve;
+    private double[] terms;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        double[] curveTerms = new double[points];
+        double[] values = new double[points];
+        for (int i = 0; i < points; i++) {
+            curveTerms[i] = i * 0.25;
+            values[i] = Math.log1p(i);
+        }
+        curve = new Curve(curveTerms, values);
+        Random random = new Random(42);
+        terms = new double[1000];
+        for (int i = 0; i < terms.length; i++) {
+            terms[i] = random.nextDouble() * points * 0.25;
+        }
+        out = new double[terms.length];
+    }
+
+    @Benchmark
+    public double[] interpolate() {
+        curve.valuesAt(terms, method, out);
+        return out;
+    }
+}
@@ -0,0 +1,57 @@
+package com.nnk.springboot.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nnk.springboot.dto.UserDto;
+import com.nnk.springboot.services.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation JSON des réponses d'AdminUserController (liste des utilisateurs et
+ * utilisateur seul) avec l'ObjectMapper configuré par Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    private ObjectWriter listWriter;
+    private ObjectWriter userWriter;
+    private List<UserDto> users;
+    private UserDto user;
+
+    @Setup
+    public void setUp(ApplicationState app) {
+        ObjectMapper objectMapper = app.bean(ObjectMapper.class);
+        users = app.bean(UserService.class).findAll();
+        user = users.get(0);
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, UserDto.class));
+        userWriter = objectMapper.writerFor(UserDto.class);
+    }
+
+    @Benchmark
+    public byte[] listAll() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] singleUser() throws JsonProcessingException {
+        return userWriter.writeValueAsBytes(user);
+    }
+}
@@ -0,0 +1,156 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.CurvePointDto;
+import com.nnk.springboot.dto.RatingDto;
+import com.nnk.springboot.dto.RuleNameDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.UserDto;
+import com.nnk.springboot.mapper.BidListMapper;
+import com.nnk.springboot.mapper.BidListMapperImpl;
+import com.nnk.springboot.mapper.CurvePointMapper;
+import com.nnk.springboot.mapper.CurvePointMapperImpl;
+import com.nnk.springboot.mapper.RatingMapper;
+import com.nnk.springboot.mapper.RatingMapperImpl;
+import com.nnk.springboot.mapper.RuleNameMapper;
+import com.nnk.springboot.mapper.RuleNameMapperImpl;
+import com.nnk.springboot.mapper.TradeMapper;
+import com.nnk.springboot.mapper.TradeMapperImpl;
+import com.nnk.springboot.mapper.UserMapper;
+import com.nnk.springboot.mapper.UserMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions entité ↔ DTO des mappers MapStruct générés, sans contexte Spring.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final BidListMapper bidListMapper = new BidListMapperImpl();
+    private final TradeMapper tradeMapper = new TradeMapperImpl();
+    private final CurvePointMapper curvePointMapper = new CurvePointMapperImpl();
+    private final RatingMapper ratingMapper = new RatingMapperImpl();
+    private final RuleNameMapper ruleNameMapper = new RuleNameMapperImpl();
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    private BidList bidList;
+    private BidListDto bidListDto;
+    private Trade trade;
+    private TradeDto tradeDto;
+    private CurvePoint curvePoint;
+    private Rating rating;
+    private RuleName ruleName;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        bidList = new BidList();
+        bidList.setId(1);
+        bidList.setAccount("account");
+        bidList.setType("type");
+        bidList.setBidQuantity(new BigDecimal("10.5000"));
+        bidListDto = bidListMapper.toDto(bidList);
+
+        trade = new Trade();
+        trade.setId(1);
+        trade.setAccount("account");
+        trade.setType("type");
+        trade.setBuyQuantity(new BigDecimal("10.5000"));
+        tradeDto = tradeMapper.toDto(trade);
+
+        curvePoint = new CurvePoint();
+        curvePoint.setId(1);
+        curvePoint.setCurveId(3);
+        curvePoint.setAsOfDate(LocalDateTime.now());
+        curvePoint.setTerm(1.5);
+        curvePoint.setValue(2.5);
+        curvePoint.setCreationDate(LocalDateTime.now());
+
+        rating = new Rating();
+        rating.setId(1);
+        rating.setMoodysRating("Aaa");
+        rating.setSandpRating("AAA");
+        rating.setFitchRating("AAA");
+        rating.setOrderNumber(1);
+
+        ruleName = new RuleName();
+        ruleName.setId(1);
+        ruleName.setName("rule");
+        ruleName.setDescription("description");
+        ruleName.setJson("{}");
+        ruleName.setTemplate("template");
+        ruleName.setSqlStr("select 1");
+        ruleName.setSqlPart("1 = 1");
+
+        user = new User();
+        user.setId(1);
+        user.setUsername("user");
+        user.setFullname("Utilisateur");
+        user.setPassword("hash");
+        user.setRole("USER");
+    }
+
+    @Benchmark
+    public BidListDto bidListToDto() {
+        return bidListMapper.toDto(bidList);
+    }
+
+    @Benchmark
+    public BidList bidListToEntity() {
+        return bidListMapper.toEntity(bidListDto);
+    }
+
+    @Benchmark
+    public TradeDto tradeToDto() {
+        return tradeMapper.toDto(trade);
+    }
+
+    @Benchmark
+    public Trade tradeToEntity() {
+        return tradeMapper.toEntity(tradeDto);
+    }
+
+    @Benchmark
+    public CurvePointDto curvePointToDto() {
+        return curvePointMapper.toDto(curvePoint);
+    }
+
+    @Benchmark
+    public RatingDto ratingToDto() {
+        return ratingMapper.toDto(rating);
+    }
+
+    @Benchmark
+    public RuleNameDto ruleNameToDto() {
+        return ruleNameMapper.toDto(ruleName);
+    }
+
+    @Benchmark
+    public UserDto userToDto() {
+        return userMapper.toDto(user);
+    }
+}
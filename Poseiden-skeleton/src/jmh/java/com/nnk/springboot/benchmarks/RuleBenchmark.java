@@ -0,0 +1,84 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.rules.RuleCompiler;
+import com.nnk.springboot.rules.RuleParser;
+import com.nnk.springboot.rules.RuleSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Coût par enregistrement de l'évaluation de "rules" règles compilées (mélange d'égalités,
+ * IN, LIKE préfixe, BETWEEN décimal et OR) sur un lot de 1000 trades, sans contexte Spring.
+ * parseAndCompile mesure le coût de compilation d'une règle, payé une seule fois par invalidation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleBenchmark {
+
+    private static final int RECORDS = 1000;
+
+    private static final String[] CONDITIONS = {
+            "account = 'account7'",
+            "type IN ('type1', 'type3') AND buy_quantity > 50",
+            "account LIKE 'account1%'",
+            "buyQuantity BETWEEN 10.5 AND 20.25 OR type = 'type4'",
+            "NOT (account = 'account2' OR trade_id < 100)"
+    };
+
+    @Param({"1", "10", "50"})
+    public int rules;
+
+    private Predicate<TradeDto>[] predicates;
+    private TradeDto[] trades;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        predicates = new Predicate[rules];
+        for (int i = 0; i < rules; i++) {
+            predicates[i] = RuleCompiler.compile(RuleParser.parse(CONDITIONS[i % CONDITIONS.length]), RuleSchema.TRADE);
+        }
+        trades = new TradeDto[RECORDS];
+        for (int i = 0; i < RECORDS; i++) {
+            trades[i] = new TradeDto(i, "account" + i % 50, "type" + i % 5, BigDecimal.valueOf(i, 1));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public int evaluatePerRecord() {
+        int matches = 0;
+        for (TradeDto trade : trades) {
+            for (Predicate<TradeDto> predicate : predicates) {
+                if (predicate.test(trade)) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public Predicate<TradeDto> parseAndCompile() {
+        return RuleCompiler.compile(RuleParser.parse(CONDITIONS[1]), RuleSchema.TRADE);
+    }
+}
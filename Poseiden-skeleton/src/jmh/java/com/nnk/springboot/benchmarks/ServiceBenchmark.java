@@ -0,0 +1,104 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.BidListFilterDto;
+import com.nnk.springboot.dto.KeysetPageDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.TradeFilterDto;
+import com.nnk.springboot.dto.UserDto;
+import com.nnk.springboot.mapper.TradeMapper;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.BidListService;
+import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemins de lecture et d'écriture des services sur H2 en mémoire.
+ *
+ * tradeFindAllEntities reproduit l'ancien chemin de lecture (entités gérées puis copie
+ * MapStruct) pour le comparer à la projection DTO de tradeFindAll : l'écart se lit dans
+ * gc.alloc.rate.norm (octets alloués par opération) du profileur -prof gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private TradeService tradeService;
+    private BidListService bidListService;
+    private UserService userService;
+    private TradeRepository tradeRepository;
+    private TradeMapper tradeMapper;
+    private TransactionTemplate readOnly;
+    private TradeFilterDto accountFilter;
+
+    @Setup
+    public void setUp(ApplicationState app) {
+        tradeService = app.bean(TradeService.class);
+        bidListService = app.bean(BidListService.class);
+        userService = app.bean(UserService.class);
+        tradeRepository = app.bean(TradeRepository.class);
+        tradeMapper = app.bean(TradeMapper.class);
+        readOnly = new TransactionTemplate(app.bean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        accountFilter = new TradeFilterDto();
+        accountFilter.setAccount("account7");
+        accountFilter.setSort("buyQuantity");
+    }
+
+    @Benchmark
+    public List<TradeDto> tradeFindAll() {
+        return tradeService.findAll();
+    }
+
+    @Benchmark
+    public List<TradeDto> tradeFindAllEntities() {
+        return readOnly.execute(status -> tradeRepository.findAll()
+                .stream()
+                .map(tradeMapper::toDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<TradeDto> tradeFindAllFiltered() {
+        return tradeService.findAll(accountFilter);
+    }
+
+    @Benchmark
+    public KeysetPageDto<BidListDto> bidListFirstPage() {
+        return bidListService.findPage(new BidListFilterDto(), null, null, null);
+    }
+
+    @Benchmark
+    public List<UserDto> userFindAll() {
+        return userService.findAll();
+    }
+
+    @Benchmark
+    public TradeDto tradeCreate() {
+        TradeDto dto = new TradeDto();
+        dto.setAccount("bench");
+        dto.setType("type");
+        dto.setBuyQuantity(BigDecimal.TEN);
+        return tradeService.create(dto);
+    }
+}
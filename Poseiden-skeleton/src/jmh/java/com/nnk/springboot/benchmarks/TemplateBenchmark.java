@@ -0,0 +1,134 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.BidListFilterDto;
+import com.nnk.springboot.dto.CurvePointFilterDto;
+import com.nnk.springboot.dto.KeysetPageDto;
+import com.nnk.springboot.dto.RatingFilterDto;
+import com.nnk.springboot.dto.RuleNameFilterDto;
+import com.nnk.springboot.dto.TradeFilterDto;
+import com.nnk.springboot.dto.UserFilterDto;
+import com.nnk.springboot.services.BidListService;
+import com.nnk.springboot.services.CurvePointService;
+import com.nnk.springboot.services.RatingService;
+import com.nnk.springboot.services.RuleNameService;
+import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.csrf.DefaultCsrfToken;
+import org.springframework.web.context.WebApplicationContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.CharArrayWriter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendu des pages de liste avec le moteur Thymeleaf de l'application.
+ *
+ * Les données sont lues une fois via les services ; seul le rendu est mesuré, dans un
+ * tampon réutilisé. Le contexte web (requête, jeton CSRF, utilisateur ADMIN) est simulé
+ * pour que les liens, les formulaires et sec:authorize se comportent comme en production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateBenchmark {
+
+    @Param({"bidList/list", "trade/list", "curvePoint/list", "rating/list", "ruleName/list", "user/list"})
+    public String template;
+
+    private SpringTemplateEngine engine;
+    private WebContext context;
+    private final CharArrayWriter out = new CharArrayWriter(256 * 1024);
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        engine = app.bean(SpringTemplateEngine.class);
+
+        MockServletContext servletContext = new MockServletContext();
+        servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, app.context);
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", "/" + template);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        context = new WebContext(JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(request, response), Locale.FRANCE, model(app));
+
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public int render() {
+        out.reset();
+        engine.process(template, context, out);
+        return out.size();
+    }
+
+    private Map<String, Object> model(ApplicationState app) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("_csrf", new DefaultCsrfToken("X-CSRF-TOKEN", "_csrf", "benchmark-token"));
+        switch (template) {
+            case "bidList/list" -> {
+                KeysetPageDto<BidListDto> page = app.bean(BidListService.class)
+                        .findPage(new BidListFilterDto(), null, null, BidListService.MAX_PAGE_SIZE);
+                model.put("filter", new BidListFilterDto());
+                model.put("page", page);
+                model.put("bidLists", page.getItems());
+            }
+            case "trade/list" -> {
+                model.put("filter", new TradeFilterDto());
+                model.put("trades", app.bean(TradeService.class).findAll(new TradeFilterDto()));
+            }
+            case "curvePoint/list" -> {
+                model.put("filter", new CurvePointFilterDto());
+                model.put("curvePoints", app.bean(CurvePointService.class).findAll(new CurvePointFilterDto()));
+            }
+            case "rating/list" -> {
+                model.put("filter", new RatingFilterDto());
+                model.put("ratings", app.bean(RatingService.class).findAll(new RatingFilterDto()));
+            }
+            case "ruleName/list" -> {
+                model.put("filter", new RuleNameFilterDto());
+                model.put("ruleNames", app.bean(RuleNameService.class).findAll(new RuleNameFilterDto()));
+            }
+            case "user/list" -> {
+                model.put("filter", new UserFilterDto());
+                model.put("users", app.bean(UserService.class).findAll(new UserFilterDto()));
+            }
+            default -> throw new IllegalArgumentException("Template inconnu : " + template);
+        }
+        return model;
+    }
+}
@@ -0,0 +1,135 @@
+package com.nnk.springboot.benchmarks;
+
+import com.nnk.springboot.dto.RatingDto;
+import com.nnk.springboot.dto.RuleNameDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.services.RatingService;
+import com.nnk.springboot.services.RuleNameService;
+import com.nnk.springboot.services.TradeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écritures des services sur H2 en mémoire, avec le nombre de requêtes SQL par opération.
+ *
+ * La colonne statementsPerOp (compteur auxiliaire JMH) se lit à côté du temps moyen :
+ * création puis suppression d'une notation ou d'une règle, mise à jour d'une notation
+ * (entité servie par le cache de second niveau) et d'une transaction (entité versionnée).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBenchmark {
+
+    private RatingService ratingService;
+    private RuleNameService ruleNameService;
+    private TradeService tradeService;
+    private Statistics statistics;
+    private Integer ratingId;
+    private Integer tradeId;
+    private int sequence;
+
+    /**
+     * Requêtes SQL préparées par opération. JMH additionne les compteurs EVENTS des itérations
+     * de mesure : chaque itération publie sa moyenne divisée par le nombre d'itérations de mesure,
+     * pour que le résultat final soit la moyenne par opération (les itérations de chauffe publient 0).
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statements {
+
+        public double statementsPerOp;
+
+        private long operations;
+        private long statements;
+        private double weight;
+
+        @Setup(Level.Iteration)
+        public void reset(BenchmarkParams benchmark, IterationParams iteration) {
+            operations = 0;
+            statements = 0;
+            statementsPerOp = 0;
+            weight = iteration.getType() == IterationType.MEASUREMENT ? 1.0 / benchmark.getMeasurement().getCount() : 0;
+        }
+
+        void add(long count) {
+            operations++;
+            statements += count;
+            statementsPerOp = weight * statements / operations;
+        }
+    }
+
+    @Setup
+    public void setUp(ApplicationState app) {
+        ratingService = app.bean(RatingService.class);
+        ruleNameService = app.bean(RuleNameService.class);
+        tradeService = app.bean(TradeService.class);
+        statistics = app.bean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        // désactivées hors du profil diagnostics ; seul ce benchmark en a besoin
+        statistics.setStatisticsEnabled(true);
+        ratingId = ratingService.findAll().get(0).getId();
+        tradeId = tradeService.findAll().get(0).getId();
+    }
+
+    @Benchmark
+    public void ratingCreateDelete(Statements counter) {
+        long before = statistics.getPrepareStatementCount();
+        RatingDto dto = new RatingDto();
+        dto.setMoodysRating("Baa");
+        dto.setOrderNumber(sequence++);
+        ratingService.delete(ratingService.create(dto).getId());
+        counter.add(statistics.getPrepareStatementCount() - before);
+    }
+
+    @Benchmark
+    public void ruleNameCreateDelete(Statements counter) {
+        long before = statistics.getPrepareStatementCount();
+        RuleNameDto dto = new RuleNameDto();
+        dto.setName("bench" + sequence++);
+        dto.setSqlPart("1 = 1");
+        ruleNameService.delete(ruleNameService.create(dto).getId());
+        counter.add(statistics.getPrepareStatementCount() - before);
+    }
+
+    @Benchmark
+    public RatingDto ratingUpdate(Statements counter) {
+        long before = statistics.getPrepareStatementCount();
+        RatingDto dto = new RatingDto();
+        dto.setOrderNumber(sequence++);
+        RatingDto result = ratingService.update(ratingId, dto);
+        counter.add(statistics.getPrepareStatementCount() - before);
+        return result;
+    }
+
+    @Benchmark
+    public TradeDto tradeUpdate(Statements counter) {
+        long before = statistics.getPrepareStatementCount();
+        TradeDto dto = new TradeDto();
+        dto.setBuyQuantity(BigDecimal.valueOf(sequence++));
+        TradeDto result = tradeService.update(tradeId, dto, false);
+        counter.add(statistics.getPrepareStatementCount() - before);
+        return result;
+    }
+}
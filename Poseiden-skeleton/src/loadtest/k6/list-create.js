@@ -0,0 +1,90 @@
+// Load test of the list and create pages (k6, https://k6.io).
+//
+// Each virtual user logs in once through the login form and then reuses its session cookie,
+// so BCrypt only runs once per user and the measured time is spent on the pages themselves.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e USERNAME=admin -e PASSWORD=... src/loadtest/k6/list-create.js
+//
+// Optional: LIST_VUS (default 40), CREATE_VUS (default 10), DURATION (default 2m).
+import http from 'k6/http';
+import { check, fail } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const DURATION = __ENV.DURATION || '2m';
+
+const listDuration = new Trend('list_duration', true);
+const createDuration = new Trend('create_duration', true);
+
+export const options = {
+    scenarios: {
+        list: {
+            executor: 'constant-vus',
+            exec: 'list',
+            vus: parseInt(__ENV.LIST_VUS || '40'),
+            duration: DURATION,
+        },
+        create: {
+            executor: 'constant-vus',
+            exec: 'create',
+            vus: parseInt(__ENV.CREATE_VUS || '10'),
+            duration: DURATION,
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        list_duration: ['p(95)<500'],
+        create_duration: ['p(95)<500'],
+    },
+};
+
+let csrf = null;
+
+function csrfToken(path) {
+    const res = http.get(`${BASE_URL}${path}`);
+    const token = res.html().find('input[name="_csrf"]').attr('value');
+    if (!token) {
+        fail(`no CSRF token on ${path} (status ${res.status})`);
+    }
+    return token;
+}
+
+function login() {
+    if (csrf !== null) {
+        return;
+    }
+    const res = http.post(`${BASE_URL}/login`, {
+        username: __ENV.USERNAME || 'admin',
+        password: __ENV.PASSWORD,
+        _csrf: csrfToken('/app/login'),
+    });
+    if (res.url.includes('/app/login')) {
+        fail('login failed');
+    }
+    csrf = csrfToken('/bidList/add');
+}
+
+export function list() {
+    login();
+    for (const path of ['/bidList/list', '/trade/list']) {
+        const res = http.get(`${BASE_URL}${path}`, { tags: { name: path } });
+        check(res, { 'list 200': (r) => r.status === 200 });
+        listDuration.add(res.timings.duration);
+    }
+}
+
+export function create() {
+    login();
+    const account = `k6-${__VU % 20}`;
+    const type = `type-${__ITER % 5}`;
+    const bid = http.post(`${BASE_URL}/bidList/validate`,
+        { account, type, bidQuantity: '10.5', _csrf: csrf },
+        { redirects: 0, tags: { name: '/bidList/validate' } });
+    const trade = http.post(`${BASE_URL}/trade/validate`,
+        { account, type, buyQuantity: '3.25', _csrf: csrf },
+        { redirects: 0, tags: { name: '/trade/validate' } });
+    for (const res of [bid, trade]) {
+        check(res, { 'create redirected': (r) => r.status === 302 });
+        createDuration.add(res.timings.duration);
+    }
+}
@@ -0,0 +1,79 @@
+// Platform threads vs virtual threads on /trade/list and /bidList/validate (k6, https://k6.io).
+//
+// The default VU count (400) is above Tomcat's 200 platform threads, so with platform threads
+// requests queue for a worker thread; with virtual threads they queue for a JDBC connection instead
+// (hikaricp.connections.pending). Run once per mode against the same database and compare
+// http_reqs, trade_list_duration and bid_create_duration:
+//
+//   java -jar target/spring-boot-skeleton-0.0.1-SNAPSHOT.jar --spring.profiles.active=pool
+//   java -jar target/spring-boot-skeleton-0.0.1-SNAPSHOT.jar --spring.profiles.active=pool,vthreads
+//   k6 run -e BASE_URL=http://localhost:8080 -e PASSWORD=... src/loadtest/k6/platform-vs-virtual.js
+//
+// Optional: VUS (default 400), DURATION (default 2m), CREATE_RATIO (default 0.2).
+import http from 'k6/http';
+import { check, fail } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const CREATE_RATIO = parseFloat(__ENV.CREATE_RATIO || '0.2');
+
+const tradeListDuration = new Trend('trade_list_duration', true);
+const bidCreateDuration = new Trend('bid_create_duration', true);
+
+export const options = {
+    scenarios: {
+        mixed: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: parseInt(__ENV.VUS || '400') },
+                { duration: __ENV.DURATION || '2m', target: parseInt(__ENV.VUS || '400') },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+let csrf = null;
+
+function csrfToken(path) {
+    const res = http.get(`${BASE_URL}${path}`);
+    const token = res.html().find('input[name="_csrf"]').attr('value');
+    if (!token) {
+        fail(`no CSRF token on ${path} (status ${res.status})`);
+    }
+    return token;
+}
+
+function login() {
+    if (csrf !== null) {
+        return;
+    }
+    const res = http.post(`${BASE_URL}/login`, {
+        username: __ENV.USERNAME || 'admin',
+        password: __ENV.PASSWORD,
+        _csrf: csrfToken('/app/login'),
+    });
+    if (res.url.includes('/app/login')) {
+        fail('login failed');
+    }
+    csrf = csrfToken('/bidList/add');
+}
+
+export default function () {
+    login();
+    if (Math.random() < CREATE_RATIO) {
+        const res = http.post(`${BASE_URL}/bidList/validate`,
+            { account: `vt-${__VU % 50}`, type: `type-${__ITER % 5}`, bidQuantity: '10.5', _csrf: csrf },
+            { redirects: 0, tags: { name: '/bidList/validate' } });
+        check(res, { 'create redirected': (r) => r.status === 302 });
+        bidCreateDuration.add(res.timings.duration);
+    } else {
+        const res = http.get(`${BASE_URL}/trade/list`, { tags: { name: '/trade/list' } });
+        check(res, { 'list 200': (r) => r.status === 200 });
+        tradeListDuration.add(res.timings.duration);
+    }
+}
@@ -0,0 +1,103 @@
+package com.nnk.springboot.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Tampon circulaire borné, sans verrou, à plusieurs producteurs et un seul consommateur.
+ *
+ * - La capacité est arrondie à la puissance de deux supérieure ; chaque case porte un numéro
+ *   de séquence qui indique si elle est libre pour la position d'écriture courante ou remplie
+ *   pour la position de lecture courante (algorithme de D. Vyukov).
+ * - offer réserve une position par compare-and-set sur la queue, puis publie l'élément en
+ *   avançant la séquence de la case ; il n'attend jamais et renvoie false si le tampon est plein.
+ * - drain ne doit être appelé que par un consommateur à la fois (l'appelant le garantit) ;
+ *   il s'arrête sur la première case dont l'écriture n'est pas encore publiée.
+ */
+public final class AuditRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public AuditRingBuffer(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacité du tampon d'audit invalide: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Ajoute un élément sans bloquer.
+     *
+     * @return false si le tampon est plein (l'élément n'est pas ajouté)
+     */
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            long delta = sequences.get(index(position)) - position;
+            if (delta == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (delta < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        int index = index(position);
+        elements.set(index, element);
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Retire au plus max éléments, dans l'ordre de réservation, et les passe au consommateur.
+     *
+     * @return le nombre d'éléments retirés
+     */
+    public int drain(Consumer<? super E> consumer, int max) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = index(position);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            E element = elements.get(index);
+            elements.set(index, null);
+            sequences.set(index, position + mask + 1);
+            head.set(++position);
+            drained++;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    /**
+     * Nombre approximatif d'éléments en attente (réservés et non encore retirés).
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    private int index(long position) {
+        return (int) position & mask;
+    }
+}
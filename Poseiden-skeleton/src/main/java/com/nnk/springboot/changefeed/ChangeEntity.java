@@ -0,0 +1,59 @@
+package com.nnk.springboot.changefeed;
+
+/**
+ * Type d'entité concerné par un évènement du journal des changements.
+ *
+ * Le code est l'octet écrit dans le journal : il ne doit jamais être réattribué.
+ */
+public enum ChangeEntity {
+    BID_LIST(1, "bidList"),
+    TRADE(2, "trade"),
+    CURVE_POINT(3, "curvePoint"),
+    RATING(4, "rating"),
+    RULE_NAME(5, "ruleName"),
+    USER(6, "user");
+
+    private static final ChangeEntity[] BY_CODE = new ChangeEntity[7];
+
+    static {
+        for (ChangeEntity entity : values()) {
+            BY_CODE[entity.code] = entity;
+        }
+    }
+
+    private final byte code;
+    private final String label;
+
+    ChangeEntity(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    /** Nom exposé par l'API (identique au nom des schémas de règles). */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return l'entité correspondant au code, ou null si le code est inconnu
+     */
+    public static ChangeEntity fromCode(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * @return l'entité dont le nom exposé est label, ou null si le nom est inconnu
+     */
+    public static ChangeEntity fromLabel(String label) {
+        for (ChangeEntity entity : values()) {
+            if (entity.label.equals(label)) {
+                return entity;
+            }
+        }
+        return null;
+    }
+}
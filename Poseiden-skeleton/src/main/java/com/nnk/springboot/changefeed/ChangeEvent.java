@@ -0,0 +1,13 @@
+package com.nnk.springboot.changefeed;
+
+/**
+ * Évènement lu ou écrit dans le journal des changements.
+ *
+ * @param offset    position de l'évènement dans le journal, croissante et sans trou
+ * @param timestamp instant d'écriture en millisecondes depuis l'époque
+ * @param id        identifiant de l'enregistrement, null pour un lot d'import
+ * @param payload   état de l'enregistrement en JSON (UTF-8), vide pour une suppression
+ */
+public record ChangeEvent(long offset, long timestamp, ChangeEntity entity, ChangeOperation operation,
+                          Integer id, byte[] payload) {
+}
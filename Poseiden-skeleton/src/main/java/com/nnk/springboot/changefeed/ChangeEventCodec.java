@@ -0,0 +1,87 @@
+package com.nnk.springboot.changefeed;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Format binaire d'un évènement dans un segment du journal.
+ *
+ * <pre>
+ * int   length     taille de la trame après ce champ (0 : fin des données du segment)
+ * int   crc        CRC32C des octets qui suivent ce champ
+ * long  offset
+ * long  timestamp
+ * byte  entity     ChangeEntity.getCode()
+ * byte  operation  ChangeOperation.getCode()
+ * int   id         Integer.MIN_VALUE lorsque l'identifiant est absent
+ * byte[] payload   length - HEADER octets
+ * </pre>
+ *
+ * Les entiers sont écrits en big-endian (ordre par défaut de ByteBuffer).
+ */
+final class ChangeEventCodec {
+
+    /** Taille de la trame hors charge utile, champ length exclu. */
+    static final int HEADER = 4 + 8 + 8 + 1 + 1 + 4;
+    private static final int NO_ID = Integer.MIN_VALUE;
+
+    private ChangeEventCodec() {
+    }
+
+    /** Taille totale de la trame d'un évènement, champ length inclus. */
+    static int frameSize(int payloadLength) {
+        return 4 + HEADER + payloadLength;
+    }
+
+    static byte[] encode(ChangeEvent event) {
+        byte[] payload = event.payload();
+        ByteBuffer frame = ByteBuffer.allocate(frameSize(payload.length));
+        frame.putInt(HEADER + payload.length)
+                .putInt(0)
+                .putLong(event.offset())
+                .putLong(event.timestamp())
+                .put(event.entity().getCode())
+                .put(event.operation().getCode())
+                .putInt(event.id() == null ? NO_ID : event.id())
+                .put(payload);
+        CRC32C crc = new CRC32C();
+        crc.update(frame.array(), 8, frame.capacity() - 8);
+        frame.putInt(4, (int) crc.getValue());
+        return frame.array();
+    }
+
+    /**
+     * Décode la trame débutant à position, sans modifier la position du tampon.
+     *
+     * @param limit fin des données lisibles dans le tampon
+     * @return l'évènement, ou null si la trame est absente, tronquée ou corrompue
+     */
+    static ChangeEvent decode(ByteBuffer buffer, int position, int limit) {
+        if (position + 4 > limit) {
+            return null;
+        }
+        int length = buffer.getInt(position);
+        if (length < HEADER || length > limit - position - 4) {
+            return null;
+        }
+        byte[] frame = new byte[length - 4];
+        buffer.get(position + 8, frame);
+        CRC32C crc = new CRC32C();
+        crc.update(frame);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.wrap(frame);
+        long offset = body.getLong();
+        long timestamp = body.getLong();
+        ChangeEntity entity = ChangeEntity.fromCode(body.get());
+        ChangeOperation operation = ChangeOperation.fromCode(body.get());
+        int id = body.getInt();
+        if (entity == null || operation == null) {
+            return null;
+        }
+        byte[] payload = new byte[body.remaining()];
+        body.get(payload);
+        return new ChangeEvent(offset, timestamp, entity, operation, id == NO_ID ? null : id, payload);
+    }
+}
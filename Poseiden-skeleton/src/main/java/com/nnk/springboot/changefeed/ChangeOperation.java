@@ -0,0 +1,41 @@
+package com.nnk.springboot.changefeed;
+
+/**
+ * Opération enregistrée dans le journal des changements.
+ *
+ * BULK_INSERT n'est plus écrit : le journal des changements et la piste d'audit enregistrent un
+ * CREATE par ligne importée. Les BULK_INSERT d'un journal ou d'une table audit_entry existants
+ * (lot entier, sans identifiant) restent lisibles.
+ * Le code est l'octet écrit dans le journal : il ne doit jamais être réattribué.
+ */
+public enum ChangeOperation {
+    CREATE(1),
+    UPDATE(2),
+    DELETE(3),
+    BULK_INSERT(4);
+
+    private static final ChangeOperation[] BY_CODE = new ChangeOperation[5];
+
+    static {
+        for (ChangeOperation operation : values()) {
+            BY_CODE[operation.code] = operation;
+        }
+    }
+
+    private final byte code;
+
+    ChangeOperation(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * @return l'opération correspondant au code, ou null si le code est inconnu
+     */
+    public static ChangeOperation fromCode(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -0,0 +1,175 @@
+package com.nnk.springboot.changefeed;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Segment du journal : fichier de taille fixe projeté en mémoire, nommé par l'offset de son
+ * premier évènement.
+ *
+ * Les écritures sont faites par un seul thread à la fois (verrou de SegmentLog) ; les lectures
+ * sont concurrentes et ne voient que les octets publiés par le champ volatile end, écrit après
+ * la trame. Les lectures et écritures utilisent les accès absolus du tampon, dont la position
+ * n'est jamais modifiée.
+ */
+final class LogSegment {
+
+    /** Un évènement sur INDEX_INTERVAL est indexé (offset vers position dans le fichier). */
+    static final int INDEX_INTERVAL = 64;
+
+    private final long baseOffset;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final ConcurrentSkipListMap<Long, Integer> index = new ConcurrentSkipListMap<>();
+    private volatile int end;
+    private volatile long nextOffset;
+    private int flushedTo;
+
+    private LogSegment(long baseOffset, Path path, FileChannel channel, int capacity) throws IOException {
+        this.baseOffset = baseOffset;
+        this.path = path;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        this.nextOffset = baseOffset;
+    }
+
+    static Path fileName(Path directory, long baseOffset) {
+        return directory.resolve(String.format("%020d%s", baseOffset, SegmentLog.SUFFIX));
+    }
+
+    /**
+     * Crée un segment vide de capacity octets (le fichier est rempli de zéros par le système).
+     */
+    static LogSegment create(Path directory, long baseOffset, int capacity) throws IOException {
+        Path path = fileName(directory, baseOffset);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new LogSegment(baseOffset, path, channel, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Rouvre un segment existant et relit ses trames jusqu'à la première absente ou invalide
+     * (écriture interrompue par un arrêt brutal) ; la fin de fichier au-delà est remise à zéro
+     * pour que les écritures suivantes repartent d'une base propre.
+     */
+    static LogSegment recover(Path path, long baseOffset) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            LogSegment segment = new LogSegment(baseOffset, path, channel, (int) Math.min(channel.size(), Integer.MAX_VALUE));
+            segment.scan();
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void scan() {
+        int position = 0;
+        long expected = baseOffset;
+        ChangeEvent event;
+        while ((event = ChangeEventCodec.decode(buffer, position, capacity)) != null && event.offset() == expected) {
+            if ((expected - baseOffset) % INDEX_INTERVAL == 0) {
+                index.put(expected, position);
+            }
+            position += ChangeEventCodec.frameSize(event.payload().length);
+            expected++;
+        }
+        if (position + 4 <= capacity && buffer.getInt(position) != 0) {
+            for (int i = position; i < capacity; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force(position, capacity - position);
+        }
+        end = position;
+        flushedTo = position;
+        nextOffset = expected;
+    }
+
+    long baseOffset() {
+        return baseOffset;
+    }
+
+    long nextOffset() {
+        return nextOffset;
+    }
+
+    boolean isEmpty() {
+        return end == 0;
+    }
+
+    /**
+     * Écrit la trame de l'évènement à la suite des précédentes.
+     *
+     * @return false si la trame ne tient pas dans la place restante
+     */
+    boolean append(long offset, byte[] frame) {
+        int position = end;
+        if (position + frame.length > capacity) {
+            return false;
+        }
+        buffer.put(position, frame);
+        if ((offset - baseOffset) % INDEX_INTERVAL == 0) {
+            index.put(offset, position);
+        }
+        nextOffset = offset + 1;
+        end = position + frame.length;
+        return true;
+    }
+
+    /**
+     * Ajoute à out au plus max évènements d'offset supérieur ou égal à from.
+     */
+    void read(long from, int max, List<ChangeEvent> out) {
+        int limit = end;
+        Map.Entry<Long, Integer> start = index.floorEntry(from);
+        int position = start == null ? 0 : start.getValue();
+        int added = 0;
+        while (added < max && position < limit) {
+            ChangeEvent event = ChangeEventCodec.decode(buffer, position, limit);
+            if (event == null) {
+                return;
+            }
+            if (event.offset() >= from) {
+                out.add(event);
+                added++;
+            }
+            position += ChangeEventCodec.frameSize(event.payload().length);
+        }
+    }
+
+    /**
+     * Force sur disque les octets écrits depuis le dernier appel (appelé sous le verrou d'écriture).
+     */
+    void force() {
+        int limit = end;
+        if (limit > flushedTo) {
+            buffer.force(flushedTo, limit - flushedTo);
+            flushedTo = limit;
+        }
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+}
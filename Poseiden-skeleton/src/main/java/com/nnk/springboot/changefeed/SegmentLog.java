@@ -0,0 +1,217 @@
+package com.nnk.springboot.changefeed;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Journal local en ajout seul, découpé en segments de taille fixe projetés en mémoire.
+ *
+ * - Chaque évènement reçoit un offset croissant et sans trou ; un segment est nommé par l'offset
+ *   de son premier évènement (20 chiffres), ce qui permet de retrouver le segment d'un offset
+ *   sans ouvrir les autres.
+ * - Les écritures sont sérialisées par un ReentrantLock (pas de synchronized, qui épinglerait
+ *   un thread virtuel pendant le force) ; les lectures ne prennent aucun verrou. Après chaque
+ *   écriture, l'offset suivant est passé à onAppend une fois le verrou relâché : le traitement
+ *   des abonnés ne retient pas les autres écrivains, mais deux écrivains concurrents peuvent
+ *   publier leurs offsets dans le désordre (l'appelant ne garde que le plus grand).
+ * - Lorsqu'une trame ne tient plus dans le segment actif, un nouveau segment est créé ; au-delà
+ *   de maxSegments, les plus anciens sont supprimés.
+ * - Les écritures restent dans le cache de pages jusqu'au prochain flush(), déclenché par
+ *   l'appelant à intervalle régulier ou ici tous les fsyncBatch évènements.
+ * - À l'ouverture, les segments existants sont relus et une trame incomplète en fin de journal
+ *   (arrêt brutal entre deux flush) est effacée.
+ */
+public final class SegmentLog implements Closeable {
+
+    static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int fsyncBatch;
+    private final LongConsumer onAppend;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ConcurrentSkipListMap<Long, LogSegment> segments = new ConcurrentSkipListMap<>();
+    private volatile LogSegment active;
+    private int unflushed;
+
+    private SegmentLog(Path directory, int segmentSize, int maxSegments, int fsyncBatch, LongConsumer onAppend) {
+        if (segmentSize < ChangeEventCodec.frameSize(0) || maxSegments < 1 || fsyncBatch < 1) {
+            throw new IllegalArgumentException("Paramètres du journal invalides: segmentSize=" + segmentSize
+                    + " maxSegments=" + maxSegments + " fsyncBatch=" + fsyncBatch);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.fsyncBatch = fsyncBatch;
+        this.onAppend = onAppend;
+    }
+
+    /**
+     * Ouvre le journal du répertoire (créé au besoin) en relisant les segments existants.
+     *
+     * @param segmentSize taille en octets d'un nouveau segment
+     * @param maxSegments nombre de segments conservés
+     * @param fsyncBatch  nombre d'évènements écrits au-delà duquel un flush est forcé
+     */
+    public static SegmentLog open(Path directory, int segmentSize, int maxSegments, int fsyncBatch) throws IOException {
+        return open(directory, segmentSize, maxSegments, fsyncBatch, offset -> {
+        });
+    }
+
+    /**
+     * Ouvre le journal comme open(directory, segmentSize, maxSegments, fsyncBatch), en appelant
+     * onAppend avec l'offset suivant après chaque écriture, hors du verrou d'écriture.
+     */
+    public static SegmentLog open(Path directory, int segmentSize, int maxSegments, int fsyncBatch, LongConsumer onAppend)
+            throws IOException {
+        SegmentLog log = new SegmentLog(directory, segmentSize, maxSegments, fsyncBatch, onAppend);
+        Files.createDirectories(directory);
+        try {
+            log.load();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        return log;
+    }
+
+    private void load() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(p -> p.getFileName().toString().matches("\\d{20}\\" + SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long baseOffset = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            LogSegment previous = active;
+            if (previous != null && previous.nextOffset() != baseOffset) {
+                // Segment tronqué par un arrêt brutal avant le roulement : les segments suivants
+                // ne prolongent plus le journal et sont écartés.
+                Files.delete(file);
+                continue;
+            }
+            LogSegment segment = LogSegment.recover(file, baseOffset);
+            segments.put(baseOffset, segment);
+            active = segment;
+        }
+        if (active == null) {
+            active = LogSegment.create(directory, 0, segmentSize);
+            segments.put(0L, active);
+        }
+    }
+
+    /**
+     * Ajoute un évènement au journal.
+     *
+     * @param id      identifiant de l'enregistrement, ou null
+     * @param payload charge utile (non null)
+     * @return l'évènement écrit, avec son offset
+     */
+    public ChangeEvent append(ChangeEntity entity, ChangeOperation operation, Integer id, long timestamp, byte[] payload)
+            throws IOException {
+        if (ChangeEventCodec.frameSize(payload.length) > segmentSize) {
+            throw new IllegalArgumentException("Évènement trop volumineux pour un segment: " + payload.length + " octets");
+        }
+        ChangeEvent event;
+        appendLock.lock();
+        try {
+            LogSegment segment = active;
+            event = new ChangeEvent(segment.nextOffset(), timestamp, entity, operation, id, payload);
+            byte[] frame = ChangeEventCodec.encode(event);
+            if (!segment.append(event.offset(), frame)) {
+                segment = roll(segment);
+                segment.append(event.offset(), frame);
+            }
+            if (++unflushed >= fsyncBatch) {
+                segment.force();
+                unflushed = 0;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        onAppend.accept(event.offset() + 1);
+        return event;
+    }
+
+    private LogSegment roll(LogSegment full) throws IOException {
+        full.force();
+        LogSegment next = LogSegment.create(directory, full.nextOffset(), segmentSize);
+        segments.put(next.baseOffset(), next);
+        active = next;
+        while (segments.size() > maxSegments) {
+            Map.Entry<Long, LogSegment> oldest = segments.pollFirstEntry();
+            oldest.getValue().delete();
+        }
+        return next;
+    }
+
+    /**
+     * Lit au plus max évènements à partir de l'offset from. Si from précède le premier offset
+     * conservé, la lecture commence au premier offset conservé.
+     */
+    public List<ChangeEvent> read(long from, int max) {
+        List<ChangeEvent> events = new ArrayList<>(Math.min(max, 256));
+        long cursor = Math.max(from, firstOffset());
+        Map.Entry<Long, LogSegment> entry = segments.floorEntry(cursor);
+        while (entry != null && events.size() < max) {
+            entry.getValue().read(cursor, max - events.size(), events);
+            if (!events.isEmpty()) {
+                cursor = events.get(events.size() - 1).offset() + 1;
+            }
+            entry = segments.higherEntry(entry.getKey());
+        }
+        return events;
+    }
+
+    /** Offset du plus ancien évènement conservé. */
+    public long firstOffset() {
+        Map.Entry<Long, LogSegment> first = segments.firstEntry();
+        return first == null ? 0 : first.getKey();
+    }
+
+    /** Offset qui sera attribué au prochain évènement. */
+    public long nextOffset() {
+        return active.nextOffset();
+    }
+
+    /**
+     * Force sur disque les évènements écrits depuis le dernier flush.
+     */
+    public void flush() {
+        appendLock.lock();
+        try {
+            if (unflushed > 0) {
+                active.force();
+                unflushed = 0;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            if (active != null && unflushed > 0) {
+                active.force();
+            }
+            for (LogSegment segment : segments.values()) {
+                segment.close();
+            }
+            segments.clear();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.nnk.springboot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Délai d'expiration propre à une requête MVC asynchrone (StreamingResponseBody, Callable),
+ * à la place du délai global spring.mvc.async.request-timeout.
+ *
+ * Le contrôleur appelle setTimeout(request, délai) avant de renvoyer son corps asynchrone ;
+ * l'intercepteur l'applique à la requête juste avant startAsync. Les autres requêtes
+ * asynchrones (SSE, longue scrutation du flux de changements, flux Flux) gardent le délai global.
+ *
+ * L'exécuteur asynchrone de Spring MVC est un StreamWriteExecutor : l'écriture des flux Flux
+ * (NDJSON, SSE) passe par un pool borné qui leur est propre (app.web.stream.writer-threads,
+ * app.web.stream.queue-capacity), le reste par l'exécuteur applicatif de Spring Boot.
+ */
+@Configuration
+public class AsyncRequestTimeoutConfig implements WebMvcConfigurer, DisposableBean {
+
+    static final String TIMEOUT_ATTRIBUTE = AsyncRequestTimeoutConfig.class.getName() + ".timeout";
+
+    private final StreamWriteExecutor taskExecutor;
+
+    public AsyncRequestTimeoutConfig(@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor applicationTaskExecutor,
+                                     @Value("${app.web.stream.writer-threads:16}") int writerThreads,
+                                     @Value("${app.web.stream.queue-capacity:256}") int queueCapacity,
+                                     MeterRegistry meterRegistry) {
+        this.taskExecutor = new StreamWriteExecutor(applicationTaskExecutor, writerThreads, queueCapacity, meterRegistry);
+    }
+
+    public static void setTimeout(HttpServletRequest request, Duration timeout) {
+        request.setAttribute(TIMEOUT_ATTRIBUTE, timeout);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(taskExecutor);
+        configurer.registerCallableInterceptors(new RequestTimeoutInterceptor());
+    }
+
+    @Override
+    public void destroy() {
+        taskExecutor.shutdown();
+    }
+
+    static class RequestTimeoutInterceptor implements CallableProcessingInterceptor {
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            if (request instanceof AsyncWebRequest asyncRequest
+                    && request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Duration timeout) {
+                asyncRequest.setTimeout(timeout.toMillis());
+            }
+        }
+    }
+}
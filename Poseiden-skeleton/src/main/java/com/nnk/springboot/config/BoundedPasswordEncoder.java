@@ -0,0 +1,142 @@
+package com.nnk.springboot.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * PasswordEncoder BCrypt dont les calculs de hachage s'exécutent sur un pool dédié et borné.
+ *
+ * - Le nombre de hachages simultanés est limité à la taille du pool (par défaut le nombre de cœurs),
+ *   ce qui évite qu'une rafale de connexions n'immobilise tous les threads Tomcat sur du calcul BCrypt.
+ * - Au-delà de la file d'attente (queueCapacity), ou si l'attente dépasse maxWait, une
+ *   PasswordHashingRejectedException est levée immédiatement (réponse 503).
+ * - upgradeEncoding délègue à BCrypt (hash d'un coût inférieur au coût configuré) mais renvoie false
+ *   lorsque la file n'est pas vide : la re-génération du hash à la connexion ne se fait que lorsque
+ *   le pool a de la capacité disponible.
+ * - Les chaînes HTTP Basic sans session (/api/**, /actuator/**) restent soumises à ce pool, mais
+ *   ne l'utilisent qu'à la première vérification d'un mot de passe : les vérifications réussies
+ *   sont mises en cache pour une courte durée (CachingBasicAuthenticationProvider, UserDetailsCache),
+ *   sans quoi chaque appel d'API referait un calcul BCrypt et le débit de l'API serait borné par
+ *   celui du pool.
+ *
+ * Métriques Micrometer :
+ * - password.hash (timer, tag operation=encode|matches) : durée du calcul BCrypt seul ;
+ * - password.hash.wait (timer) : temps passé dans la file avant exécution ;
+ * - password.hash.rejected (compteur), password.hash.queue.size et password.hash.active (jauges).
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxWait;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(int strength, int poolSize, int queueCapacity, Duration maxWait,
+                                  MeterRegistry meterRegistry) {
+        this(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, maxWait, meterRegistry);
+        log.info("Pool de hachage BCrypt: coût={} threads={} file={} attenteMax={}", strength, poolSize, queueCapacity, maxWait);
+    }
+
+    BoundedPasswordEncoder(BCryptPasswordEncoder delegate, int poolSize, int queueCapacity, Duration maxWait,
+                           MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWait = maxWait;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("bcrypt-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = hashTimer(meterRegistry, "encode");
+        this.matchesTimer = hashTimer(meterRegistry, "matches");
+        this.waitTimer = Timer.builder("password.hash.wait")
+                .description("Temps d'attente dans la file du pool de hachage")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected")
+                .description("Hachages refusés faute de capacité")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.hash")
+                .description("Durée d'un calcul BCrypt")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return executor.getQueue().isEmpty() && delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Timer timer, Callable<T> hashing) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(hashing);
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            log.warn("Hachage refusé: pool saturé ({} en attente)", executor.getQueue().size());
+            throw new PasswordHashingRejectedException("Service d'authentification saturé, réessayez plus tard.", ex);
+        }
+        try {
+            return future.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            // Libère tout de suite la place de la tâche annulée dans la file d'attente.
+            executor.purge();
+            rejected.increment();
+            log.warn("Hachage abandonné après {} ms d'attente", maxWait.toMillis());
+            throw new PasswordHashingRejectedException("Service d'authentification saturé, réessayez plus tard.", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingRejectedException("Hachage interrompu.", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
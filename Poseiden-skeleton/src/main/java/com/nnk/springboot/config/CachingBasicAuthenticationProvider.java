@@ -0,0 +1,44 @@
+package com.nnk.springboot.config;
+
+import com.nnk.springboot.services.impl.UserDetailsCache;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Authentification HTTP Basic des chaînes sans session (/api/**, /actuator/**).
+ *
+ * Chaque appel porte ses identifiants : sans cache, chaque requête d'un client (lots d'import,
+ * attente longue du flux de changements, reconnexions d'un flux) referait un calcul BCrypt sur le
+ * pool borné de BoundedPasswordEncoder. Une vérification réussie est retenue par UserDetailsCache
+ * pendant app.security.credential-cache.ttl ; seul le premier appel, ou un mot de passe différent,
+ * passe par BCrypt.
+ */
+public class CachingBasicAuthenticationProvider extends DaoAuthenticationProvider {
+
+    private final UserDetailsCache userDetailsCache;
+
+    public CachingBasicAuthenticationProvider(UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+                                              UserDetailsCache userDetailsCache) {
+        super(passwordEncoder);
+        this.userDetailsCache = userDetailsCache;
+        setUserDetailsService(userDetailsService);
+        if (userDetailsService instanceof UserDetailsPasswordService passwordService) {
+            setUserDetailsPasswordService(passwordService);
+        }
+    }
+
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails userDetails, UsernamePasswordAuthenticationToken authentication) {
+        Object credentials = authentication.getCredentials();
+        if (credentials != null
+                && userDetailsCache.isVerified(userDetails.getUsername(), userDetails.getPassword(), credentials.toString())) {
+            return;
+        }
+        super.additionalAuthenticationChecks(userDetails, authentication);
+        userDetailsCache.markVerified(userDetails.getUsername(), userDetails.getPassword(), credentials.toString());
+    }
+}
@@ -0,0 +1,187 @@
+package com.nnk.springboot.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.services.impl.TableVersions;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+
+import static com.nnk.springboot.changefeed.ChangeEntity.BID_LIST;
+import static com.nnk.springboot.changefeed.ChangeEntity.CURVE_POINT;
+import static com.nnk.springboot.changefeed.ChangeEntity.RATING;
+import static com.nnk.springboot.changefeed.ChangeEntity.RULE_NAME;
+import static com.nnk.springboot.changefeed.ChangeEntity.TRADE;
+import static com.nnk.springboot.changefeed.ChangeEntity.USER;
+
+/**
+ * GET conditionnel des pages de liste et de détail et des lectures JSON, à partir des versions
+ * de table de TableVersions.
+ *
+ * - L'ETag d'une réponse est calculé avant toute lecture en base : une requête dont
+ *   If-None-Match (ou If-Modified-Since pour une page HTML) correspond reçoit un 304 sans que le contrôleur,
+ *   donc le dépôt, soit appelé.
+ * - Les pages HTML contiennent le jeton CSRF de la session : leur ETag inclut un condensé de
+ *   l'identifiant de session et leur Last-Modified la date de création de la session, pour
+ *   qu'une page conservée par le navigateur ne survive pas à une reconnexion.
+ * - Les lectures JSON n'ont pas de Last-Modified : à la seconde près, If-Modified-Since ne
+ *   distingue pas deux écritures de la même seconde et donnerait un 304 périmé à un client
+ *   qui n'envoie que cet en-tête. Seul l'ETag, exact, les valide.
+ * - Le HTML rendu est conservé par ETag et URL : une autre requête de la même session sur la même
+ *   version de table le reçoit sans rendu Thymeleaf. Une écriture change la version, les entrées
+ *   précédentes ne sont plus jamais lues et sortent du cache à l'expiration ou par la taille.
+ * - Une page rendue part vers le navigateur au fil du rendu (CopyingResponseWrapper) ; sa copie
+ *   n'est mise en cache que si elle ne dépasse pas maxPageSize octets.
+ * - Cache-Control: private, no-cache remplace le no-store de Spring Security sur ces réponses :
+ *   le navigateur conserve la page et la revalide à chaque affichage.
+ *
+ * Enregistré après la chaîne Spring Security : seules les requêtes autorisées arrivent ici.
+ */
+@Slf4j
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    /**
+     * Vue en lecture seule et tables dont elle dépend ; html indique une page Thymeleaf
+     * (ETag propre à la session, HTML mis en cache).
+     */
+    record Route(PathPattern pattern, boolean html, ChangeEntity... entities) {
+    }
+
+    /** HTML rendu d'une page, avec son Content-Type. */
+    public record RenderedPage(String contentType, byte[] body) {
+    }
+
+    static final List<Route> ROUTES = List.of(
+            page("/bidList/list", BID_LIST), page("/bidList/update/{id}", BID_LIST),
+            page("/trade/list", TRADE), page("/trade/update/{id}", TRADE),
+            page("/curvePoint/list", CURVE_POINT), page("/curvePoint/update/{id}", CURVE_POINT),
+            page("/rating/list", RATING), page("/rating/update/{id}", RATING),
+            page("/ruleName/list", RULE_NAME), page("/ruleName/update/{id}", RULE_NAME),
+            page("/user/list", USER), page("/user/update/{id}", USER),
+            json("/api/trades", TRADE), json("/api/trades/{id:\\d+}", TRADE),
+            json("/api/positions", TRADE, BID_LIST));
+
+    static final int DEFAULT_MAX_PAGE_SIZE = 2 * 1024 * 1024;
+
+    private final TableVersions tableVersions;
+    private final Cache<String, RenderedPage> renderedPages;
+    private final int maxPageSize;
+
+    public ConditionalGetFilter(TableVersions tableVersions, Cache<String, RenderedPage> renderedPages) {
+        this(tableVersions, renderedPages, DEFAULT_MAX_PAGE_SIZE);
+    }
+
+    public ConditionalGetFilter(TableVersions tableVersions, Cache<String, RenderedPage> renderedPages, int maxPageSize) {
+        this.tableVersions = tableVersions;
+        this.renderedPages = renderedPages;
+        this.maxPageSize = maxPageSize;
+    }
+
+    private static Route page(String pattern, ChangeEntity... entities) {
+        return new Route(PathPatternParser.defaultInstance.parse(pattern), true, entities);
+    }
+
+    private static Route json(String pattern, ChangeEntity... entities) {
+        return new Route(PathPatternParser.defaultInstance.parse(pattern), false, entities);
+    }
+
+    static Route route(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (Route route : ROUTES) {
+            if (route.pattern().matches(container)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean head = "HEAD".equals(request.getMethod());
+        Route route = head || "GET".equals(request.getMethod())
+                ? route(request.getRequestURI().substring(request.getContextPath().length()))
+                : null;
+        HttpSession session = route != null && route.html() ? request.getSession(false) : null;
+        if (route == null || (route.html() && session == null)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String variant = session == null ? null : sessionTag(session.getId());
+        String etag = tableVersions.etag(variant, route.entities());
+        long lastModified = -1;
+        if (session != null) {
+            lastModified = Math.max(tableVersions.lastModified(route.entities()), session.getCreationTime());
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            log.debug("GET {} - non modifié ({})", request.getRequestURI(), etag);
+            return;
+        }
+        if (!route.html() || head) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = etag + ' ' + pathWithQuery(request);
+        RenderedPage cached = renderedPages.getIfPresent(key);
+        if (cached != null) {
+            log.debug("GET {} - page servie depuis le cache ({})", request.getRequestURI(), etag);
+            response.setContentType(cached.contentType());
+            response.setContentLength(cached.body().length);
+            response.getOutputStream().write(cached.body());
+            return;
+        }
+
+        CopyingResponseWrapper wrapper = new CopyingResponseWrapper(response, maxPageSize);
+        chain.doFilter(request, wrapper);
+        wrapper.finish();
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() == HttpStatus.OK.value()
+                && !request.isAsyncStarted()
+                && wrapper.isCopyComplete()
+                && contentType != null && contentType.startsWith(MediaType.TEXT_HTML_VALUE)
+                && etag.equals(tableVersions.etag(variant, route.entities()))) {
+            renderedPages.put(key, new RenderedPage(contentType, wrapper.getCopy()));
+        }
+    }
+
+    private static String pathWithQuery(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return query == null ? request.getRequestURI() : request.getRequestURI() + '?' + query;
+    }
+
+    /**
+     * Condensé de l'identifiant de session (96 bits), pour ne pas exposer l'identifiant lui-même
+     * dans l'ETag.
+     */
+    static String sessionTag(String sessionId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sessionId.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
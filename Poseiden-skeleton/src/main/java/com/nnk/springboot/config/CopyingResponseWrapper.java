@@ -0,0 +1,146 @@
+package com.nnk.springboot.config;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Réponse transmise au client au fil de l'écriture et copiée en mémoire (page HTML à mettre en
+ * cache), contrairement à ContentCachingResponseWrapper qui retient tout le corps jusqu'à la fin.
+ *
+ * Le rendu Thymeleaf écrit dans le Writer de la réponse : le tampon du conteneur part vers le
+ * navigateur dès qu'il est plein (réponse en chunks), la fin de la liste est rendue pendant que
+ * le début s'affiche. La copie s'arrête au-delà de maxCopy octets ; isCopyComplete le signale.
+ */
+class CopyingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int maxCopy;
+    private final ByteArrayOutputStream copy = new ByteArrayOutputStream(16 * 1024);
+    private boolean overflow;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CopyingResponseWrapper(HttpServletResponse response, int maxCopy) {
+        super(response);
+        this.maxCopy = maxCopy;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() a déjà été appelé pour cette réponse");
+        }
+        if (outputStream == null) {
+            outputStream = new CopyingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() a déjà été appelé pour cette réponse");
+            }
+            outputStream = new CopyingOutputStream(super.getOutputStream());
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        discardCopy();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        discardCopy();
+    }
+
+    /**
+     * Vide le Writer dans la réponse ; à appeler à la fin du traitement.
+     */
+    void finish() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    boolean isCopyComplete() {
+        return !overflow;
+    }
+
+    byte[] getCopy() {
+        return copy.toByteArray();
+    }
+
+    /** Corps réinitialisé en cours de route : la copie ne correspond plus à la page envoyée. */
+    private void discardCopy() {
+        overflow = true;
+        copy.reset();
+    }
+
+    private void copy(byte[] bytes, int offset, int length) {
+        if (overflow) {
+            return;
+        }
+        if (copy.size() + length > maxCopy) {
+            discardCopy();
+            return;
+        }
+        copy.write(bytes, offset, length);
+    }
+
+    private final class CopyingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream target;
+
+        CopyingOutputStream(ServletOutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            copy(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            target.write(bytes, offset, length);
+            copy(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            target.setWriteListener(listener);
+        }
+    }
+}
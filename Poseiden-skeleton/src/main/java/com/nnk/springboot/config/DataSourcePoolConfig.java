@@ -0,0 +1,44 @@
+package com.nnk.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Dimensionnement du pool HikariCP, activé par la propriété app.datasource.pool-size
+ * (profil "pool", inclus dans le profil "prod").
+ *
+ * - Une valeur positive fixe la taille du pool ; 0 la dérive du nombre de cœurs selon la règle
+ *   de HikariCP : (2 x cœurs) + 1. Au-delà, les connexions attendent MySQL au lieu de travailler.
+ * - minimumIdle est aligné sur la taille maximale : pool de taille fixe, sans création de
+ *   connexion sous charge.
+ *
+ * Le pool n'étant démarré qu'à la première connexion demandée, les réglages sont appliqués
+ * juste après la création du DataSource, avant Flyway et JPA.
+ */
+@Slf4j
+@Configuration
+public class DataSourcePoolConfig {
+
+    @Bean
+    @ConditionalOnProperty("app.datasource.pool-size")
+    static BeanPostProcessor hikariPoolSizing(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    int configured = environment.getRequiredProperty("app.datasource.pool-size", Integer.class);
+                    int size = configured > 0 ? configured : 2 * Runtime.getRuntime().availableProcessors() + 1;
+                    dataSource.setMaximumPoolSize(size);
+                    dataSource.setMinimumIdle(size);
+                    log.info("Pool de connexions {}: {} connexion(s)", dataSource.getPoolName(), size);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.nnk.springboot.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nnk.springboot.services.impl.TableVersions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * GET conditionnel et cache du HTML rendu (ConditionalGetFilter), désactivable par
+ * app.web.conditional-get.enabled=false.
+ *
+ * Le filtre est enregistré avec l'ordre par défaut (le plus bas) : il s'exécute après la chaîne
+ * Spring Security. Le cache est borné en octets (app.web.page-cache.max-size) et une page non
+ * relue pendant app.web.page-cache.ttl en est retirée ; ses statistiques sont publiées sous le
+ * nom de cache "renderedPages". Une page de plus de app.web.page-cache.max-page-size est servie
+ * sans être mise en cache.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.web.conditional-get.enabled", havingValue = "true", matchIfMissing = true)
+public class HttpCachingConfig {
+
+    @Bean
+    FilterRegistrationBean<ConditionalGetFilter> conditionalGetFilter(TableVersions tableVersions,
+                                                                      MeterRegistry meterRegistry,
+                                                                      @Value("${app.web.page-cache.max-size:32MB}") DataSize maxSize,
+                                                                      @Value("${app.web.page-cache.ttl:10m}") Duration ttl,
+                                                                      @Value("${app.web.page-cache.max-page-size:2MB}") DataSize maxPageSize) {
+        Cache<String, ConditionalGetFilter.RenderedPage> renderedPages = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, ConditionalGetFilter.RenderedPage page) -> key.length() + page.body().length)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, renderedPages, "renderedPages");
+        FilterRegistrationBean<ConditionalGetFilter> registration =
+                new FilterRegistrationBean<>(new ConditionalGetFilter(tableVersions, renderedPages, (int) maxPageSize.toBytes()));
+        registration.setName("conditionalGetFilter");
+        return registration;
+    }
+}
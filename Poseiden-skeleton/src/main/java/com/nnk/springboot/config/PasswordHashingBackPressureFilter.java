@@ -0,0 +1,47 @@
+package com.nnk.springboot.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Traduit en 503 (avec Retry-After) une PasswordHashingRejectedException levée dans la chaîne
+ * de sécurité, typiquement lors de l'authentification par formulaire ou HTTP Basic : ces filtres ne
+ * traitent que les AuthenticationException et laisseraient sinon l'erreur remonter en 500.
+ */
+public class PasswordHashingBackPressureFilter extends OncePerRequestFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } catch (RuntimeException | ServletException ex) {
+            PasswordHashingRejectedException rejection = findRejection(ex);
+            if (rejection == null || response.isCommitted()) {
+                throw ex;
+            }
+            // Réponse écrite directement : un sendError repasserait par /error, protégé, et finirait en 401.
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(rejection.getMessage());
+        }
+    }
+
+    private static PasswordHashingRejectedException findRejection(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof PasswordHashingRejectedException rejection) {
+                return rejection;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.nnk.springboot.config;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Levée lorsque le pool de hachage des mots de passe est saturé (file pleine ou attente trop longue).
+ * Traduite en réponse 503 pour que le client réessaie plus tard plutôt que d'occuper un thread.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
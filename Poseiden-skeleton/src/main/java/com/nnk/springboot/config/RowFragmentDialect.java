@@ -0,0 +1,119 @@
+package com.nnk.springboot.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.context.IWebContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.dialect.AbstractDialect;
+import org.thymeleaf.dialect.IExpressionObjectDialect;
+import org.thymeleaf.expression.IExpressionObjectFactory;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Objet d'expression #rows : lignes de tableau des pages de liste rendues une fois puis servies
+ * depuis un cache partagé par toutes les sessions.
+ *
+ * - ${#rows.render('trade/row', 'trade', trade)} rend le gabarit trade/row avec la variable trade ;
+ *   le HTML obtenu est inséré tel quel (th:utext) par la page de liste.
+ * - La clé est le gabarit, la langue et la valeur de toutes les propriétés de la ligne (getters du
+ *   DTO) : une ligne modifiée a une autre clé, une ligne inchangée est reprise quelle que soit la
+ *   version de la table. Les anciennes lignes sortent du cache par la taille ou l'expiration.
+ * - Le gabarit de ligne ne doit dépendre que de la ligne : pas de jeton CSRF ni de donnée de session
+ *   (les boutons de suppression visent un formulaire unique de la page, attribut form).
+ */
+public class RowFragmentDialect extends AbstractDialect implements IExpressionObjectDialect {
+
+    static final String EXPRESSION_OBJECT = "rows";
+
+    private final ObjectProvider<ITemplateEngine> templateEngine;
+    private final Cache<RowKey, String> renderedRows;
+    private final ClassValue<Method[]> getters = new ClassValue<>() {
+        @Override
+        protected Method[] computeValue(Class<?> type) {
+            return Arrays.stream(BeanUtils.getPropertyDescriptors(type))
+                    .map(PropertyDescriptor::getReadMethod)
+                    .filter(Objects::nonNull)
+                    .filter(method -> method.getDeclaringClass() != Object.class)
+                    .toArray(Method[]::new);
+        }
+    };
+
+    public RowFragmentDialect(ObjectProvider<ITemplateEngine> templateEngine, Cache<RowKey, String> renderedRows) {
+        super("rowFragments");
+        this.templateEngine = templateEngine;
+        this.renderedRows = renderedRows;
+    }
+
+    @Override
+    public IExpressionObjectFactory getExpressionObjectFactory() {
+        return new IExpressionObjectFactory() {
+            @Override
+            public Set<String> getAllExpressionObjectNames() {
+                return Set.of(EXPRESSION_OBJECT);
+            }
+
+            @Override
+            public Object buildObject(IExpressionContext context, String expressionObjectName) {
+                return new Rows(context);
+            }
+
+            @Override
+            public boolean isCacheable(String expressionObjectName) {
+                return true;
+            }
+        };
+    }
+
+    record RowKey(String template, Locale locale, List<Object> values) {
+    }
+
+    RowKey key(String template, Locale locale, Object row) {
+        Method[] readMethods = getters.get(row.getClass());
+        List<Object> values = new ArrayList<>(readMethods.length);
+        for (Method method : readMethods) {
+            try {
+                values.add(method.invoke(row));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Lecture impossible de " + method.getName() + " pour le cache de lignes", e);
+            }
+        }
+        return new RowKey(template, locale, values);
+    }
+
+    /** Objet #rows d'un rendu de page. */
+    public final class Rows {
+
+        private final IExpressionContext context;
+
+        Rows(IExpressionContext context) {
+            this.context = context;
+        }
+
+        /**
+         * HTML du gabarit template rendu avec la ligne row sous le nom variable.
+         */
+        public String render(String template, String variable, Object row) {
+            return renderedRows.get(key(template, context.getLocale(), row), key -> {
+                Map<String, Object> variables = Map.of(variable, row);
+                IContext rowContext = context instanceof IWebContext web
+                        ? new WebContext(web.getExchange(), key.locale(), variables)
+                        : new Context(key.locale(), variables);
+                return templateEngine.getObject().process(template, rowContext);
+            });
+        }
+    }
+}
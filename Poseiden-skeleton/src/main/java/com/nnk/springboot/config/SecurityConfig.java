@@ -1,21 +1,98 @@
 package com.nnk.springboot.config;
 
+import com.nnk.springboot.services.impl.UserDetailsCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Duration;
 
 @Configuration
 @EnableMethodSecurity // permet l'usage de @PreAuthorize
 public class SecurityConfig {
 
+    /**
+     * API JSON (/api/**) : HTTP Basic uniquement, sans session HTTP ni lecture du cookie de session.
+     * Une page ouverte par un utilisateur connecté ne peut donc pas appeler l'API en son nom, et
+     * le jeton CSRF n'a pas lieu d'être sur cette chaîne. Les vérifications réussies sont mises en
+     * cache (voir CachingBasicAuthenticationProvider).
+     */
+    @Bean
+    @Order(1)
+    SecurityFilterChain apiSecurityFilterChain(HttpSecurity http, UserDetailsService userDetailsService,
+                                               PasswordEncoder passwordEncoder, UserDetailsCache userDetailsCache) throws Exception {
+        http
+                .securityMatcher("/api/**")
+                .authenticationManager(basicAuthenticationManager(userDetailsService, passwordEncoder, userDetailsCache))
+                .addFilterBefore(new PasswordHashingBackPressureFilter(), BasicAuthenticationFilter.class)
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/changes/**").hasRole("ADMIN")
+                        .requestMatchers("/api/audit/**").hasRole("ADMIN")
+                        .requestMatchers("/api/diagnostics/**").hasRole("ADMIN")
+                        .anyRequest().authenticated()
+                )
+                .httpBasic(Customizer.withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(AbstractHttpConfigurer::disable);
+        return http.build();
+    }
+
+    /**
+     * Actuator (/actuator/**) : comme l'API, HTTP Basic sans session, pour qu'un collecteur
+     * Prometheus puisse s'authentifier (la chaîne de l'interface le redirigerait vers /app/login).
+     * /actuator/health est public ; /actuator/prometheus est ouvert aux rôles METRICS (compte
+     * dédié à la collecte) et ADMIN ; les autres points de gestion à ADMIN seul.
+     */
+    @Bean
+    @Order(2)
+    SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http, UserDetailsService userDetailsService,
+                                                    PasswordEncoder passwordEncoder, UserDetailsCache userDetailsCache) throws Exception {
+        http
+                .securityMatcher("/actuator/**")
+                .authenticationManager(basicAuthenticationManager(userDetailsService, passwordEncoder, userDetailsCache))
+                .addFilterBefore(new PasswordHashingBackPressureFilter(), BasicAuthenticationFilter.class)
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/prometheus").hasAnyRole("METRICS", "ADMIN")
+                        .anyRequest().hasRole("ADMIN")
+                )
+                .httpBasic(Customizer.withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(AbstractHttpConfigurer::disable);
+        return http.build();
+    }
+
+    private static AuthenticationManager basicAuthenticationManager(UserDetailsService userDetailsService,
+                                                                    PasswordEncoder passwordEncoder,
+                                                                    UserDetailsCache userDetailsCache) {
+        return new ProviderManager(new CachingBasicAuthenticationProvider(userDetailsService, passwordEncoder, userDetailsCache));
+    }
+
+    /**
+     * Interface web : connexion par formulaire, session et protection CSRF.
+     */
     @Bean
     SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
-                                .authorizeHttpRequests(auth -> auth
+                .addFilterBefore(new PasswordHashingBackPressureFilter(), UsernamePasswordAuthenticationFilter.class)
+                .authorizeHttpRequests(auth -> auth
+                        // page d'erreur d'une réponse déjà refusée (401 de l'API, sans redirection vers /app/login)
+                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                         .requestMatchers("/login", "/app/login", "/app/register", "/css/**", "/js/**", "/images/**").permitAll()
                         .requestMatchers("/admin/**").hasRole("ADMIN")
                         .requestMatchers("/user/**").hasRole("ADMIN")
@@ -34,7 +111,12 @@ public class SecurityConfig {
     }
 
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                    @Value("${app.security.bcrypt.strength:10}") int strength,
+                                    @Value("${app.security.bcrypt.pool-size:0}") int poolSize,
+                                    @Value("${app.security.bcrypt.queue-capacity:64}") int queueCapacity,
+                                    @Value("${app.security.bcrypt.max-wait:2s}") Duration maxWait) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(strength, threads, queueCapacity, maxWait, meterRegistry);
     }
 }
@@ -0,0 +1,211 @@
+package com.nnk.springboot.config;
+
+import com.nnk.springboot.dto.KeysetPageDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Instrumentation Micrometer de toutes les méthodes publiques des classes *ServiceImpl.
+ *
+ * Métriques, étiquetées par service (nom simple de la classe) et method :
+ * - service.operation (timer, tag outcome=success|error|cancel) : durée de l'appel, transaction comprise,
+ *   publiée sous forme d'histogramme pour le calcul des percentiles côté Prometheus ;
+ * - service.operation.rows (distribution) : nombre de lignes renvoyées par les méthodes
+ *   retournant une collection ou une KeysetPageDto, ou émises par un Flux ;
+ * - service.operation.errors (compteur, tag exception) : appels terminés par une exception ;
+ * - service.operation.active (jauge) : appels en cours.
+ *
+ * Les compteurs de chaque méthode (et, pour les erreurs, de chaque type d'exception) sont créés
+ * au premier appel puis conservés : le chemin nominal se limite à une lecture de map, deux
+ * incréments atomiques et l'enregistrement du timer.
+ *
+ * Une méthode qui renvoie un Flux ou un Mono rend la main avant tout travail : la mesure porte
+ * alors sur chaque abonnement, de l'abonnement au signal final (doFinally). Un abonnement
+ * annulé par le client (déconnexion, take) est compté avec outcome=cancel.
+ * Avec app.metrics.services.enabled=false l'aspect n'est pas déclaré et les services ne sont
+ * pas instrumentés du tout.
+ *
+ * L'ordre HIGHEST_PRECEDENCE place l'aspect autour de l'intercepteur transactionnel, afin que
+ * la durée mesurée inclue l'ouverture et la validation de la transaction.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.metrics.services.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, OperationMeters> meters = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.nnk.springboot.services.impl.*ServiceImpl.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        OperationMeters operation = meters.computeIfAbsent(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), this::register);
+        if (Publisher.class.isAssignableFrom(((MethodSignature) joinPoint.getSignature()).getReturnType())) {
+            return measureReactive(operation, joinPoint);
+        }
+        operation.active.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            operation.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            int rows = rowCount(result);
+            if (rows >= 0) {
+                operation.rows.record(rows);
+            }
+            return result;
+        } catch (Throwable ex) {
+            recordError(operation, start, ex);
+            throw ex;
+        } finally {
+            operation.active.decrementAndGet();
+        }
+    }
+
+    private Object measureReactive(OperationMeters operation, ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable ex) {
+            recordError(operation, start, ex);
+            throw ex;
+        }
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                ReactiveCall call = new ReactiveCall(operation);
+                return mono.doOnNext(value -> call.rows = rowCount(value))
+                        .doOnError(call::failed)
+                        .doFinally(call::finished);
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                ReactiveCall call = new ReactiveCall(operation);
+                call.rows = 0;
+                return flux.doOnNext(value -> call.rows++)
+                        .doOnError(call::failed)
+                        .doFinally(call::finished);
+            });
+        }
+        return result;
+    }
+
+    private void recordError(OperationMeters operation, long start, Throwable ex) {
+        operation.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        operation.errors.computeIfAbsent(ex.getClass(), type -> Counter.builder("service.operation.errors")
+                        .description("Appels de service terminés par une exception")
+                        .tags(operation.tags)
+                        .tag("exception", type.getSimpleName())
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    private OperationMeters register(Method method) {
+        Tags tags = Tags.of("service", method.getDeclaringClass().getSimpleName(), "method", method.getName());
+        AtomicInteger active = new AtomicInteger();
+        Gauge.builder("service.operation.active", active, AtomicInteger::get)
+                .description("Appels de service en cours")
+                .tags(tags)
+                .register(meterRegistry);
+        return new OperationMeters(tags, active,
+                timer(tags, "success"),
+                timer(tags, "error"),
+                timer(tags, "cancel"),
+                DistributionSummary.builder("service.operation.rows")
+                        .description("Nombre de lignes renvoyées par appel")
+                        .baseUnit("rows")
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .maximumExpectedValue(100_000.0)
+                        .register(meterRegistry));
+    }
+
+    private Timer timer(Tags tags, String outcome) {
+        return Timer.builder("service.operation")
+                .description("Durée d'un appel de service")
+                .tags(tags)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static int rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof KeysetPageDto<?> page) {
+            return page.getItems().size();
+        }
+        return -1;
+    }
+
+    private record OperationMeters(Tags tags, AtomicInteger active, Timer success, Timer error, Timer cancel,
+                                   DistributionSummary rows, Map<Class<?>, Counter> errors) {
+
+        OperationMeters(Tags tags, AtomicInteger active, Timer success, Timer error, Timer cancel,
+                        DistributionSummary rows) {
+            this(tags, active, success, error, cancel, rows, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Mesure d'un abonnement à un Flux ou un Mono : signaux reçus séquentiellement (règles Reactive Streams).
+     */
+    private final class ReactiveCall {
+        private final OperationMeters operation;
+        private final long start = System.nanoTime();
+        private int rows = -1;
+        private Throwable failure;
+
+        ReactiveCall(OperationMeters operation) {
+            this.operation = operation;
+            operation.active.incrementAndGet();
+        }
+
+        void failed(Throwable ex) {
+            failure = ex;
+        }
+
+        void finished(SignalType signal) {
+            try {
+                if (failure != null) {
+                    recordError(operation, start, failure);
+                    return;
+                }
+                Timer timer = signal == SignalType.CANCEL ? operation.cancel : operation.success;
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (rows >= 0) {
+                    operation.rows.record(rows);
+                }
+            } finally {
+                operation.active.decrementAndGet();
+            }
+        }
+    }
+}
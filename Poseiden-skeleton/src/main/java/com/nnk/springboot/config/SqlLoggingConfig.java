@@ -0,0 +1,106 @@
+package com.nnk.springboot.config;
+
+import com.nnk.springboot.diagnostics.SqlDiagnostics;
+import com.nnk.springboot.diagnostics.SqlStatisticsInspector;
+import com.nnk.springboot.diagnostics.SqlTimingListener;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Observation des requêtes SQL d'Hibernate : journalisation échantillonnée et bilan par requête HTTP.
+ *
+ * - Une requête préparée par Hibernate sur app.sql-log.sample-rate est journalisée (INFO,
+ *   logger de SampledStatementInspector), sans ses paramètres ; 0 désactive l'échantillonnage.
+ * - Les requêtes plus lentes que hibernate.log_slow_query (ms) sont journalisées en entier avec
+ *   leur durée par Hibernate lui-même (INFO org.hibernate.SQL_SLOW), quel que soit l'échantillon.
+ * - app.sql-diagnostics.enabled (true par défaut) : nombre, durée et texte des requêtes de chaque
+ *   requête HTTP (SqlStatisticsInspector, SqlTimingListener, SqlStatisticsFilter), voir SqlDiagnostics.
+ *
+ * Hibernate n'accepte qu'un StatementInspector : les deux premiers sont chaînés. Les journaux
+ * passent par les appenders asynchrones de logback-spring.xml : le thread de la requête ne fait
+ * aucune écriture.
+ */
+@Configuration
+public class SqlLoggingConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer sqlStatementHooks(@Value("${app.sql-log.sample-rate:0}") long sampleRate,
+                                                    @Value("${app.sql-diagnostics.enabled:true}") boolean diagnostics) {
+        List<StatementInspector> inspectors = new ArrayList<>(2);
+        if (diagnostics) {
+            inspectors.add(new SqlStatisticsInspector());
+        }
+        if (sampleRate > 0) {
+            inspectors.add(new SampledStatementInspector(sampleRate));
+        }
+        return properties -> {
+            if (diagnostics) {
+                properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingListener.class.getName());
+            }
+            if (!inspectors.isEmpty()) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, chain(inspectors));
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.sql-diagnostics.enabled", havingValue = "true", matchIfMissing = true)
+    FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(SqlDiagnostics sqlDiagnostics) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatisticsFilter(sqlDiagnostics));
+        registration.setName("sqlStatisticsFilter");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    private static StatementInspector chain(List<StatementInspector> inspectors) {
+        if (inspectors.size() == 1) {
+            return inspectors.get(0);
+        }
+        return sql -> {
+            String inspected = sql;
+            for (StatementInspector inspector : inspectors) {
+                inspected = inspector.inspect(inspected);
+            }
+            return inspected;
+        };
+    }
+
+    /**
+     * Journalise une requête sur rate ; la requête est renvoyée inchangée.
+     */
+    @Slf4j
+    static class SampledStatementInspector implements StatementInspector {
+
+        private final long rate;
+        private final AtomicLong seen = new AtomicLong();
+
+        SampledStatementInspector(long rate) {
+            if (rate < 1) {
+                throw new IllegalArgumentException("Taux d'échantillonnage SQL invalide: " + rate);
+            }
+            this.rate = rate;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            long count = seen.incrementAndGet();
+            if (count % rate == 0) {
+                log.info("SQL échantillonné (1/{}, n°{}): {}", rate, count, sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.nnk.springboot.config;
+
+import com.nnk.springboot.diagnostics.SqlDiagnostics;
+import com.nnk.springboot.diagnostics.SqlStatistics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Ouvre une portée SqlStatistics pour chaque requête HTTP et en transmet le bilan à SqlDiagnostics,
+ * sous le motif d'URL du contrôleur (UNKNOWN si aucun contrôleur n'a traité la requête).
+ *
+ * Enregistré avant la chaîne Spring Security : les lectures faites pour l'authentification sont
+ * comptées avec la requête. Le bilan est aussi déposé dans l'attribut de requête
+ * SqlStatistics.class.getName() (tests MockMvc).
+ */
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    static final String UNKNOWN = "UNKNOWN";
+
+    private final SqlDiagnostics sqlDiagnostics;
+
+    public SqlStatisticsFilter(SqlDiagnostics sqlDiagnostics) {
+        this.sqlDiagnostics = sqlDiagnostics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            statistics.close();
+        }
+        request.setAttribute(SqlStatistics.class.getName(), statistics);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        sqlDiagnostics.record(request.getMethod(), pattern == null ? UNKNOWN : pattern.toString(), statistics);
+    }
+}
@@ -0,0 +1,46 @@
+package com.nnk.springboot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * Ressources statiques à URL versionnée (/css/bootstrap.min-&lt;md5&gt;.css) servies avec un
+ * Cache-Control "public, max-age=app.web.static.versioned-max-age, immutable".
+ *
+ * - Les liens @{/css/...} des gabarits sont réécrits avec le condensé du contenu par la chaîne de
+ *   ressources de Spring Boot (spring.web.resources.chain.strategy.content.*) : une ressource modifiée
+ *   change d'URL, l'ancienne peut rester indéfiniment en cache chez le client.
+ * - Seules les URL versionnées passent par ce gestionnaire (motif plus précis que /**) ; l'URL nue
+ *   reste servie par le gestionnaire par défaut, revalidé à chaque requête (no-cache + Last-Modified).
+ * - Les variantes .br / .gz générées au build (src/build/java/PrecompressStaticResources.java) sont
+ *   servies selon l'Accept-Encoding de la requête.
+ */
+@Configuration
+public class StaticResourcesConfig implements WebMvcConfigurer {
+
+    /** Répertoire de premier niveau et fichier se terminant par -&lt;md5 hexadécimal&gt;.extension. */
+    static final String VERSIONED_RESOURCE = "/{directory:css|js|images|fonts}/{file:.+-[0-9a-f]{32}\\.[a-z0-9]+}";
+
+    private final Duration versionedMaxAge;
+
+    public StaticResourcesConfig(@Value("${app.web.static.versioned-max-age:365d}") Duration versionedMaxAge) {
+        this.versionedMaxAge = versionedMaxAge;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(VERSIONED_RESOURCE)
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.maxAge(versionedMaxAge).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+}
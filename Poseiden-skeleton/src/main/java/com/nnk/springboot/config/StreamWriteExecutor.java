@@ -0,0 +1,93 @@
+package com.nnk.springboot.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Subscriber;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exécuteur des requêtes MVC asynchrones qui sépare l'écriture des flux réactifs des autres tâches.
+ *
+ * Spring MVC écrit chaque élément d'un Flux renvoyé par un contrôleur (NDJSON ou SSE :
+ * /api/trades/stream, /api/changes/stream) sur un thread de son exécuteur asynchrone, en écriture
+ * bloquante sur la réponse. Face à un client lent, ce thread reste bloqué dans l'écriture, au plus
+ * jusqu'au délai d'écriture du connecteur : chaque client dont une écriture est en cours occupe un
+ * thread, et un client qui ne lit plus en occupe un jusqu'à ce délai.
+ *
+ * - Les tâches d'écriture de flux (abonnés Reactive Streams de ReactiveTypeHandler) s'exécutent
+ *   sur un pool borné qui leur est propre (threads « mvc-stream- ») : des clients lents n'y
+ *   bloquent que les autres flux, jamais l'export CSV ni les autres réponses asynchrones.
+ * - Au-delà de la file d'attente, la tâche est refusée et Spring MVC interrompt ce flux.
+ * - Les autres tâches (Callable, StreamingResponseBody) vont à l'exécuteur délégué, l'exécuteur
+ *   applicatif de Spring Boot.
+ *
+ * Métriques Micrometer : mvc.stream.writers.active et mvc.stream.writers.queue.size (jauges).
+ */
+@Slf4j
+public class StreamWriteExecutor implements AsyncTaskExecutor {
+
+    private final AsyncTaskExecutor delegate;
+    private final ThreadPoolExecutor streamExecutor;
+
+    public StreamWriteExecutor(AsyncTaskExecutor delegate, int poolSize, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.streamExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("mvc-stream-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("mvc.stream.writers.active", streamExecutor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("mvc.stream.writers.queue.size", streamExecutor, e -> e.getQueue().size()).register(meterRegistry);
+        log.info("Pool d'écriture des flux MVC: threads={} file={}", poolSize, queueCapacity);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (isStreamWrite(task)) {
+            try {
+                streamExecutor.execute(task);
+            } catch (RejectedExecutionException ex) {
+                log.warn("Écriture de flux refusée: pool saturé ({} en attente)", streamExecutor.getQueue().size());
+                throw new TaskRejectedException("Pool d'écriture des flux saturé", ex);
+            }
+        } else {
+            delegate.execute(task);
+        }
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        if (isStreamWrite(task)) {
+            try {
+                return streamExecutor.submit(task);
+            } catch (RejectedExecutionException ex) {
+                throw new TaskRejectedException("Pool d'écriture des flux saturé", ex);
+            }
+        }
+        return delegate.submit(task);
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return delegate.submit(task);
+    }
+
+    /**
+     * Arrête le pool d'écriture des flux ; l'exécuteur délégué appartient à Spring Boot.
+     */
+    public void shutdown() {
+        streamExecutor.shutdownNow();
+    }
+
+    private static boolean isStreamWrite(Runnable task) {
+        return task instanceof Subscriber<?>;
+    }
+}
@@ -0,0 +1,41 @@
+package com.nnk.springboot.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.thymeleaf.ITemplateEngine;
+
+import java.time.Duration;
+
+/**
+ * Cache des lignes de tableau rendues (RowFragmentDialect, objet #rows des pages de liste).
+ *
+ * Le cache est borné en octets (app.web.row-cache.max-size, 0 = aucun cache) et une ligne non
+ * relue pendant app.web.row-cache.ttl en est retirée ; ses statistiques sont publiées sous le
+ * nom de cache "renderedRows". Le moteur Thymeleaf, qui enregistre le dialecte, n'est résolu
+ * qu'au premier rendu de ligne.
+ */
+@Configuration
+public class TemplateRenderingConfig {
+
+    @Bean
+    RowFragmentDialect rowFragmentDialect(ObjectProvider<ITemplateEngine> templateEngine,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${app.web.row-cache.max-size:16MB}") DataSize maxSize,
+                                          @Value("${app.web.row-cache.ttl:30m}") Duration ttl) {
+        Cache<RowFragmentDialect.RowKey, String> renderedRows = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((RowFragmentDialect.RowKey key, String html) -> 2 * html.length() + 16 * key.values().size())
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, renderedRows, "renderedRows");
+        return new RowFragmentDialect(templateEngine, renderedRows);
+    }
+}
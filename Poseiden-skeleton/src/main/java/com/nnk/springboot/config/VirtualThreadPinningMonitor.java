@@ -0,0 +1,108 @@
+package com.nnk.springboot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnostic d'épinglage des threads virtuels (profil Spring "vthreads").
+ *
+ * Un thread virtuel qui bloque dans un bloc synchronized (Hibernate, Connector/J, HikariCP) ou
+ * dans un appel natif reste attaché à son thread porteur, que les autres threads virtuels ne
+ * peuvent plus utiliser. La JVM le signale par l'événement JFR jdk.VirtualThreadPinned (Java 21+),
+ * suivi ici par un RecordingStream :
+ * - jvm.threads.virtual.pinned (timer, tag site) : nombre et durée des épinglages, par première
+ *   méthode hors JDK de la pile (le code applicatif ou la bibliothèque en cause) ;
+ * - trace WARN avec les premières frames de la pile.
+ *
+ * Seuls les épinglages plus longs que app.threads.pinning.threshold sont enregistrés. Sur un
+ * JDK 17, l'événement n'existe pas et le moniteur ne reçoit rien.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.threads.pinning.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+    private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.threads.pinning.threshold:20ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::record);
+        recording.startAsync();
+        stream = recording;
+        log.info("Suivi de l'épinglage des threads virtuels au-delà de {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void record(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<String> frames = stackTrace == null ? List.of() : stackTrace.getFrames().stream()
+                .map(VirtualThreadPinningMonitor::frameName)
+                .toList();
+        String site = pinningSite(frames);
+        timers.computeIfAbsent(site, s -> Timer.builder("jvm.threads.virtual.pinned")
+                        .description("Threads virtuels bloqués sur leur thread porteur")
+                        .tag("site", s)
+                        .register(meterRegistry))
+                .record(event.getDuration());
+        log.warn("Thread virtuel épinglé pendant {} ms ({}):\n\t{}", event.getDuration().toMillis(), site,
+                frames.stream().limit(LOGGED_FRAMES).collect(Collectors.joining("\n\t")));
+    }
+
+    private static String frameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    /**
+     * Première frame hors JDK (frames au format classe.méthode, de la plus récente à la plus
+     * ancienne), ou "jdk" si la pile ne contient que des frames du JDK.
+     */
+    static String pinningSite(List<String> frames) {
+        return frames.stream()
+                .filter(frame -> JDK_PACKAGES.stream().noneMatch(frame::startsWith))
+                .findFirst()
+                .orElse("jdk");
+    }
+}
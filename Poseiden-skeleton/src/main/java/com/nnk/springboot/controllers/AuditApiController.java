@@ -0,0 +1,47 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.dto.AuditHistoryDto;
+import com.nnk.springboot.services.AuditService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/audit")
+@RequiredArgsConstructor
+public class AuditApiController {
+
+    private final AuditService auditService;
+
+    /**
+     * Historique d'audit d'un enregistrement (entity : bidList, trade, curvePoint, rating,
+     * ruleName, user), éventuellement restreint à la plage [from, to] (dates ISO, heure locale),
+     * de l'entrée la plus récente à la plus ancienne ; truncated signale des entrées plus anciennes omises.
+     */
+    @GetMapping("/{entity}/{id}")
+    public AuditHistoryDto history(@PathVariable String entity,
+                                       @PathVariable Integer id,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("GET /api/audit/{}/{} - from={} to={}", entity, id, from, to);
+        return auditService.findHistory(entity, id, from, to);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> unknownEntity(IllegalArgumentException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+}
@@ -0,0 +1,51 @@
+package com.nnk.springboot.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.BulkImportReportDto;
+import com.nnk.springboot.services.BidListService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/bidList")
+@RequiredArgsConstructor
+public class BidListApiController {
+
+    private final BidListService bidListService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Import en masse : le corps est soit un tableau JSON de BidListDto, soit un flux NDJSON
+     * (un objet par ligne). Dans les deux cas les lignes sont désérialisées au fil de l'eau.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkImportReportDto bulkImport(InputStream body) throws IOException {
+        log.debug("POST /api/bidList/bulk - import en masse des enchères");
+        try (MappingIterator<BidListDto> rows = objectMapper.readerFor(BidListDto.class).readValues(body)) {
+            return bidListService.importAll(rows);
+        }
+    }
+
+    @ExceptionHandler({JsonProcessingException.class, RuntimeJsonMappingException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> unreadableBody(Exception ex) {
+        log.warn("Import en masse refusé: corps illisible ({})", ex.getMessage());
+        return Map.of("error", "Corps de requête illisible: " + ex.getMessage());
+    }
+}
@@ -1,18 +1,26 @@
 package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.BidListFilterDto;
+import com.nnk.springboot.dto.KeysetPageDto;
 import com.nnk.springboot.services.BidListService;
+import com.nnk.springboot.services.UpdateConflictException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import jakarta.validation.Valid;
 
+import java.util.List;
+
 @Slf4j
 @Controller
 @RequiredArgsConstructor
@@ -20,16 +28,23 @@ public class BidListController {
     private final BidListService bidListService;
 
     @RequestMapping("/bidList/list")
-    public String home(Model model)
+    public String home(@ModelAttribute("filter") BidListFilterDto filter,
+                       @RequestParam(value = "after", required = false) Integer after,
+                       @RequestParam(value = "before", required = false) Integer before,
+                       @RequestParam(value = "size", required = false) Integer size,
+                       Model model)
     {
-        log.info("GET /bidList/list - affichage de la liste des enchères");
-        model.addAttribute("bidLists", bidListService.findAll());
+        log.debug("GET /bidList/list - affichage de la liste des enchères (compte={} type={} sort={} dir={} after={} before={} size={})",
+                filter.getAccount(), filter.getType(), filter.getSort(), filter.getDir(), after, before, size);
+        KeysetPageDto<BidListDto> page = bidListService.findPage(filter, after, before, size);
+        model.addAttribute("page", page);
+        model.addAttribute("bidLists", page.getItems());
         return "bidList/list";
     }
 
     @GetMapping("/bidList/add")
     public String addBidForm(Model model) {
-        log.info("GET /bidList/add - formulaire d'ajout");
+        log.debug("GET /bidList/add - formulaire d'ajout");
         model.addAttribute("bidList", new BidListDto());
         return "bidList/add";
     }
@@ -42,34 +57,61 @@ public class BidListController {
             return "bidList/add";
         }
         bidListService.create(bidList);
-        log.info("Création réussie -> redirection vers la liste");
+        log.debug("Création réussie -> redirection vers la liste");
         return "redirect:/bidList/list";
     }
 
     @GetMapping("/bidList/update/{id}")
     public String showUpdateForm(@PathVariable("id") Integer id, Model model) {
-        log.info("GET /bidList/update/{} - formulaire de mise à jour", id);
+        log.debug("GET /bidList/update/{} - formulaire de mise à jour", id);
         model.addAttribute("bidList", bidListService.getBidList(id));
         return "bidList/update";
     }
 
+    /**
+     * Le formulaire renvoie la version lue et demande la fusion (champ caché merge) : une
+     * modification concurrente portant sur d'autres champs est fusionnée, sinon le formulaire
+     * est réaffiché avec l'état actuel et la version actuelle.
+     */
     @PostMapping("/bidList/update/{id}")
     public String updateBid(@PathVariable("id") Integer id, @Valid BidListDto bidList,
-                             BindingResult result, Model model) {
+                             BindingResult result,
+                             @RequestParam(value = "merge", defaultValue = "false") boolean merge,
+                             Model model) {
         if (result.hasErrors()) {
             log.warn("Validation échouée à la mise à jour id={}: {}", id, result.getAllErrors());
             model.addAttribute("bidList", bidList);
             return "bidList/update";
         }
-        bidListService.update(id, bidList);
-        log.info("Mise à jour réussie id={} -> redirection vers la liste", id);
+        try {
+            bidListService.update(id, bidList, merge);
+        } catch (UpdateConflictException e) {
+            return showConflict(bidList, (BidListDto) e.getCurrent(), e.getFields(), model);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Mise à jour concurrente de l'enchère id={} pendant l'écriture", id);
+            return showConflict(bidList, bidListService.getBidList(id), List.of(), model);
+        }
+        log.debug("Mise à jour réussie id={} -> redirection vers la liste", id);
         return "redirect:/bidList/list";
     }
 
+    /**
+     * Réaffiche la saisie avec l'état actuel ; la saisie prend la version actuelle, si bien qu'une
+     * nouvelle validation l'applique en connaissance de cause.
+     */
+    private String showConflict(BidListDto bidList, BidListDto current, List<String> fields, Model model) {
+        log.debug("Conflit de mise à jour de l'enchère id={} -> formulaire réaffiché", current.getId());
+        bidList.setVersion(current.getVersion());
+        model.addAttribute("bidList", bidList);
+        model.addAttribute("current", current);
+        model.addAttribute("conflictFields", fields);
+        return "bidList/update";
+    }
+
     @PostMapping("/bidList/delete/{id}")
     public String deleteBid(@PathVariable("id") Integer id, Model model) {
         bidListService.delete(id);
-        log.info("Suppression réussie id={} -> redirection vers la liste", id);
+        log.debug("Suppression réussie id={} -> redirection vers la liste", id);
         return "redirect:/bidList/list";
     }
 }
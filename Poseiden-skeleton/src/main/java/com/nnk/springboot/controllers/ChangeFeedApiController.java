@@ -0,0 +1,87 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.dto.ChangeBatchDto;
+import com.nnk.springboot.dto.ChangeEventDto;
+import com.nnk.springboot.services.ChangeFeedService;
+import com.nnk.springboot.services.ChangeOffsetExpiredException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+public class ChangeFeedApiController {
+
+    private final ChangeFeedService changeFeedService;
+
+    /**
+     * Long-poll : évènements à partir de l'offset from (au plus max), en attendant au plus
+     * wait secondes qu'il y en ait. Un offset qui n'est plus conservé donne une réponse 410
+     * dont firstOffset indique où reprendre.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<ChangeBatchDto>> poll(@RequestParam(defaultValue = "0") long from,
+                                                     @RequestParam(required = false) Integer max,
+                                                     @RequestParam(defaultValue = "30") long wait) {
+        log.debug("GET /api/changes - from={} max={} wait={}", from, max, wait);
+        long firstOffset = changeFeedService.firstOffset();
+        if (from < firstOffset) {
+            log.warn("Offset {} expiré, premier offset conservé: {}", from, firstOffset);
+            return Mono.just(ResponseEntity.status(HttpStatus.GONE)
+                    .body(new ChangeBatchDto(List.of(), firstOffset, firstOffset)));
+        }
+        return changeFeedService.poll(from, max, Duration.ofSeconds(wait)).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Server-Sent Events : évènements à partir de l'offset from, puis au fil des écritures.
+     * L'identifiant de chaque évènement SSE est son offset ; à la reconnexion, l'en-tête
+     * Last-Event-ID envoyé par le navigateur prime sur from.
+     * Un offset qui n'est plus conservé, au départ ou en cours de flux (abonné dépassé par la
+     * rétention), termine le flux par un évènement « gone » dont firstOffset indique où reprendre,
+     * comme la réponse 410 du long-poll.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<?>> stream(@RequestParam(defaultValue = "0") long from,
+                                           @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        long start = lastEventId != null ? lastEventId + 1 : from;
+        log.debug("GET /api/changes/stream - from={}", start);
+        long firstOffset = changeFeedService.firstOffset();
+        if (start < firstOffset) {
+            log.warn("Offset {} expiré, premier offset conservé: {}", start, firstOffset);
+            return Flux.just(gone(firstOffset));
+        }
+        return changeFeedService.stream(start)
+                .<ServerSentEvent<?>>map(event -> ServerSentEvent.builder(event)
+                        .id(Long.toString(event.getOffset()))
+                        .event(event.getEntity())
+                        .build())
+                .onErrorResume(ChangeOffsetExpiredException.class, ex -> Flux.just(gone(ex.getFirstOffset())));
+    }
+
+    /**
+     * Dernier évènement d'un flux dont l'offset a expiré ; son identifiant fait reprendre une
+     * reconnexion par Last-Event-ID à firstOffset.
+     */
+    private static ServerSentEvent<ChangeBatchDto> gone(long firstOffset) {
+        return ServerSentEvent.builder(new ChangeBatchDto(List.of(), firstOffset, firstOffset))
+                .id(Long.toString(firstOffset - 1))
+                .event("gone")
+                .build();
+    }
+}
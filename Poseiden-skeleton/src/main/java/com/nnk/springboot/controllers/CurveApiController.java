@@ -0,0 +1,52 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.dto.CurveInterpolationRequestDto;
+import com.nnk.springboot.dto.CurveInterpolationResultDto;
+import com.nnk.springboot.services.CurveNotFoundException;
+import com.nnk.springboot.services.CurveService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/curves")
+@RequiredArgsConstructor
+public class CurveApiController {
+
+    private final CurveService curveService;
+
+    /**
+     * Interpolation en lot : jusqu'à CurveInterpolationRequestDto.MAX_TERMS termes par appel,
+     * en LINEAR (par défaut) ou CUBIC_SPLINE, avec extrapolation à plat hors des bornes de la courbe.
+     */
+    @PostMapping("/{curveId}/interpolate")
+    public CurveInterpolationResultDto interpolate(@PathVariable Integer curveId,
+                                                   @Valid @RequestBody CurveInterpolationRequestDto request) {
+        log.debug("POST /api/curves/{}/interpolate - {} terme(s)", curveId, request.getTerms().length);
+        return curveService.interpolate(curveId, request);
+    }
+
+    @ExceptionHandler(CurveNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> curveNotFound(CurveNotFoundException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> invalidRequest(IllegalArgumentException ex) {
+        log.warn("Interpolation refusée: {}", ex.getMessage());
+        return Map.of("error", ex.getMessage());
+    }
+}
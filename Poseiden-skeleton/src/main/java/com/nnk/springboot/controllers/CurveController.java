@@ -1,6 +1,7 @@
 package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.dto.CurvePointDto;
+import com.nnk.springboot.dto.CurvePointFilterDto;
 import com.nnk.springboot.services.CurvePointService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -20,15 +22,15 @@ public class CurveController {
     private final CurvePointService curvePointService;
 
     @RequestMapping("/curvePoint/list")
-    public String home(Model model) {
-        log.info("GET /curvePoint/list - affichage de la liste des points de courbe");
-        model.addAttribute("curvePoints", curvePointService.findAll());
+    public String home(@ModelAttribute("filter") CurvePointFilterDto filter, Model model) {
+        log.debug("GET /curvePoint/list - affichage de la liste des points de courbe");
+        model.addAttribute("curvePoints", curvePointService.findAll(filter));
         return "curvePoint/list";
     }
 
     @GetMapping("/curvePoint/add")
     public String addCurvePointForm(Model model) {
-        log.info("GET /curvePoint/add - formulaire d'ajout");
+        log.debug("GET /curvePoint/add - formulaire d'ajout");
         model.addAttribute("curvePoint", new CurvePointDto());
         return "curvePoint/add";
     }
@@ -41,13 +43,13 @@ public class CurveController {
             return "curvePoint/add";
         }
         curvePointService.create(curvePoint);
-        log.info("Création de CurvePoint réussie -> redirection vers la liste");
+        log.debug("Création de CurvePoint réussie -> redirection vers la liste");
         return "redirect:/curvePoint/list";
     }
 
     @GetMapping("/curvePoint/update/{id}")
     public String showUpdateForm(@PathVariable("id") Integer id, Model model) {
-        log.info("GET /curvePoint/update/{} - formulaire de mise à jour", id);
+        log.debug("GET /curvePoint/update/{} - formulaire de mise à jour", id);
         model.addAttribute("curvePoint", curvePointService.getCurvePoint(id));
         return "curvePoint/update";
     }
@@ -63,14 +65,14 @@ public class CurveController {
             return "curvePoint/update";
         }
         curvePointService.update(id, curvePoint);
-        log.info("Mise à jour CurvePoint réussie id={} -> redirection vers la liste", id);
+        log.debug("Mise à jour CurvePoint réussie id={} -> redirection vers la liste", id);
         return "redirect:/curvePoint/list";
     }
 
     @PostMapping("/curvePoint/delete/{id}")
     public String deleteCurvePoint(@PathVariable("id") Integer id) {
         curvePointService.delete(id);
-        log.info("Suppression CurvePoint réussie id={} -> redirection vers la liste", id);
+        log.debug("Suppression CurvePoint réussie id={} -> redirection vers la liste", id);
         return "redirect:/curvePoint/list";
     }
 }
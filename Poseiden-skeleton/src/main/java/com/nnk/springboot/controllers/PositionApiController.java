@@ -0,0 +1,31 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.dto.PositionDto;
+import com.nnk.springboot.services.PositionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/positions")
+@RequiredArgsConstructor
+public class PositionApiController {
+
+    private final PositionService positionService;
+
+    /**
+     * Positions agrégées par compte et type, filtrées en égalité sur le compte et/ou le type.
+     */
+    @GetMapping
+    public List<PositionDto> positions(@RequestParam(required = false) String account,
+                                       @RequestParam(required = false) String type) {
+        log.debug("GET /api/positions - compte={} type={}", account, type);
+        return positionService.findAll(account, type);
+    }
+}
@@ -1,6 +1,7 @@
 package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.dto.RatingDto;
+import com.nnk.springboot.dto.RatingFilterDto;
 import com.nnk.springboot.services.RatingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -19,16 +20,16 @@ public class RatingController {
 
 
     @RequestMapping("/rating/list")
-    public String home(Model model) {
-        log.info("GET /rating/list - affichage de la liste des notations");
-        model.addAttribute("ratings", ratingService.findAll());
+    public String home(@ModelAttribute("filter") RatingFilterDto filter, Model model) {
+        log.debug("GET /rating/list - affichage de la liste des notations");
+        model.addAttribute("ratings", ratingService.findAll(filter));
         return "rating/list";
     }
 
 
     @GetMapping("/rating/add")
     public String addRatingForm(Model model) {
-        log.info("GET /rating/add - formulaire d'ajout de notation");
+        log.debug("GET /rating/add - formulaire d'ajout de notation");
         model.addAttribute("rating", new RatingDto());
         return "rating/add";
     }
@@ -42,14 +43,14 @@ public class RatingController {
             return "rating/add";
         }
         ratingService.create(rating);
-        log.info("Création de Rating réussie -> redirection vers la liste");
+        log.debug("Création de Rating réussie -> redirection vers la liste");
         return "redirect:/rating/list";
     }
 
 
     @GetMapping("/rating/update/{id}")
     public String showUpdateForm(@PathVariable("id") Integer id, Model model) {
-        log.info("GET /rating/update/{} - formulaire de mise à jour", id);
+        log.debug("GET /rating/update/{} - formulaire de mise à jour", id);
         model.addAttribute("rating", ratingService.getRating(id));
         return "rating/update";
     }
@@ -66,7 +67,7 @@ public class RatingController {
             return "rating/update";
         }
         ratingService.update(id, rating);
-        log.info("Mise à jour Rating réussie id={} -> redirection vers la liste", id);
+        log.debug("Mise à jour Rating réussie id={} -> redirection vers la liste", id);
         return "redirect:/rating/list";
     }
 
@@ -74,7 +75,7 @@ public class RatingController {
     @PostMapping("/rating/delete/{id}")
     public String deleteRating(@PathVariable("id") Integer id) {
         ratingService.delete(id);
-        log.info("Suppression Rating réussie id={} -> redirection vers la liste", id);
+        log.debug("Suppression Rating réussie id={} -> redirection vers la liste", id);
         return "redirect:/rating/list";
     }
 }
@@ -0,0 +1,94 @@
+package com.nnk.springboot.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.RuleEvaluationResultDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.services.RuleEngineService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/rules")
+@RequiredArgsConstructor
+public class RuleApiController {
+
+    private final RuleEngineService ruleEngineService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Évalue toutes les règles actives sur un lot de trades (tableau JSON de TradeDto),
+     * d'au plus RuleEngineService.MAX_BATCH_SIZE éléments.
+     */
+    @PostMapping(value = "/evaluate/trades", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public RuleEvaluationResultDto evaluateTrades(InputStream body) throws IOException {
+        List<TradeDto> trades = readBatch(body, TradeDto.class);
+        log.debug("POST /api/rules/evaluate/trades - {} trade(s)", trades.size());
+        return ruleEngineService.evaluateTrades(trades);
+    }
+
+    /**
+     * Évalue toutes les règles actives sur un lot d'enchères (tableau JSON de BidListDto),
+     * d'au plus RuleEngineService.MAX_BATCH_SIZE éléments.
+     */
+    @PostMapping(value = "/evaluate/bidLists", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public RuleEvaluationResultDto evaluateBidLists(InputStream body) throws IOException {
+        List<BidListDto> bidLists = readBatch(body, BidListDto.class);
+        log.debug("POST /api/rules/evaluate/bidLists - {} enchère(s)", bidLists.size());
+        return ruleEngineService.evaluateBidLists(bidLists);
+    }
+
+    /**
+     * Désérialise le tableau au fil de l'eau et s'arrête dès que la limite est dépassée,
+     * sans lire ni allouer le reste du corps.
+     */
+    private <T> List<T> readBatch(InputStream body, Class<T> type) throws IOException {
+        List<T> batch = new ArrayList<>();
+        try (MappingIterator<T> rows = objectMapper.readerFor(type).readValues(body)) {
+            while (rows.hasNext()) {
+                if (batch.size() == RuleEngineService.MAX_BATCH_SIZE) {
+                    throw new BatchTooLargeException();
+                }
+                batch.add(rows.next());
+            }
+        }
+        return batch;
+    }
+
+    @ExceptionHandler(BatchTooLargeException.class)
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    public Map<String, String> batchTooLarge(BatchTooLargeException ex) {
+        log.warn("Évaluation refusée: lot de plus de {} éléments", RuleEngineService.MAX_BATCH_SIZE);
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler({JsonProcessingException.class, RuntimeJsonMappingException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> unreadableBody(Exception ex) {
+        log.warn("Évaluation refusée: corps illisible ({})", ex.getMessage());
+        return Map.of("error", "Corps de requête illisible: " + ex.getMessage());
+    }
+
+    static class BatchTooLargeException extends RuntimeException {
+        BatchTooLargeException() {
+            super("Lot limité à " + RuleEngineService.MAX_BATCH_SIZE + " éléments par appel.");
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.dto.RuleNameDto;
+import com.nnk.springboot.dto.RuleNameFilterDto;
 import com.nnk.springboot.services.RuleNameService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -18,15 +19,15 @@ public class RuleNameController {
     private final RuleNameService ruleNameService;
 
     @RequestMapping("/ruleName/list")
-    public String home(Model model) {
-        log.info("GET /ruleName/list - affichage de la liste des règles");
-        model.addAttribute("ruleNames", ruleNameService.findAll());
+    public String home(@ModelAttribute("filter") RuleNameFilterDto filter, Model model) {
+        log.debug("GET /ruleName/list - affichage de la liste des règles");
+        model.addAttribute("ruleNames", ruleNameService.findAll(filter));
         return "ruleName/list";
     }
 
     @GetMapping("/ruleName/add")
     public String addRuleForm(Model model) {
-        log.info("GET /ruleName/add - formulaire d'ajout de règle");
+        log.debug("GET /ruleName/add - formulaire d'ajout de règle");
         model.addAttribute("ruleName", new RuleNameDto());
         return "ruleName/add";
     }
@@ -41,13 +42,13 @@ public class RuleNameController {
             return "ruleName/add";
         }
         ruleNameService.create(ruleName);
-        log.info("Création de RuleName réussie -> redirection vers la liste");
+        log.debug("Création de RuleName réussie -> redirection vers la liste");
         return "redirect:/ruleName/list";
     }
 
     @GetMapping("/ruleName/update/{id}")
     public String showUpdateForm(@PathVariable("id") Integer id, Model model) {
-        log.info("GET /ruleName/update/{} - formulaire de mise à jour", id);
+        log.debug("GET /ruleName/update/{} - formulaire de mise à jour", id);
         model.addAttribute("ruleName", ruleNameService.getRuleName(id));
         return "ruleName/update";
     }
@@ -63,14 +64,14 @@ public class RuleNameController {
             return "ruleName/update";
         }
         ruleNameService.update(id, ruleName);
-        log.info("Mise à jour RuleName réussie id={} -> redirection vers la liste", id);
+        log.debug("Mise à jour RuleName réussie id={} -> redirection vers la liste", id);
         return "redirect:/ruleName/list";
     }
 
     @PostMapping("/ruleName/delete/{id}")
     public String deleteRuleName(@PathVariable("id") Integer id) {
         ruleNameService.delete(id);
-        log.info("Suppression RuleName réussie id={} -> redirection vers la liste", id);
+        log.debug("Suppression RuleName réussie id={} -> redirection vers la liste", id);
         return "redirect:/ruleName/list";
     }
 }
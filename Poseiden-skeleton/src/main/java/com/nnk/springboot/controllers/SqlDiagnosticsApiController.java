@@ -0,0 +1,26 @@
+package com.nnk.springboot.controllers;
+
+import com.nnk.springboot.diagnostics.SqlDiagnostics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/diagnostics")
+@RequiredArgsConstructor
+public class SqlDiagnosticsApiController {
+
+    private final SqlDiagnostics sqlDiagnostics;
+
+    /**
+     * Seuils SQL, cumul par route depuis le démarrage et dernières requêtes HTTP signalées.
+     */
+    @GetMapping("/sql")
+    public SqlDiagnostics.Report sql() {
+        log.debug("GET /api/diagnostics/sql");
+        return sqlDiagnostics.report();
+    }
+}
@@ -0,0 +1,156 @@
+package com.nnk.springboot.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.nnk.springboot.dto.BulkImportReportDto;
+import com.nnk.springboot.dto.KeysetPageDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.TradeFilterDto;
+import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.TradeStreamService;
+import com.nnk.springboot.services.UpdateConflictException;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/trades")
+@RequiredArgsConstructor
+public class TradeApiController {
+
+    private final TradeService tradeService;
+    private final TradeStreamService tradeStreamService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Page de trades par pagination par clé (paramètres account, type, after, before, size) ;
+     * les curseurs de la réponse donnent les pages suivante et précédente.
+     */
+    @GetMapping
+    public KeysetPageDto<TradeDto> page(TradeFilterDto filter,
+                                        @RequestParam(required = false) Integer after,
+                                        @RequestParam(required = false) Integer before,
+                                        @RequestParam(required = false) Integer size) {
+        log.debug("GET /api/trades - after={} before={} size={}", after, before, size);
+        return tradeService.findPage(filter, after, before, size);
+    }
+
+    /**
+     * Tous les trades correspondant aux filtres, émis au fil de la lecture en NDJSON
+     * (Accept: application/x-ndjson) ou en Server-Sent Events (Accept: text/event-stream).
+     */
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<TradeDto> stream(TradeFilterDto filter) {
+        log.debug("GET /api/trades/stream - compte={} type={}", filter.getAccount(), filter.getType());
+        return tradeStreamService.stream(filter);
+    }
+
+    @GetMapping("/{id}")
+    public TradeDto get(@PathVariable Integer id) {
+        log.debug("GET /api/trades/{}", id);
+        return tradeService.getTrade(id);
+    }
+
+    @PostMapping
+    public ResponseEntity<TradeDto> create(@Valid @RequestBody TradeDto trade) {
+        log.debug("POST /api/trades - création d'un trade");
+        TradeDto created = tradeService.create(trade);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(created.getId()).toUri();
+        return ResponseEntity.created(location).body(created);
+    }
+
+    /**
+     * Mise à jour d'un trade ; le corps est validé comme à la création. Le corps renvoie la
+     * version lue (GET /api/trades/{id}) : sur une version périmée, la réponse est un 409 avec
+     * l'état actuel, sauf avec merge=true si les champs modifiés ne se recouvrent pas.
+     */
+    @PutMapping("/{id}")
+    public TradeDto update(@PathVariable Integer id, @Valid @RequestBody TradeDto trade,
+                           @RequestParam(defaultValue = "false") boolean merge) {
+        log.debug("PUT /api/trades/{} (version={} merge={})", id, trade.getVersion(), merge);
+        try {
+            return tradeService.update(id, trade, merge);
+        } catch (OptimisticLockingFailureException e) {
+            TradeDto current = tradeService.getTrade(id);
+            throw new UpdateConflictException("Trade " + id + " modifié pendant l'écriture (version actuelle "
+                    + current.getVersion() + ")", current, List.of());
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable Integer id) {
+        log.debug("DELETE /api/trades/{}", id);
+        tradeService.delete(id);
+    }
+
+    /**
+     * Import en masse : tableau JSON de TradeDto ou flux NDJSON, désérialisé au fil de l'eau.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkImportReportDto bulkImport(InputStream body) throws IOException {
+        log.debug("POST /api/trades/bulk - import en masse des trades");
+        try (MappingIterator<TradeDto> rows = objectMapper.readerFor(TradeDto.class).readValues(body)) {
+            return tradeService.importAll(rows);
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public Map<String, String> tradeNotFound(IllegalArgumentException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(UpdateConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, Object> updateConflict(UpdateConflictException ex) {
+        return Map.of("error", ex.getMessage(), "fields", ex.getFields(), "current", ex.getCurrent());
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> invalidTrade(MethodArgumentNotValidException ex) {
+        Map<String, String> fields = new TreeMap<>();
+        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+            fields.putIfAbsent(error.getField(), error.getDefaultMessage());
+        }
+        log.warn("Trade refusé: {}", fields);
+        return Map.of("error", "Trade invalide.", "fields", fields);
+    }
+
+    @ExceptionHandler({JsonProcessingException.class, RuntimeJsonMappingException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> unreadableBody(Exception ex) {
+        log.warn("Requête refusée: corps illisible ({})", ex.getMessage());
+        return Map.of("error", "Corps de requête illisible: " + ex.getMessage());
+    }
+}
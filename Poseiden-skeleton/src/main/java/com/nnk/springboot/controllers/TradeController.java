@@ -1,36 +1,68 @@
 package com.nnk.springboot.controllers;
 
+import com.nnk.springboot.config.AsyncRequestTimeoutConfig;
 import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.TradeFilterDto;
+import com.nnk.springboot.services.ExportFormat;
+import com.nnk.springboot.services.TradeExportService;
 import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.UpdateConflictException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import java.time.Duration;
+import java.util.List;
+
 @Slf4j
 @Controller
 @RequiredArgsConstructor
 public class TradeController {
     private final TradeService tradeService;
+    private final TradeExportService tradeExportService;
+
+    @Value("${app.export.trade.timeout:30m}")
+    private Duration exportTimeout;
 
     @RequestMapping("/trade/list")
-    public String home(Model model)
+    public String home(@ModelAttribute("filter") TradeFilterDto filter, Model model)
     {
-        log.info("GET /trade/list - affichage de la liste des trades");
-        model.addAttribute("trades", tradeService.findAll());
+        log.debug("GET /trade/list - affichage de la liste des trades");
+        model.addAttribute("trades", tradeService.findAll(filter));
         return "trade/list";
     }
 
+    @GetMapping("/trade/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "CSV") ExportFormat format,
+                                                        HttpServletRequest request) {
+        log.debug("GET /trade/export - export des trades au format {}", format);
+        AsyncRequestTimeoutConfig.setTimeout(request, exportTimeout);
+        StreamingResponseBody body = out -> tradeExportService.export(format, out);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"trades." + format.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/trade/add")
     public String addUser(Model model) {
-        log.info("GET /trade/add - formulaire d'ajout de trade");
+        log.debug("GET /trade/add - formulaire d'ajout de trade");
         model.addAttribute("trade", new TradeDto());
         return "trade/add";
     }
@@ -43,34 +75,56 @@ public class TradeController {
             return "trade/add";
         }
         tradeService.create(trade);
-        log.info("Création de Trade réussie -> redirection vers la liste");
+        log.debug("Création de Trade réussie -> redirection vers la liste");
         return "redirect:/trade/list";
     }
 
     @GetMapping("/trade/update/{id}")
     public String showUpdateForm(@PathVariable("id") Integer id, Model model) {
-        log.info("GET /trade/update/{} - formulaire de mise à jour", id);
+        log.debug("GET /trade/update/{} - formulaire de mise à jour", id);
         model.addAttribute("trade", tradeService.getTrade(id));
         return "trade/update";
     }
 
+    /**
+     * Comme pour les enchères : version lue et fusion demandée par le formulaire, réaffiché avec
+     * l'état actuel en cas de conflit.
+     */
     @PostMapping("/trade/update/{id}")
     public String updateTrade(@PathVariable("id") Integer id, @Valid TradeDto trade,
-                              BindingResult result, Model model) {
+                              BindingResult result,
+                              @RequestParam(value = "merge", defaultValue = "false") boolean merge,
+                              Model model) {
         if (result.hasErrors()) {
             log.warn("Validation échouée à la mise à jour Trade id={}: {}", id, result.getAllErrors());
             model.addAttribute("trade", trade);
             return "trade/update";
         }
-        tradeService.update(id, trade);
-        log.info("Mise à jour Trade réussie id={} -> redirection vers la liste", id);
+        try {
+            tradeService.update(id, trade, merge);
+        } catch (UpdateConflictException e) {
+            return showConflict(trade, (TradeDto) e.getCurrent(), e.getFields(), model);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Mise à jour concurrente du trade id={} pendant l'écriture", id);
+            return showConflict(trade, tradeService.getTrade(id), List.of(), model);
+        }
+        log.debug("Mise à jour Trade réussie id={} -> redirection vers la liste", id);
         return "redirect:/trade/list";
     }
 
+    private String showConflict(TradeDto trade, TradeDto current, List<String> fields, Model model) {
+        log.debug("Conflit de mise à jour du trade id={} -> formulaire réaffiché", current.getId());
+        trade.setVersion(current.getVersion());
+        model.addAttribute("trade", trade);
+        model.addAttribute("current", current);
+        model.addAttribute("conflictFields", fields);
+        return "trade/update";
+    }
+
     @PostMapping("/trade/delete/{id}")
     public String deleteTrade(@PathVariable("id") Integer id) {
         tradeService.delete(id);
-        log.info("Suppression Trade réussie id={} -> redirection vers la liste", id);
+        log.debug("Suppression Trade réussie id={} -> redirection vers la liste", id);
         return "redirect:/trade/list";
     }
 }
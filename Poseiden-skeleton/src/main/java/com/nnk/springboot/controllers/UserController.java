@@ -1,6 +1,7 @@
 package com.nnk.springboot.controllers;
 
 import com.nnk.springboot.dto.UserDto;
+import com.nnk.springboot.dto.UserFilterDto;
 import com.nnk.springboot.services.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -22,15 +23,15 @@ public class UserController {
 
 
     @GetMapping("/list")
-    public String list(Model model) {
-        log.info("GET /user/list - affichage de la liste des utilisateurs");
-        model.addAttribute("users", userService.findAll());
+    public String list(@ModelAttribute("filter") UserFilterDto filter, Model model) {
+        log.debug("GET /user/list - affichage de la liste des utilisateurs");
+        model.addAttribute("users", userService.findAll(filter));
         return "user/list";
     }
 
     @GetMapping("/add")
     public String showAddForm(Model model) {
-        log.info("GET /user/add - formulaire d'ajout d'utilisateur");
+        log.debug("GET /user/add - formulaire d'ajout d'utilisateur");
         model.addAttribute("user", new UserDto());
         return "user/add";
     }
@@ -45,7 +46,7 @@ public class UserController {
         }
         try {
             userService.create(userDto);
-            log.info("Création d'utilisateur réussie -> redirection vers la liste");
+            log.debug("Création d'utilisateur réussie -> redirection vers la liste");
             return "redirect:/user/list";
         } catch (IllegalArgumentException ex) {
             log.warn("Création d'utilisateur refusée: {}", ex.getMessage());
@@ -56,7 +57,7 @@ public class UserController {
 
     @GetMapping("/update/{id}")
     public String showUpdateForm(@PathVariable("id") Integer id, Model model) {
-        log.info("GET /user/update/{} - formulaire de mise à jour", id);
+        log.debug("GET /user/update/{} - formulaire de mise à jour", id);
         model.addAttribute("user", userService.getUser(id));
         return "user/update";
     }
@@ -72,7 +73,7 @@ public class UserController {
         }
         try {
             userService.update(id, userDto);
-            log.info("Mise à jour utilisateur réussie id={} -> redirection vers la liste", id);
+            log.debug("Mise à jour utilisateur réussie id={} -> redirection vers la liste", id);
             return "redirect:/user/list";
         } catch (IllegalArgumentException ex) {
             log.warn("Mise à jour utilisateur refusée id={}: {}", id, ex.getMessage());
@@ -84,7 +85,7 @@ public class UserController {
     @PostMapping("/delete/{id}")
     public String delete(@PathVariable("id") Integer id) {
         userService.delete(id);
-        log.info("Suppression utilisateur réussie id={} -> redirection vers la liste", id);
+        log.debug("Suppression utilisateur réussie id={} -> redirection vers la liste", id);
         return "redirect:/user/list";
     }
 }
\ No newline at end of file
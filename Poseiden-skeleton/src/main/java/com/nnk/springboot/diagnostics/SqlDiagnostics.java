@@ -0,0 +1,202 @@
+package com.nnk.springboot.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Bilan SQL des requêtes HTTP, alimenté par SqlStatisticsFilter.
+ *
+ * - Par route (méthode et motif d'URL du contrôleur) : http.server.requests.sql.statements
+ *   (nombre de requêtes SQL) et http.server.requests.sql.time (temps JDBC), plus un cumul
+ *   exposé par GET /api/diagnostics/sql (requêtes, moyenne et maximum, requête la plus lente).
+ * - Une requête HTTP est signalée (WARN, compteur http.server.requests.sql.flagged par motif, liste
+ *   des dernières requêtes signalées) si elle dépasse app.sql-diagnostics.max-statements requêtes
+ *   SQL, app.sql-diagnostics.max-jdbc-time de temps JDBC, ou si une même requête SQL y est
+ *   exécutée app.sql-diagnostics.repeated-statement-threshold fois ou plus (N+1).
+ * - app.sql-diagnostics.strict=true (tests d'intégration) : une requête signalée lève en plus
+ *   IllegalStateException.
+ */
+@Slf4j
+@Component
+public class SqlDiagnostics {
+
+    static final String STATEMENTS = "statements";
+    static final String JDBC_TIME = "jdbc-time";
+    static final String N_PLUS_ONE = "n-plus-one";
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final Duration maxJdbcTime;
+    private final int repeatedStatementThreshold;
+    private final boolean strict;
+    private final int recentSize;
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    private final Deque<FlaggedRequest> recent = new ArrayDeque<>();
+
+    public SqlDiagnostics(MeterRegistry meterRegistry,
+                          @Value("${app.sql-diagnostics.max-statements:20}") int maxStatements,
+                          @Value("${app.sql-diagnostics.max-jdbc-time:500ms}") Duration maxJdbcTime,
+                          @Value("${app.sql-diagnostics.repeated-statement-threshold:10}") int repeatedStatementThreshold,
+                          @Value("${app.sql-diagnostics.strict:false}") boolean strict,
+                          @Value("${app.sql-diagnostics.recent-size:100}") int recentSize) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxJdbcTime = maxJdbcTime;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+        this.strict = strict;
+        this.recentSize = recentSize;
+    }
+
+    /**
+     * Enregistre le bilan d'une requête HTTP terminée.
+     *
+     * @throws IllegalStateException en mode strict, si la requête dépasse un seuil
+     */
+    public void record(String method, String uri, SqlStatistics statistics) {
+        routes.computeIfAbsent(method + " " + uri, key -> new Route(method, uri)).record(statistics);
+        List<String> reasons = violations(statistics);
+        if (reasons.isEmpty()) {
+            return;
+        }
+        for (String reason : reasons) {
+            Counter.builder("http.server.requests.sql.flagged")
+                    .description("Requêtes HTTP au-delà des seuils SQL")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .tag("reason", reason)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        SqlStatistics.RepeatedStatement repeated = statistics.mostRepeated();
+        FlaggedRequest flagged = new FlaggedRequest(LocalDateTime.now(), method, uri, reasons,
+                statistics.statements(), statistics.jdbcTime().toMillis(), statistics.slowestTime().toMillis(),
+                statistics.slowestSql(), repeated == null ? null : repeated.sql(), repeated == null ? 0 : repeated.executions());
+        synchronized (recent) {
+            recent.addFirst(flagged);
+            while (recent.size() > recentSize) {
+                recent.removeLast();
+            }
+        }
+        log.warn("Requête {} {} au-delà des seuils SQL {}: {}", method, uri, reasons, statistics);
+        if (strict) {
+            throw new IllegalStateException("Budget SQL dépassé pour " + method + " " + uri + " " + reasons + ": " + statistics);
+        }
+    }
+
+    List<String> violations(SqlStatistics statistics) {
+        List<String> reasons = new ArrayList<>(3);
+        if (statistics.statements() > maxStatements) {
+            reasons.add(STATEMENTS);
+        }
+        if (statistics.jdbcTime().compareTo(maxJdbcTime) > 0) {
+            reasons.add(JDBC_TIME);
+        }
+        SqlStatistics.RepeatedStatement repeated = statistics.mostRepeated();
+        if (repeated != null && repeated.executions() >= repeatedStatementThreshold) {
+            reasons.add(N_PLUS_ONE);
+        }
+        return reasons;
+    }
+
+    /**
+     * Seuils, cumul par route (les plus coûteuses en requêtes d'abord) et dernières requêtes signalées.
+     */
+    public Report report() {
+        List<RouteReport> byRoute = routes.values().stream()
+                .map(Route::report)
+                .sorted(Comparator.comparingDouble(RouteReport::averageStatements).reversed())
+                .toList();
+        List<FlaggedRequest> flagged;
+        synchronized (recent) {
+            flagged = List.copyOf(recent);
+        }
+        return new Report(maxStatements, maxJdbcTime.toMillis(), repeatedStatementThreshold, byRoute, flagged);
+    }
+
+    public record Report(int maxStatements, long maxJdbcTimeMs, int repeatedStatementThreshold,
+                         List<RouteReport> routes, List<FlaggedRequest> flagged) {
+    }
+
+    public record RouteReport(String method, String uri, long requests, double averageStatements, long maxStatements,
+                              double averageJdbcTimeMs, double maxJdbcTimeMs, String slowestSql) {
+    }
+
+    public record FlaggedRequest(LocalDateTime occurredAt, String method, String uri, List<String> reasons,
+                                 int statements, long jdbcTimeMs, long slowestTimeMs, String slowestSql,
+                                 String repeatedSql, int repeatedExecutions) {
+    }
+
+    /** Cumul d'une route ; les mètres Micrometer sont créés une fois par route. */
+    private final class Route {
+
+        private final String method;
+        private final String uri;
+        private final DistributionSummary statements;
+        private final Timer jdbcTime;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong totalStatements = new AtomicLong();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final AtomicLong totalJdbcNanos = new AtomicLong();
+        private final LongAccumulator maxJdbcNanos = new LongAccumulator(Math::max, 0);
+        private volatile long slowestNanos;
+        private volatile String slowestSql;
+
+        Route(String method, String uri) {
+            this.method = method;
+            this.uri = uri;
+            this.statements = DistributionSummary.builder("http.server.requests.sql.statements")
+                    .description("Requêtes SQL exécutées par requête HTTP")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(meterRegistry);
+            this.jdbcTime = Timer.builder("http.server.requests.sql.time")
+                    .description("Temps JDBC par requête HTTP")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(meterRegistry);
+        }
+
+        void record(SqlStatistics statistics) {
+            statements.record(statistics.statements());
+            jdbcTime.record(statistics.jdbcTime());
+            requests.incrementAndGet();
+            totalStatements.addAndGet(statistics.statements());
+            maxStatements.accumulate(statistics.statements());
+            totalJdbcNanos.addAndGet(statistics.jdbcTime().toNanos());
+            maxJdbcNanos.accumulate(statistics.jdbcTime().toNanos());
+            long slowest = statistics.slowestTime().toNanos();
+            if (statistics.slowestSql() != null && slowest > slowestNanos) {
+                synchronized (this) {
+                    if (slowest > slowestNanos) {
+                        slowestNanos = slowest;
+                        slowestSql = statistics.slowestSql();
+                    }
+                }
+            }
+        }
+
+        RouteReport report() {
+            long count = requests.get();
+            long divisor = Math.max(1, count);
+            return new RouteReport(method, uri, count, (double) totalStatements.get() / divisor, maxStatements.get(),
+                    totalJdbcNanos.get() / divisor / 1e6, maxJdbcNanos.get() / 1e6, slowestSql);
+        }
+    }
+}
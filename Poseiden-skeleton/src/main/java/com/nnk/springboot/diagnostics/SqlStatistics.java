@@ -0,0 +1,118 @@
+package com.nnk.springboot.diagnostics;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Requêtes SQL exécutées par Hibernate sur le thread courant pendant une portée : une requête HTTP
+ * (SqlStatisticsFilter) ou un bloc de test (try (SqlStatistics stats = SqlStatistics.open()) ...).
+ *
+ * - SqlStatisticsInspector fournit le texte de chaque requête préparée, SqlTimingListener la durée
+ *   de chaque exécution JDBC (requête ou lot) ; les deux ne font rien hors portée.
+ * - On compte les exécutions (allers-retours vers la base) : un lot de 500 INSERT compte pour un.
+ * - Les exécutions sont aussi comptées par texte SQL : la même requête répétée de nombreuses fois
+ *   dans une portée signale un N+1 (une requête par ligne d'un résultat précédent).
+ *
+ * Une portée n'est lue et écrite que par son thread. Les requêtes JdbcTemplate (audit, exports)
+ * et celles d'un traitement asynchrone lancé par la requête ne sont pas vues.
+ */
+public final class SqlStatistics implements AutoCloseable {
+
+    static final String UNKNOWN_SQL = "?";
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatistics previous;
+    private final Map<String, Integer> executionsBySql = new HashMap<>();
+    private String lastSql;
+    private int statements;
+    private long jdbcNanos;
+    private long slowestNanos;
+    private String slowestSql;
+
+    private SqlStatistics(SqlStatistics previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Ouvre une portée sur le thread courant ; elle masque la portée déjà ouverte jusqu'à close.
+     */
+    public static SqlStatistics open() {
+        SqlStatistics statistics = new SqlStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() != this) {
+            return;
+        }
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    void prepared(String sql) {
+        lastSql = sql;
+    }
+
+    void executed(long nanos) {
+        String sql = lastSql == null ? UNKNOWN_SQL : lastSql;
+        statements++;
+        jdbcNanos += nanos;
+        if (slowestSql == null || nanos > slowestNanos) {
+            slowestNanos = nanos;
+            slowestSql = sql;
+        }
+        executionsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    /** Nombre d'exécutions JDBC. */
+    public int statements() {
+        return statements;
+    }
+
+    /** Temps cumulé des exécutions JDBC (hors lecture des lignes par l'appelant). */
+    public Duration jdbcTime() {
+        return Duration.ofNanos(jdbcNanos);
+    }
+
+    public Duration slowestTime() {
+        return Duration.ofNanos(slowestNanos);
+    }
+
+    /** Requête la plus lente, null si aucune requête n'a été exécutée. */
+    public String slowestSql() {
+        return slowestSql;
+    }
+
+    /** Requête exécutée le plus de fois, null si aucune requête n'a été exécutée. */
+    public RepeatedStatement mostRepeated() {
+        RepeatedStatement most = null;
+        for (Map.Entry<String, Integer> entry : executionsBySql.entrySet()) {
+            if (most == null || entry.getValue() > most.executions()) {
+                most = new RepeatedStatement(entry.getKey(), entry.getValue());
+            }
+        }
+        return most;
+    }
+
+    @Override
+    public String toString() {
+        RepeatedStatement repeated = mostRepeated();
+        return statements + " requête(s), " + jdbcTime().toMillis() + " ms JDBC"
+                + (slowestSql == null ? "" : ", plus lente " + slowestTime().toMillis() + " ms: " + slowestSql)
+                + (repeated == null || repeated.executions() < 2 ? "" : ", répétée " + repeated.executions() + " fois: " + repeated.sql());
+    }
+
+    public record RepeatedStatement(String sql, int executions) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.nnk.springboot.diagnostics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Transmet le texte de chaque requête préparée par Hibernate à la portée SqlStatistics du thread
+ * courant ; la requête est renvoyée inchangée.
+ */
+public class SqlStatisticsInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.prepared(sql);
+        }
+        return sql;
+    }
+}
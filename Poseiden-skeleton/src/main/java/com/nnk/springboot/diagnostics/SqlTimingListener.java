@@ -0,0 +1,47 @@
+package com.nnk.springboot.diagnostics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Mesure chaque exécution JDBC d'une session Hibernate (requête ou lot) et l'ajoute à la portée
+ * SqlStatistics du thread courant.
+ *
+ * Hibernate crée une instance par session (hibernate.session.events.auto) ; une session n'étant
+ * utilisée que par un thread à la fois, le début de l'exécution en cours est un simple champ.
+ */
+public class SqlTimingListener implements SessionEventListener {
+
+    private long startNanos;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStarted();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        executionEnded();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStarted();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        executionEnded();
+    }
+
+    private void executionStarted() {
+        startNanos = SqlStatistics.current() == null ? 0 : System.nanoTime();
+    }
+
+    private void executionEnded() {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null && startNanos != 0) {
+            statistics.executed(System.nanoTime() - startNanos);
+        }
+        startNanos = 0;
+    }
+}
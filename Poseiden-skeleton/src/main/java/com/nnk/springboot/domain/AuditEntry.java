@@ -0,0 +1,41 @@
+package com.nnk.springboot.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "audit_entry")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class AuditEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "username", length = 125, nullable = false)
+    private String username;
+
+    @Column(name = "entity_type", length = 30, nullable = false)
+    private String entityType;
+
+    @Column(name = "operation", length = 20, nullable = false)
+    private String operation;
+
+    @Column(name = "entity_id")
+    private Integer entityId;
+
+    @Column(name = "changes", columnDefinition = "TEXT", nullable = false)
+    private String changes;
+
+}
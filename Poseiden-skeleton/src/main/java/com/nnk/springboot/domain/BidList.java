@@ -7,9 +7,11 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
 @Table(name = "bidlist")
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,5 +32,9 @@ public class BidList {
     @Column(name = "bid_quantity", precision = 19, scale = 4)
     private BigDecimal bidQuantity;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
 
 }
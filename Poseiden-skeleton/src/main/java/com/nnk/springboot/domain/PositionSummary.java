@@ -0,0 +1,37 @@
+package com.nnk.springboot.domain;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "position_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class PositionSummary {
+    @EmbeddedId
+    @EqualsAndHashCode.Include
+    private PositionSummaryId id;
+
+    @Column(name = "buy_quantity", precision = 38, scale = 4, nullable = false)
+    private BigDecimal buyQuantity;
+
+    @Column(name = "trade_count", nullable = false)
+    private Long tradeCount;
+
+    @Column(name = "bid_quantity", precision = 38, scale = 4, nullable = false)
+    private BigDecimal bidQuantity;
+
+    @Column(name = "bid_count", nullable = false)
+    private Long bidCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+}
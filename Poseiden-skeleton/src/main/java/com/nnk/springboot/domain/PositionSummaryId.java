@@ -0,0 +1,26 @@
+package com.nnk.springboot.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class PositionSummaryId implements Serializable {
+
+    @Column(name = "account", length = 30, nullable = false)
+    private String account;
+
+    @Column(name = "type", length = 30, nullable = false)
+    private String type;
+}
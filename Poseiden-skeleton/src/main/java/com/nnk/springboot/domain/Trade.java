@@ -7,9 +7,11 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
 @Table(name = "trade")
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,4 +32,8 @@ public class Trade {
     @Column(name = "buy_quantity", precision = 19, scale = 4)
     private BigDecimal buyQuantity;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
 }
@@ -0,0 +1,32 @@
+package com.nnk.springboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.nnk.springboot.changefeed.ChangeOperation;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrée de la piste d'audit telle qu'exposée par /api/audit : changes est l'objet JSON des
+ * champs modifiés ({"champ": {"from": ..., "to": ...}}), recopié sans être décodé.
+ */
+@Getter
+@AllArgsConstructor
+public class AuditEntryDto {
+
+    private final Long id;
+
+    private final LocalDateTime occurredAt;
+
+    private final String username;
+
+    private final String entity;
+
+    private final ChangeOperation operation;
+
+    private final Integer entityId;
+
+    @JsonRawValue
+    private final String changes;
+}
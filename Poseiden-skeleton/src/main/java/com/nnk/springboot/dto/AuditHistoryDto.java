@@ -0,0 +1,21 @@
+package com.nnk.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Historique d'audit d'un enregistrement, de l'entrée la plus récente à la plus ancienne.
+ *
+ * truncated indique que des entrées plus anciennes existent au-delà de la limite : elles
+ * s'obtiennent en passant en paramètre "to" la date de la dernière entrée reçue.
+ */
+@Getter
+@AllArgsConstructor
+public class AuditHistoryDto {
+
+    private final List<AuditEntryDto> entries;
+
+    private final boolean truncated;
+}
@@ -1,8 +1,10 @@
 package com.nnk.springboot.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -17,12 +19,39 @@ public class BidListDto {
     private Integer id;
 
     @NotBlank(message = "Le compte est obligatoire.")
+    @Size(max = 30, message = "Le compte ne doit pas dépasser 30 caractères.")
     private String account;
 
     @NotBlank(message = "Le type est obligatoire.")
+    @Size(max = 30, message = "Le type ne doit pas dépasser 30 caractères.")
     private String type;
 
     @DecimalMin(value = "0.0", message = "La quantité d'enchère doit être positive ou nulle.")
     @Digits(integer = 19, fraction = 4, message = "La quantité d'enchère doit avoir au plus 19 chiffres et 4 décimales.")
     private BigDecimal bidQuantity;
+
+    /**
+     * Version lue par le client, renvoyée avec la mise à jour : une mise à jour portant sur une
+     * version périmée est refusée ou fusionnée. Absente des pages de liste.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer version;
+
+    /**
+     * Constructeur de projection des pages de liste (DtoProjection.BID_LIST) : la version n'est pas lue.
+     */
+    public BidListDto(Integer id, String account, String type, BigDecimal bidQuantity) {
+        this(id, account, type, bidQuantity, null);
+    }
+
+    /**
+     * Constructeur de projection avant modification (DtoProjection.BID_LIST_VERSIONED), version comprise.
+     */
+    public BidListDto(Integer id, String account, String type, BigDecimal bidQuantity, Integer version) {
+        this.id = id;
+        this.account = account;
+        this.type = type;
+        this.bidQuantity = bidQuantity;
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.nnk.springboot.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Filtres et tri de la liste des enchères (égalité sur le compte et le type), combinés à la pagination par clé.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BidListFilterDto extends ListFilterDto {
+    private String account;
+
+    private String type;
+}
@@ -0,0 +1,28 @@
+package com.nnk.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Compte rendu d'un import en masse : lignes reçues, insérées et rejetées,
+ * détail des erreurs par ligne, durée et débit d'insertion. Le détail est limité aux premières
+ * lignes rejetées (BulkImporter.MAX_REPORTED_ERRORS) ; rejected compte toutes les lignes rejetées.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkImportReportDto {
+
+    private final long received;
+
+    private final long inserted;
+
+    private final long rejected;
+
+    private final List<BulkRowErrorDto> errors;
+
+    private final long durationMs;
+
+    private final long rowsPerSecond;
+}
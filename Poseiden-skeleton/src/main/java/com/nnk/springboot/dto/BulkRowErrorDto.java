@@ -0,0 +1,19 @@
+package com.nnk.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Erreurs de validation d'une ligne d'un import en masse.
+ * L'index correspond à la position de la ligne dans le lot reçu (à partir de 0).
+ */
+@Getter
+@AllArgsConstructor
+public class BulkRowErrorDto {
+
+    private final long index;
+
+    private final List<String> messages;
+}
@@ -0,0 +1,22 @@
+package com.nnk.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Lot d'évènements renvoyé par le long-poll de /api/changes.
+ * nextOffset est l'offset à demander au prochain appel ; firstOffset le plus ancien offset
+ * encore conservé par le journal.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangeBatchDto {
+
+    private final List<ChangeEventDto> events;
+
+    private final long nextOffset;
+
+    private final long firstOffset;
+}
@@ -0,0 +1,31 @@
+package com.nnk.springboot.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.nnk.springboot.changefeed.ChangeOperation;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Évènement du journal des changements tel qu'exposé par /api/changes : data est l'état JSON
+ * de l'enregistrement tel qu'écrit dans le journal (null pour une suppression), recopié sans
+ * être décodé.
+ */
+@Getter
+@AllArgsConstructor
+public class ChangeEventDto {
+
+    private final long offset;
+
+    private final Instant timestamp;
+
+    private final String entity;
+
+    private final ChangeOperation operation;
+
+    private final Integer id;
+
+    @JsonRawValue
+    private final String data;
+}
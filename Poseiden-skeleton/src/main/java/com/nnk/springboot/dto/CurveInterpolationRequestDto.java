@@ -0,0 +1,33 @@
+package com.nnk.springboot.dto;
+
+import com.nnk.springboot.services.InterpolationMethod;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Demande d'interpolation d'une série de termes sur une courbe.
+ *
+ * asOfDate est facultative : la courbe retenue est celle de la date la plus récente
+ * inférieure ou égale à asOfDate, ou la plus récente de toutes si asOfDate est absente.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurveInterpolationRequestDto {
+
+    public static final int MAX_TERMS = 100_000;
+
+    private LocalDateTime asOfDate;
+
+    private InterpolationMethod method = InterpolationMethod.LINEAR;
+
+    @NotNull(message = "La liste des termes (terms) est obligatoire.")
+    @Size(min = 1, max = MAX_TERMS, message = "Le nombre de termes doit être compris entre 1 et " + MAX_TERMS + ".")
+    private double[] terms;
+}
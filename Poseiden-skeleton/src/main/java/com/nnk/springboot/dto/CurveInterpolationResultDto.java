@@ -0,0 +1,25 @@
+package com.nnk.springboot.dto;
+
+import com.nnk.springboot.services.InterpolationMethod;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Résultat d'une interpolation : values[i] est la valeur de la courbe au terme terms[i].
+ * asOfDate est la date de la courbe effectivement utilisée (null pour les points sans date).
+ */
+@Getter
+@AllArgsConstructor
+public class CurveInterpolationResultDto {
+
+    private final Integer curveId;
+
+    private final LocalDateTime asOfDate;
+
+    private final InterpolationMethod method;
+
+    private final double[] terms;
+
+    private final double[] values;
+}
@@ -29,4 +29,17 @@ public class CurvePointDto {
 
 
     private LocalDateTime creationDate;
+
+    /**
+     * Constructeur de projection (DtoProjection.CURVE_POINT) : l'ordre des paramètres est celui de la
+     * projection, indépendamment de l'ordre des champs.
+     */
+    public CurvePointDto(Integer id, Integer curveId, LocalDateTime asOfDate, Double term, Double value, LocalDateTime creationDate) {
+        this.id = id;
+        this.curveId = curveId;
+        this.asOfDate = asOfDate;
+        this.term = term;
+        this.value = value;
+        this.creationDate = creationDate;
+    }
 }
\ No newline at end of file
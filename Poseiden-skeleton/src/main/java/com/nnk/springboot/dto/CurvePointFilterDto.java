@@ -0,0 +1,15 @@
+package com.nnk.springboot.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Filtres et tri de la liste des points de courbe.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CurvePointFilterDto extends ListFilterDto {
+    private Integer curveId;
+}
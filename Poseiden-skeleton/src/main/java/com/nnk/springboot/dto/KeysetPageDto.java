@@ -0,0 +1,28 @@
+package com.nnk.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Page de résultats obtenue par pagination par clé (keyset / seek).
+ *
+ * Les curseurs sont les identifiants de la dernière et de la première ligne de la page :
+ * - nextCursor : à transmettre en paramètre "after" pour obtenir la page suivante (null s'il n'y en a pas) ;
+ * - previousCursor : à transmettre en paramètre "before" pour obtenir la page précédente (null s'il n'y en a pas).
+ *
+ * @param <T> le type des éléments de la page
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetPageDto<T> {
+
+    private final List<T> items;
+
+    private final int size;
+
+    private final Integer nextCursor;
+
+    private final Integer previousCursor;
+}
@@ -0,0 +1,29 @@
+package com.nnk.springboot.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Paramètres de tri communs aux pages de liste ("sort" et "dir").
+ *
+ * Les listes sont limitées à MAX_ROWS lignes : au-delà, l'utilisateur doit affiner ses filtres.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public abstract class ListFilterDto {
+    public static final int MAX_ROWS = 1000;
+
+    private String sort;
+
+    private String dir;
+
+    public boolean isDescending() {
+        return "desc".equalsIgnoreCase(dir);
+    }
+
+    public int getMaxRows() {
+        return MAX_ROWS;
+    }
+}
@@ -0,0 +1,27 @@
+package com.nnk.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Position agrégée d'un compte pour un type : somme des quantités et nombre de lignes,
+ * côté trades (buyQuantity) et côté enchères (bidQuantity). Les quantités nulles comptent pour zéro.
+ */
+@Getter
+@AllArgsConstructor
+public class PositionDto {
+
+    private final String account;
+
+    private final String type;
+
+    private final BigDecimal buyQuantity;
+
+    private final long tradeCount;
+
+    private final BigDecimal bidQuantity;
+
+    private final long bidCount;
+}
@@ -23,4 +23,16 @@ public class RatingDto {
 
     @Min(value = 0, message = "L'ordre doit être positif ou nul.")
     private Integer orderNumber;
+
+    /**
+     * Constructeur de projection (DtoProjection.RATING) : l'ordre des paramètres est celui de la
+     * projection, indépendamment de l'ordre des champs.
+     */
+    public RatingDto(Integer id, String moodysRating, String sandpRating, String fitchRating, Integer orderNumber) {
+        this.id = id;
+        this.moodysRating = moodysRating;
+        this.sandpRating = sandpRating;
+        this.fitchRating = fitchRating;
+        this.orderNumber = orderNumber;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.nnk.springboot.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Filtres et tri de la liste des notations, une valeur par agence (égalité).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class RatingFilterDto extends ListFilterDto {
+    private String moodysRating;
+
+    private String sandpRating;
+
+    private String fitchRating;
+}
@@ -0,0 +1,18 @@
+package com.nnk.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Règle écartée de l'évaluation car sa condition (sqlPart ou json) n'a pas pu être compilée.
+ */
+@Getter
+@AllArgsConstructor
+public class RuleErrorDto {
+
+    private final Integer ruleId;
+
+    private final String name;
+
+    private final String error;
+}
@@ -0,0 +1,22 @@
+package com.nnk.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Compte rendu de l'évaluation des règles actives sur un lot d'enregistrements (trades ou enchères).
+ */
+@Getter
+@AllArgsConstructor
+public class RuleEvaluationResultDto {
+
+    private final String recordType;
+
+    private final int records;
+
+    private final List<RuleMatchDto> rules;
+
+    private final List<RuleErrorDto> invalidRules;
+}
@@ -0,0 +1,21 @@
+package com.nnk.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Résultat d'une règle sur un lot : nombre d'enregistrements satisfaisant la condition et leurs
+ * index dans le lot reçu (à partir de 0, dans l'ordre croissant).
+ */
+@Getter
+@AllArgsConstructor
+public class RuleMatchDto {
+
+    private final Integer ruleId;
+
+    private final String name;
+
+    private final int matchCount;
+
+    private final int[] recordIndexes;
+}
@@ -25,4 +25,18 @@ public class RuleNameDto {
     private String sqlStr;
 
     private String sqlPart;
+
+    /**
+     * Constructeur de projection (DtoProjection.RULE_NAME) : l'ordre des paramètres est celui de la
+     * projection, indépendamment de l'ordre des champs.
+     */
+    public RuleNameDto(Integer id, String name, String description, String json, String template, String sqlStr, String sqlPart) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.json = json;
+        this.template = template;
+        this.sqlStr = sqlStr;
+        this.sqlPart = sqlPart;
+    }
 }
\ No newline at end of file
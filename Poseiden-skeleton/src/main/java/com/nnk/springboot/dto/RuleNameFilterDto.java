@@ -0,0 +1,15 @@
+package com.nnk.springboot.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Filtres et tri de la liste des règles (préfixe du nom).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class RuleNameFilterDto extends ListFilterDto {
+    private String name;
+}
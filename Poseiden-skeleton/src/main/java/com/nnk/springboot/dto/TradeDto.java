@@ -1,8 +1,10 @@
 package com.nnk.springboot.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,12 +17,39 @@ public class TradeDto {
     private Integer id;
 
     @NotBlank(message = "Le compte est obligatoire.")
+    @Size(max = 30, message = "Le compte ne doit pas dépasser 30 caractères.")
     private String account;
 
     @NotBlank(message = "Le type est obligatoire.")
+    @Size(max = 30, message = "Le type ne doit pas dépasser 30 caractères.")
     private String type;
 
     @DecimalMin(value = "0.0", message = "La quantité d'achat doit être positive ou nulle.")
     @Digits(integer = 19, fraction = 4, message = "La quantité d'achat doit avoir au plus 19 chiffres et 4 décimales.")
     private BigDecimal buyQuantity;
+
+    /**
+     * Version lue par le client, renvoyée avec la mise à jour : une mise à jour portant sur une
+     * version périmée est refusée ou fusionnée. Absente des pages de liste.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer version;
+
+    /**
+     * Constructeur de projection des pages de liste (DtoProjection.TRADE) : la version n'est pas lue.
+     */
+    public TradeDto(Integer id, String account, String type, BigDecimal buyQuantity) {
+        this(id, account, type, buyQuantity, null);
+    }
+
+    /**
+     * Constructeur de projection avant modification (DtoProjection.TRADE_VERSIONED), version comprise.
+     */
+    public TradeDto(Integer id, String account, String type, BigDecimal buyQuantity, Integer version) {
+        this.id = id;
+        this.account = account;
+        this.type = type;
+        this.buyQuantity = buyQuantity;
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.nnk.springboot.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Filtres et tri de la liste des trades (égalité sur le compte et le type).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class TradeFilterDto extends ListFilterDto {
+    private String account;
+
+    private String type;
+}
@@ -32,4 +32,14 @@ public class UserDto {
     @NotBlank(groups = Update.class, message = "Le rôle est obligatoire.")
     @Size(max = 125, message = "Le rôle ne doit pas dépasser 125 caractères.")
     private String role;
+
+    /**
+     * Constructeur de projection : le mot de passe n'est jamais lu pour l'affichage.
+     */
+    public UserDto(Integer id, String username, String fullname, String role) {
+        this.id = id;
+        this.username = username;
+        this.fullname = fullname;
+        this.role = role;
+    }
 }
\ No newline at end of file
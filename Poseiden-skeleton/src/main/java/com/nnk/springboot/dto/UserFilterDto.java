@@ -0,0 +1,17 @@
+package com.nnk.springboot.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Filtres et tri de la liste des utilisateurs (préfixe du nom d'utilisateur, égalité sur le rôle).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserFilterDto extends ListFilterDto {
+    private String username;
+
+    private String role;
+}
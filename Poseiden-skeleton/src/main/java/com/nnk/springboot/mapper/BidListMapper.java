@@ -5,6 +5,7 @@ import com.nnk.springboot.domain.BidList;
 import com.nnk.springboot.dto.BidListDto;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
@@ -12,8 +13,13 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 
 public interface BidListMapper {
     BidListDto toDto(BidList entity);
+
+    /** La version est attribuée par Hibernate à l'insertion. */
+    @Mapping(target = "version", ignore = true)
     BidList toEntity(BidListDto dto);
 
+    /** La version n'est jamais recopiée : seul Hibernate l'incrémente, à chaque mise à jour. */
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "version", ignore = true)
     void updateEntity(@MappingTarget BidList entity, BidListDto dto);
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.nnk.springboot.domain.Trade;
 import com.nnk.springboot.dto.TradeDto;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
@@ -12,8 +13,13 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 
 public interface TradeMapper {
     TradeDto toDto(Trade entity);
+
+    /** La version est attribuée par Hibernate à l'insertion. */
+    @Mapping(target = "version", ignore = true)
     Trade toEntity(TradeDto dto);
 
+    /** La version n'est jamais recopiée : seul Hibernate l'incrémente, à chaque mise à jour. */
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "version", ignore = true)
     void updateEntity(@MappingTarget Trade entity, TradeDto dto);
     }
\ No newline at end of file
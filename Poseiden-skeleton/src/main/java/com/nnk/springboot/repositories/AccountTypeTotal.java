@@ -0,0 +1,10 @@
+package com.nnk.springboot.repositories;
+
+import java.math.BigDecimal;
+
+/**
+ * Ligne d'agrégat par compte et type : somme des quantités (nulle si toutes les quantités
+ * du groupe sont nulles) et nombre de lignes.
+ */
+public record AccountTypeTotal(String account, String type, BigDecimal quantity, Long count) {
+}
@@ -0,0 +1,9 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.AuditEntry;
+
+import java.util.List;
+
+public interface AuditEntryBatchRepository {
+    void insertAll(List<AuditEntry> entries);
+}
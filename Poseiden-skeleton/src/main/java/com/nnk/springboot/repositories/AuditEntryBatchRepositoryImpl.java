@@ -0,0 +1,40 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.AuditEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Insertion d'un lot d'entrées d'audit en une transaction, par lots JDBC : l'identifiant
+ * IDENTITY empêcherait Hibernate de regrouper les INSERT.
+ */
+@RequiredArgsConstructor
+public class AuditEntryBatchRepositoryImpl implements AuditEntryBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_entry (occurred_at, username, entity_type, operation, entity_id, changes) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void insertAll(List<AuditEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(entry.getOccurredAt()));
+            ps.setString(2, entry.getUsername());
+            ps.setString(3, entry.getEntityType());
+            ps.setString(4, entry.getOperation());
+            ps.setObject(5, entry.getEntityId(), Types.INTEGER);
+            ps.setString(6, entry.getChanges());
+        });
+    }
+}
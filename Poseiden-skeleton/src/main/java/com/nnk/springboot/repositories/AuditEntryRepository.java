@@ -0,0 +1,27 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.AuditEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditEntryRepository extends JpaRepository<AuditEntry, Long>, AuditEntryBatchRepository {
+
+    /**
+     * Entrées d'un enregistrement, de la plus récente à la plus ancienne ; from et to (inclus) sont
+     * ignorés lorsqu'ils sont nuls. Couvert par l'index (entity_type, entity_id, occurred_at) de V7.
+     */
+    @Query("select a from AuditEntry a where a.entityType = :entityType and a.entityId = :entityId"
+            + " and (cast(:from as localdatetime) is null or a.occurredAt >= :from)"
+            + " and (cast(:to as localdatetime) is null or a.occurredAt <= :to)"
+            + " order by a.occurredAt desc, a.id desc")
+    List<AuditEntry> findHistory(@Param("entityType") String entityType,
+                                 @Param("entityId") Integer entityId,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to,
+                                 Limit limit);
+}
@@ -0,0 +1,9 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.BidList;
+
+import java.util.List;
+
+public interface BidListBulkRepository {
+    int batchInsert(List<BidList> rows);
+}
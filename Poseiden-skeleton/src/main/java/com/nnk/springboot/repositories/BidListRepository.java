@@ -2,8 +2,15 @@ package com.nnk.springboot.repositories;
 
 import com.nnk.springboot.domain.BidList;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 
-public interface BidListRepository extends JpaRepository<BidList, Integer> {
 
+public interface BidListRepository extends JpaRepository<BidList, Integer>, JpaSpecificationExecutor<BidList>, BidListBulkRepository {
+
+    @Query("select new com.nnk.springboot.repositories.AccountTypeTotal(b.account, b.type, sum(b.bidQuantity), count(b)) "
+            + "from BidList b group by b.account, b.type")
+    List<AccountTypeTotal> sumBidQuantityByAccountAndType();
 }
@@ -0,0 +1,117 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.CurvePointDto;
+import com.nnk.springboot.dto.RatingDto;
+import com.nnk.springboot.dto.RuleNameDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.UserDto;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Projection d'une entité vers son DTO par expression constructeur.
+ *
+ * Les attributs sont listés dans l'ordre des paramètres d'un constructeur de projection du DTO,
+ * écrit explicitement (pas de @AllArgsConstructor, qui suivrait l'ordre des champs). La
+ * correspondance est vérifiée à la création de la projection, donc au chargement de la classe
+ * au démarrage : le DTO doit déclarer un constructeur public dont les types de paramètres sont
+ * ceux des attributs de l'entité et, le code étant compilé avec -parameters, dont les noms sont
+ * ceux des attributs. Un attribut oublié, ajouté ou déplacé échoue avec une IllegalStateException
+ * au lieu de remplir silencieusement le mauvais champ.
+ *
+ * Les projections des petites tables de référence (Rating, RuleName) nomment une région du
+ * cache de requêtes Hibernate : leurs résultats sont conservés jusqu'à la prochaine écriture
+ * sur la table (voir application.conf).
+ *
+ * @param entityClass l'entité interrogée
+ * @param dtoClass    le DTO construit pour chaque ligne
+ * @param attributes  les attributs sélectionnés, dans l'ordre du constructeur
+ * @param cacheRegion la région du cache de requêtes, ou null si les résultats ne sont pas mis en cache
+ * @param <T>         le type de l'entité
+ * @param <D>         le type du DTO
+ */
+public record DtoProjection<T, D>(Class<T> entityClass, Class<D> dtoClass, List<String> attributes, String cacheRegion) {
+
+    public DtoProjection {
+        attributes = List.copyOf(attributes);
+        checkConstructor(entityClass, dtoClass, attributes);
+    }
+
+    public DtoProjection(Class<T> entityClass, Class<D> dtoClass, List<String> attributes) {
+        this(entityClass, dtoClass, attributes, null);
+    }
+
+    public static final DtoProjection<BidList, BidListDto> BID_LIST = new DtoProjection<>(
+            BidList.class, BidListDto.class, List.of("id", "account", "type", "bidQuantity"));
+
+    /**
+     * Lecture d'une enchère avant modification : la version est lue en plus des colonnes de liste
+     * (hors des index couvrants de V3, d'où une projection distincte).
+     */
+    public static final DtoProjection<BidList, BidListDto> BID_LIST_VERSIONED = new DtoProjection<>(
+            BidList.class, BidListDto.class, List.of("id", "account", "type", "bidQuantity", "version"));
+
+    public static final DtoProjection<Trade, TradeDto> TRADE = new DtoProjection<>(
+            Trade.class, TradeDto.class, List.of("id", "account", "type", "buyQuantity"));
+
+    /** Lecture d'un trade avant modification, version comprise (voir BID_LIST_VERSIONED). */
+    public static final DtoProjection<Trade, TradeDto> TRADE_VERSIONED = new DtoProjection<>(
+            Trade.class, TradeDto.class, List.of("id", "account", "type", "buyQuantity", "version"));
+
+    public static final DtoProjection<CurvePoint, CurvePointDto> CURVE_POINT = new DtoProjection<>(
+            CurvePoint.class, CurvePointDto.class, List.of("id", "curveId", "asOfDate", "term", "value", "creationDate"));
+
+    public static final DtoProjection<Rating, RatingDto> RATING = new DtoProjection<>(
+            Rating.class, RatingDto.class, List.of("id", "moodysRating", "sandpRating", "fitchRating", "orderNumber"),
+            "rating-query");
+
+    public static final DtoProjection<RuleName, RuleNameDto> RULE_NAME = new DtoProjection<>(
+            RuleName.class, RuleNameDto.class, List.of("id", "name", "description", "json", "template", "sqlStr", "sqlPart"),
+            "ruleName-query");
+
+    /** Le mot de passe n'est pas sélectionné (voir le constructeur de projection de UserDto). */
+    public static final DtoProjection<User, UserDto> USER = new DtoProjection<>(
+            User.class, UserDto.class, List.of("id", "username", "fullname", "role"));
+
+    private static void checkConstructor(Class<?> entityClass, Class<?> dtoClass, List<String> attributes) {
+        Class<?>[] types = attributes.stream()
+                .map(attribute -> attributeType(entityClass, attribute))
+                .toArray(Class<?>[]::new);
+        Constructor<?> constructor;
+        try {
+            constructor = dtoClass.getConstructor(types);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Projection " + entityClass.getSimpleName() + " -> " + dtoClass.getSimpleName()
+                    + " : aucun constructeur public " + dtoClass.getSimpleName() + Arrays.toString(types), e);
+        }
+        Parameter[] parameters = constructor.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].isNamePresent() && !parameters[i].getName().equals(attributes.get(i))) {
+                throw new IllegalStateException("Projection " + entityClass.getSimpleName() + " -> " + dtoClass.getSimpleName()
+                        + " : l'attribut " + attributes.get(i) + " correspond au paramètre " + parameters[i].getName()
+                        + " (position " + i + ")");
+            }
+        }
+    }
+
+    private static Class<?> attributeType(Class<?> entityClass, String attribute) {
+        for (Class<?> type = entityClass; type != null; type = type.getSuperclass()) {
+            try {
+                return type.getDeclaredField(attribute).getType();
+            } catch (NoSuchFieldException e) {
+                // attribut hérité : on remonte la hiérarchie
+            }
+        }
+        throw new IllegalStateException("Projection " + entityClass.getSimpleName() + " : attribut inconnu " + attribute);
+    }
+}
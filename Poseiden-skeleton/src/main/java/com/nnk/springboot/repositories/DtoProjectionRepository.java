@@ -0,0 +1,87 @@
+package com.nnk.springboot.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Lectures en lecture seule qui construisent les DTO directement depuis le résultat SQL.
+ *
+ * La requête Criteria sélectionne uniquement les colonnes de la projection dans une
+ * expression constructeur (select new XxxDto(...)) : aucune entité n'est hydratée ni
+ * enregistrée dans le contexte de persistance (pas d'instantané pour le dirty checking),
+ * et aucune copie MapStruct n'est nécessaire.
+ *
+ * Les requêtes portent l'indication Hibernate read-only ; les écritures continuent de
+ * passer par les dépôts Spring Data et les entités gérées. Les projections dotées d'une
+ * région de cache sont marquées cacheables : Hibernate invalide leurs résultats dès qu'une
+ * écriture sur la table est validée.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DtoProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Renvoie les DTO des lignes qui satisfont la spécification, dans l'ordre demandé.
+     *
+     * @param projection la projection entité → DTO
+     * @param spec       les critères de filtrage, ou null pour toutes les lignes
+     * @param sort       le tri (Sort.unsorted() pour l'ordre de la base)
+     * @param limit      le nombre maximal de lignes, ou 0 pour ne pas limiter
+     * @return les DTO construits depuis le résultat
+     */
+    public <T, D> List<D> findAll(DtoProjection<T, D> projection, Specification<T> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<D> query = cb.createQuery(projection.dtoClass());
+        Root<T> root = query.from(projection.entityClass());
+        query.select(cb.construct(projection.dtoClass(), projection.attributes().stream()
+                .map(root::get)
+                .toArray(Selection[]::new)));
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        TypedQuery<D> typed = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        if (limit > 0) {
+            typed.setMaxResults(limit);
+        }
+        if (projection.cacheRegion() != null) {
+            typed.setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, projection.cacheRegion());
+        }
+        return typed.getResultList();
+    }
+
+    /**
+     * Renvoie le DTO de la ligne d'identifiant donné.
+     *
+     * @param projection la projection entité → DTO
+     * @param id         l'identifiant recherché
+     * @return le DTO, ou Optional.empty() si la ligne n'existe pas
+     */
+    public <T, D> Optional<D> findById(DtoProjection<T, D> projection, Integer id) {
+        Specification<T> byId = (root, query, cb) -> cb.equal(root.get("id"), id);
+        return findAll(projection, byId, Sort.unsorted(), 1).stream().findFirst();
+    }
+}
@@ -0,0 +1,112 @@
+package com.nnk.springboot.repositories;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Set;
+
+/**
+ * Critères de filtrage et de tri communs aux pages de liste.
+ *
+ * Chaque fabrique renvoie null lorsque la valeur du filtre est absente (nulle ou vide) :
+ * Specification.allOf / and ignorent alors le critère, seuls les filtres saisis sont appliqués.
+ *
+ * Les critères restent « sargables » pour que MySQL puisse parcourir les index de V3 :
+ * - égalité ou préfixe (LIKE 'abc%'), jamais de LIKE '%abc%' ni de fonction sur la colonne ;
+ * - pas de lower()/upper() : la collation par défaut de MySQL est déjà insensible à la casse.
+ *
+ * Chaque service restreint le tri à sa liste blanche SORTABLE (voir sort) : seules les
+ * propriétés couvertes par un index des migrations V3 et V8 (colonne triée en tête, ou derrière les colonnes
+ * filtrées en égalité) y figurent, pour que MySQL lise les lignes dans l'ordre de l'index
+ * et s'arrête à la limite au lieu de trier toute la table.
+ */
+public final class ListSpecifications {
+
+    private ListSpecifications() {
+    }
+
+    /**
+     * Égalité stricte sur un attribut ; les chaînes sont débarrassées de leurs espaces.
+     */
+    public static <T> Specification<T> equalTo(String attribute, Object value) {
+        if (value instanceof String s) {
+            if (s.isBlank()) {
+                return null;
+            }
+            String trimmed = s.trim();
+            return (root, query, cb) -> cb.equal(root.get(attribute), trimmed);
+        }
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(attribute), value);
+    }
+
+    /**
+     * Recherche par préfixe (LIKE 'valeur%'), les caractères spéciaux de LIKE étant échappés.
+     */
+    public static <T> Specification<T> startsWith(String attribute, String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return null;
+        }
+        String pattern = prefix.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get(attribute), pattern, '\\');
+    }
+
+    /**
+     * Attribut strictement supérieur à la valeur (curseur de pagination par clé).
+     */
+    public static <T, Y extends Comparable<? super Y>> Specification<T> greaterThan(String attribute, Y value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThan(root.get(attribute), value);
+    }
+
+    /**
+     * Attribut strictement inférieur à la valeur (curseur de pagination par clé).
+     */
+    public static <T, Y extends Comparable<? super Y>> Specification<T> lessThan(String attribute, Y value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThan(root.get(attribute), value);
+    }
+
+    /**
+     * Position strictement après (greater) ou avant la ligne curseur dans l'ordre (attribut, id) :
+     * attribut > valeur OR (attribut = valeur AND id > idCurseur), ou l'inverse.
+     * Pagination par clé sur une colonne triée non nulle, l'identifiant départageant les égalités.
+     */
+    public static <T, Y extends Comparable<? super Y>> Specification<T> seek(String attribute, Y value, Integer id, boolean greater) {
+        if (value == null || id == null) {
+            return null;
+        }
+        return (root, query, cb) -> greater
+                ? cb.or(cb.greaterThan(root.get(attribute), value),
+                        cb.and(cb.equal(root.get(attribute), value), cb.greaterThan(root.get("id"), id)))
+                : cb.or(cb.lessThan(root.get(attribute), value),
+                        cb.and(cb.equal(root.get(attribute), value), cb.lessThan(root.get("id"), id)));
+    }
+
+    /**
+     * Construit le tri demandé en le restreignant à une liste blanche de propriétés.
+     * Une propriété inconnue retombe sur la propriété par défaut ; l'identifiant est
+     * ajouté en second critère pour que l'ordre reste stable entre deux affichages.
+     *
+     * @param property        la propriété demandée (paramètre "sort"), ou null
+     * @param direction       "desc" pour un tri décroissant, toute autre valeur pour un tri croissant
+     * @param sortable        les propriétés autorisées
+     * @param defaultProperty la propriété utilisée à défaut
+     * @return le tri à appliquer
+     */
+    public static Sort sort(String property, String direction, Set<String> sortable, String defaultProperty) {
+        String sortBy = property != null && sortable.contains(property) ? property : defaultProperty;
+        Sort.Direction dir = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(dir, sortBy);
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(dir, "id"));
+    }
+}
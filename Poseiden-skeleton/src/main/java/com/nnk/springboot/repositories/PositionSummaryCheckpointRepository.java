@@ -0,0 +1,10 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.PositionSummary;
+import com.nnk.springboot.domain.PositionSummaryId;
+
+import java.util.List;
+
+public interface PositionSummaryCheckpointRepository {
+    void checkpoint(List<PositionSummary> upserts, List<PositionSummaryId> deletes);
+}
@@ -0,0 +1,54 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.PositionSummary;
+import com.nnk.springboot.domain.PositionSummaryId;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Écriture d'un point de reprise de position_summary en une transaction : les positions
+ * modifiées sont insérées ou remplacées (INSERT ... ON DUPLICATE KEY UPDATE, accepté par
+ * MySQL et par H2 en mode MySQL) et les positions devenues vides sont supprimées, par lots JDBC.
+ * Compte et type arrivent normalisés (PositionAggregator.normalize) : deux positions que la
+ * collation de la clé primaire confond ne peuvent pas s'écraser l'une l'autre dans un même lot.
+ */
+@RequiredArgsConstructor
+public class PositionSummaryCheckpointRepositoryImpl implements PositionSummaryCheckpointRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO position_summary (account, type, buy_quantity, trade_count, bid_quantity, bid_count, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE buy_quantity = VALUES(buy_quantity), "
+                    + "trade_count = VALUES(trade_count), bid_quantity = VALUES(bid_quantity), "
+                    + "bid_count = VALUES(bid_count), updated_at = VALUES(updated_at)";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM position_summary WHERE account = ? AND type = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void checkpoint(List<PositionSummary> upserts, List<PositionSummaryId> deletes) {
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, upserts, upserts.size(), (ps, row) -> {
+                ps.setString(1, row.getId().getAccount());
+                ps.setString(2, row.getId().getType());
+                ps.setBigDecimal(3, row.getBuyQuantity());
+                ps.setLong(4, row.getTradeCount());
+                ps.setBigDecimal(5, row.getBidQuantity());
+                ps.setLong(6, row.getBidCount());
+                ps.setTimestamp(7, Timestamp.valueOf(row.getUpdatedAt()));
+            });
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, deletes, deletes.size(), (ps, id) -> {
+                ps.setString(1, id.getAccount());
+                ps.setString(2, id.getType());
+            });
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.PositionSummary;
+import com.nnk.springboot.domain.PositionSummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface PositionSummaryRepository extends JpaRepository<PositionSummary, PositionSummaryId>, PositionSummaryCheckpointRepository {
+
+    @Query("select p.id from PositionSummary p")
+    List<PositionSummaryId> findAllIds();
+}
@@ -2,7 +2,8 @@ package com.nnk.springboot.repositories;
 
 import com.nnk.springboot.domain.RuleName;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 
-public interface RuleNameRepository extends JpaRepository<RuleName, Integer> {
+public interface RuleNameRepository extends JpaRepository<RuleName, Integer>, JpaSpecificationExecutor<RuleName> {
 }
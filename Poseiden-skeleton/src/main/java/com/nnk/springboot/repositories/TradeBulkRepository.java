@@ -0,0 +1,9 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.Trade;
+
+import java.util.List;
+
+public interface TradeBulkRepository {
+    int batchInsert(List<Trade> rows);
+}
@@ -0,0 +1,60 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.Trade;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Insertion en masse des Trade par lots JDBC, sur le modèle de BidListBulkRepositoryImpl
+ * (clé trade_id en IDENTITY, lots réécrits en INSERT multi-lignes par rewriteBatchedStatements).
+ *
+ * Les identifiants générés sont relus en fin de lot (getGeneratedKeys) et reportés sur les
+ * entités passées, qui ne sont pas attachées au contexte de persistance.
+ */
+@RequiredArgsConstructor
+public class TradeBulkRepositoryImpl implements TradeBulkRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO trade (account, type, buy_quantity, version) VALUES (?, ?, ?, 0)";
+
+    private static final String[] KEY_COLUMNS = {"trade_id"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int batchInsert(List<Trade> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, KEY_COLUMNS), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Trade row = rows.get(i);
+                ps.setString(1, row.getAccount());
+                ps.setString(2, row.getType());
+                ps.setBigDecimal(3, row.getBuyQuantity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        }, keys);
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != rows.size()) {
+            throw new IllegalStateException(generated.size() + " clé(s) générée(s) pour " + rows.size() + " ligne(s) insérée(s)");
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setId(((Number) generated.get(i).values().iterator().next()).intValue());
+        }
+        return rows.size();
+    }
+}
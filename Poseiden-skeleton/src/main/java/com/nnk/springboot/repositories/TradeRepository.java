@@ -2,7 +2,15 @@ package com.nnk.springboot.repositories;
 
 import com.nnk.springboot.domain.Trade;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 
-public interface TradeRepository extends JpaRepository<Trade, Integer> {
+
+public interface TradeRepository extends JpaRepository<Trade, Integer>, JpaSpecificationExecutor<Trade>, TradeBulkRepository {
+
+    @Query("select new com.nnk.springboot.repositories.AccountTypeTotal(t.account, t.type, sum(t.buyQuantity), count(t)) "
+            + "from Trade t group by t.account, t.type")
+    List<AccountTypeTotal> sumBuyQuantityByAccountAndType();
 }
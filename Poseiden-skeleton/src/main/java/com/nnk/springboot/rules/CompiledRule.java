@@ -0,0 +1,10 @@
+package com.nnk.springboot.rules;
+
+import java.util.function.Predicate;
+
+/**
+ * Règle compilée pour un type d'enregistrement : identifiant et nom de la RuleName d'origine
+ * et prédicat évaluant sa condition.
+ */
+public record CompiledRule<T>(Integer ruleId, String name, Predicate<T> predicate) {
+}
@@ -0,0 +1,12 @@
+package com.nnk.springboot.rules;
+
+import com.nnk.springboot.dto.RuleErrorDto;
+
+import java.util.List;
+
+/**
+ * Ensemble des règles actives compilées pour un type d'enregistrement, dans l'ordre des
+ * identifiants, et des règles dont la condition n'a pas pu être compilée.
+ */
+public record CompiledRuleSet<T>(List<CompiledRule<T>> rules, List<RuleErrorDto> invalidRules) {
+}
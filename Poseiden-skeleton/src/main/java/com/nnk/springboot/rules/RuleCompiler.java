@@ -0,0 +1,324 @@
+package com.nnk.springboot.rules;
+
+import com.nnk.springboot.rules.RuleExpression.And;
+import com.nnk.springboot.rules.RuleExpression.Comparison;
+import com.nnk.springboot.rules.RuleExpression.In;
+import com.nnk.springboot.rules.RuleExpression.IsNull;
+import com.nnk.springboot.rules.RuleExpression.Like;
+import com.nnk.springboot.rules.RuleExpression.Not;
+import com.nnk.springboot.rules.RuleExpression.Operator;
+import com.nnk.springboot.rules.RuleExpression.Or;
+import com.nnk.springboot.rules.RuleSchema.Field;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Compile un RuleExpression en Predicate pour un type d'enregistrement donné.
+ *
+ * Tout le travail dépendant de la règle est fait ici, une seule fois : résolution des champs,
+ * conversion des littéraux dans le type du champ, ensembles pour IN, motif LIKE réduit à
+ * startsWith / endsWith / contains quand c'est possible. Le prédicat obtenu ne fait plus que
+ * lire le champ et comparer. LIKE avec '_' ou un '%' intérieur est évalué par un parcours du
+ * motif sans expression régulière (voir likeMatches) : un motif saisi dans une règle ne peut pas
+ * provoquer de retour arrière exponentiel.
+ *
+ * Une règle est un fragment de clause WHERE : un enregistrement est retenu quand la condition
+ * serait vraie pour MySQL sur la même ligne.
+ * - Valeurs nulles, logique à trois valeurs : une comparaison, IN ou LIKE sur un champ null est
+ *   inconnue, et NOT d'une inconnue reste inconnue, donc non retenue (NOT buyQuantity > 50 ne
+ *   retient pas un trade sans quantité). NOT est propagé jusqu'aux feuilles à la compilation
+ *   (lois de De Morgan) : une feuille niée n'est vraie que si le champ est non null et la
+ *   condition fausse.
+ * - Chaînes, comme la collation par défaut des colonnes : comparaison insensible à la casse et
+ *   aux accents (voir fold), espaces finaux ignorés par =, <>, <, >, IN mais pas par LIKE.
+ *   L'ordre de < et > est celui des chaînes repliées, une approximation de l'ordre de la
+ *   collation. La valeur lue est repliée à chaque évaluation (sans allocation si elle est déjà
+ *   en majuscules ASCII).
+ * - Les décimaux sont comparés par compareTo (10.0 = 10.00).
+ */
+public final class RuleCompiler {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private RuleCompiler() {
+    }
+
+    /**
+     * @throws RuleSyntaxException si un champ est inconnu du schéma ou si un littéral
+     *                             n'est pas du type du champ
+     */
+    public static <T> Predicate<T> compile(RuleExpression expression, RuleSchema<T> schema) {
+        return compile(expression, schema, false);
+    }
+
+    /**
+     * Compile expression, ou sa négation si negated : les NOT sont poussés vers les feuilles.
+     */
+    private static <T> Predicate<T> compile(RuleExpression expression, RuleSchema<T> schema, boolean negated) {
+        if (expression instanceof And and) {
+            Predicate<T>[] operands = compileAll(and.operands(), schema, negated);
+            return negated ? or(operands) : and(operands);
+        }
+        if (expression instanceof Or or) {
+            Predicate<T>[] operands = compileAll(or.operands(), schema, negated);
+            return negated ? and(operands) : or(operands);
+        }
+        if (expression instanceof Not not) {
+            return compile(not.operand(), schema, !negated);
+        }
+        if (expression instanceof IsNull isNull) {
+            Function<T, ?> getter = schema.resolve(isNull.field()).getter();
+            return negated ? record -> getter.apply(record) != null : record -> getter.apply(record) == null;
+        }
+        Field<T> field;
+        Predicate<Object> test;
+        if (expression instanceof Comparison comparison) {
+            field = schema.resolve(comparison.field());
+            test = comparison(field, comparison.operator(), comparison.literal());
+        } else if (expression instanceof In in) {
+            field = schema.resolve(in.field());
+            test = in(field, in);
+        } else {
+            Like like = (Like) expression;
+            field = schema.resolve(like.field());
+            test = like(field, like.pattern());
+        }
+        return leaf(field.getter(), test, negated);
+    }
+
+    /**
+     * Feuille de la condition : vraie si le champ est non null et que test vaut !negated ;
+     * un champ null rend la feuille inconnue, donc jamais vraie, niée ou non.
+     */
+    private static <T> Predicate<T> leaf(Function<T, ?> getter, Predicate<Object> test, boolean negated) {
+        if (negated) {
+            return record -> {
+                Object value = getter.apply(record);
+                return value != null && !test.test(value);
+            };
+        }
+        return record -> {
+            Object value = getter.apply(record);
+            return value != null && test.test(value);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Predicate<T>[] compileAll(List<RuleExpression> operands, RuleSchema<T> schema, boolean negated) {
+        Predicate<T>[] predicates = new Predicate[operands.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = compile(operands.get(i), schema, negated);
+        }
+        return predicates;
+    }
+
+    private static <T> Predicate<T> and(Predicate<T>[] operands) {
+        if (operands.length == 2) {
+            Predicate<T> first = operands[0];
+            Predicate<T> second = operands[1];
+            return record -> first.test(record) && second.test(record);
+        }
+        return record -> {
+            for (Predicate<T> operand : operands) {
+                if (!operand.test(record)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    private static <T> Predicate<T> or(Predicate<T>[] operands) {
+        if (operands.length == 2) {
+            Predicate<T> first = operands[0];
+            Predicate<T> second = operands[1];
+            return record -> first.test(record) || second.test(record);
+        }
+        return record -> {
+            for (Predicate<T> operand : operands) {
+                if (operand.test(record)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * Test d'une valeur non nulle du champ.
+     */
+    private static Predicate<Object> comparison(Field<?> field, Operator operator, Object literal) {
+        switch (field.type()) {
+            case STRING -> {
+                String expected = unpad(fold(string(field, literal)));
+                if (operator == Operator.EQ) {
+                    return value -> expected.equals(unpad(fold((String) value)));
+                }
+                IntPredicate accepts = accepts(operator);
+                return value -> accepts.test(unpad(fold((String) value)).compareTo(expected));
+            }
+            case INTEGER -> {
+                double expected = decimal(field, literal).doubleValue();
+                IntPredicate accepts = accepts(operator);
+                return value -> accepts.test(Double.compare(((Integer) value).doubleValue(), expected));
+            }
+            default -> {
+                BigDecimal expected = decimal(field, literal);
+                IntPredicate accepts = accepts(operator);
+                return value -> accepts.test(((BigDecimal) value).compareTo(expected));
+            }
+        }
+    }
+
+    private static IntPredicate accepts(Operator operator) {
+        return switch (operator) {
+            case EQ -> c -> c == 0;
+            case NE -> c -> c != 0;
+            case LT -> c -> c < 0;
+            case LE -> c -> c <= 0;
+            case GT -> c -> c > 0;
+            case GE -> c -> c >= 0;
+        };
+    }
+
+    private static Predicate<Object> in(Field<?> field, In in) {
+        switch (field.type()) {
+            case STRING -> {
+                Set<String> values = new HashSet<>();
+                in.literals().forEach(literal -> values.add(unpad(fold(string(field, literal)))));
+                return value -> values.contains(unpad(fold((String) value)));
+            }
+            case INTEGER -> {
+                Set<Integer> values = new HashSet<>();
+                for (Object literal : in.literals()) {
+                    BigDecimal number = decimal(field, literal);
+                    try {
+                        values.add(number.intValueExact());
+                    } catch (ArithmeticException ex) {
+                        // valeur non entière ou hors des bornes d'un Integer : ne peut correspondre à aucun enregistrement
+                    }
+                }
+                return values::contains;
+            }
+            default -> {
+                Set<BigDecimal> values = new TreeSet<>();
+                in.literals().forEach(literal -> values.add(decimal(field, literal)));
+                return values::contains;
+            }
+        }
+    }
+
+    private static Predicate<Object> like(Field<?> field, String pattern) {
+        if (field.type() != RuleSchema.FieldType.STRING) {
+            throw new RuleSyntaxException("LIKE n'est applicable qu'à un champ texte : " + field.name());
+        }
+        Predicate<String> matcher = likeMatcher(fold(pattern));
+        return value -> matcher.test(fold((String) value));
+    }
+
+    private static Predicate<String> likeMatcher(String pattern) {
+        if (pattern.indexOf('_') < 0) {
+            boolean leading = pattern.startsWith("%");
+            boolean trailing = pattern.length() > 1 && pattern.endsWith("%");
+            String core = pattern.substring(leading ? 1 : 0, pattern.length() - (trailing ? 1 : 0));
+            if (core.indexOf('%') < 0) {
+                if (leading && trailing) {
+                    return value -> value.contains(core);
+                }
+                if (leading) {
+                    return value -> value.endsWith(core);
+                }
+                if (trailing) {
+                    return value -> value.startsWith(core);
+                }
+                return core::equals;
+            }
+        }
+        return value -> likeMatches(value, pattern);
+    }
+
+    /**
+     * Motif LIKE ('%' : toute suite de caractères, '_' : un caractère) sans échappement.
+     *
+     * Parcours glouton avec reprise sur le dernier '%' rencontré : chaque '%' n'est repris qu'en
+     * avançant d'un caractère dans la valeur, d'où au plus longueur(valeur) × longueur(motif)
+     * comparaisons, sans pile ni retour arrière exponentiel (contrairement à une expression
+     * régulière .*a.*a.*...).
+     */
+    static boolean likeMatches(String value, String pattern) {
+        int v = 0;
+        int p = 0;
+        int star = -1;
+        int resume = 0;
+        while (v < value.length()) {
+            if (p < pattern.length() && pattern.charAt(p) == '%') {
+                star = p++;
+                resume = v;
+            } else if (p < pattern.length() && (pattern.charAt(p) == '_' || pattern.charAt(p) == value.charAt(v))) {
+                p++;
+                v++;
+            } else if (star >= 0) {
+                p = star + 1;
+                v = ++resume;
+            } else {
+                return false;
+            }
+        }
+        while (p < pattern.length() && pattern.charAt(p) == '%') {
+            p++;
+        }
+        return p == pattern.length();
+    }
+
+    /**
+     * Forme repliée d'une chaîne : accents retirés (décomposition Unicode) et majuscules. Une
+     * chaîne ASCII sans minuscule est renvoyée telle quelle.
+     */
+    static String fold(String value) {
+        boolean plain = true;
+        for (int i = 0; i < value.length() && plain; i++) {
+            char c = value.charAt(i);
+            plain = c < 128 && (c < 'a' || c > 'z');
+        }
+        if (plain) {
+            return value;
+        }
+        String unaccented = COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return unaccented.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Chaîne sans ses espaces finaux, ignorés par les comparaisons de la collation (PAD SPACE).
+     */
+    private static String unpad(String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return end == value.length() ? value : value.substring(0, end);
+    }
+
+    private static String string(Field<?> field, Object literal) {
+        if (literal instanceof String text) {
+            return text;
+        }
+        throw new RuleSyntaxException("Chaîne entre apostrophes attendue pour le champ texte " + field.name() + " : " + literal);
+    }
+
+    private static BigDecimal decimal(Field<?> field, Object literal) {
+        if (literal instanceof BigDecimal number) {
+            return number;
+        }
+        throw new RuleSyntaxException("Nombre attendu pour le champ numérique " + field.name() + " : '" + literal + "'");
+    }
+}
@@ -0,0 +1,38 @@
+package com.nnk.springboot.rules;
+
+import java.util.List;
+
+/**
+ * Arbre syntaxique d'une condition de règle (RuleName.sqlPart ou RuleName.json).
+ *
+ * Les littéraux sont des String (chaînes entre apostrophes) ou des BigDecimal (nombres) ;
+ * les noms de champs sont conservés tels qu'écrits et résolus à la compilation par RuleSchema.
+ * BETWEEN est représenté par un And de deux comparaisons.
+ */
+public sealed interface RuleExpression {
+
+    enum Operator {
+        EQ, NE, LT, LE, GT, GE
+    }
+
+    record And(List<RuleExpression> operands) implements RuleExpression {
+    }
+
+    record Or(List<RuleExpression> operands) implements RuleExpression {
+    }
+
+    record Not(RuleExpression operand) implements RuleExpression {
+    }
+
+    record Comparison(String field, Operator operator, Object literal) implements RuleExpression {
+    }
+
+    record In(String field, List<Object> literals) implements RuleExpression {
+    }
+
+    record IsNull(String field) implements RuleExpression {
+    }
+
+    record Like(String field, String pattern) implements RuleExpression {
+    }
+}
@@ -0,0 +1,343 @@
+package com.nnk.springboot.rules;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nnk.springboot.rules.RuleExpression.And;
+import com.nnk.springboot.rules.RuleExpression.Comparison;
+import com.nnk.springboot.rules.RuleExpression.In;
+import com.nnk.springboot.rules.RuleExpression.IsNull;
+import com.nnk.springboot.rules.RuleExpression.Like;
+import com.nnk.springboot.rules.RuleExpression.Not;
+import com.nnk.springboot.rules.RuleExpression.Operator;
+import com.nnk.springboot.rules.RuleExpression.Or;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Analyseur des conditions de règles.
+ *
+ * RuleName.sqlPart est un fragment de clause WHERE SQL, analysé par descente récursive :
+ *
+ *   expr       := and ( OR and )*
+ *   and        := not ( AND not )*
+ *   not        := NOT not | '(' expr ')' | predicate
+ *   predicate  := field op literal | field [NOT] IN '(' literal, ... ')' | field IS [NOT] NULL
+ *               | field [NOT] LIKE 'motif' | field [NOT] BETWEEN literal AND literal
+ *   op         := = | != | <> | < | <= | > | >=
+ *
+ * Les mots-clés sont insensibles à la casse, les chaînes sont entre apostrophes ('' pour une
+ * apostrophe) et un éventuel préfixe de table (t.account) est ignoré.
+ *
+ * L'imbrication (parenthèses et NOT) est limitée à MAX_DEPTH niveaux : au-delà, la condition est
+ * refusée (RuleSyntaxException) plutôt que d'épuiser la pile de l'analyseur ou du compilateur.
+ *
+ * RuleName.json est un objet JSON plat dont chaque entrée est une égalité (null : IS NULL),
+ * les entrées étant combinées par AND.
+ */
+public final class RuleParser {
+    public static final int MAX_DEPTH = 32;
+
+    private final String source;
+    private final List<Token> tokens;
+    private int position;
+    private int depth;
+
+    private RuleParser(String source) {
+        this.source = source;
+        this.tokens = tokenize(source);
+    }
+
+    /**
+     * Analyse un fragment de clause WHERE.
+     *
+     * @throws RuleSyntaxException si le fragment n'est pas conforme à la grammaire
+     */
+    public static RuleExpression parse(String sqlPart) {
+        RuleParser parser = new RuleParser(sqlPart);
+        RuleExpression expression = parser.or();
+        if (parser.peek().type() != TokenType.END) {
+            throw parser.error("fin de condition attendue");
+        }
+        return expression;
+    }
+
+    /**
+     * Convertit un objet JSON plat en conjonction d'égalités.
+     *
+     * @throws RuleSyntaxException si le JSON n'est pas un objet ou contient une valeur non scalaire
+     */
+    public static RuleExpression fromJson(JsonNode json) {
+        if (!json.isObject() || json.isEmpty()) {
+            throw new RuleSyntaxException("Le json d'une règle doit être un objet non vide de conditions d'égalité");
+        }
+        List<RuleExpression> conditions = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = json.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            if (value.isNull()) {
+                conditions.add(new IsNull(field.getKey()));
+            } else if (value.isNumber()) {
+                conditions.add(new Comparison(field.getKey(), Operator.EQ, value.decimalValue()));
+            } else if (value.isTextual()) {
+                conditions.add(new Comparison(field.getKey(), Operator.EQ, value.textValue()));
+            } else {
+                throw new RuleSyntaxException("Valeur non scalaire pour le champ '" + field.getKey() + "' du json");
+            }
+        }
+        return conditions.size() == 1 ? conditions.get(0) : new And(List.copyOf(conditions));
+    }
+
+    private RuleExpression or() {
+        List<RuleExpression> operands = new ArrayList<>();
+        operands.add(and());
+        while (acceptKeyword("OR")) {
+            operands.add(and());
+        }
+        return operands.size() == 1 ? operands.get(0) : new Or(List.copyOf(operands));
+    }
+
+    private RuleExpression and() {
+        List<RuleExpression> operands = new ArrayList<>();
+        operands.add(not());
+        while (acceptKeyword("AND")) {
+            operands.add(not());
+        }
+        return operands.size() == 1 ? operands.get(0) : new And(List.copyOf(operands));
+    }
+
+    private RuleExpression not() {
+        if (acceptKeyword("NOT")) {
+            enter();
+            RuleExpression negated = new Not(not());
+            depth--;
+            return negated;
+        }
+        if (accept(TokenType.LPAREN)) {
+            enter();
+            RuleExpression inner = or();
+            expect(TokenType.RPAREN, "')' attendu");
+            depth--;
+            return inner;
+        }
+        return predicate();
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw error("imbrication de plus de " + MAX_DEPTH + " niveaux");
+        }
+    }
+
+    private RuleExpression predicate() {
+        Token token = next();
+        if (token.type() != TokenType.WORD || isKeyword(token)) {
+            throw error(token, "nom de champ attendu");
+        }
+        String field = token.text();
+        int dot = field.lastIndexOf('.');
+        if (dot >= 0) {
+            field = field.substring(dot + 1);
+        }
+        if (acceptKeyword("IS")) {
+            boolean negated = acceptKeyword("NOT");
+            expectKeyword("NULL");
+            return negate(new IsNull(field), negated);
+        }
+        boolean negated = acceptKeyword("NOT");
+        if (acceptKeyword("IN")) {
+            expect(TokenType.LPAREN, "'(' attendu après IN");
+            List<Object> literals = new ArrayList<>();
+            do {
+                literals.add(literal());
+            } while (accept(TokenType.COMMA));
+            expect(TokenType.RPAREN, "')' attendu");
+            return negate(new In(field, List.copyOf(literals)), negated);
+        }
+        if (acceptKeyword("LIKE")) {
+            Token pattern = next();
+            if (pattern.type() != TokenType.STRING) {
+                throw error(pattern, "motif entre apostrophes attendu après LIKE");
+            }
+            return negate(new Like(field, pattern.text()), negated);
+        }
+        if (acceptKeyword("BETWEEN")) {
+            Object low = literal();
+            expectKeyword("AND");
+            Object high = literal();
+            return negate(new And(List.of(new Comparison(field, Operator.GE, low),
+                    new Comparison(field, Operator.LE, high))), negated);
+        }
+        if (negated) {
+            throw error("IN, LIKE ou BETWEEN attendu après NOT");
+        }
+        Token operator = next();
+        if (operator.type() != TokenType.OPERATOR) {
+            throw error(operator, "opérateur de comparaison attendu");
+        }
+        return new Comparison(field, operator(operator.text()), literal());
+    }
+
+    private static RuleExpression negate(RuleExpression expression, boolean negated) {
+        return negated ? new Not(expression) : expression;
+    }
+
+    private Object literal() {
+        Token token = next();
+        return switch (token.type()) {
+            case STRING -> token.text();
+            case NUMBER -> new BigDecimal(token.text());
+            default -> throw error(token, "littéral attendu (nombre ou chaîne entre apostrophes)");
+        };
+    }
+
+    private static Operator operator(String text) {
+        return switch (text) {
+            case "=" -> Operator.EQ;
+            case "!=", "<>" -> Operator.NE;
+            case "<" -> Operator.LT;
+            case "<=" -> Operator.LE;
+            case ">" -> Operator.GT;
+            default -> Operator.GE;
+        };
+    }
+
+    private Token peek() {
+        return tokens.get(position);
+    }
+
+    private Token next() {
+        Token token = tokens.get(position);
+        if (token.type() != TokenType.END) {
+            position++;
+        }
+        return token;
+    }
+
+    private boolean accept(TokenType type) {
+        if (peek().type() == type) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(TokenType type, String message) {
+        if (!accept(type)) {
+            throw error(message);
+        }
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        Token token = peek();
+        if (token.type() == TokenType.WORD && token.text().equalsIgnoreCase(keyword)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) {
+            throw error(keyword + " attendu");
+        }
+    }
+
+    private static boolean isKeyword(Token token) {
+        return switch (token.text().toUpperCase(Locale.ROOT)) {
+            case "AND", "OR", "NOT", "IN", "IS", "NULL", "LIKE", "BETWEEN" -> true;
+            default -> false;
+        };
+    }
+
+    private RuleSyntaxException error(String message) {
+        return error(peek(), message);
+    }
+
+    private RuleSyntaxException error(Token token, String message) {
+        return new RuleSyntaxException("Condition invalide à la position " + (token.offset() + 1) + " (" + message + ") : " + source);
+    }
+
+    private static List<Token> tokenize(String source) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int length = source.length();
+        while (i < length) {
+            char c = source.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(') {
+                tokens.add(new Token(TokenType.LPAREN, "(", i++));
+            } else if (c == ')') {
+                tokens.add(new Token(TokenType.RPAREN, ")", i++));
+            } else if (c == ',') {
+                tokens.add(new Token(TokenType.COMMA, ",", i++));
+            } else if (c == '\'') {
+                int start = i++;
+                StringBuilder text = new StringBuilder();
+                while (true) {
+                    if (i >= length) {
+                        throw new RuleSyntaxException("Chaîne non terminée à la position " + (start + 1) + " : " + source);
+                    }
+                    char s = source.charAt(i++);
+                    if (s == '\'') {
+                        if (i < length && source.charAt(i) == '\'') {
+                            text.append('\'');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        text.append(s);
+                    }
+                }
+                tokens.add(new Token(TokenType.STRING, text.toString(), start));
+            } else if (Character.isDigit(c) || (c == '-' || c == '.') && i + 1 < length && Character.isDigit(source.charAt(i + 1))) {
+                int start = i++;
+                while (i < length && (Character.isDigit(source.charAt(i)) || source.charAt(i) == '.')) {
+                    i++;
+                }
+                String number = source.substring(start, i);
+                try {
+                    new BigDecimal(number);
+                } catch (NumberFormatException ex) {
+                    throw new RuleSyntaxException("Nombre invalide '" + number + "' à la position " + (start + 1) + " : " + source);
+                }
+                tokens.add(new Token(TokenType.NUMBER, number, start));
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i++;
+                while (i < length && (Character.isLetterOrDigit(source.charAt(i)) || source.charAt(i) == '_' || source.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.WORD, source.substring(start, i), start));
+            } else if (c == '=') {
+                tokens.add(new Token(TokenType.OPERATOR, "=", i++));
+            } else if (c == '<' || c == '>' || c == '!') {
+                int start = i++;
+                if (i < length && (source.charAt(i) == '=' || c == '<' && source.charAt(i) == '>')) {
+                    i++;
+                }
+                String operator = source.substring(start, i);
+                if (operator.equals("!")) {
+                    throw new RuleSyntaxException("Opérateur '!' inconnu à la position " + (start + 1) + " : " + source);
+                }
+                tokens.add(new Token(TokenType.OPERATOR, operator, start));
+            } else {
+                throw new RuleSyntaxException("Caractère inattendu '" + c + "' à la position " + (i + 1) + " : " + source);
+            }
+        }
+        tokens.add(new Token(TokenType.END, "", length));
+        return tokens;
+    }
+
+    private enum TokenType {
+        WORD, NUMBER, STRING, OPERATOR, LPAREN, RPAREN, COMMA, END
+    }
+
+    private record Token(TokenType type, String text, int offset) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.nnk.springboot.rules;
+
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.TradeDto;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Champs d'un type d'enregistrement utilisables dans une condition de règle.
+ *
+ * Un champ est désigné indifféremment par sa propriété Java (buyQuantity) ou sa colonne
+ * (buy_quantity), sans tenir compte de la casse.
+ *
+ * @param <T> le type d'enregistrement évalué
+ */
+public final class RuleSchema<T> {
+
+    /** Type de valeur d'un champ, qui détermine le type de littéral accepté à la compilation. */
+    public enum FieldType {
+        STRING, INTEGER, DECIMAL
+    }
+
+    /**
+     * @param type   le type de la valeur renvoyée par getter
+     * @param getter l'accesseur, qui peut renvoyer null
+     */
+    public record Field<T>(String name, FieldType type, Function<T, ?> getter) {
+    }
+
+    public static final RuleSchema<TradeDto> TRADE = new RuleSchema<TradeDto>("trade")
+            .field("id", FieldType.INTEGER, TradeDto::getId, "trade_id")
+            .field("account", FieldType.STRING, TradeDto::getAccount)
+            .field("type", FieldType.STRING, TradeDto::getType)
+            .field("buyQuantity", FieldType.DECIMAL, TradeDto::getBuyQuantity);
+
+    public static final RuleSchema<BidListDto> BID_LIST = new RuleSchema<BidListDto>("bidList")
+            .field("id", FieldType.INTEGER, BidListDto::getId, "bid_list_id")
+            .field("account", FieldType.STRING, BidListDto::getAccount)
+            .field("type", FieldType.STRING, BidListDto::getType)
+            .field("bidQuantity", FieldType.DECIMAL, BidListDto::getBidQuantity);
+
+    private final String name;
+    private final Map<String, Field<T>> fields = new HashMap<>();
+
+    private RuleSchema(String name) {
+        this.name = name;
+    }
+
+    private RuleSchema<T> field(String property, FieldType type, Function<T, ?> getter, String... aliases) {
+        Field<T> field = new Field<>(property, type, getter);
+        fields.put(normalize(property), field);
+        for (String alias : aliases) {
+            fields.put(normalize(alias), field);
+        }
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @throws RuleSyntaxException si le champ n'existe pas pour ce type d'enregistrement
+     */
+    public Field<T> resolve(String field) {
+        Field<T> resolved = fields.get(normalize(field));
+        if (resolved == null) {
+            throw new RuleSyntaxException("Champ '" + field + "' inconnu pour " + name);
+        }
+        return resolved;
+    }
+
+    private static String normalize(String field) {
+        return field.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
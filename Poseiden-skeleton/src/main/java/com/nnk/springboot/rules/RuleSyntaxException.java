@@ -0,0 +1,12 @@
+package com.nnk.springboot.rules;
+
+/**
+ * Condition de règle illisible ou incompatible avec le type d'enregistrement évalué
+ * (champ inconnu, littéral d'un type inattendu).
+ */
+public class RuleSyntaxException extends IllegalArgumentException {
+
+    public RuleSyntaxException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.dto.AuditHistoryDto;
+
+import java.time.LocalDateTime;
+
+public interface AuditService {
+    int MAX_ROWS = 1000;
+
+    AuditHistoryDto findHistory(String entity, Integer id, LocalDateTime from, LocalDateTime to);
+}
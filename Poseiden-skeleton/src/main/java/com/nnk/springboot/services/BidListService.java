@@ -2,14 +2,23 @@ package com.nnk.springboot.services;
 
 
 import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.BidListFilterDto;
+import com.nnk.springboot.dto.BulkImportReportDto;
+import com.nnk.springboot.dto.KeysetPageDto;
 
+import java.util.Iterator;
 import java.util.List;
 
 
 public interface BidListService {
+    int DEFAULT_PAGE_SIZE = 50;
+    int MAX_PAGE_SIZE = 500;
+
     List<BidListDto> findAll();
+    KeysetPageDto<BidListDto> findPage(BidListFilterDto filter, Integer after, Integer before, Integer size);
     BidListDto create(BidListDto dto);
+    BulkImportReportDto importAll(Iterator<BidListDto> rows);
     BidListDto getBidList(Integer id);
-    BidListDto update(Integer id, BidListDto dto);
+    BidListDto update(Integer id, BidListDto dto, boolean merge);
     void delete(Integer id);
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.dto.ChangeBatchDto;
+import com.nnk.springboot.dto.ChangeEventDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+public interface ChangeFeedService {
+    int DEFAULT_BATCH_SIZE = 500;
+    int MAX_BATCH_SIZE = 1000;
+    Duration MAX_WAIT = Duration.ofSeconds(60);
+
+    long firstOffset();
+
+    Mono<ChangeBatchDto> poll(long from, Integer max, Duration wait);
+
+    Flux<ChangeEventDto> stream(long from);
+}
@@ -0,0 +1,19 @@
+package com.nnk.springboot.services;
+
+import lombok.Getter;
+
+/**
+ * Offset du journal des changements qui n'est plus conservé : les évènements entre cet offset et
+ * firstOffset ont été supprimés par la rétention. L'abonné doit se resynchroniser à partir de
+ * firstOffset.
+ */
+@Getter
+public class ChangeOffsetExpiredException extends IllegalStateException {
+
+    private final long firstOffset;
+
+    public ChangeOffsetExpiredException(long offset, long firstOffset) {
+        super("Offset " + offset + " expiré, premier offset conservé: " + firstOffset);
+        this.firstOffset = firstOffset;
+    }
+}
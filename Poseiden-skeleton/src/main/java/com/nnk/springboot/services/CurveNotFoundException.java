@@ -0,0 +1,12 @@
+package com.nnk.springboot.services;
+
+/**
+ * Aucune courbe (aucun point) pour le curveId et la date demandés.
+ * Distincte des autres IllegalArgumentException (termes invalides) pour être traduite en 404.
+ */
+public class CurveNotFoundException extends IllegalArgumentException {
+
+    public CurveNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,11 +1,13 @@
 package com.nnk.springboot.services;
 
 import com.nnk.springboot.dto.CurvePointDto;
+import com.nnk.springboot.dto.CurvePointFilterDto;
 
 import java.util.List;
 
 public interface CurvePointService {
 List<CurvePointDto> findAll();
+List<CurvePointDto> findAll(CurvePointFilterDto filter);
 CurvePointDto create(CurvePointDto dto);
 CurvePointDto getCurvePoint(Integer id);
 CurvePointDto update(Integer id, CurvePointDto dto);
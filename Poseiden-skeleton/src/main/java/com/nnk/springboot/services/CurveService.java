@@ -0,0 +1,8 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.dto.CurveInterpolationRequestDto;
+import com.nnk.springboot.dto.CurveInterpolationResultDto;
+
+public interface CurveService {
+    CurveInterpolationResultDto interpolate(Integer curveId, CurveInterpolationRequestDto request);
+}
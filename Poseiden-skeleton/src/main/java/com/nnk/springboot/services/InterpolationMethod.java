@@ -0,0 +1,9 @@
+package com.nnk.springboot.services;
+
+/**
+ * Méthodes d'interpolation disponibles sur une courbe (CurvePoint groupés par curveId et asOfDate).
+ */
+public enum InterpolationMethod {
+    LINEAR,
+    CUBIC_SPLINE
+}
@@ -0,0 +1,9 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.dto.PositionDto;
+
+import java.util.List;
+
+public interface PositionService {
+    List<PositionDto> findAll(String account, String type);
+}
@@ -1,10 +1,12 @@
 package com.nnk.springboot.services;
 
 import com.nnk.springboot.dto.RatingDto;
+import com.nnk.springboot.dto.RatingFilterDto;
 import java.util.List;
 
 public interface RatingService {
     List<RatingDto> findAll();
+    List<RatingDto> findAll(RatingFilterDto filter);
 
     RatingDto create(RatingDto dto);
     RatingDto update(Integer id, RatingDto dto);
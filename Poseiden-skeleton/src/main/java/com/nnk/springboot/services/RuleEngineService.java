@@ -0,0 +1,14 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.RuleEvaluationResultDto;
+import com.nnk.springboot.dto.TradeDto;
+
+import java.util.List;
+
+public interface RuleEngineService {
+    int MAX_BATCH_SIZE = 10_000;
+
+    RuleEvaluationResultDto evaluateTrades(List<TradeDto> trades);
+    RuleEvaluationResultDto evaluateBidLists(List<BidListDto> bidLists);
+}
@@ -1,10 +1,12 @@
 package com.nnk.springboot.services;
 
 import com.nnk.springboot.dto.RuleNameDto;
+import com.nnk.springboot.dto.RuleNameFilterDto;
 import java.util.List;
 
 public interface RuleNameService {
     List<RuleNameDto> findAll();
+    List<RuleNameDto> findAll(RuleNameFilterDto filter);
     RuleNameDto create(RuleNameDto dto);
     RuleNameDto update(Integer id, RuleNameDto dto);
     void delete(Integer id);
@@ -0,0 +1,8 @@
+package com.nnk.springboot.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TradeExportService {
+    long export(ExportFormat format, OutputStream out) throws IOException;
+}
@@ -1,15 +1,24 @@
 package com.nnk.springboot.services;
 
 
-import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.BulkImportReportDto;
+import com.nnk.springboot.dto.KeysetPageDto;
 import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.TradeFilterDto;
 
+import java.util.Iterator;
 import java.util.List;
 
 public interface TradeService {
+    int DEFAULT_PAGE_SIZE = 50;
+    int MAX_PAGE_SIZE = 500;
+
     List<TradeDto> findAll();
+    List<TradeDto> findAll(TradeFilterDto filter);
+    KeysetPageDto<TradeDto> findPage(TradeFilterDto filter, Integer after, Integer before, Integer size);
     TradeDto create(TradeDto dto);
+    BulkImportReportDto importAll(Iterator<TradeDto> rows);
     TradeDto getTrade(Integer id);
-    TradeDto update(Integer id, TradeDto dto);
+    TradeDto update(Integer id, TradeDto dto, boolean merge);
     void delete(Integer id);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.nnk.springboot.services;
+
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.TradeFilterDto;
+import reactor.core.publisher.Flux;
+
+public interface TradeStreamService {
+    Flux<TradeDto> stream(TradeFilterDto filter);
+}
@@ -0,0 +1,25 @@
+package com.nnk.springboot.services;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Levée lorsqu'une mise à jour porte sur une version périmée d'un enregistrement (verrouillage optimiste).
+ *
+ * L'exception transporte l'état actuel de l'enregistrement (le DTO relu côté serveur) pour que
+ * le client puisse reprendre sa saisie, et, lorsqu'une fusion a été tentée, les champs modifiés
+ * à la fois par le client et par une autre mise à jour.
+ */
+@Getter
+public class UpdateConflictException extends RuntimeException {
+
+    private final transient Object current;
+    private final List<String> fields;
+
+    public UpdateConflictException(String message, Object current, List<String> fields) {
+        super(message);
+        this.current = current;
+        this.fields = List.copyOf(fields);
+    }
+}
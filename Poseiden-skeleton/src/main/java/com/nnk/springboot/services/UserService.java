@@ -1,10 +1,12 @@
 package com.nnk.springboot.services;
 
 import com.nnk.springboot.dto.UserDto;
+import com.nnk.springboot.dto.UserFilterDto;
 import java.util.List;
 
 public interface UserService {
     List<UserDto> findAll();
+    List<UserDto> findAll(UserFilterDto filter);
     UserDto create(UserDto dto);
     UserDto update(Integer id, UserDto dto);
     void delete(Integer id);
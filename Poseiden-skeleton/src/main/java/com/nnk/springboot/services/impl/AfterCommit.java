@@ -0,0 +1,95 @@
+package com.nnk.springboot.services.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Actions différées au commit de la transaction courante, communes aux composants en mémoire
+ * alimentés par les *ServiceImpl.
+ *
+ * - stage cumule les éléments d'un composant dans un lot propre à la transaction, lié au thread
+ *   comme ressource de la transaction (détaché et rattaché avec elle lorsqu'elle est suspendue),
+ *   et le traite en une fois après le commit : un rollback n'a aucun effet
+ *   (PositionAggregator, ChangeFeed, AuditTrail).
+ * - evict applique une invalidation immédiatement puis de nouveau après le commit, pour qu'un
+ *   chargement concurrent ne réinsère pas l'ancien état lu avant la fin de la transaction
+ *   (UserDetailsCache, CurveIndex, CompiledRuleCache).
+ *
+ * Hors transaction, le lot est traité et l'invalidation appliquée immédiatement.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Ajoute item au lot de owner dans la transaction courante ; onCommit reçoit le lot, dans
+     * l'ordre des appels, après le commit. Hors transaction, onCommit reçoit immédiatement item seul.
+     * Tous les appels d'un même owner doivent passer le même traitement onCommit.
+     */
+    static <T> void stage(Object owner, T item, Consumer<List<T>> onCommit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.accept(List.of(item));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Staged<T> staged = (Staged<T>) TransactionSynchronizationManager.getResource(owner);
+        if (staged == null) {
+            staged = new Staged<>(owner, onCommit);
+            TransactionSynchronizationManager.bindResource(owner, staged);
+            TransactionSynchronizationManager.registerSynchronization(staged);
+        }
+        staged.items.add(item);
+    }
+
+    /**
+     * Exécute eviction immédiatement puis, dans une transaction, de nouveau après son commit.
+     */
+    static void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static final class Staged<T> implements TransactionSynchronization {
+
+        private final Object owner;
+        private final Consumer<List<T>> onCommit;
+        private final List<T> items = new ArrayList<>();
+
+        private Staged(Object owner, Consumer<List<T>> onCommit) {
+            this.owner = owner;
+            this.onCommit = onCommit;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(owner);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(owner, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            onCommit.accept(items);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(owner);
+        }
+    }
+}
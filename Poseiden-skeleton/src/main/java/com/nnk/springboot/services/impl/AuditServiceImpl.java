@@ -0,0 +1,64 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
+import com.nnk.springboot.domain.AuditEntry;
+import com.nnk.springboot.dto.AuditEntryDto;
+import com.nnk.springboot.dto.AuditHistoryDto;
+import com.nnk.springboot.repositories.AuditEntryRepository;
+import com.nnk.springboot.services.AuditService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lecture de la piste d'audit écrite par AuditTrail, pour /api/audit.
+ *
+ * Les entrées sont celles déjà vidées en base : une écriture des dernières
+ * app.audit.flush-interval millisecondes peut ne pas encore y figurer.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AuditServiceImpl implements AuditService {
+
+    private final AuditEntryRepository auditEntryRepository;
+
+    /**
+     * Historique d'un enregistrement, de l'entrée la plus récente à la plus ancienne : les
+     * MAX_ROWS entrées les plus récentes, avec l'indication des entrées plus anciennes omises.
+     *
+     * @param entity nom exposé de l'entité (bidList, trade, curvePoint, rating, ruleName, user)
+     * @param id     identifiant de l'enregistrement
+     * @param from   début de la plage (inclus), ou null
+     * @param to     fin de la plage (incluse), ou null
+     * @throws IllegalArgumentException si l'entité est inconnue
+     */
+    @Override
+    public AuditHistoryDto findHistory(String entity, Integer id, LocalDateTime from, LocalDateTime to) {
+        ChangeEntity changeEntity = ChangeEntity.fromLabel(entity);
+        if (changeEntity == null) {
+            log.warn("Historique d'audit demandé pour une entité inconnue: {}", entity);
+            throw new IllegalArgumentException("Entité inconnue: " + entity);
+        }
+        log.debug("Historique d'audit: {} id={} de {} à {}", entity, id, from, to);
+        List<AuditEntry> entries = auditEntryRepository.findHistory(changeEntity.getLabel(), id, from, to, Limit.of(MAX_ROWS + 1));
+        boolean truncated = entries.size() > MAX_ROWS;
+        if (truncated) {
+            log.debug("Historique d'audit tronqué à {} entrées: {} id={}", MAX_ROWS, entity, id);
+            entries = entries.subList(0, MAX_ROWS);
+        }
+        return new AuditHistoryDto(entries.stream().map(AuditServiceImpl::toDto).toList(), truncated);
+    }
+
+    private static AuditEntryDto toDto(AuditEntry entry) {
+        return new AuditEntryDto(entry.getId(), entry.getOccurredAt(), entry.getUsername(), entry.getEntityType(),
+                ChangeOperation.valueOf(entry.getOperation()), entry.getEntityId(), entry.getChanges());
+    }
+}
@@ -0,0 +1,223 @@
+package com.nnk.springboot.services.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.nnk.springboot.audit.AuditRingBuffer;
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
+import com.nnk.springboot.domain.AuditEntry;
+import com.nnk.springboot.repositories.AuditEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Piste d'audit de toutes les écritures, alimentée par les *ServiceImpl à côté du journal des changements.
+ *
+ * - Chaque création, mise à jour ou suppression est enregistrée avec l'utilisateur
+ *   du contexte Spring Security (« system » hors requête), l'heure de l'écriture et les états
+ *   avant / après (les DTO MapStruct, sans mot de passe). Chaque ligne d'un import en masse donne
+ *   une entrée CREATE avec son identifiant généré, comme dans le journal des changements.
+ * - Comme pour ChangeFeed, l'entrée n'est retenue qu'après le commit de la transaction courante
+ *   (AfterCommit) ; elle est alors déposée dans un tampon circulaire sans verrou (AuditRingBuffer).
+ *   Le thread de la requête ne sérialise rien et n'écrit rien.
+ * - Toutes les app.audit.flush-interval millisecondes, le tampon est vidé par lots de
+ *   app.audit.batch-size : les champs modifiés sont calculés ({"champ": {"from": ..., "to": ...}},
+ *   décimaux comparés sans tenir compte de l'échelle) et les lignes insérées dans audit_entry par
+ *   lots JDBC. Le tampon est aussi vidé à l'arrêt.
+ * - Un tampon plein fait perdre l'entrée (compteur audit.entries.dropped), de même qu'un lot
+ *   dont l'insertion échoue (audit.entries.lost) ; audit.buffer.size donne le nombre en attente.
+ */
+@Slf4j
+@Component
+public class AuditTrail {
+
+    private static final String SYSTEM = "system";
+
+    private final ObjectMapper objectMapper;
+    private final AuditEntryRepository auditEntryRepository;
+    private final AuditRingBuffer<PendingAudit> buffer;
+    private final int batchSize;
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Counter dropped;
+    private final Counter lost;
+
+    public AuditTrail(ObjectMapper objectMapper,
+                      AuditEntryRepository auditEntryRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${app.audit.buffer-size:65536}") int bufferSize,
+                      @Value("${app.audit.batch-size:500}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.auditEntryRepository = auditEntryRepository;
+        this.buffer = new AuditRingBuffer<>(bufferSize);
+        this.batchSize = Math.max(1, batchSize);
+        this.dropped = Counter.builder("audit.entries.dropped")
+                .description("Entrées d'audit perdues, tampon plein")
+                .register(meterRegistry);
+        this.lost = Counter.builder("audit.entries.lost")
+                .description("Entrées d'audit perdues à l'écriture en base")
+                .register(meterRegistry);
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size).register(meterRegistry);
+    }
+
+    /**
+     * Enregistre une écriture ; l'entrée est déposée dans le tampon après le commit de la
+     * transaction courante, ou immédiatement hors transaction.
+     *
+     * @param id     identifiant de l'enregistrement
+     * @param before état avant l'écriture, null pour une création (ou s'il n'a pas été lu)
+     * @param after  état après l'écriture, null pour une suppression
+     */
+    public void record(ChangeEntity entity, ChangeOperation operation, Integer id, Object before, Object after) {
+        PendingAudit pending = new PendingAudit(LocalDateTime.now(), currentUser(), entity, operation, id, before, after);
+        AfterCommit.stage(this, pending, this::enqueueAll);
+    }
+
+    /**
+     * Enregistre les lignes d'un lot d'import en masse : une entrée CREATE par ligne, avec son
+     * identifiant généré et son état, comme pour une création unitaire (voir ChangeFeed.recordBulkInsert).
+     */
+    public <D> void recordBulkInsert(ChangeEntity entity, List<D> rows, Function<D, Integer> idOf) {
+        for (D row : rows) {
+            record(entity, ChangeOperation.CREATE, idOf.apply(row), null, row);
+        }
+    }
+
+    /**
+     * Vide le tampon en base, lot par lot ; un seul appel à la fois retire des entrées.
+     */
+    @Scheduled(fixedDelayString = "${app.audit.flush-interval:500}", timeUnit = TimeUnit.MILLISECONDS)
+    public void flush() {
+        drainLock.lock();
+        try {
+            while (true) {
+                List<AuditEntry> batch = new ArrayList<>(batchSize);
+                if (buffer.drain(pending -> batch.add(toEntry(pending)), batchSize) == 0) {
+                    return;
+                }
+                write(batch);
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    private void enqueueAll(List<PendingAudit> pendings) {
+        pendings.forEach(this::enqueue);
+    }
+
+    private void enqueue(PendingAudit pending) {
+        if (!buffer.offer(pending)) {
+            dropped.increment();
+            log.error("Tampon d'audit plein ({} entrées): {} {} id={} par {} non audité",
+                    buffer.capacity(), pending.operation(), pending.entity(), pending.id(), pending.username());
+        }
+    }
+
+    private void write(List<AuditEntry> batch) {
+        try {
+            auditEntryRepository.insertAll(batch);
+            log.debug("{} entrée(s) d'audit écrite(s)", batch.size());
+        } catch (RuntimeException e) {
+            lost.increment(batch.size());
+            log.error("{} entrée(s) d'audit perdue(s) à l'écriture en base", batch.size(), e);
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? SYSTEM : authentication.getName();
+    }
+
+    private AuditEntry toEntry(PendingAudit pending) {
+        AuditEntry entry = new AuditEntry();
+        entry.setOccurredAt(pending.occurredAt());
+        entry.setUsername(pending.username());
+        entry.setEntityType(pending.entity().getLabel());
+        entry.setOperation(pending.operation().name());
+        entry.setEntityId(pending.id());
+        entry.setChanges(changes(pending));
+        return entry;
+    }
+
+    /**
+     * Champs dont la valeur diffère entre l'état avant et l'état après (identifiant exclu) ;
+     * from est omis pour une création, to pour une suppression.
+     */
+    private String changes(PendingAudit pending) {
+        JsonNode before = tree(pending.before());
+        JsonNode after = tree(pending.after());
+        Set<String> fields = new LinkedHashSet<>();
+        before.fieldNames().forEachRemaining(fields::add);
+        after.fieldNames().forEachRemaining(fields::add);
+        ObjectNode changes = objectMapper.createObjectNode();
+        for (String field : fields) {
+            JsonNode from = before.path(field);
+            JsonNode to = after.path(field);
+            if ("id".equals(field) || same(from, to)) {
+                continue;
+            }
+            ObjectNode change = changes.putObject(field);
+            if (!absent(from)) {
+                change.set("from", from);
+            }
+            if (!absent(to)) {
+                change.set("to", to);
+            }
+        }
+        return changes.toString();
+    }
+
+    private JsonNode tree(Object state) {
+        if (state == null) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return objectMapper.valueToTree(state);
+        } catch (IllegalArgumentException e) {
+            log.warn("Sérialisation impossible pour l'audit de {}, état non audité", state.getClass().getSimpleName(), e);
+            return MissingNode.getInstance();
+        }
+    }
+
+    private static boolean absent(JsonNode node) {
+        return node.isMissingNode() || node.isNull();
+    }
+
+    private static boolean same(JsonNode a, JsonNode b) {
+        if (absent(a) || absent(b)) {
+            return absent(a) && absent(b);
+        }
+        if (a.isNumber() && b.isNumber()) {
+            return a.decimalValue().compareTo(b.decimalValue()) == 0;
+        }
+        return a.equals(b);
+    }
+
+    private record PendingAudit(LocalDateTime occurredAt, String username, ChangeEntity entity,
+                                ChangeOperation operation, Integer id, Object before, Object after) {
+    }
+}
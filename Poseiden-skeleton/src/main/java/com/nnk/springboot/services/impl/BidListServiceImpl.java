@@ -1,16 +1,32 @@
 package com.nnk.springboot.services.impl;
 
 
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
 import com.nnk.springboot.domain.BidList;
 import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.BidListFilterDto;
+import com.nnk.springboot.dto.BulkImportReportDto;
+import com.nnk.springboot.dto.KeysetPageDto;
 import com.nnk.springboot.mapper.BidListMapper;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
 import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.repositories.ListSpecifications;
 import com.nnk.springboot.services.BidListService;
+import com.nnk.springboot.services.UpdateConflictException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Implémentation du service pour la gestion des entités BidList.
@@ -19,23 +35,50 @@ import java.util.List;
  *
  * Fonctionnalités :
  * - Récupérer toutes les entrées BidList.
+ * - Récupérer une page d’entrées BidList filtrée par compte et type et triée, par pagination par clé.
  * - Créer une nouvelle entrée BidList.
+ * - Importer en masse des entrées BidList par lots JDBC.
  * - Récupérer une entrée BidList par son identifiant.
  * - Mettre à jour une entrée BidList existante.
  * - Supprimer une entrée BidList par son identifiant.
  *
- * Ce service utilise BidListRepository pour les opérations en base de données
- * et BidListMapper pour la conversion entre entité et DTO.
+ * Ce service utilise BidListRepository pour les écritures, DtoProjectionRepository
+ * pour les lectures (DTO construits directement depuis le résultat SQL) et BidListMapper
+ * pour la conversion entre entité et DTO ; les imports en masse passent par BulkImporter
+ * (validation Jakarta, un lot par transaction). Chaque écriture est signalée à PositionAggregator,
+ * qui met à jour les positions par compte et type après le commit, et au journal des
+ * changements (ChangeFeed).
  *
- * Toutes les méthodes sont transactionnelles afin d’assurer la cohérence des opérations.
+ * Toutes les méthodes sont transactionnelles afin d’assurer la cohérence des opérations,
+ * sauf l’import en masse, qui valide un lot par transaction.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class BidListServiceImpl implements BidListService {
+    static final int BULK_BATCH_SIZE = 1000;
+
+    /** Colonnes non nulles triables en plus de l'identifiant, avec la lecture de leur valeur sur une ligne curseur. */
+    private static final Map<String, Function<BidListDto, String>> SORT_KEYS = Map.of(
+            "account", BidListDto::getAccount,
+            "type", BidListDto::getType);
+    private static final Set<String> SORTABLE = Set.of("id", "account", "type");
+
+    /** Champs fusionnés lors d'une mise à jour concurrente (voir ConcurrentUpdateResolver). */
+    private static final List<ConcurrentUpdateResolver.Field<BidListDto>> MERGE_FIELDS = List.of(
+            ConcurrentUpdateResolver.Field.of("account", BidListDto::getAccount, BidListDto::setAccount),
+            ConcurrentUpdateResolver.Field.of("type", BidListDto::getType, BidListDto::setType),
+            ConcurrentUpdateResolver.Field.of("bidQuantity", BidListDto::getBidQuantity, BidListDto::setBidQuantity));
+
     private final BidListRepository bidListRepository;
+    private final DtoProjectionRepository dtoProjectionRepository;
     private final BidListMapper bidListMapper;
+    private final BulkImporter bulkImporter;
+    private final PositionAggregator positionAggregator;
+    private final ChangeFeed changeFeed;
+    private final ConcurrentUpdateResolver concurrentUpdateResolver;
+    private final AuditTrail auditTrail;
 
     /**
      * Récupère toutes les entrées BidList depuis la base de données,
@@ -46,17 +89,43 @@ public class BidListServiceImpl implements BidListService {
     @Transactional(readOnly = true)
     @Override
     public List<BidListDto> findAll() {
-        long t0 = System.nanoTime();
-        log.info("Liste des enchères (BidList) - démarrage");
-        List<BidListDto> result = bidListRepository.findAll()
-                .stream()
-                .map(bidListMapper::toDto)
-                .toList();
-        log.info("Liste récupérée: {} élément(s) en {} ms", result.size(), (System.nanoTime() - t0) / 1_000_000);
+        List<BidListDto> result = dtoProjectionRepository.findAll(DtoProjection.BID_LIST, null, Sort.unsorted(), 0);
+        log.debug("Liste récupérée: {} élément(s)", result.size());
         return result;
     }
 
-
+    /**
+     * Récupère une page d’entrées BidList par pagination par clé (seek sur la colonne triée
+     * puis bid_list_id), sans jamais charger plus d’une page d’entités en mémoire.
+     *
+     * Les filtres renseignés (compte, type) sont appliqués en égalité ; combinés au curseur,
+     * ils correspondent aux index de V3 et V8, que MySQL parcourt dans l’ordre du tri
+     * jusqu’à la limite. Seules les colonnes non nulles sont triables (SORTABLE) : la position
+     * (valeur, identifiant) d’un curseur y est toujours définie.
+     *
+     * La lecture et les curseurs sont ceux de KeysetPages. Si "before" est renseigné, la page
+     * précédant cet identifiant est renvoyée ; sinon la page suivant "after" (ou la première page
+     * si "after" est nul).
+     *
+     * @param filter les filtres et le tri de la liste (valeurs nulles ou vides ignorées, tri par identifiant à défaut).
+     * @param after  curseur de la page suivante (identifiant exclu), ou null.
+     * @param before curseur de la page précédente (identifiant exclu), ou null.
+     * @param size   taille de page demandée, bornée entre 1 et MAX_PAGE_SIZE (DEFAULT_PAGE_SIZE si nulle).
+     * @return la page de BidListDto dans l’ordre demandé, avec ses curseurs.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public KeysetPageDto<BidListDto> findPage(BidListFilterDto filter, Integer after, Integer before, Integer size) {
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        log.debug("Page d'enchères: compte={} type={} sort={} dir={} after={} before={} size={}",
+                filter.getAccount(), filter.getType(), filter.getSort(), filter.getDir(), after, before, limit);
+        Specification<BidList> spec = Specification.allOf(
+                ListSpecifications.equalTo("account", filter.getAccount()),
+                ListSpecifications.equalTo("type", filter.getType()));
+        Sort sort = ListSpecifications.sort(filter.getSort(), filter.getDir(), SORTABLE, "id");
+        return KeysetPages.read(dtoProjectionRepository, DtoProjection.BID_LIST, spec, sort, SORT_KEYS,
+                BidListDto::getId, after, before, limit);
+    }
 
     /**
      * Crée une nouvelle entrée BidList, l’enregistre en base de données,
@@ -67,11 +136,52 @@ public class BidListServiceImpl implements BidListService {
      */
     @Override
     public BidListDto create(BidListDto dto) {
-        log.info("Création d'une enchère: compte={} type={} quantité={}", dto.getAccount(), dto.getType(), dto.getBidQuantity());
+        log.debug("Création d'une enchère: compte={} type={} quantité={}", dto.getAccount(), dto.getType(), dto.getBidQuantity());
         BidList entity = bidListMapper.toEntity(dto);
         BidList saved = bidListRepository.save(entity);
-        log.info("Enchère créée avec succès: id={}", saved.getId());
-        return bidListMapper.toDto(saved);
+        log.debug("Enchère créée avec succès: id={}", saved.getId());
+        BidListDto result = bidListMapper.toDto(saved);
+        positionAggregator.bidListChanged(null, result);
+        changeFeed.record(ChangeEntity.BID_LIST, ChangeOperation.CREATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.BID_LIST, ChangeOperation.CREATE, result.getId(), null, result);
+        return result;
+    }
+
+    /**
+     * Importe en masse des entrées BidList en une seule passe sur les lignes reçues (BulkImporter).
+     *
+     * Chaque ligne est validée avec les contraintes de BidListDto : les lignes invalides
+     * sont écartées et reportées avec leur index, les lignes valides sont insérées par lots
+     * JDBC de BULK_BATCH_SIZE lignes. Les lignes sont consommées au fil de l'eau depuis
+     * l'itérateur, seul le lot en cours est conservé en mémoire.
+     *
+     * La lecture du flux se fait hors transaction ; chaque lot est inséré dans sa propre
+     * transaction. Une ligne illisible est rejetée comme une ligne invalide ; un JSON mal formé
+     * arrête la lecture, les lignes déjà lues sont insérées (voir BulkImporter).
+     *
+     * @param rows les lignes à importer (liste ou flux NDJSON désérialisé à la volée).
+     * @return le compte rendu de l'import (lignes insérées, rejetées, erreurs par ligne, débit).
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkImportReportDto importAll(Iterator<BidListDto> rows) {
+        return bulkImporter.importAll("enchères", rows, BULK_BATCH_SIZE, dto -> {
+            dto.setId(null);
+            return bidListMapper.toEntity(dto);
+        }, this::insertBatch);
+    }
+
+    /**
+     * Insère un lot et le signale à PositionAggregator, au journal des changements (une création
+     * par ligne, avec l'identifiant généré) et à la piste d'audit (de même).
+     */
+    private int insertBatch(List<BidList> batch) {
+        int count = bidListRepository.batchInsert(batch);
+        positionAggregator.bidListsImported(batch);
+        List<BidListDto> created = batch.stream().map(bidListMapper::toDto).toList();
+        changeFeed.recordBulkInsert(ChangeEntity.BID_LIST, created, BidListDto::getId);
+        auditTrail.recordBulkInsert(ChangeEntity.BID_LIST, created, BidListDto::getId);
+        return count;
     }
 
     /**
@@ -86,13 +196,11 @@ public class BidListServiceImpl implements BidListService {
     @Override
     public BidListDto getBidList (Integer id) {
         log.debug("Récupération de l'enchère id={}", id);
-        BidList entity = bidListRepository.findById(id)
+        return dtoProjectionRepository.findById(DtoProjection.BID_LIST_VERSIONED, id)
                 .orElseThrow(() -> {
                     log.warn("Enchère introuvable pour id={}", id);
                     return new IllegalArgumentException("BidList introuvable avec l'id " + id);
                 });
-
-        return bidListMapper.toDto(entity);
     }
 
 
@@ -101,23 +209,38 @@ public class BidListServiceImpl implements BidListService {
      * à partir des données fournies dans le DTO. L’entrée est d’abord récupérée,
      * les modifications sont appliquées, puis sauvegardées, et enfin le DTO mis à jour est renvoyé.
      *
+     * Si le DTO porte une version différente de la version actuelle, la mise à jour est refusée,
+     * ou fusionnée avec l’état actuel lorsque « merge » est demandé et que les champs modifiés
+     * ne se recouvrent pas (voir ConcurrentUpdateResolver). L’UPDATE est exécuté immédiatement
+     * (saveAndFlush) pour que le DTO renvoyé porte la nouvelle version.
+     *
      * @param id l’identifiant de l’entrée BidList à mettre à jour.
      * @param dto le DTO contenant les informations de mise à jour pour l’entrée BidList.
+     * @param merge true pour fusionner une mise à jour portant sur une version périmée.
      * @return un BidListDto représentant l’entrée BidList mise à jour.
      * @throws IllegalArgumentException si aucune entrée BidList n’est trouvée pour l’identifiant fourni.
+     * @throws UpdateConflictException si la version est périmée et que la fusion est impossible.
      */
     @Override
-    public BidListDto update(Integer id, BidListDto dto) {
-        log.info("Mise à jour de l'enchère id={} (compte={} type={} quantité={})", id, dto.getAccount(), dto.getType(), dto.getBidQuantity());
+    public BidListDto update(Integer id, BidListDto dto, boolean merge) {
+        log.debug("Mise à jour de l'enchère id={} (compte={} type={} quantité={})", id, dto.getAccount(), dto.getType(), dto.getBidQuantity());
         BidList entity = bidListRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Mise à jour impossible: enchère introuvable pour id={}", id);
                     return new IllegalArgumentException("BidList introuvable avec l'id " + id);
                 });
+        BidListDto before = bidListMapper.toDto(entity);
+        concurrentUpdateResolver.resolve(ChangeEntity.BID_LIST, id, dto, dto.getVersion(),
+                before, entity.getVersion(), merge, MERGE_FIELDS);
+        concurrentUpdateResolver.remember(ChangeEntity.BID_LIST, id, entity.getVersion(), before);
         bidListMapper.updateEntity(entity, dto);
-        BidList saved = bidListRepository.save(entity);
-        log.info("Enchère mise à jour: id={}", saved.getId());
-        return bidListMapper.toDto(saved);
+        BidList saved = bidListRepository.saveAndFlush(entity);
+        log.debug("Enchère mise à jour: id={}", saved.getId());
+        BidListDto result = bidListMapper.toDto(saved);
+        positionAggregator.bidListChanged(before, result);
+        changeFeed.record(ChangeEntity.BID_LIST, ChangeOperation.UPDATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.BID_LIST, ChangeOperation.UPDATE, result.getId(), before, result);
+        return result;
     }
 
 
@@ -131,13 +254,17 @@ public class BidListServiceImpl implements BidListService {
      */
     @Override
     public void delete(Integer id) {
-        log.info("Suppression de l'enchère id={}", id);
-        if (!bidListRepository.existsById(id)) {
-            log.warn("Suppression impossible: enchère introuvable pour id={}", id);
-            throw new IllegalArgumentException("BidList introuvable avec l'id " + id);
-
-        }
-        bidListRepository.deleteById(id);
-        log.info("Enchère supprimée: id={}", id);
+        log.debug("Suppression de l'enchère id={}", id);
+        BidList entity = bidListRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Suppression impossible: enchère introuvable pour id={}", id);
+                    return new IllegalArgumentException("BidList introuvable avec l'id " + id);
+                });
+        BidListDto before = bidListMapper.toDto(entity);
+        bidListRepository.delete(entity);
+        positionAggregator.bidListChanged(before, null);
+        changeFeed.record(ChangeEntity.BID_LIST, ChangeOperation.DELETE, id, null);
+        auditTrail.record(ChangeEntity.BID_LIST, ChangeOperation.DELETE, id, before, null);
+        log.debug("Enchère supprimée: id={}", id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package com.nnk.springboot.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.nnk.springboot.dto.BulkImportReportDto;
+import com.nnk.springboot.dto.BulkRowErrorDto;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Import en masse commun à BidListServiceImpl et TradeServiceImpl.
+ *
+ * Les lignes sont lues au fil de l'eau depuis l'itérateur (corps de requête désérialisé à la
+ * volée), validées avec les contraintes du DTO et converties en entités hors de toute
+ * transaction. Chaque lot complet est ensuite inséré dans sa propre transaction courte :
+ * aucune connexion n'est retenue pendant que le client envoie la suite du fichier.
+ *
+ * Erreurs de lecture (corps désérialisé par un MappingIterator de Jackson) :
+ * - une ligne qui ne se convertit pas en DTO (type ou valeur invalide) est rejetée comme une
+ *   ligne invalide ; le MappingIterator reprend la lecture à la ligne suivante ;
+ * - un JSON mal formé ne permet pas de retrouver la ligne suivante : la lecture s'arrête, les
+ *   lignes valides déjà lues sont insérées et le compte rendu signale l'erreur à cet index.
+ * Une erreur d'entrée/sortie ou d'insertion remonte à l'appelant ; les lots déjà validés restent
+ * en base. Les contraintes des DTO reprennent celles du schéma (longueurs, précision) : une ligne
+ * acceptée ne fait pas échouer son lot.
+ *
+ * Le compte rendu ne détaille que les MAX_REPORTED_ERRORS premières lignes rejetées (plus
+ * l'éventuelle erreur de lecture finale) ; rejected les compte toutes.
+ */
+@Slf4j
+@Component
+class BulkImporter {
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    BulkImporter(Validator validator, PlatformTransactionManager transactionManager) {
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Importe les lignes par lots de batchSize.
+     *
+     * @param label       le libellé des lignes dans les journaux (« enchères », « trades »)
+     * @param rows        les lignes reçues
+     * @param batchSize   le nombre de lignes insérées par transaction
+     * @param toEntity    la conversion d'une ligne valide en entité à insérer
+     * @param insertBatch l'insertion d'un lot (exécutée dans la transaction du lot), qui renvoie le nombre de lignes insérées
+     * @return le compte rendu de l'import (lignes insérées, rejetées, erreurs par ligne, débit)
+     */
+    <D, E> BulkImportReportDto importAll(String label, Iterator<D> rows, int batchSize,
+                                         Function<D, E> toEntity, ToIntFunction<List<E>> insertBatch) {
+        long t0 = System.nanoTime();
+        log.info("Import en masse de {} - démarrage", label);
+        List<E> batch = new ArrayList<>(batchSize);
+        List<BulkRowErrorDto> errors = new ArrayList<>();
+        long received = 0;
+        long inserted = 0;
+        long rejected = 0;
+        while (true) {
+            D dto;
+            try {
+                if (!rows.hasNext()) {
+                    break;
+                }
+                try {
+                    dto = rows.next();
+                } catch (RuntimeJsonMappingException ex) {
+                    rejected++;
+                    addError(errors, new BulkRowErrorDto(received++, List.of("Ligne illisible: " + readError(ex))));
+                    continue;
+                }
+            } catch (RuntimeException ex) {
+                if (!(ex.getCause() instanceof JsonProcessingException)) {
+                    throw ex;
+                }
+                long index = received++;
+                rejected++;
+                errors.add(new BulkRowErrorDto(index, List.of("JSON mal formé, lecture interrompue: " + readError(ex))));
+                log.warn("Import en masse de {} - JSON mal formé à la ligne {}, lecture interrompue", label, index);
+                break;
+            }
+            long index = received++;
+            List<String> messages = validate(dto);
+            if (!messages.isEmpty()) {
+                rejected++;
+                addError(errors, new BulkRowErrorDto(index, messages));
+                continue;
+            }
+            batch.add(toEntity.apply(dto));
+            if (batch.size() == batchSize) {
+                inserted += commit(batch, insertBatch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        inserted += commit(batch, insertBatch);
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - t0) / 1_000_000);
+        long rowsPerSecond = inserted * 1000 / elapsedMs;
+        log.info("Import en masse de {} terminé: {} reçue(s), {} insérée(s), {} rejetée(s) en {} ms ({} lignes/s)",
+                label, received, inserted, rejected, elapsedMs, rowsPerSecond);
+        return new BulkImportReportDto(received, inserted, rejected, errors, elapsedMs, rowsPerSecond);
+    }
+
+    private static String readError(RuntimeException ex) {
+        return ex.getCause() instanceof JsonProcessingException json ? json.getOriginalMessage() : ex.getMessage();
+    }
+
+    private static void addError(List<BulkRowErrorDto> errors, BulkRowErrorDto error) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    private List<String> validate(Object dto) {
+        if (dto == null) {
+            return List.of("Ligne vide.");
+        }
+        return validator.validate(dto).stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private <E> int commit(List<E> batch, ToIntFunction<List<E>> insertBatch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Integer count = transactionTemplate.execute(status -> insertBatch.applyAsInt(batch));
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,198 @@
+package com.nnk.springboot.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeEvent;
+import com.nnk.springboot.changefeed.ChangeOperation;
+import com.nnk.springboot.changefeed.SegmentLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Journal des changements de toutes les entités, alimenté par les *ServiceImpl.
+ *
+ * - Chaque création, mise à jour ou suppression est enregistrée avec l'état de l'enregistrement
+ *   en JSON (vide pour une suppression) ; chaque ligne d'un import en masse donne un évènement
+ *   CREATE, avec l'identifiant relu en fin de lot JDBC.
+ * - Les évènements sont cumulés par transaction et écrits dans le journal après le commit
+ *   (AfterCommit) : un rollback n'y laisse aucune trace.
+ * - Le journal (SegmentLog) est un ensemble de segments projetés en mémoire dans
+ *   app.changefeed.directory ; il est forcé sur disque toutes les app.changefeed.fsync-interval
+ *   millisecondes ou tous les app.changefeed.fsync-batch évènements. Un arrêt brutal du système
+ *   peut donc perdre les évènements de la dernière fenêtre ; un arrêt du seul processus n'en
+ *   perd aucun, les pages projetées appartenant au système.
+ * - Après chaque écriture, l'offset suivant est publié aux abonnés (long-poll et SSE), hors du
+ *   verrou d'écriture du journal ; un offset inférieur au dernier publié est ignoré, les offsets
+ *   publiés restent donc croissants. Les abonnés lisent le journal sur leurs propres threads
+ *   (voir ChangeFeedServiceImpl) : la publication ne coûte à l'écrivain que l'émission de
+ *   l'offset. La version de la table est
+ *   incrémentée dans TableVersions (ETag des pages), y compris lorsque l'évènement n'a pu être
+ *   écrit dans le journal.
+ *
+ * Le journal est local à l'instance : il ne voit que les écritures passant par elle.
+ */
+@Slf4j
+@Component
+public class ChangeFeed {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ObjectMapper objectMapper;
+    private final TableVersions tableVersions;
+    private final SegmentLog segmentLog;
+    private final Sinks.Many<Long> appended = Sinks.many().replay().latest();
+    private final Sinks.EmitFailureHandler emitFailureHandler = Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private long published = -1;
+    private final Counter lost;
+
+    public ChangeFeed(ObjectMapper objectMapper,
+                      TableVersions tableVersions,
+                      MeterRegistry meterRegistry,
+                      @Value("${app.changefeed.directory:data/changefeed}") Path directory,
+                      @Value("${app.changefeed.segment-size:64MB}") DataSize segmentSize,
+                      @Value("${app.changefeed.max-segments:16}") int maxSegments,
+                      @Value("${app.changefeed.fsync-batch:256}") int fsyncBatch) {
+        this.objectMapper = objectMapper;
+        this.tableVersions = tableVersions;
+        try {
+            this.segmentLog = SegmentLog.open(directory, Math.toIntExact(segmentSize.toBytes()), maxSegments, fsyncBatch,
+                    this::publish);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ouverture du journal des changements impossible: " + directory, e);
+        }
+        this.lost = Counter.builder("changefeed.events.lost")
+                .description("Évènements non écrits dans le journal des changements")
+                .register(meterRegistry);
+        Gauge.builder("changefeed.offset.next", segmentLog, SegmentLog::nextOffset).register(meterRegistry);
+        Gauge.builder("changefeed.offset.first", segmentLog, SegmentLog::firstOffset).register(meterRegistry);
+        publish(segmentLog.nextOffset());
+        log.info("Journal des changements ouvert: {} (offsets {} à {})",
+                directory.toAbsolutePath(), segmentLog.firstOffset(), segmentLog.nextOffset());
+    }
+
+    /**
+     * Enregistre une écriture ; l'évènement est ajouté au journal après le commit de la
+     * transaction courante, ou immédiatement hors transaction.
+     *
+     * @param id    identifiant de l'enregistrement, null pour un lot d'import
+     * @param state état de l'enregistrement sérialisé en JSON, null pour une suppression
+     */
+    public void record(ChangeEntity entity, ChangeOperation operation, Integer id, Object state) {
+        AfterCommit.stage(this, new PendingChange(entity, operation, id, serialize(entity, id, state)), this::appendAll);
+    }
+
+    /**
+     * Enregistre les lignes d'un lot d'import en masse : un évènement CREATE par ligne, avec son
+     * identifiant généré et son état, comme pour une création unitaire.
+     */
+    public <D> void recordBulkInsert(ChangeEntity entity, List<D> rows, Function<D, Integer> idOf) {
+        for (D row : rows) {
+            record(entity, ChangeOperation.CREATE, idOf.apply(row), row);
+        }
+    }
+
+    /**
+     * Lit au plus max évènements à partir de l'offset from (voir SegmentLog.read).
+     */
+    public List<ChangeEvent> read(long from, int max) {
+        return segmentLog.read(from, max);
+    }
+
+    public long firstOffset() {
+        return segmentLog.firstOffset();
+    }
+
+    public long nextOffset() {
+        return segmentLog.nextOffset();
+    }
+
+    /**
+     * Offsets suivants publiés après chaque écriture ; un nouvel abonné reçoit immédiatement
+     * le dernier. Un abonné lent peut ne pas recevoir toutes les valeurs, seulement la dernière.
+     */
+    public Flux<Long> appendedOffsets() {
+        return appended.asFlux();
+    }
+
+    @Scheduled(fixedDelayString = "${app.changefeed.fsync-interval:200}", timeUnit = TimeUnit.MILLISECONDS)
+    public void flush() {
+        segmentLog.flush();
+    }
+
+    @PreDestroy
+    public void close() {
+        appended.emitComplete(emitFailureHandler);
+        try {
+            segmentLog.close();
+            log.info("Journal des changements fermé à l'offset {}", segmentLog.nextOffset());
+        } catch (IOException e) {
+            log.error("Fermeture du journal des changements en erreur", e);
+        }
+    }
+
+    /**
+     * Publie l'offset suivant s'il dépasse le dernier publié ; les émissions sont sérialisées
+     * par un verrou propre, distinct du verrou d'écriture du journal.
+     */
+    private void publish(long nextOffset) {
+        publishLock.lock();
+        try {
+            if (nextOffset > published) {
+                published = nextOffset;
+                appended.emitNext(nextOffset, emitFailureHandler);
+            }
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private byte[] serialize(ChangeEntity entity, Integer id, Object state) {
+        if (state == null) {
+            return EMPTY;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(state);
+        } catch (JsonProcessingException e) {
+            log.warn("Sérialisation impossible pour l'évènement {} id={}, état non journalisé", entity, id, e);
+            return EMPTY;
+        }
+    }
+
+    private void appendAll(List<PendingChange> changes) {
+        changes.forEach(this::append);
+    }
+
+    private void append(PendingChange change) {
+        tableVersions.bump(change.entity());
+        try {
+            segmentLog.append(change.entity(), change.operation(), change.id(), System.currentTimeMillis(), change.payload());
+        } catch (IOException | RuntimeException e) {
+            lost.increment();
+            log.error("Évènement {} {} id={} perdu pour le journal des changements",
+                    change.operation(), change.entity(), change.id(), e);
+        }
+    }
+
+    private record PendingChange(ChangeEntity entity, ChangeOperation operation, Integer id, byte[] payload) {
+    }
+}
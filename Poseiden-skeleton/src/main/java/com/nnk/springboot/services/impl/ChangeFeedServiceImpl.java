@@ -0,0 +1,115 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.changefeed.ChangeEvent;
+import com.nnk.springboot.dto.ChangeBatchDto;
+import com.nnk.springboot.dto.ChangeEventDto;
+import com.nnk.springboot.services.ChangeFeedService;
+import com.nnk.springboot.services.ChangeOffsetExpiredException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lecture du journal des changements pour les abonnés de /api/changes.
+ *
+ * - poll : si des évènements existent à partir de l'offset demandé, ils sont renvoyés tout de
+ *   suite ; sinon la réponse attend la prochaine écriture, au plus wait, sans retenir de thread.
+ * - stream : rattrape le journal depuis l'offset demandé par lots de DEFAULT_BATCH_SIZE, puis
+ *   suit les écritures. Un lot n'est lu qu'à la demande de l'abonné ; un abonné lent ne reçoit
+ *   que le dernier offset publié et relit le journal à son rythme.
+ *
+ * Les lectures se font dans les segments projetés en mémoire, sans accès base ; un défaut de page
+ * peut toutefois lire le disque. Déclenchées par une écriture, elles passent sur
+ * Schedulers.boundedElastic() : le thread qui a validé la transaction ne lit rien pour les abonnés.
+ * Un offset antérieur au plus ancien conservé est lu à partir de ce dernier par poll ; stream se
+ * termine alors en erreur (ChangeOffsetExpiredException), que l'offset demandé ait déjà expiré ou
+ * qu'un abonné lent ait été dépassé par la rétention en cours de flux.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    private final ChangeFeed changeFeed;
+
+    @Override
+    public long firstOffset() {
+        return changeFeed.firstOffset();
+    }
+
+    @Override
+    public Mono<ChangeBatchDto> poll(long from, Integer max, Duration wait) {
+        int limit = max == null ? DEFAULT_BATCH_SIZE : Math.max(1, Math.min(max, MAX_BATCH_SIZE));
+        long start = Math.max(0, Math.min(from, changeFeed.nextOffset()));
+        Duration timeout = wait == null || wait.isNegative() ? Duration.ZERO
+                : wait.compareTo(MAX_WAIT) > 0 ? MAX_WAIT : wait;
+        log.debug("Lecture du journal des changements depuis l'offset {} (max={} attente={} ms)", start, limit, timeout.toMillis());
+        if (timeout.isZero() || changeFeed.nextOffset() > start) {
+            return Mono.fromSupplier(() -> batch(start, limit));
+        }
+        return changeFeed.appendedOffsets()
+                .filter(next -> next > start)
+                .next()
+                .timeout(timeout, Mono.just(start))
+                .publishOn(Schedulers.boundedElastic())
+                .map(next -> batch(start, limit));
+    }
+
+    @Override
+    public Flux<ChangeEventDto> stream(long from) {
+        log.debug("Abonnement au journal des changements depuis l'offset {}", from);
+        AtomicLong cursor = new AtomicLong(Math.max(0, from));
+        return changeFeed.appendedOffsets()
+                .onBackpressureLatest()
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .concatMap(next -> drain(cursor, next), 1)
+                .map(ChangeFeedServiceImpl::toDto)
+                .doFinally(signal -> log.debug("Abonnement au journal des changements terminé à l'offset {}: {}", cursor.get(), signal));
+    }
+
+    private ChangeBatchDto batch(long from, int max) {
+        List<ChangeEvent> events = changeFeed.read(from, max);
+        long firstOffset = changeFeed.firstOffset();
+        long nextOffset = events.isEmpty() ? Math.max(from, firstOffset) : events.get(events.size() - 1).offset() + 1;
+        return new ChangeBatchDto(events.stream().map(ChangeFeedServiceImpl::toDto).toList(), nextOffset, firstOffset);
+    }
+
+    /**
+     * Évènements du curseur jusqu'à end (exclu), lus lot par lot à la demande ; erreur
+     * ChangeOffsetExpiredException si le curseur n'est plus conservé.
+     */
+    private Flux<ChangeEvent> drain(AtomicLong cursor, long end) {
+        return Flux.<List<ChangeEvent>>generate(sink -> {
+            long from = cursor.get();
+            List<ChangeEvent> events = from < end ? changeFeed.read(from, DEFAULT_BATCH_SIZE) : List.of();
+            long firstOffset = events.isEmpty() ? changeFeed.firstOffset() : events.get(0).offset();
+            if (from < end && from < firstOffset) {
+                log.warn("Abonné au journal des changements dépassé par la rétention: offset {}, premier offset conservé {}",
+                        from, firstOffset);
+                sink.error(new ChangeOffsetExpiredException(from, firstOffset));
+                return;
+            }
+            if (events.isEmpty()) {
+                sink.complete();
+                return;
+            }
+            cursor.set(events.get(events.size() - 1).offset() + 1);
+            sink.next(events);
+        }).concatMapIterable(events -> events, 1);
+    }
+
+    static ChangeEventDto toDto(ChangeEvent event) {
+        String data = event.payload().length == 0 ? null : new String(event.payload(), StandardCharsets.UTF_8);
+        return new ChangeEventDto(event.offset(), Instant.ofEpochMilli(event.timestamp()),
+                event.entity().getLabel(), event.operation(), event.id(), data);
+    }
+}
@@ -0,0 +1,86 @@
+package com.nnk.springboot.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.dto.RuleErrorDto;
+import com.nnk.springboot.dto.RuleNameDto;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
+import com.nnk.springboot.rules.CompiledRule;
+import com.nnk.springboot.rules.CompiledRuleSet;
+import com.nnk.springboot.rules.RuleCompiler;
+import com.nnk.springboot.rules.RuleExpression;
+import com.nnk.springboot.rules.RuleParser;
+import com.nnk.springboot.rules.RuleSchema;
+import com.nnk.springboot.rules.RuleSyntaxException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache des règles RuleName compilées, par type d'enregistrement (RuleSchema).
+ *
+ * - Au premier accès pour un type, toutes les règles sont lues par une requête de projection,
+ *   analysées (RuleParser) puis compilées (RuleCompiler) ; le résultat est conservé jusqu'à evict().
+ * - Une règle est active dès que sqlPart ou json est renseigné ; si les deux le sont, les deux
+ *   conditions doivent être satisfaites. Une règle dont la condition est illisible ou porte sur
+ *   un champ absent du type évalué est écartée et reportée dans invalidRules.
+ * - RuleNameServiceImpl appelle evict() à chaque création, mise à jour ou suppression ; comme
+ *   pour CurveIndex, le cache est vidé immédiatement puis de nouveau après le commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CompiledRuleCache {
+
+    private final DtoProjectionRepository dtoProjectionRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<RuleSchema<?>, CompiledRuleSet<?>> ruleSets = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <T> CompiledRuleSet<T> get(RuleSchema<T> schema) {
+        return (CompiledRuleSet<T>) ruleSets.computeIfAbsent(schema, s -> compileAll(schema));
+    }
+
+    /**
+     * Vide le cache, immédiatement et après le commit de la transaction courante.
+     */
+    public void evict() {
+        log.debug("Invalidation des règles compilées");
+        AfterCommit.evict(ruleSets::clear);
+    }
+
+    private <T> CompiledRuleSet<T> compileAll(RuleSchema<T> schema) {
+        List<RuleNameDto> ruleNames = dtoProjectionRepository.findAll(DtoProjection.RULE_NAME, null, Sort.by("id"), 0);
+        List<CompiledRule<T>> rules = new ArrayList<>();
+        List<RuleErrorDto> invalidRules = new ArrayList<>();
+        for (RuleNameDto ruleName : ruleNames) {
+            boolean hasSqlPart = ruleName.getSqlPart() != null && !ruleName.getSqlPart().isBlank();
+            boolean hasJson = ruleName.getJson() != null && !ruleName.getJson().isBlank();
+            if (!hasSqlPart && !hasJson) {
+                continue;
+            }
+            try {
+                List<RuleExpression> conditions = new ArrayList<>(2);
+                if (hasSqlPart) {
+                    conditions.add(RuleParser.parse(ruleName.getSqlPart()));
+                }
+                if (hasJson) {
+                    conditions.add(RuleParser.fromJson(objectMapper.readTree(ruleName.getJson())));
+                }
+                RuleExpression condition = conditions.size() == 1 ? conditions.get(0) : new RuleExpression.And(List.copyOf(conditions));
+                rules.add(new CompiledRule<>(ruleName.getId(), ruleName.getName(), RuleCompiler.compile(condition, schema)));
+            } catch (RuleSyntaxException | JsonProcessingException ex) {
+                invalidRules.add(new RuleErrorDto(ruleName.getId(), ruleName.getName(), ex.getMessage()));
+            }
+        }
+        log.info("Règles compilées pour {}: {} active(s), {} invalide(s)", schema.getName(), rules.size(), invalidRules.size());
+        return new CompiledRuleSet<>(List.copyOf(rules), List.copyOf(invalidRules));
+    }
+}
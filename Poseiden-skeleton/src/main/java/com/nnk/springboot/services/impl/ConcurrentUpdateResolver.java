@@ -0,0 +1,154 @@
+package com.nnk.springboot.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.services.UpdateConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Résolution des mises à jour concurrentes des entités versionnées (@Version de BidList et Trade).
+ *
+ * - Une mise à jour qui porte la version actuelle est appliquée telle quelle ; sans version
+ *   (ancien client), elle l'est aussi, en dernier écrivain gagnant.
+ * - Sur une version périmée, la mise à jour est refusée (UpdateConflictException avec l'état actuel),
+ *   sauf si la fusion est demandée : l'état de la version lue par le client (la base) est alors
+ *   comparé champ par champ à la saisie et à l'état actuel. Les champs que seul le client a modifiés
+ *   sont appliqués, les autres gardent leur valeur actuelle ; si un même champ a été modifié des
+ *   deux côtés avec des valeurs différentes, la mise à jour est refusée avec la liste de ces champs.
+ * - La saisie (formulaire, PUT) porte tous les champs : une valeur nulle est une valeur saisie,
+ *   comparée à la base comme les autres.
+ * - La base est l'état « avant » conservé à chaque mise à jour (remember), par entité, identifiant
+ *   et version, dans un cache borné (app.concurrency.update-snapshots.max-size / ttl). Une base
+ *   évincée, ou écrite par une autre instance, fait échouer la fusion en conflit simple.
+ * - Les compteurs updates.conflicts (tags entity et outcome = merged / rejected) sont publiés
+ *   dans Micrometer.
+ *
+ * La course entre la relecture et l'UPDATE reste couverte par la colonne version : Hibernate lève
+ * alors une OptimisticLockingFailureException au commit.
+ */
+@Slf4j
+@Component
+public class ConcurrentUpdateResolver {
+
+    private final Cache<Key, Object> snapshots;
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrentUpdateResolver(MeterRegistry meterRegistry,
+                                    @Value("${app.concurrency.update-snapshots.max-size:10000}") long maxSize,
+                                    @Value("${app.concurrency.update-snapshots.ttl:30m}") Duration ttl) {
+        this.meterRegistry = meterRegistry;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Champ fusionnable d'un DTO : nom, lecture et recopie d'un DTO vers un autre.
+     */
+    public record Field<D>(String name, Function<D, ?> getter, BiConsumer<D, D> copier) {
+
+        public static <D, V> Field<D> of(String name, Function<D, V> getter, BiConsumer<D, V> setter) {
+            return new Field<>(name, getter, (from, to) -> setter.accept(to, getter.apply(from)));
+        }
+    }
+
+    private record Key(ChangeEntity entity, Integer id, Integer version) {
+    }
+
+    /**
+     * Conserve l'état d'un enregistrement à une version donnée, base d'une fusion ultérieure.
+     */
+    public void remember(ChangeEntity entity, Integer id, Integer version, Object state) {
+        if (version != null) {
+            snapshots.put(new Key(entity, id, version), state);
+        }
+    }
+
+    /**
+     * Vérifie la version de la saisie et, si elle est périmée, fusionne la saisie avec l'état actuel
+     * ou lève une UpdateConflictException.
+     *
+     * @param entity         l'entité mise à jour
+     * @param id             l'identifiant de l'enregistrement
+     * @param incoming       la saisie du client ; complétée en place par les valeurs actuelles en cas de fusion
+     * @param incomingVersion la version lue par le client, ou null pour ne pas vérifier
+     * @param current        l'état actuel de l'enregistrement
+     * @param currentVersion la version actuelle
+     * @param merge          true pour tenter la fusion des champs non concurrents
+     * @param fields         les champs fusionnables du DTO
+     * @throws UpdateConflictException si la version est périmée et que la fusion est impossible
+     */
+    @SuppressWarnings("unchecked")
+    public <D> void resolve(ChangeEntity entity, Integer id, D incoming, Integer incomingVersion,
+                            D current, Integer currentVersion, boolean merge, List<Field<D>> fields) {
+        if (incomingVersion == null || incomingVersion.equals(currentVersion)) {
+            return;
+        }
+        D base = merge ? (D) snapshots.getIfPresent(new Key(entity, id, incomingVersion)) : null;
+        if (base == null) {
+            throw reject(entity, id, incomingVersion, currentVersion, current, List.of());
+        }
+        List<String> overlapping = new ArrayList<>();
+        List<Field<D>> untouched = new ArrayList<>();
+        for (Field<D> field : fields) {
+            Object mine = field.getter().apply(incoming);
+            Object theirs = field.getter().apply(current);
+            Object original = field.getter().apply(base);
+            if (same(mine, original)) {
+                untouched.add(field);
+            } else if (!same(theirs, original) && !same(mine, theirs)) {
+                overlapping.add(field.name());
+            }
+        }
+        if (!overlapping.isEmpty()) {
+            throw reject(entity, id, incomingVersion, currentVersion, current, overlapping);
+        }
+        for (Field<D> field : untouched) {
+            field.copier().accept(current, incoming);
+        }
+        log.info("Mise à jour concurrente fusionnée: {} id={} (version lue {}, version actuelle {})",
+                entity.getLabel(), id, incomingVersion, currentVersion);
+        counter(entity, "merged").increment();
+    }
+
+    private UpdateConflictException reject(ChangeEntity entity, Integer id, Integer incomingVersion,
+                                           Integer currentVersion, Object current, List<String> fields) {
+        log.warn("Conflit de mise à jour: {} id={} (version lue {}, version actuelle {}, champs {})",
+                entity.getLabel(), id, incomingVersion, currentVersion, fields);
+        counter(entity, "rejected").increment();
+        return new UpdateConflictException(entity.getLabel() + " " + id + " a été modifié entre-temps (version lue "
+                + incomingVersion + ", version actuelle " + currentVersion + ")", current, fields);
+    }
+
+    private Counter counter(ChangeEntity entity, String outcome) {
+        return Counter.builder("updates.conflicts")
+                .description("Mises à jour portant sur une version périmée")
+                .tag("entity", entity.getLabel())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Égalité de valeurs ; les décimaux sont comparés sans tenir compte de l'échelle (10.0 = 10.0000).
+     */
+    private static boolean same(Object a, Object b) {
+        if (a instanceof BigDecimal x && b instanceof BigDecimal y) {
+            return x.compareTo(y) == 0;
+        }
+        return Objects.equals(a, b);
+    }
+}
@@ -0,0 +1,116 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.services.InterpolationMethod;
+
+/**
+ * Courbe immuable : termes strictement croissants et valeurs associées, stockés dans des
+ * tableaux de double, avec les dérivées secondes de la spline cubique naturelle précalculées.
+ *
+ * Une interpolation est une recherche dichotomique (O(log n)) suivie d'un calcul sur
+ * l'intervalle trouvé ; elle n'alloue aucun objet. En dehors de [premier terme, dernier terme]
+ * la valeur est extrapolée à plat (valeur du point le plus proche).
+ */
+public final class Curve {
+
+    private final double[] terms;
+    private final double[] values;
+    private final double[] secondDerivatives;
+
+    /**
+     * @param terms  les termes, strictement croissants (le tableau est conservé tel quel)
+     * @param values les valeurs correspondantes, de même longueur (au moins une)
+     * @throws IllegalArgumentException si les tableaux sont vides, de longueurs différentes
+     *                                  ou si les termes ne sont pas strictement croissants
+     */
+    public Curve(double[] terms, double[] values) {
+        if (terms.length == 0 || terms.length != values.length) {
+            throw new IllegalArgumentException("Courbe invalide : " + terms.length + " terme(s) pour " + values.length + " valeur(s)");
+        }
+        for (int i = 1; i < terms.length; i++) {
+            if (!(terms[i] > terms[i - 1])) {
+                throw new IllegalArgumentException("Les termes d'une courbe doivent être strictement croissants");
+            }
+        }
+        this.terms = terms;
+        this.values = values;
+        this.secondDerivatives = naturalSplineSecondDerivatives(terms, values);
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    /**
+     * Valeur de la courbe au terme demandé.
+     *
+     * @param term   le terme recherché
+     * @param method la méthode d'interpolation entre deux points
+     * @return la valeur interpolée (ou extrapolée à plat hors bornes)
+     */
+    public double valueAt(double term, InterpolationMethod method) {
+        int last = terms.length - 1;
+        if (term <= terms[0]) {
+            return values[0];
+        }
+        if (term >= terms[last]) {
+            return values[last];
+        }
+        int lo = 0;
+        int hi = last;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (terms[mid] > term) {
+                hi = mid;
+            } else {
+                lo = mid;
+            }
+        }
+        double h = terms[hi] - terms[lo];
+        double b = (term - terms[lo]) / h;
+        double a = 1.0 - b;
+        double linear = a * values[lo] + b * values[hi];
+        if (method == InterpolationMethod.LINEAR) {
+            return linear;
+        }
+        return linear + ((a * a * a - a) * secondDerivatives[lo] + (b * b * b - b) * secondDerivatives[hi]) * (h * h) / 6.0;
+    }
+
+    /**
+     * Interpolation d'une série de termes dans un tableau fourni par l'appelant.
+     *
+     * @param terms  les termes recherchés, dans un ordre quelconque
+     * @param method la méthode d'interpolation
+     * @param out    le tableau recevant les valeurs, au moins aussi long que terms
+     */
+    public void valuesAt(double[] terms, InterpolationMethod method, double[] out) {
+        for (int i = 0; i < terms.length; i++) {
+            out[i] = valueAt(terms[i], method);
+        }
+    }
+
+    /**
+     * Dérivées secondes de la spline cubique naturelle (nulles aux extrémités), par résolution
+     * du système tridiagonal en un aller-retour. Nulles pour moins de trois points : la spline
+     * se confond alors avec l'interpolation linéaire.
+     */
+    private static double[] naturalSplineSecondDerivatives(double[] x, double[] y) {
+        int n = x.length;
+        double[] y2 = new double[n];
+        if (n < 3) {
+            return y2;
+        }
+        double[] u = new double[n];
+        for (int i = 1; i < n - 1; i++) {
+            double sig = (x[i] - x[i - 1]) / (x[i + 1] - x[i - 1]);
+            double p = sig * y2[i - 1] + 2.0;
+            y2[i] = (sig - 1.0) / p;
+            double slopes = (y[i + 1] - y[i]) / (x[i + 1] - x[i]) - (y[i] - y[i - 1]) / (x[i] - x[i - 1]);
+            u[i] = (6.0 * slopes / (x[i + 1] - x[i - 1]) - sig * u[i - 1]) / p;
+        }
+        y2[n - 1] = 0.0;
+        for (int k = n - 2; k >= 0; k--) {
+            y2[k] = y2[k] * y2[k + 1] + u[k];
+        }
+        return y2;
+    }
+}
@@ -0,0 +1,128 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.domain.CurvePoint;
+import com.nnk.springboot.dto.CurvePointDto;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
+import com.nnk.springboot.repositories.ListSpecifications;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index en mémoire des courbes construites à partir des CurvePoint.
+ *
+ * - Pour chaque curveId, les points sont regroupés par asOfDate (les points sans date sont
+ *   rangés sous LocalDateTime.MIN, c'est-à-dire traités comme la date la plus ancienne) et chaque
+ *   groupe devient une Curve triée par terme. Deux points de même terme : le dernier créé l'emporte.
+ * - Une courbe est chargée au premier accès, par une seule requête de projection, puis conservée
+ *   jusqu'à son invalidation. Les identifiants sans aucun point ne sont pas mis en cache.
+ * - Les écritures de CurvePointServiceImpl appellent evict(curveId) : seule la courbe touchée est
+ *   retirée puis reconstruite au prochain accès. Comme pour UserDetailsCache, l'entrée est retirée
+ *   immédiatement puis de nouveau après le commit (AfterCommit.evict).
+ * - Le chargement (requête SQL) s'exécute hors de la map, pour ne pas bloquer les autres clés du
+ *   même segment de ConcurrentHashMap pendant la requête ; deux premiers accès simultanés peuvent
+ *   donc charger la même courbe, le premier résultat publié (putIfAbsent) est conservé. Un compteur
+ *   d'invalidations, relu avant et après la publication, écarte un chargement qui a pu lire un état
+ *   antérieur à une écriture validée entre-temps.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CurveIndex {
+
+    private final DtoProjectionRepository dtoProjectionRepository;
+    private final Map<Integer, NavigableMap<LocalDateTime, Curve>> curves = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Renvoie les courbes d'un curveId indexées par asOfDate (vide si aucun point n'existe).
+     */
+    public NavigableMap<LocalDateTime, Curve> get(Integer curveId) {
+        NavigableMap<LocalDateTime, Curve> cached = curves.get(curveId);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = evictions.get();
+        NavigableMap<LocalDateTime, Curve> loaded = load(curveId);
+        if (loaded == null) {
+            return Collections.emptyNavigableMap();
+        }
+        if (evictions.get() != generation) {
+            return loaded;
+        }
+        NavigableMap<LocalDateTime, Curve> published = curves.putIfAbsent(curveId, loaded);
+        if (published != null) {
+            return published;
+        }
+        if (evictions.get() != generation) {
+            curves.remove(curveId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Retire la courbe de l'index, immédiatement et après le commit de la transaction courante.
+     */
+    public void evict(Integer curveId) {
+        if (curveId == null) {
+            return;
+        }
+        log.debug("Invalidation de la courbe curveId={}", curveId);
+        AfterCommit.evict(() -> {
+            evictions.incrementAndGet();
+            curves.remove(curveId);
+        });
+    }
+
+    private NavigableMap<LocalDateTime, Curve> load(Integer curveId) {
+        Specification<CurvePoint> spec = ListSpecifications.equalTo("curveId", curveId);
+        List<CurvePointDto> points = dtoProjectionRepository.findAll(DtoProjection.CURVE_POINT, spec,
+                Sort.by("asOfDate", "term", "id"), 0);
+        if (points.isEmpty()) {
+            return null;
+        }
+        NavigableMap<LocalDateTime, Curve> byDate = new TreeMap<>();
+        double[] terms = new double[points.size()];
+        double[] values = new double[points.size()];
+        int start = 0;
+        while (start < points.size()) {
+            LocalDateTime asOfDate = points.get(start).getAsOfDate();
+            int count = 0;
+            int end = start;
+            for (; end < points.size() && Objects.equals(points.get(end).getAsOfDate(), asOfDate); end++) {
+                CurvePointDto point = points.get(end);
+                if (point.getTerm() == null || point.getValue() == null) {
+                    continue;
+                }
+                if (count > 0 && terms[count - 1] == point.getTerm()) {
+                    values[count - 1] = point.getValue();
+                } else {
+                    terms[count] = point.getTerm();
+                    values[count] = point.getValue();
+                    count++;
+                }
+            }
+            if (count > 0) {
+                byDate.put(asOfDate == null ? LocalDateTime.MIN : asOfDate,
+                        new Curve(Arrays.copyOf(terms, count), Arrays.copyOf(values, count)));
+            }
+            start = end;
+        }
+        log.info("Courbe chargée: curveId={} {} date(s), {} point(s)", curveId, byDate.size(), points.size());
+        return byDate.isEmpty() ? null : Collections.unmodifiableNavigableMap(byDate);
+    }
+}
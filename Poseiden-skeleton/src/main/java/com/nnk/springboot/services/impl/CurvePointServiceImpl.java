@@ -1,59 +1,90 @@
 package com.nnk.springboot.services.impl;
 
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
 import com.nnk.springboot.domain.CurvePoint;
 import com.nnk.springboot.dto.CurvePointDto;
+import com.nnk.springboot.dto.CurvePointFilterDto;
+import com.nnk.springboot.dto.ListFilterDto;
 import com.nnk.springboot.mapper.CurvePointMapper;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
 import com.nnk.springboot.repositories.CurvePointRepository;
+import com.nnk.springboot.repositories.ListSpecifications;
 
 import com.nnk.springboot.services.CurvePointService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Implémentation du service pour la gestion des entités CurvePoint.
  * Cette classe fournit des opérations CRUD et s’appuie sur:
  * - CurvePointRepository pour l’accès aux données,
- * - CurvePointMapper pour la conversion entité ↔ DTO et la mise à jour partielle.
+ * - DtoProjectionRepository pour les lectures, qui construisent les DTO sans hydrater d’entités,
+ * - CurvePointMapper pour la conversion entité ↔ DTO et la mise à jour partielle,
+ * - CurveIndex, dont la courbe touchée par une création, une mise à jour ou une suppression est invalidée.
  *
  * Comportement transactionnel:
  * - Les méthodes de lecture sont annotées readOnly = true.
  * - Les méthodes d’écriture (création, mise à jour, suppression) participent à une transaction par défaut.
  *
  * Journalisation:
- * - Utilise SLF4J pour tracer les opérations (info/debug/warn) et mesurer le temps d’exécution de findAll().
+ * - Utilise SLF4J pour tracer les opérations (info/debug/warn).
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class CurvePointServiceImpl implements CurvePointService {
+    private static final Set<String> SORTABLE = Set.of("id", "curveId", "asOfDate", "term", "value");
+
     private final CurvePointRepository curvePointRepository;
+    private final DtoProjectionRepository dtoProjectionRepository;
     private final CurvePointMapper curvePointMapper;
+    private final CurveIndex curveIndex;
+    private final ChangeFeed changeFeed;
+    private final AuditTrail auditTrail;
 
     /**
      * Récupère toutes les entrées CurvePoint depuis la base de données,
      * les convertit en DTO, puis renvoie la liste complète.
-     * La méthode mesure et journalise le temps de traitement.
+     * La durée et le nombre d’éléments récupérés sont mesurés par ServiceMetricsAspect.
      *
      * @return une liste de CurvePointDto représentant toutes les entrées CurvePoint.
      */
     @Transactional(readOnly = true)
     @Override
     public List<CurvePointDto> findAll() {
-        long t0 = System.nanoTime();
-        log.info("Liste des points de courbe (CurvePoint) - démarrage");
-        List<CurvePointDto> result = curvePointRepository.findAll()
-                .stream()
-                .map(curvePointMapper::toDto)
-                .toList();
-        log.info("Liste récupérée: {} élément(s) en {} ms", result.size(), (System.nanoTime() - t0) / 1_000_000);
+        List<CurvePointDto> result = dtoProjectionRepository.findAll(DtoProjection.CURVE_POINT, null, Sort.unsorted(), 0);
+        log.debug("Liste récupérée: {} élément(s)", result.size());
         return result;
     }
 
+    /**
+     * Récupère les entrées CurvePoint correspondant aux filtres (identifiant de courbe en égalité),
+     * triées côté base selon la propriété demandée (voir ListSpecifications.sort), et au plus ListFilterDto.MAX_ROWS lignes.
+     *
+     * @param filter les filtres et le tri de la liste (valeurs nulles ou vides ignorées)
+     * @return la liste des CurvePointDto correspondant aux filtres, dans l'ordre demandé
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<CurvePointDto> findAll(CurvePointFilterDto filter) {
+        log.debug("Liste filtrée des points de courbe: curveId={} sort={} dir={}", filter.getCurveId(), filter.getSort(), filter.getDir());
+        Specification<CurvePoint> spec = Specification.where(
+                ListSpecifications.equalTo("curveId", filter.getCurveId()));
+        Sort sort = ListSpecifications.sort(filter.getSort(), filter.getDir(), SORTABLE, "id");
+        return dtoProjectionRepository.findAll(DtoProjection.CURVE_POINT, spec, sort, ListFilterDto.MAX_ROWS);
+    }
+
 
 
     /**
@@ -65,11 +96,15 @@ public class CurvePointServiceImpl implements CurvePointService {
      */
     @Override
     public CurvePointDto create(CurvePointDto dto) {
-        log.info("Création d'un point de courbe: curveId={} term={} value={}", dto.getCurveId(), dto.getTerm(), dto.getValue());
+        log.debug("Création d'un point de courbe: curveId={} term={} value={}", dto.getCurveId(), dto.getTerm(), dto.getValue());
         CurvePoint entity = curvePointMapper.toEntity(dto);
         CurvePoint saved = curvePointRepository.save(entity);
-        log.info("Point de courbe créé avec succès: id={}", saved.getId());
-        return curvePointMapper.toDto(saved);
+        curveIndex.evict(saved.getCurveId());
+        log.debug("Point de courbe créé avec succès: id={}", saved.getId());
+        CurvePointDto result = curvePointMapper.toDto(saved);
+        changeFeed.record(ChangeEntity.CURVE_POINT, ChangeOperation.CREATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.CURVE_POINT, ChangeOperation.CREATE, result.getId(), null, result);
+        return result;
     }
 
 
@@ -84,12 +119,11 @@ public class CurvePointServiceImpl implements CurvePointService {
     @Override
     public CurvePointDto getCurvePoint(Integer id) {
         log.debug("Récupération du point de courbe id={}", id);
-        CurvePoint entity = curvePointRepository.findById(id)
+        return dtoProjectionRepository.findById(DtoProjection.CURVE_POINT, id)
                 .orElseThrow(() -> {
                     log.warn("Point de courbe introuvable pour id={}", id);
                     return new IllegalArgumentException("CurvePoint introuvable avec l'id " + id);
                 });
-        return curvePointMapper.toDto(entity);
     }
 
 
@@ -106,35 +140,48 @@ public class CurvePointServiceImpl implements CurvePointService {
      */
     @Override
     public CurvePointDto update(Integer id, CurvePointDto dto) {
-        log.info("Mise à jour du point de courbe id={} (curveId={} term={} value={})", id, dto.getCurveId(), dto.getTerm(), dto.getValue());
+        log.debug("Mise à jour du point de courbe id={} (curveId={} term={} value={})", id, dto.getCurveId(), dto.getTerm(), dto.getValue());
         CurvePoint entity = curvePointRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Mise à jour impossible: point de courbe introuvable pour id={}", id);
                     return new IllegalArgumentException("CurvePoint introuvable avec l'id " + id);
                 });
+        Integer previousCurveId = entity.getCurveId();
+        CurvePointDto before = curvePointMapper.toDto(entity);
         curvePointMapper.updateEntity(entity, dto);
         CurvePoint saved = curvePointRepository.save(entity);
-        log.info("Point de courbe mis à jour: id={}", saved.getId());
-        return curvePointMapper.toDto(saved);
+        curveIndex.evict(previousCurveId);
+        if (!Objects.equals(previousCurveId, saved.getCurveId())) {
+            curveIndex.evict(saved.getCurveId());
+        }
+        log.debug("Point de courbe mis à jour: id={}", saved.getId());
+        CurvePointDto result = curvePointMapper.toDto(saved);
+        changeFeed.record(ChangeEntity.CURVE_POINT, ChangeOperation.UPDATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.CURVE_POINT, ChangeOperation.UPDATE, result.getId(), before, result);
+        return result;
     }
 
 
 
     /**
      * Supprime un CurvePoint par son identifiant. Si l’identifiant n’existe pas,
-     * une exception est levée.
+     * une exception est levée. Le point est lu avant suppression pour invalider sa courbe.
      *
      * @param id l’identifiant du CurvePoint à supprimer.
      * @throws IllegalArgumentException si aucun CurvePoint n’est trouvé pour l’identifiant fourni.
      */
     @Override
     public void delete(Integer id) {
-        log.info("Suppression du point de courbe id={}", id);
-        if (!curvePointRepository.existsById(id)) {
-            log.warn("Suppression impossible: point de courbe introuvable pour id={}", id);
-            throw new IllegalArgumentException("CurvePoint introuvable avec l'id " + id);
-        }
-        curvePointRepository.deleteById(id);
-        log.info("Point de courbe supprimé: id={}", id);
+        log.debug("Suppression du point de courbe id={}", id);
+        CurvePoint entity = curvePointRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Suppression impossible: point de courbe introuvable pour id={}", id);
+                    return new IllegalArgumentException("CurvePoint introuvable avec l'id " + id);
+                });
+        curvePointRepository.delete(entity);
+        curveIndex.evict(entity.getCurveId());
+        changeFeed.record(ChangeEntity.CURVE_POINT, ChangeOperation.DELETE, id, null);
+        auditTrail.record(ChangeEntity.CURVE_POINT, ChangeOperation.DELETE, id, curvePointMapper.toDto(entity), null);
+        log.debug("Point de courbe supprimé: id={}", id);
     }
 }
@@ -0,0 +1,58 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.dto.CurveInterpolationRequestDto;
+import com.nnk.springboot.dto.CurveInterpolationResultDto;
+import com.nnk.springboot.services.CurveNotFoundException;
+import com.nnk.springboot.services.CurveService;
+import com.nnk.springboot.services.InterpolationMethod;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Implémentation du service d'interpolation sur les courbes de CurvePoint.
+ *
+ * Les courbes sont lues dans CurveIndex ; une interpolation ne touche la base que lorsque
+ * la courbe n'est pas encore indexée (premier accès ou après une modification de ses points).
+ * Pour cette raison le service n'est pas transactionnel : une transaction, même en lecture
+ * seule, réserverait une connexion à chaque appel alors que la courbe est presque toujours
+ * déjà en mémoire.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CurveServiceImpl implements CurveService {
+
+    private final CurveIndex curveIndex;
+
+    /**
+     * Interpole les termes demandés sur la courbe curveId à la date demandée.
+     *
+     * @param curveId l'identifiant de la courbe
+     * @param request les termes, la méthode d'interpolation et la date facultative de la courbe
+     * @return les valeurs interpolées, dans l'ordre des termes demandés
+     * @throws CurveNotFoundException si la courbe n'a aucun point à la date demandée
+     */
+    @Override
+    public CurveInterpolationResultDto interpolate(Integer curveId, CurveInterpolationRequestDto request) {
+        InterpolationMethod method = request.getMethod() == null ? InterpolationMethod.LINEAR : request.getMethod();
+        log.debug("Interpolation curveId={} asOfDate={} méthode={} termes={}", curveId, request.getAsOfDate(), method, request.getTerms().length);
+        NavigableMap<LocalDateTime, Curve> byDate = curveIndex.get(curveId);
+        Map.Entry<LocalDateTime, Curve> entry = request.getAsOfDate() == null
+                ? byDate.lastEntry()
+                : byDate.floorEntry(request.getAsOfDate());
+        if (entry == null) {
+            log.warn("Courbe introuvable: curveId={} asOfDate={}", curveId, request.getAsOfDate());
+            throw new CurveNotFoundException("Aucun point de courbe pour curveId " + curveId
+                    + (request.getAsOfDate() == null ? "" : " au " + request.getAsOfDate()));
+        }
+        double[] values = new double[request.getTerms().length];
+        entry.getValue().valuesAt(request.getTerms(), method, values);
+        LocalDateTime asOfDate = entry.getKey().equals(LocalDateTime.MIN) ? null : entry.getKey();
+        return new CurveInterpolationResultDto(curveId, asOfDate, method, request.getTerms(), values);
+    }
+}
@@ -3,20 +3,27 @@ package com.nnk.springboot.services.impl;
 import com.nnk.springboot.domain.User;
 import com.nnk.springboot.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implémentation personnalisée de UserDetailsService utilisée par Spring Security
  * pour charger les informations d’un utilisateur lors du processus d’authentification.
  *
  * Responsabilités :
- * - Récupérer un utilisateur depuis la couche de persistance via UserRepository.
+ * - Récupérer un utilisateur depuis la couche de persistance via UserRepository,
+ *   au travers du cache UserDetailsCache.
  * - Transformer l’entité métier User en un userdetails.User
  *   exploitable par Spring Security (username, mot de passe encodé, rôles).
  *
+ * - Enregistrer un nouveau hash lorsque Spring Security le régénère à la connexion
+ *   (hash d'un coût BCrypt inférieur à app.security.bcrypt.strength).
+ *
  * Comportement:
  * - Si aucun utilisateur n’est trouvé pour le nom d’utilisateur fourni, une UsernameNotFoundException est levée.
  * - Les rôles sont définis avec la méthode {roles(...)} du builder de Spring Security.
@@ -25,17 +32,20 @@ import org.springframework.stereotype.Service;
  * - La méthode {roles(...)} préfixe automatiquement les autorités par {ROLE_}.
  *   Veillez à ne pas stocker le préfixe {ROLE_} dans la colonne role si vous conservez ce mode de construction.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
     /**
      * Charge les informations d’un utilisateur à partir de son nom d’utilisateur.
      * Récupère l’entité User depuis le dépôt, puis la convertit en un
      * userdetails.User compatible avec Spring Security,
      * en incluant le nom d’utilisateur, le mot de passe (déjà encodé) et le(s) rôle(s).
+     * Le résultat est lu au travers de UserDetailsCache : seul un défaut de cache interroge la base.
      *
      * @param username le nom d’utilisateur dont il faut charger les informations.
      * @return un {UserDetails} contenant les informations de sécurité de l’utilisateur.
@@ -43,6 +53,10 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadFromRepository);
+    }
+
+    private UserDetails loadFromRepository(String username) {
         User u = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Utilisateur introuvable: " + username));
 
@@ -52,4 +66,27 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .roles(u.getRole())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Remplace le hash du mot de passe d'un utilisateur après une authentification réussie.
+     * Appelée par Spring Security lorsque PasswordEncoder.upgradeEncoding indique un hash obsolète ;
+     * le mot de passe reçu est déjà encodé avec le coût courant.
+     *
+     * @param user        l'utilisateur authentifié.
+     * @param newPassword le nouveau hash.
+     * @return le UserDetails portant le nouveau hash.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByUsername(user.getUsername()).ifPresent(u -> {
+            u.setPassword(newPassword);
+            userRepository.save(u);
+            log.info("Hash du mot de passe régénéré pour username='{}'", u.getUsername());
+        });
+        userDetailsCache.evict(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+}
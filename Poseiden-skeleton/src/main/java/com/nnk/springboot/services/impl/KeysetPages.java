@@ -0,0 +1,107 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.dto.KeysetPageDto;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
+import com.nnk.springboot.repositories.ListSpecifications;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Pagination par clé (keyset / seek) commune à BidListServiceImpl et TradeServiceImpl.
+ *
+ * - Les lignes sont lues dans l'ordre (colonne triée, identifiant) à partir de la ligne curseur,
+ *   avec une ligne de plus que la page pour savoir s'il en existe une au-delà : jamais plus d'une
+ *   page en mémoire, et MySQL parcourt l'index correspondant jusqu'à la limite.
+ * - La page précédente est lue dans l'ordre inverse à partir du curseur, puis remise à l'endroit.
+ * - Les curseurs restent des identifiants : pour un tri sur une autre colonne, la valeur triée de
+ *   la ligne curseur est relue par sa clé primaire. Si cette ligne a été supprimée entre-temps,
+ *   la première page est renvoyée, lue dans l'ordre du tri et sans page précédente, que le
+ *   curseur soit after ou before.
+ */
+@Slf4j
+final class KeysetPages {
+
+    private KeysetPages() {
+    }
+
+    /**
+     * Lit une page de DTO.
+     *
+     * @param repository le dépôt des projections
+     * @param projection la projection lue
+     * @param filter     les critères de filtrage, ou null
+     * @param sort       le tri construit par ListSpecifications.sort (colonne triée, puis identifiant)
+     * @param sortKeys   pour chaque colonne triable autre que l'identifiant (non nulle), la lecture de sa valeur sur la ligne curseur
+     * @param idOf       l'identifiant d'une ligne
+     * @param after      curseur de la page suivante (identifiant exclu), ou null
+     * @param before     curseur de la page précédente (identifiant exclu), ou null ; prioritaire sur after
+     * @param limit      la taille de la page
+     * @return la page dans l'ordre du tri, avec ses curseurs
+     */
+    static <T, D> KeysetPageDto<D> read(DtoProjectionRepository repository, DtoProjection<T, D> projection,
+                                        Specification<T> filter, Sort sort, Map<String, Function<D, String>> sortKeys,
+                                        Function<D, Integer> idOf, Integer after, Integer before, int limit) {
+        Sort.Order order = sort.iterator().next();
+        boolean backwards = before != null;
+        Integer cursor = backwards ? before : after;
+        Specification<T> spec = filter;
+        if (cursor != null) {
+            Optional<Specification<T>> position = seek(repository, projection, order.getProperty(), sortKeys,
+                    cursor, backwards != order.isAscending());
+            if (position.isPresent()) {
+                spec = Specification.allOf(filter, position.get());
+            } else {
+                backwards = false;
+                cursor = null;
+            }
+        }
+        Sort readOrder = !backwards ? sort : order.isAscending() ? sort.descending() : sort.ascending();
+        List<D> items = new ArrayList<>(repository.findAll(projection, spec, readOrder, limit + 1));
+        boolean more = items.size() > limit;
+        if (more) {
+            items.remove(limit);
+        }
+        boolean hasNext;
+        boolean hasPrevious;
+        if (backwards) {
+            Collections.reverse(items);
+            hasPrevious = more;
+            hasNext = true;
+        } else {
+            hasNext = more;
+            hasPrevious = cursor != null;
+        }
+        Integer nextCursor = hasNext && !items.isEmpty() ? idOf.apply(items.get(items.size() - 1)) : null;
+        Integer previousCursor = hasPrevious && !items.isEmpty() ? idOf.apply(items.get(0)) : null;
+        return new KeysetPageDto<>(List.copyOf(items), limit, nextCursor, previousCursor);
+    }
+
+    /**
+     * Critère de position par rapport à la ligne curseur dans l'ordre (sortBy, id) :
+     * lignes situées après (greater) ou avant elle.
+     *
+     * @return le critère, ou Optional.empty() si la ligne curseur n'existe plus
+     */
+    private static <T, D> Optional<Specification<T>> seek(DtoProjectionRepository repository, DtoProjection<T, D> projection,
+                                                String sortBy, Map<String, Function<D, String>> sortKeys,
+                                                Integer cursor, boolean greater) {
+        if ("id".equals(sortBy)) {
+            return Optional.of(greater ? ListSpecifications.greaterThan("id", cursor) : ListSpecifications.lessThan("id", cursor));
+        }
+        Optional<D> anchor = repository.findById(projection, cursor);
+        if (anchor.isEmpty()) {
+            log.debug("Curseur {} introuvable id={} -> retour à la première page", projection.dtoClass().getSimpleName(), cursor);
+            return Optional.empty();
+        }
+        return Optional.of(ListSpecifications.seek(sortBy, sortKeys.get(sortBy).apply(anchor.get()), cursor, greater));
+    }
+}
@@ -0,0 +1,299 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.PositionSummary;
+import com.nnk.springboot.domain.PositionSummaryId;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.repositories.AccountTypeTotal;
+import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.repositories.PositionSummaryRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Positions agrégées par compte et type, tenues en mémoire à partir des écritures Trade et BidList.
+ *
+ * - Les positions sont rangées par compte puis par type dans des ConcurrentHashMap : une mise à
+ *   jour ne verrouille que l'entrée du compte touché, et la lecture d'un compte ne parcourt que
+ *   ses types. Une position revenue à zéro est retirée, et le compte avec sa dernière position.
+ * - TradeServiceImpl et BidListServiceImpl signalent chaque création, mise à jour (ancienne et
+ *   nouvelle valeur) ou suppression, ainsi que les lots des imports en masse. Les écarts sont
+ *   cumulés par transaction et appliqués après le commit : un rollback n'a aucun effet.
+ * - Au démarrage, avant l'ouverture du serveur web, l'agrégat est reconstruit par deux requêtes
+ *   GROUP BY sur trade et bidlist (couvertes par les index (account, type, quantité) de V3).
+ * - Les positions modifiées sont écrites périodiquement dans position_summary
+ *   (app.positions.checkpoint-interval, en secondes) et à l'arrêt ; la table sert de point de
+ *   lecture SQL et n'est pas relue par l'application.
+ * - Compte et type sont comparés comme le fait la collation par défaut des colonnes MySQL
+ *   (insensible à la casse et aux accents, espaces finaux ignorés) : ils sont ramenés à une forme
+ *   normalisée (voir normalize), qui sert de clé en mémoire, dans position_summary et en lecture.
+ *   Sans cela, "ABC", "abc" et "abc " seraient trois positions en mémoire, une seule ligne de
+ *   position_summary (la dernière écrite l'emporte) et une seule position après reconstruction.
+ *
+ * L'agrégat ne voit que les écritures passant par cette instance : avec plusieurs instances,
+ * ou après une écriture SQL directe, seul un redémarrage le remet en cohérence.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PositionAggregator implements SmartInitializingSingleton {
+
+    private static final Pattern TRAILING_SPACES = Pattern.compile(" +$");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final TradeRepository tradeRepository;
+    private final BidListRepository bidListRepository;
+    private final PositionSummaryRepository positionSummaryRepository;
+    private final Map<String, Map<String, Totals>> positions = new ConcurrentHashMap<>();
+    private final Set<PositionKey> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+
+    /**
+     * Totaux d'une position, ou écart à lui appliquer.
+     */
+    public record Totals(BigDecimal buyQuantity, long tradeCount, BigDecimal bidQuantity, long bidCount) {
+
+        Totals plus(Totals other) {
+            return new Totals(buyQuantity.add(other.buyQuantity), tradeCount + other.tradeCount,
+                    bidQuantity.add(other.bidQuantity), bidCount + other.bidCount);
+        }
+
+        boolean isZero() {
+            return tradeCount == 0 && bidCount == 0 && buyQuantity.signum() == 0 && bidQuantity.signum() == 0;
+        }
+    }
+
+    record PositionKey(String account, String type) {
+
+        PositionKey {
+            account = normalize(account);
+            type = normalize(type);
+        }
+    }
+
+    /**
+     * Forme normalisée d'un compte ou d'un type, égale pour deux valeurs que la collation MySQL
+     * juge égales : espaces finaux retirés, accents retirés (décomposition Unicode), majuscules.
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String unpadded = TRAILING_SPACES.matcher(value).replaceFirst("");
+        String unaccented = COMBINING_MARKS.matcher(Normalizer.normalize(unpadded, Normalizer.Form.NFD)).replaceAll("");
+        return unaccented.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Renvoie les positions d'un compte indexées par type normalisé (vide si le compte n'a aucune
+     * position) ; le compte est normalisé avant la recherche.
+     */
+    public Map<String, Totals> get(String account) {
+        Map<String, Totals> byType = account == null ? null : positions.get(normalize(account));
+        return byType == null ? Collections.emptyMap() : Collections.unmodifiableMap(byType);
+    }
+
+    /**
+     * Renvoie toutes les positions indexées par compte puis par type, sous leur forme normalisée.
+     */
+    public Map<String, Map<String, Totals>> getAll() {
+        return Collections.unmodifiableMap(positions);
+    }
+
+    /**
+     * Signale l'écriture d'un trade : before est l'état avant écriture (null pour une création),
+     * after l'état après écriture (null pour une suppression).
+     */
+    public void tradeChanged(TradeDto before, TradeDto after) {
+        if (before != null) {
+            stage(before.getAccount(), before.getType(), new Totals(orZero(before.getBuyQuantity()).negate(), -1, BigDecimal.ZERO, 0));
+        }
+        if (after != null) {
+            stage(after.getAccount(), after.getType(), new Totals(orZero(after.getBuyQuantity()), 1, BigDecimal.ZERO, 0));
+        }
+    }
+
+    /**
+     * Signale un lot de trades insérés par l'import en masse.
+     */
+    public void tradesImported(List<Trade> rows) {
+        for (Trade row : rows) {
+            stage(row.getAccount(), row.getType(), new Totals(orZero(row.getBuyQuantity()), 1, BigDecimal.ZERO, 0));
+        }
+    }
+
+    /**
+     * Signale l'écriture d'une enchère, avec la même convention que tradeChanged.
+     */
+    public void bidListChanged(BidListDto before, BidListDto after) {
+        if (before != null) {
+            stage(before.getAccount(), before.getType(), new Totals(BigDecimal.ZERO, 0, orZero(before.getBidQuantity()).negate(), -1));
+        }
+        if (after != null) {
+            stage(after.getAccount(), after.getType(), new Totals(BigDecimal.ZERO, 0, orZero(after.getBidQuantity()), 1));
+        }
+    }
+
+    /**
+     * Signale un lot d'enchères insérées par l'import en masse.
+     */
+    public void bidListsImported(List<BidList> rows) {
+        for (BidList row : rows) {
+            stage(row.getAccount(), row.getType(), new Totals(BigDecimal.ZERO, 0, orZero(row.getBidQuantity()), 1));
+        }
+    }
+
+    /**
+     * Reconstruit l'agrégat depuis trade et bidlist. Appelée une fois tous les singletons créés,
+     * avant le démarrage du serveur web et des tâches planifiées : aucune écriture concurrente.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long t0 = System.nanoTime();
+        Map<PositionKey, Totals> totals = new HashMap<>();
+        for (AccountTypeTotal row : tradeRepository.sumBuyQuantityByAccountAndType()) {
+            totals.merge(new PositionKey(row.account(), row.type()),
+                    new Totals(orZero(row.quantity()), row.count(), BigDecimal.ZERO, 0), Totals::plus);
+        }
+        for (AccountTypeTotal row : bidListRepository.sumBidQuantityByAccountAndType()) {
+            totals.merge(new PositionKey(row.account(), row.type()),
+                    new Totals(BigDecimal.ZERO, 0, orZero(row.quantity()), row.count()), Totals::plus);
+        }
+        positions.clear();
+        totals.forEach((key, value) -> positions.computeIfAbsent(key.account(), a -> new ConcurrentHashMap<>()).put(key.type(), value));
+        dirty.addAll(totals.keySet());
+        for (PositionSummaryId id : positionSummaryRepository.findAllIds()) {
+            dirty.add(new PositionKey(id.getAccount(), id.getType()));
+        }
+        log.info("Positions reconstruites: {} position(s) en {} ms", totals.size(), (System.nanoTime() - t0) / 1_000_000);
+        checkpoint();
+    }
+
+    /**
+     * Écrit dans position_summary les positions modifiées depuis le dernier point de reprise
+     * (suppression des positions retirées). En cas d'échec, elles seront réécrites au cycle suivant.
+     * Les points de reprise sont sérialisés par un ReentrantLock plutôt que par synchronized, qui
+     * épinglerait le thread virtuel de la tâche planifiée pendant l'écriture JDBC.
+     */
+    @Scheduled(fixedDelayString = "${app.positions.checkpoint-interval:30}", initialDelayString = "${app.positions.checkpoint-interval:30}", timeUnit = TimeUnit.SECONDS)
+    public void checkpoint() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        checkpointLock.lock();
+        try {
+            writeCheckpoint();
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    private void writeCheckpoint() {
+        LocalDateTime now = LocalDateTime.now();
+        List<PositionKey> keys = new ArrayList<>();
+        List<PositionSummary> upserts = new ArrayList<>();
+        List<PositionSummaryId> deletes = new ArrayList<>();
+        for (Iterator<PositionKey> it = dirty.iterator(); it.hasNext(); ) {
+            PositionKey key = it.next();
+            it.remove();
+            keys.add(key);
+            PositionSummaryId id = new PositionSummaryId(key.account(), key.type());
+            Map<String, Totals> byType = positions.get(key.account());
+            Totals totals = byType == null ? null : byType.get(key.type());
+            if (totals == null) {
+                deletes.add(id);
+            } else {
+                PositionSummary summary = new PositionSummary();
+                summary.setId(id);
+                summary.setBuyQuantity(totals.buyQuantity());
+                summary.setTradeCount(totals.tradeCount());
+                summary.setBidQuantity(totals.bidQuantity());
+                summary.setBidCount(totals.bidCount());
+                summary.setUpdatedAt(now);
+                upserts.add(summary);
+            }
+        }
+        try {
+            positionSummaryRepository.checkpoint(upserts, deletes);
+            log.debug("Point de reprise des positions: {} écrite(s), {} supprimée(s)", upserts.size(), deletes.size());
+        } catch (DataAccessException | TransactionException ex) {
+            dirty.addAll(keys);
+            log.warn("Point de reprise des positions impossible, nouvel essai au prochain cycle: {}", ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        checkpoint();
+    }
+
+    /**
+     * Cumule l'écart dans la transaction courante, appliqué après son commit (voir AfterCommit) ;
+     * hors transaction, l'écart est appliqué immédiatement.
+     */
+    private void stage(String account, String type, Totals delta) {
+        AfterCommit.stage(this, new Delta(new PositionKey(account, type), delta), this::applyAll);
+    }
+
+    /**
+     * Applique les écarts d'une transaction, regroupés par position.
+     */
+    private void applyAll(List<Delta> deltas) {
+        Map<PositionKey, Totals> merged = new HashMap<>();
+        for (Delta delta : deltas) {
+            merged.merge(delta.key(), delta.totals(), Totals::plus);
+        }
+        merged.forEach(this::apply);
+    }
+
+    /**
+     * Applique un écart ; le compte est retiré avec sa dernière position, sous le verrou de son
+     * entrée dans positions.
+     */
+    private void apply(PositionKey key, Totals delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        positions.compute(key.account(), (account, byType) -> {
+            Map<String, Totals> types = byType == null ? new ConcurrentHashMap<>() : byType;
+            types.compute(key.type(), (type, current) -> {
+                Totals next = current == null ? delta : current.plus(delta);
+                return next.isZero() ? null : next;
+            });
+            return types.isEmpty() ? null : types;
+        });
+        dirty.add(key);
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+
+    private record Delta(PositionKey key, Totals totals) {
+    }
+}
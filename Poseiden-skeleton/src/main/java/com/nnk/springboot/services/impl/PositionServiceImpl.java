@@ -0,0 +1,67 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.dto.PositionDto;
+import com.nnk.springboot.services.PositionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lecture des positions agrégées par compte et type.
+ *
+ * Les positions sont lues dans PositionAggregator, sans accès à la base : comme CurveServiceImpl,
+ * le service n'est pas transactionnel. Avec un compte, seules ses positions sont parcourues ;
+ * sans compte, toutes les positions le sont (filtrées par type si celui-ci est renseigné).
+ * Compte et type sont renvoyés et filtrés sous leur forme normalisée (PositionAggregator.normalize).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PositionServiceImpl implements PositionService {
+
+    private static final Comparator<PositionDto> ORDER =
+            Comparator.comparing(PositionDto::getAccount).thenComparing(PositionDto::getType);
+
+    private final PositionAggregator positionAggregator;
+
+    /**
+     * Renvoie les positions correspondant aux filtres (valeurs nulles ou vides ignorées),
+     * triées par compte puis par type.
+     */
+    @Override
+    public List<PositionDto> findAll(String account, String type) {
+        log.debug("Positions: compte={} type={}", account, type);
+        boolean byAccount = account != null && !account.isBlank();
+        boolean byType = type != null && !type.isBlank();
+        List<PositionDto> result = new ArrayList<>();
+        if (byAccount) {
+            collect(account, positionAggregator.get(account), byType ? type : null, result);
+        } else {
+            positionAggregator.getAll().forEach((acc, byTypeMap) -> collect(acc, byTypeMap, byType ? type : null, result));
+        }
+        result.sort(ORDER);
+        return result;
+    }
+
+    private static void collect(String account, Map<String, PositionAggregator.Totals> byType, String type,
+                                List<PositionDto> result) {
+        if (type != null) {
+            PositionAggregator.Totals totals = byType.get(PositionAggregator.normalize(type));
+            if (totals != null) {
+                result.add(toDto(account, PositionAggregator.normalize(type), totals));
+            }
+            return;
+        }
+        byType.forEach((t, totals) -> result.add(toDto(account, t, totals)));
+    }
+
+    private static PositionDto toDto(String account, String type, PositionAggregator.Totals totals) {
+        return new PositionDto(account, type, totals.buyQuantity(), totals.tradeCount(),
+                totals.bidQuantity(), totals.bidCount());
+    }
+}
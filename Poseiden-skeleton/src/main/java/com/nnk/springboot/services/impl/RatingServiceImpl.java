@@ -1,18 +1,28 @@
 package com.nnk.springboot.services.impl;
 
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
 import com.nnk.springboot.dto.RatingDto;
+import com.nnk.springboot.dto.RatingFilterDto;
+import com.nnk.springboot.dto.ListFilterDto;
 import com.nnk.springboot.mapper.RatingMapper;
 import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
 import com.nnk.springboot.repositories.RatingRepository;
+import com.nnk.springboot.repositories.ListSpecifications;
 
 import com.nnk.springboot.services.RatingService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Implémentation de l'interface RatingService, fournissant les méthodes de gestion
@@ -30,30 +40,50 @@ import java.util.List;
 @RequiredArgsConstructor
 @Transactional
 public class RatingServiceImpl implements RatingService {
+    private static final Set<String> SORTABLE = Set.of("id", "moodysRating", "sandpRating", "fitchRating", "orderNumber");
+
 
     private final RatingRepository ratingRepository;
+    private final DtoProjectionRepository dtoProjectionRepository;
     private final RatingMapper ratingMapper;
+    private final ChangeFeed changeFeed;
+    private final AuditTrail auditTrail;
 
     /**
      * Récupère toutes les entités Rating depuis le dépôt, les convertit en RatingDto
      * et retourne la liste résultante.
      *
-     * La méthode journalise le démarrage, le nombre d’éléments récupérés et le temps écoulé en millisecondes.
+     * La durée et le nombre d’éléments récupérés sont mesurés par ServiceMetricsAspect.
      *
      * @return la liste des RatingDto représentant toutes les notations stockées.
      */
+    @Transactional(readOnly = true)
     @Override
     public List<RatingDto> findAll() {
-        long t0 = System.nanoTime();
-        log.info("Liste des notations (Rating) - démarrage");
-        List<RatingDto> result = ratingRepository.findAll()
-                .stream()
-                .map(ratingMapper::toDto)
-                .toList();
-        log.info("Liste récupérée: {} élément(s) en {} ms", result.size(), (System.nanoTime() - t0) / 1_000_000);
+        List<RatingDto> result = dtoProjectionRepository.findAll(DtoProjection.RATING, null, Sort.unsorted(), 0);
+        log.debug("Liste récupérée: {} élément(s)", result.size());
         return result;
     }
 
+    /**
+     * Récupère les entrées Rating correspondant aux filtres (une notation par agence en égalité),
+     * triées côté base selon la propriété demandée (voir ListSpecifications.sort), et au plus ListFilterDto.MAX_ROWS lignes.
+     *
+     * @param filter les filtres et le tri de la liste (valeurs nulles ou vides ignorées)
+     * @return la liste des RatingDto correspondant aux filtres, dans l'ordre demandé
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<RatingDto> findAll(RatingFilterDto filter) {
+        log.debug("Liste filtrée des notations: moodys={} sandp={} fitch={} sort={} dir={}", filter.getMoodysRating(), filter.getSandpRating(), filter.getFitchRating(), filter.getSort(), filter.getDir());
+        Specification<Rating> spec = Specification.allOf(
+                ListSpecifications.equalTo("moodysRating", filter.getMoodysRating()),
+                ListSpecifications.equalTo("sandpRating", filter.getSandpRating()),
+                ListSpecifications.equalTo("fitchRating", filter.getFitchRating()));
+        Sort sort = ListSpecifications.sort(filter.getSort(), filter.getDir(), SORTABLE, "id");
+        return dtoProjectionRepository.findAll(DtoProjection.RATING, spec, sort, ListFilterDto.MAX_ROWS);
+    }
+
 
     /**
      * Récupère une entité Rating par son identifiant, la convertit en RatingDto
@@ -69,12 +99,11 @@ public class RatingServiceImpl implements RatingService {
     @Override
     public RatingDto getRating(Integer id) {
         log.debug("Récupération de la notation id={}", id);
-        Rating entity = ratingRepository.findById(id)
+        return dtoProjectionRepository.findById(DtoProjection.RATING, id)
                 .orElseThrow(() -> {
                     log.warn("Notation introuvable pour id={}", id);
                     return new EntityNotFoundException("Rating introuvable pour l'id=" + id);
                 });
-        return ratingMapper.toDto(entity);
     }
 
 
@@ -91,12 +120,15 @@ public class RatingServiceImpl implements RatingService {
     @Override
     @Transactional
     public RatingDto create(RatingDto dto) {
-        log.info("Création d'une notation: moodys='{}' sandp='{}' fitch='{}' ordre={}",
+        log.debug("Création d'une notation: moodys='{}' sandp='{}' fitch='{}' ordre={}",
                 dto.getMoodysRating(), dto.getSandpRating(), dto.getFitchRating(), dto.getOrderNumber());
         Rating entity = ratingMapper.toEntity(dto);
         Rating saved = ratingRepository.save(entity);
-        log.info("Notation créée avec succès: id={}", saved.getId());
-        return ratingMapper.toDto(saved);
+        log.debug("Notation créée avec succès: id={}", saved.getId());
+        RatingDto result = ratingMapper.toDto(saved);
+        changeFeed.record(ChangeEntity.RATING, ChangeOperation.CREATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.RATING, ChangeOperation.CREATE, result.getId(), null, result);
+        return result;
     }
 
     /**
@@ -114,26 +146,30 @@ public class RatingServiceImpl implements RatingService {
     @Override
     @Transactional
     public RatingDto update(Integer id, RatingDto dto) {
-        log.info("Mise à jour de la notation id={} (moodys='{}' sandp='{}' fitch='{}' ordre={})",
+        log.debug("Mise à jour de la notation id={} (moodys='{}' sandp='{}' fitch='{}' ordre={})",
                 id, dto.getMoodysRating(), dto.getSandpRating(), dto.getFitchRating(), dto.getOrderNumber());
         Rating entity = ratingRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Mise à jour impossible: notation introuvable pour id={}", id);
                     return new EntityNotFoundException("Rating introuvable pour l'id=" + id);
                 });
+        RatingDto before = ratingMapper.toDto(entity);
         ratingMapper.updateEntity(entity, dto);
         Rating saved = ratingRepository.save(entity);
-        log.info("Notation mise à jour: id={}", saved.getId());
-        return ratingMapper.toDto(saved);
+        log.debug("Notation mise à jour: id={}", saved.getId());
+        RatingDto result = ratingMapper.toDto(saved);
+        changeFeed.record(ChangeEntity.RATING, ChangeOperation.UPDATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.RATING, ChangeOperation.UPDATE, result.getId(), before, result);
+        return result;
     }
 
 
     /**
      * Supprime une entité Rating identifiée par son identifiant depuis le dépôt.
      *
-     * La méthode vérifie d’abord l’existence de l’entité. Si elle n’existe pas, une
-     *  EntityNotFoundException est levée. Le processus de suppression est
-     * journalisé, y compris un avertissement le cas échéant.
+     * L’entité est d’abord lue (servie par le cache de second niveau) : si elle n’existe pas, une
+     * EntityNotFoundException est levée. Sa suppression n’évince que son entrée du cache.
+     * Le processus de suppression est journalisé, y compris un avertissement le cas échéant.
      *
      * @param id identifiant de la notation à supprimer
      * @throws EntityNotFoundException si aucune notation n’est trouvée pour l’identifiant fourni
@@ -141,12 +177,16 @@ public class RatingServiceImpl implements RatingService {
     @Override
     @Transactional
     public void delete(Integer id) {
-        log.info("Suppression de la notation id={}", id);
-        if (!ratingRepository.existsById(id)) {
-            log.warn("Suppression impossible: notation introuvable pour id={}", id);
-            throw new EntityNotFoundException("Rating introuvable pour l'id=" + id);
-        }
-        ratingRepository.deleteById(id);
-        log.info("Notation supprimée: id={}", id);
+        log.debug("Suppression de la notation id={}", id);
+        Rating entity = ratingRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.warn("Suppression impossible: notation introuvable pour id={}", id);
+                    return new EntityNotFoundException("Rating introuvable pour l'id=" + id);
+                });
+        RatingDto before = ratingMapper.toDto(entity);
+        ratingRepository.delete(entity);
+        changeFeed.record(ChangeEntity.RATING, ChangeOperation.DELETE, id, null);
+        auditTrail.record(ChangeEntity.RATING, ChangeOperation.DELETE, id, before, null);
+        log.debug("Notation supprimée: id={}", id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.RuleEvaluationResultDto;
+import com.nnk.springboot.dto.RuleMatchDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.rules.CompiledRule;
+import com.nnk.springboot.rules.CompiledRuleSet;
+import com.nnk.springboot.rules.RuleSchema;
+import com.nnk.springboot.services.RuleEngineService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Évaluation des règles RuleName actives sur des lots de trades ou d'enchères.
+ *
+ * Les règles compilées sont lues dans CompiledRuleCache ; le lot est parcouru une seule fois,
+ * chaque enregistrement étant soumis à toutes les règles. Comme CurveServiceImpl, le service
+ * n'est pas transactionnel : la base n'est lue que lorsque le cache vient d'être invalidé.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RuleEngineServiceImpl implements RuleEngineService {
+
+    private final CompiledRuleCache compiledRuleCache;
+
+    @Override
+    public RuleEvaluationResultDto evaluateTrades(List<TradeDto> trades) {
+        return evaluate(RuleSchema.TRADE, trades);
+    }
+
+    @Override
+    public RuleEvaluationResultDto evaluateBidLists(List<BidListDto> bidLists) {
+        return evaluate(RuleSchema.BID_LIST, bidLists);
+    }
+
+    /**
+     * Soumet chaque enregistrement non null du lot à toutes les règles actives et collecte,
+     * par règle, les index des enregistrements qui la satisfont.
+     */
+    private <T> RuleEvaluationResultDto evaluate(RuleSchema<T> schema, List<T> records) {
+        log.debug("Évaluation des règles sur {} enregistrement(s) de type {}", records.size(), schema.getName());
+        CompiledRuleSet<T> ruleSet = compiledRuleCache.get(schema);
+        List<CompiledRule<T>> rules = ruleSet.rules();
+        int ruleCount = rules.size();
+        @SuppressWarnings("unchecked")
+        Predicate<T>[] predicates = new Predicate[ruleCount];
+        int[][] matches = new int[ruleCount][];
+        int[] matchCounts = new int[ruleCount];
+        for (int r = 0; r < ruleCount; r++) {
+            predicates[r] = rules.get(r).predicate();
+            matches[r] = new int[16];
+        }
+        for (int i = 0; i < records.size(); i++) {
+            T record = records.get(i);
+            if (record == null) {
+                continue;
+            }
+            for (int r = 0; r < ruleCount; r++) {
+                if (predicates[r].test(record)) {
+                    if (matchCounts[r] == matches[r].length) {
+                        matches[r] = Arrays.copyOf(matches[r], matches[r].length * 2);
+                    }
+                    matches[r][matchCounts[r]++] = i;
+                }
+            }
+        }
+        List<RuleMatchDto> results = new ArrayList<>(ruleCount);
+        for (int r = 0; r < ruleCount; r++) {
+            CompiledRule<T> rule = rules.get(r);
+            results.add(new RuleMatchDto(rule.ruleId(), rule.name(), matchCounts[r], Arrays.copyOf(matches[r], matchCounts[r])));
+        }
+        return new RuleEvaluationResultDto(schema.getName(), records.size(), results, ruleSet.invalidRules());
+    }
+}
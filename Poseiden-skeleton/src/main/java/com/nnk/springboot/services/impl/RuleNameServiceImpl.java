@@ -1,17 +1,27 @@
 package com.nnk.springboot.services.impl;
 
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
 import com.nnk.springboot.domain.RuleName;
 import com.nnk.springboot.dto.RuleNameDto;
+import com.nnk.springboot.dto.RuleNameFilterDto;
+import com.nnk.springboot.dto.ListFilterDto;
 import com.nnk.springboot.mapper.RuleNameMapper;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
 import com.nnk.springboot.repositories.RuleNameRepository;
+import com.nnk.springboot.repositories.ListSpecifications;
 
 import com.nnk.springboot.services.RuleNameService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Implémentation de l'interface RuleNameService gérant la logique métier
@@ -22,40 +32,59 @@ import java.util.List;
  * via RuleNameRepository et réalise les conversions entité/DTO avec RuleNameMapper.
  *
  * La classe est transactionnelle afin d'assurer la cohérence des données
- * et utilise un journal applicatif pour tracer les opérations.
+ * et utilise un journal applicatif pour tracer les opérations. Toute écriture
+ * invalide les règles compilées de CompiledRuleCache.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class RuleNameServiceImpl implements RuleNameService {
+    private static final Set<String> SORTABLE = Set.of("id", "name");
+
 
     private final RuleNameRepository ruleNameRepository;
+    private final DtoProjectionRepository dtoProjectionRepository;
     private final RuleNameMapper ruleNameMapper;
+    private final CompiledRuleCache compiledRuleCache;
+    private final ChangeFeed changeFeed;
+    private final AuditTrail auditTrail;
 
     /**
      * Récupère la liste de toutes les entités RuleName en base,
      * les convertit en DTO, puis retourne le résultat.
      *
      * L'opération est transactionnelle en lecture seule afin d'assurer
-     * la cohérence et de possibles optimisations. Des logs indiquent
-     * le démarrage, le nombre d'éléments récupérés et le temps d'exécution.
+     * la cohérence et de possibles optimisations. La durée et le nombre
+     * d'éléments récupérés sont mesurés par ServiceMetricsAspect.
      *
      * @return la liste des RuleNameDto représentant toutes les règles enregistrées
      */
     @Override
     @Transactional(readOnly = true)
     public List<RuleNameDto> findAll() {
-        long t0 = System.nanoTime();
-        log.info("Liste des règles (RuleName) - démarrage");
-        List<RuleNameDto> result = ruleNameRepository.findAll()
-                .stream()
-                .map(ruleNameMapper::toDto)
-                .toList();
-        log.info("Liste récupérée: {} élément(s) en {} ms", result.size(), (System.nanoTime() - t0) / 1_000_000);
+        List<RuleNameDto> result = dtoProjectionRepository.findAll(DtoProjection.RULE_NAME, null, Sort.unsorted(), 0);
+        log.debug("Liste récupérée: {} élément(s)", result.size());
         return result;
     }
 
+    /**
+     * Récupère les entrées RuleName correspondant aux filtres (préfixe du nom),
+     * triées côté base selon la propriété demandée (voir ListSpecifications.sort), et au plus ListFilterDto.MAX_ROWS lignes.
+     *
+     * @param filter les filtres et le tri de la liste (valeurs nulles ou vides ignorées)
+     * @return la liste des RuleNameDto correspondant aux filtres, dans l'ordre demandé
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<RuleNameDto> findAll(RuleNameFilterDto filter) {
+        log.debug("Liste filtrée des règles: name={} sort={} dir={}", filter.getName(), filter.getSort(), filter.getDir());
+        Specification<RuleName> spec = Specification.where(
+                ListSpecifications.startsWith("name", filter.getName()));
+        Sort sort = ListSpecifications.sort(filter.getSort(), filter.getDir(), SORTABLE, "id");
+        return dtoProjectionRepository.findAll(DtoProjection.RULE_NAME, spec, sort, ListFilterDto.MAX_ROWS);
+    }
+
     /**
      * Crée une nouvelle règle à partir du DTO fourni, la persiste en base
      * puis retourne l'entité sauvegardée sous forme de DTO.
@@ -69,12 +98,16 @@ public class RuleNameServiceImpl implements RuleNameService {
      */
     @Override
     public RuleNameDto create(RuleNameDto dto) {
-        log.info("Création d'une règle: name='{}' description='{}'", dto.getName(), dto.getDescription());
+        log.debug("Création d'une règle: name='{}' description='{}'", dto.getName(), dto.getDescription());
         dto.setId(null);
         RuleName entity = ruleNameMapper.toEntity(dto);
         RuleName saved = ruleNameRepository.save(entity);
-        log.info("Règle créée avec succès: id={}", saved.getId());
-        return ruleNameMapper.toDto(saved);
+        compiledRuleCache.evict();
+        log.debug("Règle créée avec succès: id={}", saved.getId());
+        RuleNameDto result = ruleNameMapper.toDto(saved);
+        changeFeed.record(ChangeEntity.RULE_NAME, ChangeOperation.CREATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.RULE_NAME, ChangeOperation.CREATE, result.getId(), null, result);
+        return result;
     }
 
     /**
@@ -89,12 +122,11 @@ public class RuleNameServiceImpl implements RuleNameService {
     @Transactional(readOnly = true)
     public RuleNameDto getRuleName(Integer id) {
         log.debug("Récupération de la règle id={}", id);
-        RuleName entity = ruleNameRepository.findById(id)
+        return dtoProjectionRepository.findById(DtoProjection.RULE_NAME, id)
                 .orElseThrow(() -> {
                     log.warn("Règle introuvable pour id={}", id);
                     return new IllegalArgumentException("RuleName introuvable avec l'id " + id);
                 });
-        return ruleNameMapper.toDto(entity);
     }
 
     /**
@@ -109,34 +141,44 @@ public class RuleNameServiceImpl implements RuleNameService {
      */
     @Override
     public RuleNameDto update(Integer id, RuleNameDto dto) {
-        log.info("Mise à jour de la règle id={} (name='{}' description='{}')", id, dto.getName(), dto.getDescription());
+        log.debug("Mise à jour de la règle id={} (name='{}' description='{}')", id, dto.getName(), dto.getDescription());
         RuleName entity = ruleNameRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Mise à jour impossible: règle introuvable pour id={}", id);
                     return new IllegalArgumentException("RuleName introuvable avec l'id " + id);
                 });
+        RuleNameDto before = ruleNameMapper.toDto(entity);
         ruleNameMapper.updateEntity(entity, dto);
         RuleName saved = ruleNameRepository.save(entity);
-        log.info("Règle mise à jour: id={}", saved.getId());
-        return ruleNameMapper.toDto(saved);
+        compiledRuleCache.evict();
+        log.debug("Règle mise à jour: id={}", saved.getId());
+        RuleNameDto result = ruleNameMapper.toDto(saved);
+        changeFeed.record(ChangeEntity.RULE_NAME, ChangeOperation.UPDATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.RULE_NAME, ChangeOperation.UPDATE, result.getId(), before, result);
+        return result;
     }
 
     /**
-     * Supprime la règle identifiée par son identifiant unique.
-     * Lève une IllegalArgumentException si aucune entité correspondante n'est trouvée.
+     * Supprime la règle identifiée par son identifiant unique. La règle est lue par le cache de
+     * second niveau, dont seule son entrée est évincée ; lève une IllegalArgumentException si elle
+     * n'existe pas.
      *
      * @param id l'identifiant de la règle à supprimer
      * @throws IllegalArgumentException si aucune règle n'existe pour l'identifiant fourni
      */
     @Override
     public void delete(Integer id) {
-        log.info("Suppression de la règle id={}", id);
+        log.debug("Suppression de la règle id={}", id);
         RuleName entity = ruleNameRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Suppression impossible: règle introuvable pour id={}", id);
                     return new IllegalArgumentException("RuleName introuvable avec l'id " + id);
                 });
+        RuleNameDto before = ruleNameMapper.toDto(entity);
         ruleNameRepository.delete(entity);
-        log.info("Règle supprimée: id={}", id);
+        changeFeed.record(ChangeEntity.RULE_NAME, ChangeOperation.DELETE, id, null);
+        auditTrail.record(ChangeEntity.RULE_NAME, ChangeOperation.DELETE, id, before, null);
+        compiledRuleCache.evict();
+        log.debug("Règle supprimée: id={}", id);
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.changefeed.ChangeEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compteur de version et date de dernière modification par table, pour les ETag et
+ * Last-Modified des pages de liste et de détail.
+ *
+ * - La version d'une table est incrémentée après le commit de chaque écriture de son service
+ *   (ChangeFeed.record, appelé par tous les *ServiceImpl) ; un rollback la laisse inchangée.
+ * - Les versions repartent de zéro au démarrage : l'époque (instant de démarrage) fait partie
+ *   de l'ETag pour qu'un ETag émis par une exécution précédente ne corresponde jamais.
+ * - Une page lit la version avant les données : une écriture validée pendant le rendu donne
+ *   au plus une page plus récente que son ETag, jamais l'inverse.
+ *
+ * Les versions sont locales à l'instance : derrière un répartiteur, chaque instance produit
+ * ses propres ETag, ce qui ne coûte qu'un rendu complet.
+ */
+@Component
+public class TableVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLongArray versions = new AtomicLongArray(ChangeEntity.values().length);
+    private final AtomicLongArray lastModified = new AtomicLongArray(ChangeEntity.values().length);
+
+    public TableVersions() {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < lastModified.length(); i++) {
+            lastModified.set(i, now);
+        }
+    }
+
+    /**
+     * Signale une écriture validée sur la table de l'entité.
+     */
+    public void bump(ChangeEntity entity) {
+        lastModified.set(entity.ordinal(), System.currentTimeMillis());
+        versions.incrementAndGet(entity.ordinal());
+    }
+
+    public long version(ChangeEntity entity) {
+        return versions.get(entity.ordinal());
+    }
+
+    /**
+     * @return la date de dernière écriture la plus récente des tables, en millisecondes
+     */
+    public long lastModified(ChangeEntity... entities) {
+        long max = 0;
+        for (ChangeEntity entity : entities) {
+            max = Math.max(max, lastModified.get(entity.ordinal()));
+        }
+        return max;
+    }
+
+    /**
+     * ETag fort d'une vue construite à partir des tables données.
+     *
+     * @param variant discriminant de la vue (session pour une page HTML), ou null
+     */
+    public String etag(String variant, ChangeEntity... entities) {
+        StringBuilder tag = new StringBuilder(32).append('"').append(epoch);
+        for (ChangeEntity entity : entities) {
+            tag.append('-').append(version(entity));
+        }
+        if (variant != null) {
+            tag.append('-').append(variant);
+        }
+        return tag.append('"').toString();
+    }
+}
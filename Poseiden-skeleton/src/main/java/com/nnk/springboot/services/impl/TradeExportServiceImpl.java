@@ -0,0 +1,164 @@
+package com.nnk.springboot.services.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.services.ExportFormat;
+import com.nnk.springboot.services.TradeExportService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Export en flux continu de la table trade au format CSV ou NDJSON.
+ *
+ * Les lignes sont lues via un curseur Hibernate ScrollableResults en avance seule
+ * (FORWARD_ONLY, lecture seule, sans cache de second niveau) puis écrites directement
+ * dans le flux de sortie, sans passer par des TradeDto.
+ *
+ * Mémoire constante :
+ * - le contexte de persistance est vidé à chaque bloc de "chunk-size" lignes ;
+ * - le flux de sortie est vidé au même rythme pour ne pas accumuler de données en tampon.
+ *
+ * Taille de fetch :
+ * - app.export.trade.fetch-size est transmise telle quelle au driver JDBC ;
+ * - avec MySQL Connector/J, Integer.MIN_VALUE active la lecture ligne à ligne (streaming),
+ *   sans quoi le driver charge tout le résultat en mémoire avant la première ligne.
+ *
+ * En fin d'export, le nombre de lignes, la durée et le débit sont journalisés.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TradeExportServiceImpl implements TradeExportService {
+
+    private static final String CSV_HEADER = "id,account,type,buy_quantity";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.export.trade.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${app.export.trade.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * Écrit l'ensemble des trades, triés par identifiant, dans le flux fourni.
+     * Le flux n'est pas fermé : il appartient à l'appelant.
+     *
+     * @param format le format de sortie (CSV avec en-tête, ou un objet JSON par ligne)
+     * @param out    le flux de sortie
+     * @return le nombre de lignes exportées
+     * @throws IOException si l'écriture dans le flux échoue (client déconnecté, etc.)
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, OutputStream out) throws IOException {
+        long t0 = System.nanoTime();
+        log.info("Export des trades ({}) - démarrage (fetchSize={} chunkSize={})", format, fetchSize, chunkSize);
+        Session session = entityManager.unwrap(Session.class);
+        Writer csv = null;
+        JsonGenerator json = null;
+        if (format == ExportFormat.NDJSON) {
+            json = objectMapper.getFactory().createGenerator(out);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        } else {
+            csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+            csv.write(CSV_HEADER);
+            csv.write('\n');
+        }
+
+        long rows = 0;
+        try (ScrollableResults<Trade> cursor = session
+                .createSelectionQuery("from Trade t order by t.id", Trade.class)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .setFetchSize(fetchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (cursor.next()) {
+                Trade trade = cursor.get();
+                if (json != null) {
+                    writeJson(json, trade);
+                } else {
+                    writeCsv(csv, trade);
+                }
+                if (++rows % chunkSize == 0) {
+                    session.clear();
+                    if (json != null) {
+                        json.flush();
+                    } else {
+                        csv.flush();
+                    }
+                }
+            }
+        }
+        if (json != null) {
+            json.close();
+        } else {
+            csv.flush();
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - t0) / 1_000_000);
+        log.info("Export des trades ({}) terminé: {} ligne(s) en {} ms ({} lignes/s)",
+                format, rows, elapsedMs, rows * 1000 / elapsedMs);
+        return rows;
+    }
+
+    private static void writeJson(JsonGenerator json, Trade trade) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", trade.getId());
+        json.writeStringField("account", trade.getAccount());
+        json.writeStringField("type", trade.getType());
+        if (trade.getBuyQuantity() == null) {
+            json.writeNullField("buyQuantity");
+        } else {
+            json.writeNumberField("buyQuantity", trade.getBuyQuantity());
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeCsv(Writer csv, Trade trade) throws IOException {
+        csv.write(String.valueOf(trade.getId()));
+        csv.write(',');
+        writeCsvField(csv, trade.getAccount());
+        csv.write(',');
+        writeCsvField(csv, trade.getType());
+        csv.write(',');
+        BigDecimal quantity = trade.getBuyQuantity();
+        if (quantity != null) {
+            csv.write(quantity.toPlainString());
+        }
+        csv.write('\n');
+    }
+
+    private static void writeCsvField(Writer csv, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            csv.write(value);
+            return;
+        }
+        csv.write('"');
+        csv.write(value.replace("\"", "\"\""));
+        csv.write('"');
+    }
+}
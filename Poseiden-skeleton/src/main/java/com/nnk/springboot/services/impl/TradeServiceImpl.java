@@ -1,17 +1,33 @@
 package com.nnk.springboot.services.impl;
 
 
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
 import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.dto.BulkImportReportDto;
+import com.nnk.springboot.dto.KeysetPageDto;
 import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.TradeFilterDto;
+import com.nnk.springboot.dto.ListFilterDto;
 import com.nnk.springboot.mapper.TradeMapper;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
 import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.repositories.ListSpecifications;
 import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.UpdateConflictException;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Implémentation du service métier gérant les transactions (Trade).
@@ -22,17 +38,22 @@ import java.util.List;
  *
  * Annotations et comportement :
  * - @Service : déclare la classe comme composant de service Spring.
- * - @Transactional : rend l'ensemble des méthodes transactionnelles par défaut.
+ * - @Transactional : rend l'ensemble des méthodes transactionnelles par défaut, sauf l'import en masse,
+ *   qui valide un lot par transaction.
  * - @RequiredArgsConstructor : génère un constructeur pour l'injection des dépendances requises.
  * - @Slf4j : fournit un logger pour tracer les opérations.
  *
  * Dépendances principales :
  * - TradeRepository : accès aux opérations de persistance sur les entités Trade.
+ * - DtoProjectionRepository : lectures construisant directement les TradeDto (sans entités gérées).
  * - TradeMapper : conversions entité <-> DTO et mises à jour partielles.
+ * - PositionAggregator : positions par compte et type, mises à jour après le commit de chaque écriture.
+ * - BulkImporter : import en masse, validé et inséré par lots d'une transaction chacun.
+ * - ChangeFeed : journal des changements, alimenté après le commit de chaque écriture.
  *
  * Journalisation :
  * Toutes les opérations sont journalisées (démarrage, succès, erreurs fonctionnelles),
- * et certaines incluent des mesures simples de performance (durée d'exécution).
+ * les durées, volumes et erreurs étant mesurés par ServiceMetricsAspect.
  *
  */
 @Transactional
@@ -40,32 +61,87 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class TradeServiceImpl implements TradeService {
+    static final int BULK_BATCH_SIZE = 1000;
+    private static final Set<String> SORTABLE = Set.of("id", "account", "type", "buyQuantity");
+
+    /** Champs fusionnés lors d'une mise à jour concurrente (voir ConcurrentUpdateResolver). */
+    private static final List<ConcurrentUpdateResolver.Field<TradeDto>> MERGE_FIELDS = List.of(
+            ConcurrentUpdateResolver.Field.of("account", TradeDto::getAccount, TradeDto::setAccount),
+            ConcurrentUpdateResolver.Field.of("type", TradeDto::getType, TradeDto::setType),
+            ConcurrentUpdateResolver.Field.of("buyQuantity", TradeDto::getBuyQuantity, TradeDto::setBuyQuantity));
+
     private final TradeRepository tradeRepository;
+    private final DtoProjectionRepository dtoProjectionRepository;
     private final TradeMapper tradeMapper;
+    private final BulkImporter bulkImporter;
+    private final PositionAggregator positionAggregator;
+    private final ChangeFeed changeFeed;
+    private final ConcurrentUpdateResolver concurrentUpdateResolver;
+    private final AuditTrail auditTrail;
 
     /**
      * Récupère toutes les entités Trade en base, les convertit en TradeDto
      * et retourne la liste résultante.
      *
      * L'opération est transactionnelle en lecture seule pour favoriser la cohérence
-     * et de possibles optimisations. La méthode journalise le nombre d’éléments
-     * récupérés ainsi que le temps d'exécution.
+     * et de possibles optimisations. La durée et le nombre d’éléments sont mesurés
+     * par ServiceMetricsAspect.
      *
      * @return la liste des TradeDto représentant tous les trades enregistrés
      */
     @Override
     @Transactional(readOnly = true)
     public List<TradeDto> findAll() {
-        long t0 = System.nanoTime();
-        log.info("Liste des trades - démarrage");
-        List<TradeDto> result = tradeRepository.findAll()
-                .stream()
-                .map(tradeMapper::toDto)
-                .toList();
-        log.info("Liste récupérée: {} élément(s) en {} ms", result.size(), (System.nanoTime() - t0) / 1_000_000);
+        List<TradeDto> result = dtoProjectionRepository.findAll(DtoProjection.TRADE, null, Sort.unsorted(), 0);
+        log.debug("Liste récupérée: {} élément(s)", result.size());
         return result;
     }
 
+    /**
+     * Récupère les entrées Trade correspondant aux filtres (compte et type en égalité),
+     * triées côté base selon la propriété demandée (voir ListSpecifications.sort), et au plus ListFilterDto.MAX_ROWS lignes.
+     *
+     * @param filter les filtres et le tri de la liste (valeurs nulles ou vides ignorées)
+     * @return la liste des TradeDto correspondant aux filtres, dans l'ordre demandé
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<TradeDto> findAll(TradeFilterDto filter) {
+        log.debug("Liste filtrée des trades: compte={} type={} sort={} dir={}", filter.getAccount(), filter.getType(), filter.getSort(), filter.getDir());
+        Specification<Trade> spec = Specification.allOf(
+                ListSpecifications.equalTo("account", filter.getAccount()),
+                ListSpecifications.equalTo("type", filter.getType()));
+        Sort sort = ListSpecifications.sort(filter.getSort(), filter.getDir(), SORTABLE, "id");
+        return dtoProjectionRepository.findAll(DtoProjection.TRADE, spec, sort, ListFilterDto.MAX_ROWS);
+    }
+
+    /**
+     * Récupère une page de trades par pagination par clé (seek sur trade_id, voir KeysetPages),
+     * comme BidListServiceImpl.findPage : sans jamais charger plus d'une page en mémoire.
+     *
+     * Les filtres renseignés (compte, type) sont appliqués en égalité ; le tri demandé dans le
+     * filtre est ignoré, les pages étant toujours triées par identifiant. Les index
+     * (account, type, trade_id) et (type, trade_id) de V5 couvrent ces lectures.
+     *
+     * @param filter les filtres (valeurs nulles ou vides ignorées)
+     * @param after  curseur de la page suivante (identifiant exclu), ou null
+     * @param before curseur de la page précédente (identifiant exclu), ou null
+     * @param size   taille de page demandée, bornée entre 1 et MAX_PAGE_SIZE (DEFAULT_PAGE_SIZE si nulle)
+     * @return la page de TradeDto triée par identifiant croissant, avec ses curseurs
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public KeysetPageDto<TradeDto> findPage(TradeFilterDto filter, Integer after, Integer before, Integer size) {
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        log.debug("Page de trades: compte={} type={} after={} before={} size={}",
+                filter.getAccount(), filter.getType(), after, before, limit);
+        Specification<Trade> spec = Specification.allOf(
+                ListSpecifications.equalTo("account", filter.getAccount()),
+                ListSpecifications.equalTo("type", filter.getType()));
+        return KeysetPages.read(dtoProjectionRepository, DtoProjection.TRADE, spec, Sort.by("id"), Map.of(),
+                TradeDto::getId, after, before, limit);
+    }
+
     /**
      * Crée une nouvelle entité Trade à partir du DTO fourni, la persiste en base,
      * puis retourne l'entité sauvegardée sous forme de DTO.
@@ -80,12 +156,48 @@ public class TradeServiceImpl implements TradeService {
      */
     @Override
     public TradeDto create(TradeDto dto) {
-        log.info("Création d'un trade: compte={} type={} quantitéAchat={}", dto.getAccount(), dto.getType(), dto.getBuyQuantity());
+        log.debug("Création d'un trade: compte={} type={} quantitéAchat={}", dto.getAccount(), dto.getType(), dto.getBuyQuantity());
         dto.setId(null);
         Trade entity = tradeMapper.toEntity(dto);
         Trade saved = tradeRepository.save(entity);
-        log.info("Trade créé avec succès: id={}", saved.getId());
-        return tradeMapper.toDto(saved);
+        log.debug("Trade créé avec succès: id={}", saved.getId());
+        TradeDto result = tradeMapper.toDto(saved);
+        positionAggregator.tradeChanged(null, result);
+        changeFeed.record(ChangeEntity.TRADE, ChangeOperation.CREATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.TRADE, ChangeOperation.CREATE, result.getId(), null, result);
+        return result;
+    }
+
+    /**
+     * Importe en masse des trades en une seule passe sur les lignes reçues (BulkImporter), comme
+     * BidListServiceImpl.importAll : chaque ligne est validée avec les contraintes de TradeDto,
+     * les lignes invalides sont reportées avec leur index et les lignes valides insérées par lots
+     * JDBC de BULK_BATCH_SIZE, chaque lot dans sa propre transaction. La lecture du flux se fait
+     * hors transaction ; une ligne illisible est rejetée, un JSON mal formé arrête la lecture.
+     *
+     * @param rows les lignes à importer (liste ou flux NDJSON désérialisé à la volée)
+     * @return le compte rendu de l'import (lignes insérées, rejetées, erreurs par ligne, débit)
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkImportReportDto importAll(Iterator<TradeDto> rows) {
+        return bulkImporter.importAll("trades", rows, BULK_BATCH_SIZE, dto -> {
+            dto.setId(null);
+            return tradeMapper.toEntity(dto);
+        }, this::insertBatch);
+    }
+
+    /**
+     * Insère un lot et le signale à PositionAggregator, au journal des changements (une création
+     * par ligne, avec l'identifiant généré) et à la piste d'audit (de même).
+     */
+    private int insertBatch(List<Trade> batch) {
+        int count = tradeRepository.batchInsert(batch);
+        positionAggregator.tradesImported(batch);
+        List<TradeDto> created = batch.stream().map(tradeMapper::toDto).toList();
+        changeFeed.recordBulkInsert(ChangeEntity.TRADE, created, TradeDto::getId);
+        auditTrail.recordBulkInsert(ChangeEntity.TRADE, created, TradeDto::getId);
+        return count;
     }
 
     /**
@@ -100,12 +212,11 @@ public class TradeServiceImpl implements TradeService {
     @Transactional(readOnly = true)
     public TradeDto getTrade(Integer id) {
         log.debug("Récupération du trade id={}", id);
-        Trade trade = tradeRepository.findById(id)
+        return dtoProjectionRepository.findById(DtoProjection.TRADE_VERSIONED, id)
                 .orElseThrow(() -> {
                     log.warn("Trade introuvable pour id={}", id);
                     return new IllegalArgumentException("Trade introuvable avec l'id " + id);
                 });
-        return tradeMapper.toDto(trade);
     }
 
     /**
@@ -115,24 +226,38 @@ public class TradeServiceImpl implements TradeService {
      * Comportement :
      * - Si le trade n'existe pas, une IllegalArgumentException est levée.
      * - Les champs nuls du DTO sont ignorés (mise à jour partielle) grâce au mapper.
+     * - Si le DTO porte une version périmée, la mise à jour est refusée, ou fusionnée avec
+     *   l'état actuel si « merge » est demandé et que les champs modifiés ne se recouvrent pas
+     *   (voir ConcurrentUpdateResolver).
+     * - L'UPDATE est exécuté immédiatement (saveAndFlush) : le DTO renvoyé porte la nouvelle version.
      *
-     * @param id  l'identifiant du trade à mettre à jour
-     * @param dto le TradeDto contenant les nouvelles valeurs à appliquer
+     * @param id    l'identifiant du trade à mettre à jour
+     * @param dto   le TradeDto contenant les nouvelles valeurs à appliquer
+     * @param merge true pour fusionner une mise à jour portant sur une version périmée
      * @return le TradeDto représentant le trade après mise à jour
      * @throws IllegalArgumentException si aucun trade n'est trouvé pour l'identifiant donné
+     * @throws UpdateConflictException si la version est périmée et que la fusion est impossible
      */
     @Override
-    public TradeDto update(Integer id, TradeDto dto) {
-        log.info("Mise à jour du trade id={} (compte={} type={} quantitéAchat={})", id, dto.getAccount(), dto.getType(), dto.getBuyQuantity());
+    public TradeDto update(Integer id, TradeDto dto, boolean merge) {
+        log.debug("Mise à jour du trade id={} (compte={} type={} quantitéAchat={})", id, dto.getAccount(), dto.getType(), dto.getBuyQuantity());
         Trade entity = tradeRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Mise à jour impossible: trade introuvable pour id={}", id);
                     return new IllegalArgumentException("Trade introuvable avec l'id " + id);
                 });
+        TradeDto before = tradeMapper.toDto(entity);
+        concurrentUpdateResolver.resolve(ChangeEntity.TRADE, id, dto, dto.getVersion(),
+                before, entity.getVersion(), merge, MERGE_FIELDS);
+        concurrentUpdateResolver.remember(ChangeEntity.TRADE, id, entity.getVersion(), before);
         tradeMapper.updateEntity(entity, dto);
-        Trade saved = tradeRepository.save(entity);
-        log.info("Trade mis à jour: id={}", saved.getId());
-        return tradeMapper.toDto(saved);
+        Trade saved = tradeRepository.saveAndFlush(entity);
+        log.debug("Trade mis à jour: id={}", saved.getId());
+        TradeDto result = tradeMapper.toDto(saved);
+        positionAggregator.tradeChanged(before, result);
+        changeFeed.record(ChangeEntity.TRADE, ChangeOperation.UPDATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.TRADE, ChangeOperation.UPDATE, result.getId(), before, result);
+        return result;
     }
 
     /**
@@ -144,13 +269,17 @@ public class TradeServiceImpl implements TradeService {
      */
     @Override
     public void delete(Integer id) {
-        log.info("Suppression du trade id={}", id);
+        log.debug("Suppression du trade id={}", id);
         Trade entity = tradeRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Suppression impossible: trade introuvable pour id={}", id);
                     return new IllegalArgumentException("Trade introuvable avec l'id " + id);
                 });
+        TradeDto before = tradeMapper.toDto(entity);
         tradeRepository.delete(entity);
-        log.info("Trade supprimé: id={}", id);
+        positionAggregator.tradeChanged(before, null);
+        changeFeed.record(ChangeEntity.TRADE, ChangeOperation.DELETE, id, null);
+        auditTrail.record(ChangeEntity.TRADE, ChangeOperation.DELETE, id, before, null);
+        log.debug("Trade supprimé: id={}", id);
     }
 }
\ No newline at end of file
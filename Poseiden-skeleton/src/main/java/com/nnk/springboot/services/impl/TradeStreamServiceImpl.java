@@ -0,0 +1,70 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.dto.KeysetPageDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.TradeFilterDto;
+import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.TradeStreamService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Flux de trades lu par tranches, à la demande du consommateur.
+ *
+ * - Chaque tranche (app.trade.stream.chunk-size lignes, au plus TradeService.MAX_PAGE_SIZE) est
+ *   une page TradeService.findPage : une transaction en lecture seule, donc une connexion JDBC,
+ *   le temps d'une requête seulement. La tranche suivante repart du dernier identifiant lu.
+ *   Les lectures JDBC, bloquantes, s'exécutent sur Schedulers.boundedElastic() et libèrent ce
+ *   thread dès la tranche lue.
+ * - Spring MVC écrit chaque trade dans la réponse en écriture bloquante, sur un thread du pool
+ *   réservé aux flux (StreamWriteExecutor, app.web.stream.writer-threads), et ne demande le
+ *   suivant qu'une fois l'écriture terminée : face à un client lent, ce thread reste bloqué dans
+ *   l'écriture, sans connexion JDBC retenue. L'écriture n'est donc pas non bloquante : elle coûte
+ *   un thread par client en cours d'écriture, pris dans ce pool borné et non dans l'exécuteur
+ *   des autres réponses asynchrones. Une tranche d'avance au plus est gardée en mémoire.
+ * - Si le trade suivant n'est pas demandé dans les app.trade.stream.stall-timeout (client qui ne
+ *   lit plus), le flux échoue et la lecture est annulée ; l'écriture en cours, elle, ne se termine
+ *   qu'au délai d'écriture du connecteur Tomcat (server.tomcat.connection-timeout).
+ *
+ * Le flux n'est pas un instantané : une ligne insérée pendant le parcours apparaît si son
+ * identifiant est supérieur au dernier lu.
+ */
+@Slf4j
+@Service
+public class TradeStreamServiceImpl implements TradeStreamService {
+
+    private final TradeService tradeService;
+    private final int chunkSize;
+    private final Duration stallTimeout;
+
+    public TradeStreamServiceImpl(TradeService tradeService,
+                                  @Value("${app.trade.stream.chunk-size:500}") int chunkSize,
+                                  @Value("${app.trade.stream.stall-timeout:30s}") Duration stallTimeout) {
+        this.tradeService = tradeService;
+        this.chunkSize = chunkSize;
+        this.stallTimeout = stallTimeout;
+    }
+
+    @Override
+    public Flux<TradeDto> stream(TradeFilterDto filter) {
+        log.debug("Flux de trades: compte={} type={}", filter.getAccount(), filter.getType());
+        return page(filter, null)
+                .expand(page -> page.getNextCursor() == null ? Mono.empty() : page(filter, page.getNextCursor()))
+                .concatMapIterable(KeysetPageDto::getItems, 1)
+                .timeout(stallTimeout)
+                .doOnError(TimeoutException.class, ex -> log.warn("Flux de trades annulé: client inactif depuis plus de {}", stallTimeout))
+                .doFinally(signal -> log.debug("Flux de trades terminé: {}", signal));
+    }
+
+    private Mono<KeysetPageDto<TradeDto>> page(TradeFilterDto filter, Integer after) {
+        return Mono.fromCallable(() -> tradeService.findPage(filter, after, null, chunkSize))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,130 @@
+package com.nnk.springboot.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Cache borné et à durée de vie limitée des UserDetails chargés par CustomUserDetailsService.
+ *
+ * - Taille maximale et durée de vie configurables (app.security.user-cache.max-size / ttl).
+ * - Les compteurs hit / miss / éviction sont publiés dans Micrometer sous le nom de cache "userDetails"
+ *   (métriques cache.gets, cache.evictions... exposées par /actuator/metrics).
+ * - Chaque lecture renvoie une copie : Spring Security efface le mot de passe du UserDetails
+ *   après authentification, ce qui viderait sinon l'entrée mise en cache.
+ * - Les modifications d'un utilisateur doivent appeler evict(username) ; l'entrée est retirée
+ *   immédiatement puis de nouveau après le commit, pour qu'un chargement concurrent ne réinsère
+ *   pas l'ancien état lu avant la fin de la transaction.
+ * - Vérifications HTTP Basic réussies : retenues pendant app.security.credential-cache.ttl (60 s
+ *   par défaut) pour que les appels répétés d'un même client (/api/**, /actuator/**) ne refassent
+ *   pas un calcul BCrypt chacun. La clé est le nom d'utilisateur et un HMAC-SHA256 (clé aléatoire
+ *   propre à l'instance) du hash stocké et du mot de passe saisi : le mot de passe n'est pas
+ *   conservé, et un changement de hash ne correspond plus à l'entrée. evict(username) retire
+ *   aussi ces vérifications.
+ */
+@Slf4j
+@Component
+public class UserDetailsCache {
+
+    private static final String HMAC = "HmacSHA256";
+
+    private final Cache<String, UserDetails> cache;
+    private final Cache<VerifiedCredential, Boolean> verified;
+    private final SecretKeySpec credentialKey;
+
+    private record VerifiedCredential(String username, String digest) {
+    }
+
+    public UserDetailsCache(MeterRegistry meterRegistry,
+                            @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+                            @Value("${app.security.user-cache.ttl:5m}") Duration ttl,
+                            @Value("${app.security.credential-cache.ttl:60s}") Duration credentialTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(credentialTtl)
+                .recordStats()
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.credentialKey = new SecretKeySpec(secret, HMAC);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "verifiedCredentials");
+    }
+
+    /**
+     * Renvoie une copie du UserDetails en cache, ou le charge avec le loader en cas d'absence.
+     * Une exception levée par le loader (utilisateur introuvable) n'est pas mise en cache.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        UserDetails cached = cache.get(key(username), k -> loader.apply(username));
+        return User.withUserDetails(cached).build();
+    }
+
+    /**
+     * Indique si ce mot de passe a déjà été vérifié contre ce hash dans la durée de vie du cache.
+     */
+    public boolean isVerified(String username, String encodedPassword, CharSequence rawPassword) {
+        return verified.getIfPresent(credential(username, encodedPassword, rawPassword)) != null;
+    }
+
+    /**
+     * Retient une vérification réussie du mot de passe contre le hash stocké.
+     */
+    public void markVerified(String username, String encodedPassword, CharSequence rawPassword) {
+        verified.put(credential(username, encodedPassword, rawPassword), Boolean.TRUE);
+    }
+
+    /**
+     * Retire l'utilisateur et ses vérifications du cache, immédiatement et après le commit de la
+     * transaction courante.
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        String key = key(username);
+        log.debug("Invalidation du cache UserDetails pour username='{}'", username);
+        AfterCommit.evict(() -> {
+            cache.invalidate(key);
+            verified.asMap().keySet().removeIf(credential -> credential.username().equals(key));
+        });
+    }
+
+    private VerifiedCredential credential(String username, String encodedPassword, CharSequence rawPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(credentialKey);
+            mac.update(String.valueOf(encodedPassword).getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            byte[] digest = mac.doFinal(rawPassword.toString().getBytes(StandardCharsets.UTF_8));
+            return new VerifiedCredential(key(username), HexFormat.of().formatHex(digest));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(HMAC + " indisponible", ex);
+        }
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
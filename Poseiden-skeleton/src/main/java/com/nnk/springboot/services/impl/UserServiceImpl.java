@@ -1,16 +1,27 @@
 package com.nnk.springboot.services.impl;
 
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
+import com.nnk.springboot.domain.User;
 import com.nnk.springboot.dto.UserDto;
+import com.nnk.springboot.dto.UserFilterDto;
+import com.nnk.springboot.dto.ListFilterDto;
 import com.nnk.springboot.mapper.UserMapper;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
 import com.nnk.springboot.repositories.UserRepository;
+import com.nnk.springboot.repositories.ListSpecifications;
 import com.nnk.springboot.services.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Implémentation de l'interface UserService pour la gestion des opérations liées aux utilisateurs.
@@ -18,6 +29,7 @@ import java.util.List;
  * et enregistrer des utilisateurs. Toutes les opérations sont journalisées pour assurer la traçabilité.
  * Elle utilise UserRepository pour les interactions avec la base de données, PasswordEncoder
  * pour le hachage des mots de passe, et UserMapper pour la conversion entre entités et DTO.
+ * Toute modification ou suppression d'un utilisateur invalide son entrée dans UserDetailsCache.
  *
  * Les annotations utilisées sont :
  * - @Service pour déclarer un composant de service Spring,
@@ -30,30 +42,49 @@ import java.util.List;
 @RequiredArgsConstructor
 @Transactional
 public class UserServiceImpl implements UserService {
+    private static final Set<String> SORTABLE = Set.of("id", "username", "fullname", "role");
+
 
     private final UserRepository userRepository;
+    private final DtoProjectionRepository dtoProjectionRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
+    private final UserDetailsCache userDetailsCache;
+    private final ChangeFeed changeFeed;
+    private final AuditTrail auditTrail;
 
     /**
      * Récupère tous les utilisateurs depuis le dépôt, les mappe en DTO et retourne la liste.
-     * L'opération est en lecture seule et journalise le début et la fin avec le temps d'exécution.
+     * L'opération est en lecture seule ; sa durée est mesurée par ServiceMetricsAspect.
      *
      * @return la liste de tous les utilisateurs sous forme de  UserDto
      */
     @Transactional(readOnly = true)
     @Override
     public List<UserDto> findAll() {
-        long t0 = System.nanoTime();
-        log.info("Liste des utilisateurs - démarrage");
-        List<UserDto> result = userRepository.findAll()
-                .stream()
-                .map(userMapper::toDto)
-                .toList();
-        log.info("Liste récupérée: {} utilisateur(s) en {} ms", result.size(), (System.nanoTime() - t0) / 1_000_000);
+        List<UserDto> result = dtoProjectionRepository.findAll(DtoProjection.USER, null, Sort.unsorted(), 0);
+        log.debug("Liste récupérée: {} utilisateur(s)", result.size());
         return result;
     }
 
+    /**
+     * Récupère les entrées User correspondant aux filtres (préfixe du nom d'utilisateur et rôle en égalité),
+     * triées côté base selon la propriété demandée (voir ListSpecifications.sort), et au plus ListFilterDto.MAX_ROWS lignes.
+     *
+     * @param filter les filtres et le tri de la liste (valeurs nulles ou vides ignorées)
+     * @return la liste des UserDto correspondant aux filtres, dans l'ordre demandé
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public List<UserDto> findAll(UserFilterDto filter) {
+        log.debug("Liste filtrée des utilisateurs: username={} role={} sort={} dir={}", filter.getUsername(), filter.getRole(), filter.getSort(), filter.getDir());
+        Specification<User> spec = Specification.allOf(
+                ListSpecifications.startsWith("username", filter.getUsername()),
+                ListSpecifications.equalTo("role", filter.getRole()));
+        Sort sort = ListSpecifications.sort(filter.getSort(), filter.getDir(), SORTABLE, "id");
+        return dtoProjectionRepository.findAll(DtoProjection.USER, spec, sort, ListFilterDto.MAX_ROWS);
+    }
+
     /**
      * Crée un nouvel utilisateur à partir du UserDto fourni et l'enregistre dans le dépôt.
      * Le mot de passe est encodé s'il est présent et non vide. L'identifiant est forcé à null
@@ -64,15 +95,18 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public UserDto create(UserDto dto) {
-        log.info("Création d'un utilisateur: username='{}' role='{}'", dto.getUsername(), dto.getRole());
+        log.debug("Création d'un utilisateur: username='{}' role='{}'", dto.getUsername(), dto.getRole());
         dto.setId(null);
         if (dto.getPassword() != null && !dto.getPassword().isBlank()) {
             dto.setPassword(passwordEncoder.encode(dto.getPassword()));
         }
         var entity = userMapper.toEntity(dto);
         var saved = userRepository.save(entity);
-        log.info("Utilisateur créé avec succès: id={} username='{}'", saved.getId(), saved.getUsername());
-        return userMapper.toDto(saved);
+        log.debug("Utilisateur créé avec succès: id={} username='{}'", saved.getId(), saved.getUsername());
+        var result = userMapper.toDto(saved);
+        changeFeed.record(ChangeEntity.USER, ChangeOperation.CREATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.USER, ChangeOperation.CREATE, result.getId(), null, result);
+        return result;
     }
 
     /**
@@ -87,22 +121,27 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public UserDto update(Integer id, UserDto dto) {
-        log.info("Mise à jour de l'utilisateur id={} (username='{}' role='{}')", id, dto.getUsername(), dto.getRole());
+        log.debug("Mise à jour de l'utilisateur id={} (username='{}' role='{}')", id, dto.getUsername(), dto.getRole());
         var entity = userRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Mise à jour impossible: utilisateur introuvable pour id={}", id);
                     return new IllegalArgumentException("Utilisateur introuvable avec l'id " + id);
                 });
-
+        userDetailsCache.evict(entity.getUsername());
 
         if (dto.getPassword() != null && !dto.getPassword().isBlank()) {
             dto.setPassword(passwordEncoder.encode(dto.getPassword()));
         }
 
+        var before = userMapper.toDto(entity);
         userMapper.updateEntity(entity, dto);
         var saved = userRepository.save(entity);
-        log.info("Utilisateur mis à jour: id={} username='{}'", saved.getId(), saved.getUsername());
-        return userMapper.toDto(saved);
+        userDetailsCache.evict(saved.getUsername());
+        log.debug("Utilisateur mis à jour: id={} username='{}'", saved.getId(), saved.getUsername());
+        var result = userMapper.toDto(saved);
+        changeFeed.record(ChangeEntity.USER, ChangeOperation.UPDATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.USER, ChangeOperation.UPDATE, result.getId(), before, result);
+        return result;
     }
 
     /**
@@ -115,14 +154,17 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public void delete(Integer id) {
-        log.info("Suppression de l'utilisateur id={}", id);
+        log.debug("Suppression de l'utilisateur id={}", id);
         var entity = userRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Suppression impossible: utilisateur introuvable pour id={}", id);
                     return new IllegalArgumentException("Utilisateur introuvable avec l'id " + id);
                 });
         userRepository.delete(entity);
-        log.info("Utilisateur supprimé: id={}", id);
+        userDetailsCache.evict(entity.getUsername());
+        changeFeed.record(ChangeEntity.USER, ChangeOperation.DELETE, id, null);
+        auditTrail.record(ChangeEntity.USER, ChangeOperation.DELETE, id, userMapper.toDto(entity), null);
+        log.debug("Utilisateur supprimé: id={}", id);
     }
 
     /**
@@ -138,12 +180,11 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto getUser(Integer id) {
         log.debug("Récupération de l'utilisateur id={}", id);
-        var user = userRepository.findById(id)
+        return dtoProjectionRepository.findById(DtoProjection.USER, id)
                 .orElseThrow(() -> {
                     log.warn("Utilisateur introuvable pour id={}", id);
                     return new IllegalArgumentException("Utilisateur introuvable avec l'id " + id);
                 });
-        return userMapper.toDto(user);
     }
 
     /**
@@ -158,7 +199,7 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public UserDto register(String username, String fullname, String password) {
-        log.info("Enregistrement d'un utilisateur: username='{}' fullname='{}'", username, fullname);
+        log.debug("Enregistrement d'un utilisateur: username='{}' fullname='{}'", username, fullname);
         var dto = new UserDto();
         dto.setId(null);
         dto.setUsername(username);
@@ -167,8 +208,11 @@ public class UserServiceImpl implements UserService {
 
 
         var saved = userRepository.save(userMapper.toEntity(dto));
-        log.info("Utilisateur enregistré: id={} username='{}'", saved.getId(), saved.getUsername());
-        return userMapper.toDto(saved);
+        log.debug("Utilisateur enregistré: id={} username='{}'", saved.getId(), saved.getUsername());
+        var result = userMapper.toDto(saved);
+        changeFeed.record(ChangeEntity.USER, ChangeOperation.CREATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.USER, ChangeOperation.CREATE, result.getId(), null, result);
+        return result;
     }
 
     /**
@@ -183,15 +227,20 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public UserDto changeUserRole(Integer id, String role) {
-        log.info("Changement de rôle utilisateur id={} -> role='{}'", id, role);
+        log.debug("Changement de rôle utilisateur id={} -> role='{}'", id, role);
         var entity = userRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Changement de rôle impossible: utilisateur introuvable pour id={}", id);
                     return new IllegalArgumentException("Utilisateur introuvable avec l'id " + id);
                 });
+        var before = userMapper.toDto(entity);
         entity.setRole(role);
         var saved = userRepository.save(entity);
-        log.info("Rôle utilisateur mis à jour: id={} role='{}'", saved.getId(), role);
-        return userMapper.toDto(saved);
+        userDetailsCache.evict(saved.getUsername());
+        log.debug("Rôle utilisateur mis à jour: id={} role='{}'", saved.getId(), role);
+        var result = userMapper.toDto(saved);
+        changeFeed.record(ChangeEntity.USER, ChangeOperation.UPDATE, result.getId(), result);
+        auditTrail.record(ChangeEntity.USER, ChangeOperation.UPDATE, result.getId(), before, result);
+        return result;
     }
 }
\ No newline at end of file
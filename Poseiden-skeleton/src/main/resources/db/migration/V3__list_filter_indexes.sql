@@ -0,0 +1,27 @@
+-- Index des filtres et tris des pages de liste.
+-- InnoDB ajoute la clé primaire à chaque index secondaire : un index qui contient aussi
+-- les autres colonnes lues par la page suffit à répondre sans lire la table (index-only).
+
+-- bidlist : filtres en égalité sur account / type, pagination par clé sur bid_list_id.
+CREATE INDEX idx_bidlist_account_type_id ON bidlist (account, type, bid_list_id, bid_quantity);
+CREATE INDEX idx_bidlist_type_id ON bidlist (type, bid_list_id, account, bid_quantity);
+
+-- trade : filtres en égalité sur account / type, tri par compte, type ou quantité.
+CREATE INDEX idx_trade_account_type ON trade (account, type, buy_quantity);
+CREATE INDEX idx_trade_type_account ON trade (type, account, buy_quantity);
+CREATE INDEX idx_trade_buy_quantity ON trade (buy_quantity, account, type);
+
+-- curvepoint : filtre sur curve_id, points triés par date puis par terme.
+CREATE INDEX idx_curvepoint_curve ON curvepoint (curve_id, as_of_date, term, value, creation_date);
+
+-- rating : filtre sur la notation d'une agence, tri par numéro d'ordre.
+CREATE INDEX idx_rating_moodys ON rating (moodys_rating, sandp_rating, fitch_rating, order_number);
+CREATE INDEX idx_rating_sandp ON rating (sandp_rating, moodys_rating, fitch_rating, order_number);
+CREATE INDEX idx_rating_fitch ON rating (fitch_rating, moodys_rating, sandp_rating, order_number);
+CREATE INDEX idx_rating_order_number ON rating (order_number);
+
+-- rulename : recherche par préfixe du nom.
+CREATE INDEX idx_rulename_name ON rulename (name);
+
+-- users : username est déjà unique (donc indexé), filtre sur le rôle.
+CREATE INDEX idx_users_role_username ON users (role, username);
@@ -0,0 +1,14 @@
+-- Positions agrégées par compte et type (trade.buy_quantity, bidlist.bid_quantity).
+-- Point de reprise écrit périodiquement par PositionAggregator : l'agrégat de référence est
+-- tenu en mémoire et reconstruit au démarrage depuis trade et bidlist (index de V3).
+-- DECIMAL(38,4) : une somme de DECIMAL(19,4) peut dépasser 19 chiffres.
+CREATE TABLE position_summary (
+  account      VARCHAR(30) NOT NULL,
+  type         VARCHAR(30) NOT NULL,
+  buy_quantity DECIMAL(38,4) NOT NULL,
+  trade_count  BIGINT NOT NULL,
+  bid_quantity DECIMAL(38,4) NOT NULL,
+  bid_count    BIGINT NOT NULL,
+  updated_at   TIMESTAMP NOT NULL,
+  PRIMARY KEY (account, type)
+);
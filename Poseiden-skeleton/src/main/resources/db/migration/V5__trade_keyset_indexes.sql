@@ -0,0 +1,4 @@
+-- trade : pagination par clé sur trade_id (API /api/trades et flux /api/trades/stream),
+-- sur le modèle des index bidlist de V3 ; filtres en égalité sur account / type.
+CREATE INDEX idx_trade_account_type_id ON trade (account, type, trade_id, buy_quantity);
+CREATE INDEX idx_trade_type_id ON trade (type, trade_id, account, buy_quantity);
@@ -0,0 +1,4 @@
+-- verrouillage optimiste : version incrémentée à chaque mise à jour (colonne @Version de BidList et Trade) ;
+-- les lignes existantes et les imports JDBC en masse démarrent à 0.
+ALTER TABLE bidlist ADD COLUMN version INT NOT NULL DEFAULT 0;
+ALTER TABLE trade ADD COLUMN version INT NOT NULL DEFAULT 0;
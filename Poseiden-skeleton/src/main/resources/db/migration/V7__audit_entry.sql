@@ -0,0 +1,16 @@
+-- piste d'audit des écritures (AuditTrail) : qui, quoi, quand, et les champs modifiés en JSON
+-- ({"champ": {"from": ..., "to": ...}}). Écrite par lots, hors du thread de la requête.
+-- DATETIME(3) : plusieurs écritures d'un même enregistrement dans la même seconde restent ordonnées.
+CREATE TABLE audit_entry (
+  id          BIGINT NOT NULL AUTO_INCREMENT,
+  occurred_at DATETIME(3) NOT NULL,
+  username    VARCHAR(125) NOT NULL,
+  entity_type VARCHAR(30) NOT NULL,
+  operation   VARCHAR(20) NOT NULL,
+  entity_id   INT,
+  changes     TEXT NOT NULL,
+  PRIMARY KEY (id)
+);
+
+-- recherche par enregistrement et plage de dates (/api/audit/{entity}/{id})
+CREATE INDEX idx_audit_entry_entity ON audit_entry (entity_type, entity_id, occurred_at);
@@ -0,0 +1,7 @@
+-- Index des tris de la liste des enchères (pagination par clé sur (colonne triée, bid_list_id)).
+-- Les index de V3 couvrent déjà le tri par identifiant et le tri par type sans filtre ou avec un filtre sur le compte.
+
+-- tri par compte, sans filtre ou avec un filtre sur le compte.
+CREATE INDEX idx_bidlist_account_id ON bidlist (account, bid_list_id, type, bid_quantity);
+-- tri par compte avec un filtre sur le type.
+CREATE INDEX idx_bidlist_type_account_id ON bidlist (type, account, bid_list_id, bid_quantity);
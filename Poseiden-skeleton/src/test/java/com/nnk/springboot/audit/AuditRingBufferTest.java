@@ -0,0 +1,86 @@
+package com.nnk.springboot.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRingBufferTest {
+
+    @Test
+    void capacityIsRoundedAndOfferFailsWhenFull() {
+        // Arrange
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(5);
+
+        // Act
+        List<Boolean> offered = IntStream.range(0, 9).mapToObj(buffer::offer).toList();
+
+        // Assert
+        assertEquals(8, buffer.capacity());
+        assertEquals(8, offered.stream().filter(Boolean::booleanValue).count());
+        assertFalse(offered.get(8));
+        assertEquals(8, buffer.size());
+        assertThrows(IllegalArgumentException.class, () -> new AuditRingBuffer<>(1));
+    }
+
+    @Test
+    void drainReturnsElementsInOrderAndFreesSlots() {
+        // Arrange
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        IntStream.range(0, 4).forEach(buffer::offer);
+        List<Integer> drained = new ArrayList<>();
+
+        // Act
+        int first = buffer.drain(drained::add, 3);
+        boolean wrapped = buffer.offer(4) && buffer.offer(5) && buffer.offer(6);
+        int second = buffer.drain(drained::add, 10);
+
+        // Assert
+        assertEquals(3, first);
+        assertTrue(wrapped);
+        assertEquals(4, second);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void concurrentProducersLoseNothingWhileConsumerDrains() throws Exception {
+        // Arrange
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        Set<Integer> received = new HashSet<>();
+
+        // Act
+        List<CompletableFuture<Void>> tasks = IntStream.range(0, producers)
+                .mapToObj(p -> CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(p * perProducer + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                }, executor))
+                .toList();
+        while (received.size() < producers * perProducer) {
+            if (buffer.drain(received::add, 256) == 0) {
+                Thread.onSpinWait();
+            }
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Assert
+        assertEquals(producers * perProducer, received.size());
+        assertEquals(0, buffer.size());
+    }
+}
@@ -0,0 +1,156 @@
+package com.nnk.springboot.changefeed;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentLogTest {
+
+    @TempDir
+    Path directory;
+
+    private static byte[] json(int i) {
+        return ("{\"n\":" + i + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void appendedEventsAreReadBackFromAnyOffset() throws IOException {
+        // Arrange
+        try (SegmentLog log = SegmentLog.open(directory, 64 * 1024, 4, 10)) {
+            for (int i = 0; i < 200; i++) {
+                log.append(ChangeEntity.TRADE, ChangeOperation.CREATE, i == 7 ? null : i, 1000L + i, json(i));
+            }
+
+            // Act
+            List<ChangeEvent> fromStart = log.read(0, 5);
+            List<ChangeEvent> middle = log.read(130, 1000);
+
+            // Assert
+            assertEquals(200, log.nextOffset());
+            assertEquals(List.of(0L, 1L, 2L, 3L, 4L), fromStart.stream().map(ChangeEvent::offset).toList());
+            assertEquals(70, middle.size());
+            ChangeEvent first = middle.get(0);
+            assertEquals(130, first.offset());
+            assertEquals(1130L, first.timestamp());
+            assertEquals(ChangeEntity.TRADE, first.entity());
+            assertEquals(ChangeOperation.CREATE, first.operation());
+            assertEquals(130, first.id());
+            assertEquals("{\"n\":130}", new String(first.payload(), StandardCharsets.UTF_8));
+            assertNull(log.read(7, 1).get(0).id());
+            assertTrue(log.read(200, 10).isEmpty());
+        }
+    }
+
+    @Test
+    void fullSegmentsRollAndOldestAreDropped() throws IOException {
+        // Arrange
+        int frame = ChangeEventCodec.frameSize(json(0).length);
+        try (SegmentLog log = SegmentLog.open(directory, frame * 10, 3, 100)) {
+
+            // Act
+            for (int i = 0; i < 45; i++) {
+                log.append(ChangeEntity.RATING, ChangeOperation.UPDATE, i, i, json(i % 10));
+            }
+
+            // Assert
+            assertEquals(3, segmentFiles().size());
+            assertEquals(20, log.firstOffset());
+            assertEquals(45, log.nextOffset());
+            List<ChangeEvent> events = log.read(0, 100);
+            assertEquals(25, events.size());
+            assertEquals(20, events.get(0).offset());
+            assertEquals(44, events.get(24).offset());
+        }
+    }
+
+    @Test
+    void reopeningRecoversOffsetsAndDiscardsTornTail() throws IOException {
+        // Arrange
+        try (SegmentLog log = SegmentLog.open(directory, 64 * 1024, 4, 1)) {
+            for (int i = 0; i < 3; i++) {
+                log.append(ChangeEntity.USER, ChangeOperation.DELETE, i, i, new byte[0]);
+            }
+        }
+        Path segment = segmentFiles().get(0);
+        int end = 3 * ChangeEventCodec.frameSize(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // trame interrompue : longueur écrite, contenu absent
+            channel.write(ByteBuffer.allocate(4).putInt(0, 40), end);
+        }
+
+        // Act
+        try (SegmentLog log = SegmentLog.open(directory, 64 * 1024, 4, 1)) {
+            ChangeEvent appended = log.append(ChangeEntity.USER, ChangeOperation.CREATE, 9, 9, json(9));
+
+            // Assert
+            assertEquals(3, appended.offset());
+            List<ChangeEvent> events = log.read(0, 10);
+            assertEquals(4, events.size());
+            assertEquals(9, events.get(3).id());
+        }
+    }
+
+    @Test
+    void eventLargerThanSegmentIsRejected() throws IOException {
+        // Arrange
+        try (SegmentLog log = SegmentLog.open(directory, 128, 2, 1)) {
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class,
+                    () -> log.append(ChangeEntity.TRADE, ChangeOperation.CREATE, 1, 0, new byte[200]));
+            assertEquals(0, log.nextOffset());
+        }
+    }
+
+    @Test
+    void everyOffsetIsPublishedAfterTheAppendLockIsReleased() throws Exception {
+        // Arrange
+        List<Long> published = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        SegmentLog[] ref = new SegmentLog[1];
+        try (SegmentLog log = SegmentLog.open(directory, 64 * 1024, 4, 1000, offset -> {
+            // un autre thread doit pouvoir prendre le verrou d'écriture pendant la publication
+            assertDoesNotThrow(() -> other.submit(ref[0]::flush).get(5, TimeUnit.SECONDS));
+            published.add(offset);
+        })) {
+            ref[0] = log;
+
+            // Act
+            for (int i = 0; i < 400; i++) {
+                int n = i;
+                writers.submit(() -> log.append(ChangeEntity.TRADE, ChangeOperation.CREATE, n, 0, json(n)));
+            }
+            writers.shutdown();
+            assertTrue(writers.awaitTermination(10, TimeUnit.SECONDS));
+
+            // Assert
+            assertEquals(LongStream.rangeClosed(1, 400).boxed().toList(), published.stream().sorted().toList());
+        } finally {
+            other.shutdownNow();
+        }
+    }
+}
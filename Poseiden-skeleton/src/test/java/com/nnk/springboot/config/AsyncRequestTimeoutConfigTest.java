@@ -0,0 +1,35 @@
+package com.nnk.springboot.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncRequestTimeoutConfigTest {
+
+    private final AsyncRequestTimeoutConfig.RequestTimeoutInterceptor interceptor = new AsyncRequestTimeoutConfig.RequestTimeoutInterceptor();
+
+    private long startAsync(MockHttpServletRequest request) throws Exception {
+        request.setAsyncSupported(true);
+        StandardServletAsyncWebRequest asyncRequest = new StandardServletAsyncWebRequest(request, new MockHttpServletResponse());
+        asyncRequest.setTimeout(10_000L);
+        interceptor.beforeConcurrentHandling(asyncRequest, () -> null);
+        asyncRequest.startAsync();
+        return request.getAsyncContext().getTimeout();
+    }
+
+    @Test
+    void timeoutSetByTheControllerAppliesToItsRequestOnly() throws Exception {
+        // Arrange
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/trade/export");
+        AsyncRequestTimeoutConfig.setTimeout(export, Duration.ofMinutes(30));
+
+        // Act & Assert
+        assertEquals(Duration.ofMinutes(30).toMillis(), startAsync(export));
+        assertEquals(10_000L, startAsync(new MockHttpServletRequest("GET", "/api/trades/stream")));
+    }
+}
@@ -0,0 +1,153 @@
+package com.nnk.springboot.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pool de hachage d'un thread : un délégué BCrypt bloqué sur un verrou occupe le pool à la demande.
+ */
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    /** Hash de "secret" d'un coût inférieur au coût configuré (5). */
+    private final String weakHash = new BCryptPasswordEncoder(4).encode("secret");
+
+    /** BCrypt de coût 5 dont matches("block", ...) occupe le thread jusqu'au verrou release, même interrompu. */
+    private final BCryptPasswordEncoder blockingBcrypt = new BCryptPasswordEncoder(5) {
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if ("block".contentEquals(rawPassword)) {
+                hashing.countDown();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (release.getCount() > 0 && System.nanoTime() < deadline) {
+                    try {
+                        release.await(10, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException ignored) {
+                        // le pool reste occupé malgré future.cancel(true)
+                    }
+                }
+            }
+            return super.matches(rawPassword, encodedPassword);
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.destroy();
+    }
+
+    private CompletableFuture<Boolean> occupyPool(String hash) throws InterruptedException {
+        CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(() -> encoder.matches("block", hash));
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+        return busy;
+    }
+
+    private double queueSize() {
+        return meterRegistry.get("password.hash.queue.size").gauge().value();
+    }
+
+    @Test
+    void fullQueueIsRejectedImmediately() throws Exception {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(blockingBcrypt, 1, 1, Duration.ofSeconds(5), meterRegistry);
+        String hash = blockingBcrypt.encode("secret");
+        CompletableFuture<Boolean> busy = occupyPool(hash);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("secret", hash));
+        for (int i = 0; i < 100 && queueSize() < 1; i++) {
+            Thread.sleep(10);
+        }
+
+        // Act
+        long t0 = System.nanoTime();
+        PasswordHashingRejectedException rejected = assertThrows(PasswordHashingRejectedException.class,
+                () -> encoder.matches("secret", hash));
+        long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+        release.countDown();
+
+        // Assert
+        assertTrue(elapsedMs < 1000, "refus en " + elapsedMs + " ms");
+        assertNotNull(rejected.getMessage());
+        assertEquals(1.0, meterRegistry.get("password.hash.rejected").counter().count());
+        assertFalse(busy.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void hashWaitingLongerThanMaxWaitIsAbandoned() throws Exception {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(blockingBcrypt, 1, 4, Duration.ofMillis(100), meterRegistry);
+        String hash = blockingBcrypt.encode("secret");
+        CompletableFuture<Boolean> busy = occupyPool(hash);
+
+        // Act
+        long t0 = System.nanoTime();
+        assertThrows(PasswordHashingRejectedException.class, () -> encoder.matches("secret", hash));
+        long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+
+        // Assert
+        assertTrue(elapsedMs >= 100 && elapsedMs < 2000, "abandon après " + elapsedMs + " ms");
+        ExecutionException busyFailure = assertThrows(ExecutionException.class, () -> busy.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(PasswordHashingRejectedException.class, busyFailure.getCause());
+        assertEquals(2.0, meterRegistry.get("password.hash.rejected").counter().count());
+        assertEquals(0.0, queueSize());
+    }
+
+    @Test
+    void weakerHashIsUpgradedOnLogin() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(blockingBcrypt, 1, 4, Duration.ofSeconds(5), meterRegistry);
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager(
+                User.withUsername("john").password(weakHash).roles("USER").build());
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(encoder);
+        provider.setUserDetailsService(users);
+        provider.setUserDetailsPasswordService(users);
+
+        // Act
+        provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("john", "secret"));
+
+        // Assert
+        String upgraded = users.loadUserByUsername("john").getPassword();
+        assertTrue(upgraded.startsWith("$2a$05$"), upgraded);
+        assertTrue(encoder.matches("secret", upgraded));
+    }
+
+    @Test
+    void upgradeIsPostponedWhileHashesAreQueued() throws Exception {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(blockingBcrypt, 1, 4, Duration.ofSeconds(5), meterRegistry);
+        occupyPool(weakHash);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("secret", weakHash));
+        for (int i = 0; i < 100 && queueSize() < 1; i++) {
+            Thread.sleep(10);
+        }
+
+        // Act
+        boolean whileBusy = encoder.upgradeEncoding(weakHash);
+        release.countDown();
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        boolean whenIdle = encoder.upgradeEncoding(weakHash);
+
+        // Assert
+        assertFalse(whileBusy);
+        assertTrue(whenIdle);
+    }
+}
@@ -0,0 +1,75 @@
+package com.nnk.springboot.config;
+
+import com.nnk.springboot.services.impl.UserDetailsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingBasicAuthenticationProviderTest {
+
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final UserDetailsCache userDetailsCache =
+            new UserDetailsCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5), Duration.ofSeconds(60));
+    private String hash = "hash-1";
+    private CachingBasicAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        UserDetailsService userDetailsService = username -> User.withUsername("john").password(hash).roles("USER").build();
+        provider = new CachingBasicAuthenticationProvider(userDetailsService, passwordEncoder, userDetailsCache);
+        when(passwordEncoder.matches("Secret-1234", "hash-1")).thenReturn(true);
+    }
+
+    private static UsernamePasswordAuthenticationToken basic(String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated("john", password);
+    }
+
+    @Test
+    void repeatedCallsWithTheSamePasswordHashOnlyOnce() {
+        // Act
+        provider.authenticate(basic("Secret-1234"));
+        var second = provider.authenticate(basic("Secret-1234"));
+
+        // Assert
+        assertTrue(second.isAuthenticated());
+        verify(passwordEncoder, times(1)).matches("Secret-1234", "hash-1");
+    }
+
+    @Test
+    void wrongPasswordIsStillCheckedAfterASuccessfulOne() {
+        // Arrange
+        provider.authenticate(basic("Secret-1234"));
+
+        // Act & Assert
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(basic("wrong")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(basic("wrong")));
+        verify(passwordEncoder, times(2)).matches("wrong", "hash-1");
+    }
+
+    @Test
+    void evictOrPasswordChangeForcesANewCheck() {
+        // Arrange
+        provider.authenticate(basic("Secret-1234"));
+
+        // Act
+        userDetailsCache.evict("JOHN");
+        provider.authenticate(basic("Secret-1234"));
+        hash = "hash-2";
+        userDetailsCache.evict("john");
+
+        // Assert
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(basic("Secret-1234")));
+        verify(passwordEncoder, times(2)).matches("Secret-1234", "hash-1");
+        verify(passwordEncoder).matches("Secret-1234", "hash-2");
+    }
+}
@@ -0,0 +1,159 @@
+package com.nnk.springboot.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.services.impl.TableVersions;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalGetFilterTest {
+
+    private final TableVersions tableVersions = new TableVersions();
+    private final AtomicInteger renders = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> {
+        response.setContentType("text/html;charset=UTF-8");
+        response.getWriter().write("<p>render " + renders.incrementAndGet() + "</p>");
+    };
+    private ConditionalGetFilter filter;
+    private MockHttpSession session;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ConditionalGetFilter(tableVersions, Caffeine.newBuilder().build());
+        session = new MockHttpSession();
+    }
+
+    private MockHttpServletResponse get(String uri, MockHttpSession session, String ifNoneMatch) throws Exception {
+        int query = uri.indexOf('?');
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", query < 0 ? uri : uri.substring(0, query));
+        if (query >= 0) {
+            request.setQueryString(uri.substring(query + 1));
+        }
+        request.setSession(session);
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void matchingEtagReturnsNotModifiedWithoutRendering() throws Exception {
+        // Arrange
+        MockHttpServletResponse first = get("/bidList/list", session, null);
+
+        // Act
+        MockHttpServletResponse second = get("/bidList/list", session, first.getHeader("ETag"));
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals("private, no-cache", first.getHeader("Cache-Control"));
+        assertNotNull(first.getHeader("Last-Modified"));
+        assertEquals(304, second.getStatus());
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void renderedPageIsReusedUntilTableVersionChanges() throws Exception {
+        // Act
+        String first = get("/trade/list?account=a", session, null).getContentAsString();
+        String cached = get("/trade/list?account=a", session, null).getContentAsString();
+        String otherQuery = get("/trade/list?account=b", session, null).getContentAsString();
+        tableVersions.bump(ChangeEntity.RATING);
+        String unrelatedWrite = get("/trade/list?account=a", session, null).getContentAsString();
+        tableVersions.bump(ChangeEntity.TRADE);
+        String afterWrite = get("/trade/list?account=a", session, null).getContentAsString();
+
+        // Assert
+        assertEquals("<p>render 1</p>", first);
+        assertEquals(first, cached);
+        assertEquals("<p>render 2</p>", otherQuery);
+        assertEquals(first, unrelatedWrite);
+        assertEquals("<p>render 3</p>", afterWrite);
+    }
+
+    @Test
+    void pagesAreNotSharedBetweenSessions() throws Exception {
+        // Arrange
+        MockHttpServletResponse mine = get("/rating/list", session, null);
+
+        // Act
+        MockHttpServletResponse other = get("/rating/list", new MockHttpSession(), mine.getHeader("ETag"));
+        MockHttpServletResponse noSession = get("/rating/list", null, null);
+
+        // Assert
+        assertEquals(200, other.getStatus());
+        assertNotEquals(mine.getHeader("ETag"), other.getHeader("ETag"));
+        assertEquals("<p>render 2</p>", other.getContentAsString());
+        assertNull(noSession.getHeader("ETag"));
+        assertEquals(3, renders.get());
+    }
+
+    @Test
+    void pageIsSentWhileRenderingAndOversizedPagesAreNotCached() throws Exception {
+        // Arrange
+        filter = new ConditionalGetFilter(tableVersions, Caffeine.newBuilder().build(), 32);
+        List<String> sentDuringRender = new ArrayList<>();
+        List<MockHttpServletResponse> responses = new ArrayList<>();
+        FilterChain streaming = (request, response) -> {
+            response.setContentType("text/html;charset=UTF-8");
+            response.getWriter().write("<table><tr>" + renders.incrementAndGet() + "</tr>");
+            response.flushBuffer();
+            sentDuringRender.add(responses.get(responses.size() - 1).getContentAsString());
+            response.getWriter().write("<tr>last</tr></table>");
+        };
+
+        // Act
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/trade/list");
+            request.setSession(session);
+            responses.add(new MockHttpServletResponse());
+            filter.doFilter(request, responses.get(i), streaming);
+        }
+
+        // Assert
+        assertEquals(List.of("<table><tr>1</tr>", "<table><tr>2</tr>"), sentDuringRender);
+        assertEquals("<table><tr>1</tr><tr>last</tr></table>", responses.get(0).getContentAsString());
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void jsonReadsAreValidatedByEtagOnly() throws Exception {
+        // Arrange
+        MockHttpServletResponse first = get("/api/trades", null, null);
+        tableVersions.bump(ChangeEntity.TRADE);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trades");
+        request.addHeader("If-Modified-Since", System.currentTimeMillis() + 1000);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, second, chain);
+
+        // Assert
+        assertNotNull(first.getHeader("ETag"));
+        assertNull(first.getHeader("Last-Modified"));
+        assertEquals(200, second.getStatus());
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void onlyReadViewsAreRouted() {
+        // Assert
+        assertNotNull(ConditionalGetFilter.route("/api/trades/12"));
+        assertNotNull(ConditionalGetFilter.route("/curvePoint/update/3"));
+        assertNull(ConditionalGetFilter.route("/api/trades/stream"));
+        assertNull(ConditionalGetFilter.route("/trade/export"));
+        assertFalse(ConditionalGetFilter.route("/api/positions").html());
+    }
+}
@@ -0,0 +1,40 @@
+package com.nnk.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourcePoolConfigTest {
+
+    private static HikariDataSource sized(String poolSize) {
+        BeanPostProcessor processor = DataSourcePoolConfig.hikariPoolSizing(
+                new MockEnvironment().withProperty("app.datasource.pool-size", poolSize));
+        HikariDataSource dataSource = new HikariDataSource();
+        assertSame(dataSource, processor.postProcessAfterInitialization(dataSource, "dataSource"));
+        return dataSource;
+    }
+
+    @Test
+    void zeroDerivesPoolSizeFromCores() {
+        // Act
+        HikariDataSource dataSource = sized("0");
+
+        // Assert
+        int expected = 2 * Runtime.getRuntime().availableProcessors() + 1;
+        assertEquals(expected, dataSource.getMaximumPoolSize());
+        assertEquals(expected, dataSource.getMinimumIdle());
+    }
+
+    @Test
+    void positiveValueFixesPoolSize() {
+        // Act
+        HikariDataSource dataSource = sized("7");
+
+        // Assert
+        assertEquals(7, dataSource.getMaximumPoolSize());
+        assertEquals(7, dataSource.getMinimumIdle());
+    }
+}
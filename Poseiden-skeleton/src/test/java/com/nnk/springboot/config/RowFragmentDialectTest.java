@@ -0,0 +1,86 @@
+package com.nnk.springboot.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.TradeFilterDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rendu de trade/list.html avec les gabarits de l'application et le cache de lignes.
+ */
+class RowFragmentDialectTest {
+
+    private final Cache<RowFragmentDialect.RowKey, String> renderedRows = Caffeine.newBuilder().recordStats().build();
+    private SpringTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setCharacterEncoding("UTF-8");
+        engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("templateEngine", engine);
+        engine.addDialect(new RowFragmentDialect(beans.getBeanProvider(ITemplateEngine.class), renderedRows));
+    }
+
+    private String renderTradeList(List<TradeDto> trades) {
+        MockServletContext servletContext = new MockServletContext();
+        WebContext context = new WebContext(JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(new MockHttpServletRequest(servletContext, "GET", "/trade/list"), new MockHttpServletResponse()),
+                Locale.FRANCE, Map.of("trades", trades, "filter", new TradeFilterDto()));
+        return engine.process("trade/list", context);
+    }
+
+    private static TradeDto trade(int id, String account) {
+        return new TradeDto(id, account, "type", new BigDecimal("10.5000"), null);
+    }
+
+    @Test
+    void rowsAreRenderedOnceAndReusedUntilTheirValuesChange() {
+        // Act
+        String first = renderTradeList(List.of(trade(1, "acc1"), trade(2, "acc2")));
+        String second = renderTradeList(List.of(trade(1, "acc1"), trade(2, "acc2")));
+        String changed = renderTradeList(List.of(trade(1, "acc1"), trade(2, "renamed")));
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(3, renderedRows.stats().missCount());
+        assertEquals(3, renderedRows.stats().hitCount());
+        assertTrue(changed.contains("<td>renamed</td>"), changed);
+        assertTrue(first.contains("<td>10.5000</td>"), first);
+        assertTrue(first.contains("form=\"delete-form\" formaction=\"/trade/delete/2\""), first);
+        assertTrue(first.contains("<form id=\"delete-form\" method=\"post\""), first);
+        assertFalse(first.contains("th:utext") || first.contains("th:formaction") || first.contains("th:block"), first);
+    }
+
+    @Test
+    void rowValuesAreEscaped() {
+        // Act
+        String html = renderTradeList(List.of(trade(1, "<script>alert(1)</script>")));
+
+        // Assert
+        assertTrue(html.contains("&lt;script&gt;alert(1)&lt;/script&gt;"), html);
+        assertFalse(html.contains("<script>"), html);
+    }
+}
@@ -0,0 +1,107 @@
+package com.nnk.springboot.config;
+
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.repositories.UserRepository;
+import com.nnk.springboot.services.TradeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Chaîne de sécurité d'Actuator : collecte Prometheus en HTTP Basic, sans session ni
+ * redirection vers la page de connexion.
+ */
+@SpringBootTest(properties = {
+        "spring.devtools.add-properties=false",
+        "spring.devtools.restart.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:security-config;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.changefeed.directory=target/security-config-changefeed"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class SecurityConfigTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Autowired
+    TradeService tradeService;
+
+    @BeforeEach
+    void setUp() {
+        createUser("scraper", "METRICS");
+        createUser("viewer", "USER");
+    }
+
+    private void createUser(String username, String role) {
+        if (userRepository.findByUsername(username).isEmpty()) {
+            User user = new User();
+            user.setUsername(username);
+            user.setFullname(username);
+            user.setPassword(passwordEncoder.encode("Secret-1234"));
+            user.setRole(role);
+            userRepository.save(user);
+        }
+    }
+
+    private static String basic(String username) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":Secret-1234").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void metricsAccountScrapesServiceHistogramsWithoutSession() throws Exception {
+        // Arrange
+        tradeService.findAll();
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("scraper")))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE))
+                .andExpect(content().string(containsString("service_operation_seconds_bucket{")));
+    }
+
+    @Test
+    void anonymousScrapeIsChallengedInsteadOfRedirectedToLogin() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().exists(HttpHeaders.WWW_AUTHENTICATE));
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void otherManagementEndpointsStayAdminOnly() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("viewer")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, basic("scraper")))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,168 @@
+package com.nnk.springboot.config;
+
+import com.nnk.springboot.dto.KeysetPageDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.TradeFilterDto;
+import com.nnk.springboot.mapper.TradeMapper;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.TradeStreamService;
+import com.nnk.springboot.services.impl.ChangeFeed;
+import com.nnk.springboot.services.impl.PositionAggregator;
+import com.nnk.springboot.services.impl.TradeServiceImpl;
+import com.nnk.springboot.services.impl.TradeStreamServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsAspectTest {
+
+    @Mock
+    TradeRepository tradeRepository;
+
+    @Mock
+    DtoProjectionRepository dtoProjectionRepository;
+
+    @Mock
+    TradeMapper tradeMapper;
+
+    @Mock
+    PositionAggregator positionAggregator;
+
+    @Mock
+    ChangeFeed changeFeed;
+
+    @Mock
+    TradeService tradeService;
+
+    private SimpleMeterRegistry registry;
+    private TradeService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(
+                new TradeServiceImpl(tradeRepository, dtoProjectionRepository, tradeMapper, null, positionAggregator, changeFeed, null, null));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(registry));
+        service = factory.getProxy();
+    }
+
+    @Test
+    void recordsDurationAndRowsOnSuccess() {
+        // Arrange
+        when(dtoProjectionRepository.findAll(DtoProjection.TRADE, null, Sort.unsorted(), 0))
+                .thenReturn(List.of(new TradeDto(), new TradeDto(), new TradeDto()));
+
+        // Act
+        service.findAll();
+        service.findAll();
+
+        // Assert
+        var timer = registry.get("service.operation")
+                .tags("service", "TradeServiceImpl", "method", "findAll", "outcome", "success")
+                .timer();
+        assertEquals(2, timer.count());
+        var rows = registry.get("service.operation.rows")
+                .tags("service", "TradeServiceImpl", "method", "findAll")
+                .summary();
+        assertEquals(2, rows.count());
+        assertEquals(6.0, rows.totalAmount());
+        assertEquals(0.0, registry.get("service.operation.active")
+                .tags("service", "TradeServiceImpl", "method", "findAll")
+                .gauge().value());
+    }
+
+    private TradeStreamService streamService() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new TradeStreamServiceImpl(tradeService, 2, Duration.ofSeconds(30)));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(registry));
+        return factory.getProxy();
+    }
+
+    /** doFinally s'exécute sur le thread du flux, après le signal final reçu par block(). */
+    private void awaitInactive(String method) throws InterruptedException {
+        var active = registry.get("service.operation.active").tags("method", method).gauge();
+        for (int i = 0; i < 100 && active.value() > 0; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void recordsFluxOnTerminationRatherThanOnReturn() throws Exception {
+        // Arrange
+        when(tradeService.findPage(any(), isNull(), isNull(), eq(2)))
+                .thenReturn(new KeysetPageDto<>(List.of(new TradeDto(), new TradeDto()), 2, 2, null));
+        when(tradeService.findPage(any(), eq(2), isNull(), eq(2)))
+                .thenReturn(new KeysetPageDto<>(List.of(new TradeDto()), 2, null, 3));
+        TradeStreamService stream = streamService();
+
+        // Act
+        Flux<TradeDto> flux = stream.stream(new TradeFilterDto());
+        var timer = registry.get("service.operation").tags("method", "stream", "outcome", "success").timer();
+        long beforeSubscribe = timer.count();
+        flux.collectList().block();
+        awaitInactive("stream");
+
+        // Assert
+        assertEquals(0, beforeSubscribe);
+        assertEquals(1, timer.count());
+        var rows = registry.get("service.operation.rows").tags("method", "stream").summary();
+        assertEquals(3.0, rows.totalAmount());
+        assertEquals(0.0, registry.get("service.operation.active").tags("method", "stream").gauge().value());
+    }
+
+    @Test
+    void recordsCancelledFluxAsCancel() throws Exception {
+        // Arrange
+        when(tradeService.findPage(any(), isNull(), isNull(), eq(2)))
+                .thenReturn(new KeysetPageDto<>(List.of(new TradeDto(), new TradeDto()), 2, 2, null));
+        lenient().when(tradeService.findPage(any(), eq(2), isNull(), eq(2)))
+                .thenReturn(new KeysetPageDto<>(List.of(new TradeDto()), 2, null, 3));
+
+        // Act
+        streamService().stream(new TradeFilterDto()).take(1).blockLast();
+        awaitInactive("stream");
+
+        // Assert
+        assertEquals(1, registry.get("service.operation").tags("method", "stream", "outcome", "cancel").timer().count());
+        assertEquals(0, registry.get("service.operation").tags("method", "stream", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void recordsErrorsWithExceptionTag() {
+        // Arrange
+        when(dtoProjectionRepository.findById(DtoProjection.TRADE_VERSIONED, 99)).thenReturn(Optional.empty());
+
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> service.getTrade(99));
+        assertThrows(IllegalArgumentException.class, () -> service.getTrade(99));
+
+        // Assert
+        assertEquals(2.0, registry.get("service.operation.errors")
+                .tags("service", "TradeServiceImpl", "method", "getTrade", "exception", "IllegalArgumentException")
+                .counter().count());
+        assertEquals(2, registry.get("service.operation")
+                .tags("method", "getTrade", "outcome", "error")
+                .timer().count());
+        assertEquals(0, registry.get("service.operation.rows")
+                .tags("method", "getTrade")
+                .summary().count());
+    }
+}
@@ -0,0 +1,134 @@
+package com.nnk.springboot.config;
+
+import com.nnk.springboot.diagnostics.SqlDiagnostics;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Budget SQL en mode strict à travers le câblage de production : StatementInspector et listener
+ * installés par SqlLoggingConfig, SqlStatisticsFilter enregistré devant Spring Security, sur H2.
+ *
+ * Aucune route de l'application ne lit ligne par ligne : TradesOneByOne, importé par le test,
+ * reproduit un N+1 sous /api : identifiants lus d'abord, puis un SELECT Hibernate par trade.
+ */
+@SpringBootTest(properties = {
+        "spring.devtools.add-properties=false",
+        "spring.devtools.restart.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:sql-budget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.changefeed.directory=target/sql-budget-changefeed",
+        "app.sql-diagnostics.enabled=true",
+        "app.sql-diagnostics.repeated-statement-threshold=10",
+        "app.sql-diagnostics.strict=true"
+})
+@AutoConfigureMockMvc
+@Import(SqlBudgetIntegrationTest.TradesOneByOne.class)
+class SqlBudgetIntegrationTest {
+
+    private static final int TRADES = 12;
+
+    @RestController
+    static class TradesOneByOne {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TradeRepository tradeRepository;
+
+        TradesOneByOne(JdbcTemplate jdbcTemplate, TradeRepository tradeRepository) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.tradeRepository = tradeRepository;
+        }
+
+        @GetMapping("/api/test/trades-one-by-one")
+        List<String> accounts() {
+            return jdbcTemplate.queryForList("select trade_id from trade", Integer.class).stream()
+                    .map(id -> tradeRepository.findById(id).orElseThrow().getAccount())
+                    .toList();
+        }
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    TradeRepository tradeRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    @Autowired
+    SqlDiagnostics sqlDiagnostics;
+
+    private String basic;
+
+    @BeforeEach
+    void setUp() {
+        if (userRepository.findByUsername("budget").isEmpty()) {
+            User user = new User();
+            user.setUsername("budget");
+            user.setFullname("Budget SQL");
+            user.setPassword(passwordEncoder.encode("Budget-1234"));
+            user.setRole("USER");
+            userRepository.save(user);
+        }
+        tradeRepository.deleteAll();
+        tradeRepository.saveAll(IntStream.range(0, TRADES).mapToObj(i -> {
+            Trade trade = new Trade();
+            trade.setAccount("account" + i);
+            trade.setType("type");
+            trade.setBuyQuantity(BigDecimal.ONE);
+            return trade;
+        }).toList());
+        basic = "Basic " + Base64.getEncoder().encodeToString("budget:Budget-1234".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void productionRouteStaysWithinBudget() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/trades").param("size", String.valueOf(TRADES)).header(HttpHeaders.AUTHORIZATION, basic))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void nPlusOneFailsTheRequestInStrictMode() {
+        // Act
+        var ex = assertThrows(IllegalStateException.class, () ->
+                mockMvc.perform(get("/api/test/trades-one-by-one").header(HttpHeaders.AUTHORIZATION, basic)));
+
+        // Assert
+        assertTrue(ex.getMessage().contains("GET /api/test/trades-one-by-one [n-plus-one]"), ex.getMessage());
+        SqlDiagnostics.FlaggedRequest flagged = sqlDiagnostics.report().flagged().get(0);
+        assertEquals("/api/test/trades-one-by-one", flagged.uri());
+        assertTrue(flagged.repeatedExecutions() >= TRADES, flagged.toString());
+    }
+}
@@ -0,0 +1,53 @@
+package com.nnk.springboot.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlLoggingConfigTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SqlLoggingConfig.SampledStatementInspector.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void logsOneStatementInRateAndLeavesSqlUnchanged() {
+        // Arrange
+        SqlLoggingConfig.SampledStatementInspector inspector = new SqlLoggingConfig.SampledStatementInspector(3);
+
+        // Act
+        List<String> returned = IntStream.rangeClosed(1, 7)
+                .mapToObj(i -> inspector.inspect("select " + i))
+                .toList();
+
+        // Assert
+        assertEquals(IntStream.rangeClosed(1, 7).mapToObj(i -> "select " + i).toList(), returned);
+        assertEquals(2, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().endsWith("select 3"));
+        assertTrue(appender.list.get(1).getFormattedMessage().endsWith("select 6"));
+    }
+
+    @Test
+    void rejectsRateBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> new SqlLoggingConfig.SampledStatementInspector(0));
+    }
+}
@@ -0,0 +1,75 @@
+package com.nnk.springboot.config;
+
+import com.nnk.springboot.diagnostics.SqlDiagnostics;
+import com.nnk.springboot.diagnostics.SqlStatistics;
+import com.nnk.springboot.diagnostics.SqlStatisticsInspector;
+import com.nnk.springboot.diagnostics.SqlTimingListener;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatisticsFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlStatisticsInspector inspector = new SqlStatisticsInspector();
+    private final SqlTimingListener listener = new SqlTimingListener();
+
+    private FilterChain controllerRunning(String pattern, int statements) {
+        return (request, response) -> {
+            for (int i = 0; i < statements; i++) {
+                inspector.inspect("select t1_0.trade_id from trade t1_0 where t1_0.trade_id=?");
+                listener.jdbcExecuteStatementStart();
+                listener.jdbcExecuteStatementEnd();
+            }
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        };
+    }
+
+    @Test
+    void recordsStatementsUnderTheControllerPattern() throws Exception {
+        // Arrange
+        SqlDiagnostics diagnostics = new SqlDiagnostics(registry, 20, Duration.ofMillis(500), 10, false, 10);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/trade/update/7");
+
+        // Act
+        new SqlStatisticsFilter(diagnostics).doFilter(request, new MockHttpServletResponse(), controllerRunning("/trade/update/{id}", 3));
+
+        // Assert
+        DistributionSummary statements = registry.get("http.server.requests.sql.statements")
+                .tag("method", "GET").tag("uri", "/trade/update/{id}").summary();
+        assertEquals(1, statements.count());
+        assertEquals(3.0, statements.totalAmount());
+        assertEquals(3, ((SqlStatistics) request.getAttribute(SqlStatistics.class.getName())).statements());
+        SqlDiagnostics.RouteReport route = diagnostics.report().routes().get(0);
+        assertEquals("/trade/update/{id}", route.uri());
+        assertEquals(3, route.maxStatements());
+        assertTrue(diagnostics.report().flagged().isEmpty());
+        assertTrue(registry.find("http.server.requests.sql.flagged").counters().isEmpty());
+    }
+
+    @Test
+    void requestOverBudgetIsFlaggedAndFailsInStrictMode() {
+        // Arrange
+        SqlDiagnostics diagnostics = new SqlDiagnostics(registry, 2, Duration.ofMillis(500), 10, true, 10);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/trade/list");
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> new SqlStatisticsFilter(diagnostics)
+                .doFilter(request, new MockHttpServletResponse(), controllerRunning("/trade/list", 3)));
+
+        // Assert
+        assertEquals(1.0, registry.get("http.server.requests.sql.flagged").tag("reason", "statements").counter().count());
+        SqlDiagnostics.FlaggedRequest flagged = diagnostics.report().flagged().get(0);
+        assertEquals("/trade/list", flagged.uri());
+        assertEquals(3, flagged.statements());
+        assertEquals(3, flagged.repeatedExecutions());
+    }
+}
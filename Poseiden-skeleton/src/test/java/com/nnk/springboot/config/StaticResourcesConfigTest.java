@@ -0,0 +1,74 @@
+package com.nnk.springboot.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.io.InputStream;
+import java.time.Duration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Gestionnaire des URL versionnées seul (sans le gestionnaire /** de Spring Boot), sur les
+ * ressources de target/classes/static et leurs variantes générées au build.
+ */
+@SpringJUnitWebConfig(StaticResourcesConfigTest.WebConfig.class)
+class StaticResourcesConfigTest {
+
+    @Configuration
+    @EnableWebMvc
+    static class WebConfig {
+        @Bean
+        StaticResourcesConfig staticResourcesConfig() {
+            return new StaticResourcesConfig(Duration.ofDays(365));
+        }
+    }
+
+    @Autowired
+    WebApplicationContext context;
+
+    private MockMvc mockMvc;
+    private String versionedUrl;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        try (InputStream css = new ClassPathResource("static/css/bootstrap.min.css").getInputStream()) {
+            versionedUrl = "/css/bootstrap.min-" + DigestUtils.md5DigestAsHex(css) + ".css";
+        }
+    }
+
+    @Test
+    void versionedUrlIsImmutableAndServedPrecompressed() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get(versionedUrl).header("Accept-Encoding", "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"));
+        mockMvc.perform(get(versionedUrl))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    void staleHashAndPlainUrlAreNotServedAsImmutable() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/css/bootstrap.min-0123456789abcdef0123456789abcdef.css"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/css/bootstrap.min.css"))
+                .andExpect(status().isNotFound());
+    }
+}
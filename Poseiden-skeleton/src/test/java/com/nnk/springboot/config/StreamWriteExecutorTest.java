@@ -0,0 +1,93 @@
+package com.nnk.springboot.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamWriteExecutorTest {
+
+    /** Tâche d'écriture de flux, comme les abonnés de ReactiveTypeHandler. */
+    private static class StreamWrite implements Subscriber<Object>, Runnable {
+        final CompletableFuture<String> thread = new CompletableFuture<>();
+        final CountDownLatch release;
+
+        StreamWrite(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void run() {
+            thread.complete(Thread.currentThread().getName());
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+        }
+
+        @Override
+        public void onNext(Object item) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private final StreamWriteExecutor executor =
+            new StreamWriteExecutor(new SimpleAsyncTaskExecutor("app-"), 1, 1, new SimpleMeterRegistry());
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void streamWritesRunOnTheirOwnPoolAndOtherTasksOnTheDelegate() throws Exception {
+        // Arrange
+        StreamWrite write = new StreamWrite(release);
+
+        // Act
+        executor.execute(write);
+        String other = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(write.thread.get(5, TimeUnit.SECONDS).startsWith("mvc-stream-"));
+        assertTrue(other.startsWith("app-"), other);
+    }
+
+    @Test
+    void blockedStreamWritesAreRejectedBeyondTheQueueWithoutBlockingOtherTasks() throws Exception {
+        // Arrange
+        StreamWrite blocked = new StreamWrite(release);
+        executor.execute(blocked);
+        blocked.thread.get(5, TimeUnit.SECONDS);
+        executor.execute(new StreamWrite(release));
+
+        // Act & Assert
+        assertThrows(TaskRejectedException.class, () -> executor.execute(new StreamWrite(release)));
+        CompletableFuture<Void> export = new CompletableFuture<>();
+        executor.submit(() -> export.complete(null));
+        export.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,34 @@
+package com.nnk.springboot.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadPinningMonitorTest {
+
+    @Test
+    void pinningSiteIsFirstNonJdkFrame() {
+        // Arrange
+        List<String> frames = List.of(
+                "java.lang.VirtualThread.parkOnCarrierThread",
+                "jdk.internal.misc.Unsafe.park",
+                "sun.nio.ch.NioSocketImpl.read",
+                "com.mysql.cj.protocol.ReadAheadInputStream.fill",
+                "com.nnk.springboot.services.impl.TradeServiceImpl.findAll");
+
+        // Act
+        String site = VirtualThreadPinningMonitor.pinningSite(frames);
+
+        // Assert
+        assertEquals("com.mysql.cj.protocol.ReadAheadInputStream.fill", site);
+    }
+
+    @Test
+    void pinningSiteFallsBackToJdk() {
+        // Act & Assert
+        assertEquals("jdk", VirtualThreadPinningMonitor.pinningSite(List.of("java.lang.Object.wait")));
+        assertEquals("jdk", VirtualThreadPinningMonitor.pinningSite(List.of()));
+    }
+}
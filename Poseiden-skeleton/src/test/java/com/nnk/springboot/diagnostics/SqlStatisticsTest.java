@@ -0,0 +1,93 @@
+package com.nnk.springboot.diagnostics;
+
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.repositories.TradeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bilan SQL d'une portée sur H2, avec SqlStatisticsInspector et SqlTimingListener branchés comme
+ * dans l'application ; sert aussi de modèle de test à budget de requêtes.
+ */
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:sql-statistics;MODE=MySQL;NON_KEYWORDS=VALUE",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.nnk.springboot.diagnostics.SqlStatisticsInspector",
+        "spring.jpa.properties.hibernate.session.events.auto=com.nnk.springboot.diagnostics.SqlTimingListener"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SqlStatisticsTest {
+
+    @Autowired
+    TradeRepository tradeRepository;
+
+    private List<Integer> tradeIds;
+
+    @BeforeEach
+    void setUp() {
+        tradeRepository.deleteAll();
+        tradeIds = IntStream.range(0, 12).mapToObj(i -> {
+            Trade trade = new Trade();
+            trade.setAccount("acc" + i);
+            trade.setType("type");
+            trade.setBuyQuantity(new BigDecimal("10"));
+            return tradeRepository.save(trade).getId();
+        }).toList();
+    }
+
+    @Test
+    void countsStatementsAndKeepsTheSlowest() {
+        // Act
+        SqlStatistics statistics;
+        try (SqlStatistics scope = SqlStatistics.open()) {
+            tradeRepository.findAll();
+            tradeRepository.findById(tradeIds.get(0));
+            statistics = scope;
+        }
+        tradeRepository.findAll();
+
+        // Assert
+        assertNull(SqlStatistics.current());
+        assertEquals(2, statistics.statements());
+        assertTrue(statistics.jdbcTime().compareTo(statistics.slowestTime()) >= 0);
+        assertTrue(statistics.slowestTime().toNanos() > 0);
+        assertTrue(statistics.slowestSql().startsWith("select"), statistics.slowestSql());
+        assertEquals(1, statistics.mostRepeated().executions());
+    }
+
+    @Test
+    void lookupsInALoopAreReportedAsNPlusOneAndFailAStrictBudget() {
+        // Arrange
+        SqlDiagnostics strict = new SqlDiagnostics(new SimpleMeterRegistry(), 20, Duration.ofSeconds(5), 10, true, 10);
+
+        // Act
+        SqlStatistics statistics;
+        try (SqlStatistics scope = SqlStatistics.open()) {
+            tradeIds.forEach(tradeRepository::findById);
+            statistics = scope;
+        }
+
+        // Assert
+        assertEquals(12, statistics.statements());
+        assertEquals(12, statistics.mostRepeated().executions());
+        assertEquals(List.of(SqlDiagnostics.N_PLUS_ONE), strict.violations(statistics));
+        IllegalStateException exceeded = assertThrows(IllegalStateException.class,
+                () -> strict.record("GET", "/trade/list", statistics));
+        assertTrue(exceeded.getMessage().contains("n-plus-one"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.changefeed.ChangeOperation;
+import com.nnk.springboot.domain.AuditEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Insertion par lots JDBC et lecture de l'historique d'un enregistrement sur H2.
+ */
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:audit-entry;MODE=MySQL;NON_KEYWORDS=VALUE",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class AuditEntryRepositoryTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 5, 2, 12, 0);
+
+    @Autowired
+    AuditEntryRepository auditEntryRepository;
+
+    private static AuditEntry entry(String entityType, Integer id, ChangeOperation operation, LocalDateTime at) {
+        AuditEntry entry = new AuditEntry();
+        entry.setOccurredAt(at);
+        entry.setUsername("alice");
+        entry.setEntityType(entityType);
+        entry.setOperation(operation.name());
+        entry.setEntityId(id);
+        entry.setChanges("{}");
+        return entry;
+    }
+
+    @Test
+    void historyIsFilteredByRecordAndTimeRange() {
+        // Arrange
+        auditEntryRepository.insertAll(List.of(
+                entry("trade", 7, ChangeOperation.UPDATE, NOON.plusMinutes(5)),
+                entry("trade", 7, ChangeOperation.CREATE, NOON),
+                entry("trade", 8, ChangeOperation.CREATE, NOON),
+                entry("bidList", 7, ChangeOperation.CREATE, NOON),
+                entry("trade", 7, ChangeOperation.DELETE, NOON.plusHours(2)),
+                entry("trade", null, ChangeOperation.BULK_INSERT, NOON)));
+
+        // Act
+        List<AuditEntry> all = auditEntryRepository.findHistory("trade", 7, null, null, Limit.of(10));
+        List<AuditEntry> range = auditEntryRepository.findHistory("trade", 7, NOON.plusMinutes(1), NOON.plusHours(1), Limit.of(10));
+        List<AuditEntry> limited = auditEntryRepository.findHistory("trade", 7, null, null, Limit.of(1));
+
+        // Assert
+        assertEquals(List.of("DELETE", "UPDATE", "CREATE"), all.stream().map(AuditEntry::getOperation).toList());
+        assertEquals(1, range.size());
+        assertEquals("UPDATE", range.get(0).getOperation());
+        assertEquals(List.of("DELETE"), limited.stream().map(AuditEntry::getOperation).toList());
+        assertEquals(6, auditEntryRepository.count());
+    }
+}
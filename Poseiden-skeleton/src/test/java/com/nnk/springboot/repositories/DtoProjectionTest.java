@@ -0,0 +1,41 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.RatingDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DtoProjectionTest {
+
+    @Test
+    void declaredProjectionsMatchTheirConstructors() {
+        // Act & Assert
+        assertDoesNotThrow(() -> List.of(DtoProjection.BID_LIST, DtoProjection.BID_LIST_VERSIONED, DtoProjection.TRADE,
+                DtoProjection.TRADE_VERSIONED, DtoProjection.CURVE_POINT, DtoProjection.RATING,
+                DtoProjection.RULE_NAME, DtoProjection.USER));
+    }
+
+    @Test
+    void swappedAttributesOfTheSameTypeAreRejected() {
+        // Act
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> new DtoProjection<>(
+                BidList.class, BidListDto.class, List.of("id", "type", "account", "bidQuantity")));
+
+        // Assert
+        assertTrue(failure.getMessage().contains("type"), failure.getMessage());
+    }
+
+    @Test
+    void attributeWithoutMatchingConstructorIsRejected() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new DtoProjection<>(
+                Rating.class, RatingDto.class, List.of("id", "moodysRating", "sandpRating", "fitchRating")));
+        assertThrows(IllegalStateException.class, () -> new DtoProjection<>(
+                Rating.class, RatingDto.class, List.of("id", "unknown")));
+    }
+}
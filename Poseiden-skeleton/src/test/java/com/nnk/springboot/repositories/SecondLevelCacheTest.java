@@ -0,0 +1,142 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.domain.RuleName;
+import com.nnk.springboot.dto.RatingDto;
+import com.nnk.springboot.dto.RuleNameDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cache de second niveau et cache de requêtes sur H2 : chaque lecture tourne dans sa propre
+ * transaction (comme les services), et les statistiques Hibernate comptent les requêtes SQL préparées.
+ */
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache;MODE=MySQL;NON_KEYWORDS=VALUE",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(DtoProjectionRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    RatingRepository ratingRepository;
+
+    @Autowired
+    RuleNameRepository ruleNameRepository;
+
+    @Autowired
+    DtoProjectionRepository dtoProjectionRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Integer ratingId;
+
+    @BeforeEach
+    void setUp() {
+        inTransaction(() -> {
+            ruleNameRepository.deleteAll();
+            ratingRepository.deleteAll();
+            return null;
+        });
+        Rating rating = new Rating();
+        rating.setMoodysRating("Aaa");
+        rating.setOrderNumber(1);
+        ratingId = inTransaction(() -> ratingRepository.save(rating)).getId();
+        RuleName ruleName = new RuleName();
+        ruleName.setName("rule");
+        ruleName.setSqlPart("type = 'x'");
+        inTransaction(() -> ruleNameRepository.save(ruleName));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private <R> R inTransaction(Supplier<R> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    @Test
+    void repeatedEntityReadsAreServedFromTheSecondLevelCache() {
+        // Arrange
+        inTransaction(() -> ratingRepository.findById(ratingId));
+        long statements = statistics.getPrepareStatementCount();
+
+        // Act
+        Rating first = inTransaction(() -> ratingRepository.findById(ratingId)).orElseThrow();
+        Rating second = inTransaction(() -> ratingRepository.findById(ratingId)).orElseThrow();
+
+        // Assert
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals("Aaa", first.getMoodysRating());
+        assertEquals("Aaa", second.getMoodysRating());
+        assertTrue(statistics.getDomainDataRegionStatistics("rating").getHitCount() >= 2);
+    }
+
+    @Test
+    void repeatedProjectionReadsIssueNoSql() {
+        // Arrange
+        inTransaction(() -> dtoProjectionRepository.findAll(DtoProjection.RULE_NAME, null, Sort.by("id"), 0));
+        inTransaction(() -> dtoProjectionRepository.findById(DtoProjection.RATING, ratingId));
+        long statements = statistics.getPrepareStatementCount();
+
+        // Act
+        List<RuleNameDto> rules = inTransaction(() ->
+                dtoProjectionRepository.findAll(DtoProjection.RULE_NAME, null, Sort.by("id"), 0));
+        RatingDto rating = inTransaction(() ->
+                dtoProjectionRepository.findById(DtoProjection.RATING, ratingId)).orElseThrow();
+
+        // Assert
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(1, rules.size());
+        assertEquals("type = 'x'", rules.get(0).getSqlPart());
+        assertEquals("Aaa", rating.getMoodysRating());
+        assertEquals(2, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void writesInvalidateCachedQueryResults() {
+        // Arrange
+        inTransaction(() -> dtoProjectionRepository.findAll(DtoProjection.RATING, null, Sort.by("id"), 0));
+        Rating rating = inTransaction(() -> ratingRepository.findById(ratingId)).orElseThrow();
+        rating.setMoodysRating("Baa");
+        inTransaction(() -> ratingRepository.save(rating));
+        long statements = statistics.getPrepareStatementCount();
+
+        // Act
+        List<RatingDto> afterUpdate = inTransaction(() ->
+                dtoProjectionRepository.findAll(DtoProjection.RATING, null, Sort.by("id"), 0));
+        List<RatingDto> cached = inTransaction(() ->
+                dtoProjectionRepository.findAll(DtoProjection.RATING, null, Sort.by("id"), 0));
+
+        // Assert
+        assertEquals(statements + 1, statistics.getPrepareStatementCount());
+        assertEquals("Baa", afterUpdate.get(0).getMoodysRating());
+        assertEquals("Baa", cached.get(0).getMoodysRating());
+    }
+}
@@ -0,0 +1,186 @@
+package com.nnk.springboot.repositories;
+
+import com.nnk.springboot.domain.Rating;
+import com.nnk.springboot.domain.Trade;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Nombre et forme des requêtes d'écriture sur H2 : suppression et mise à jour d'une entité du
+ * cache de second niveau sans SELECT, en n'évinçant que son entrée, et UPDATE limité aux colonnes
+ * modifiées (@DynamicUpdate) pour les entités versionnées, insertion en masse qui relit les
+ * identifiants générés. Les requêtes SQL sont relevées
+ * par un StatementInspector et comptées par les statistiques Hibernate.
+ */
+@DataJpaTest(properties = {
+        "spring.test.database.replace=none",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:write-statements;MODE=MySQL;NON_KEYWORDS=VALUE",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.nnk.springboot.repositories.WriteStatementsTest$Recorder"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WriteStatementsTest {
+
+    static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    public static class Recorder implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+
+    @Autowired
+    RatingRepository ratingRepository;
+
+    @Autowired
+    TradeRepository tradeRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Integer ratingId;
+    private Integer tradeId;
+
+    @BeforeEach
+    void setUp() {
+        inTransaction(() -> {
+            ratingRepository.deleteAll();
+            tradeRepository.deleteAll();
+            return null;
+        });
+        Rating rating = new Rating();
+        rating.setMoodysRating("Aaa");
+        rating.setSandpRating("AAA");
+        rating.setOrderNumber(1);
+        ratingId = inTransaction(() -> ratingRepository.save(rating)).getId();
+        Trade trade = new Trade();
+        trade.setAccount("acc");
+        trade.setType("type");
+        trade.setBuyQuantity(new BigDecimal("10"));
+        tradeId = inTransaction(() -> tradeRepository.save(trade)).getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        STATEMENTS.clear();
+    }
+
+    private <R> R inTransaction(Supplier<R> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    @Test
+    void cachedEntityDeleteIsASingleStatementAndKeepsOtherEntries() {
+        // Arrange
+        Rating other = new Rating();
+        other.setMoodysRating("Baa");
+        other.setOrderNumber(2);
+        Integer otherId = inTransaction(() -> ratingRepository.save(other)).getId();
+        inTransaction(() -> ratingRepository.findById(ratingId));
+        inTransaction(() -> ratingRepository.findById(otherId));
+        STATEMENTS.clear();
+
+        // Act
+        inTransaction(() -> {
+            ratingRepository.delete(ratingRepository.findById(ratingId).orElseThrow());
+            return null;
+        });
+        boolean otherStillCached = inTransaction(() -> ratingRepository.findById(otherId)).isPresent();
+
+        // Assert
+        assertEquals(1, STATEMENTS.size(), STATEMENTS::toString);
+        assertTrue(STATEMENTS.get(0).startsWith("delete from rating"), STATEMENTS::toString);
+        assertTrue(otherStillCached);
+        assertTrue(inTransaction(() -> ratingRepository.findById(ratingId)).isEmpty());
+    }
+
+    @Test
+    void cachedEntityUpdatesAreOneStatementEach() {
+        // Arrange
+        inTransaction(() -> ratingRepository.findById(ratingId));
+        STATEMENTS.clear();
+
+        // Act
+        for (String moodys : List.of("Baa", "Caa")) {
+            inTransaction(() -> {
+                Rating rating = ratingRepository.findById(ratingId).orElseThrow();
+                rating.setMoodysRating(moodys);
+                return ratingRepository.save(rating);
+            });
+        }
+
+        // Assert
+        assertEquals(2, STATEMENTS.size());
+        assertTrue(STATEMENTS.stream().allMatch(sql -> sql.startsWith("update rating")), STATEMENTS::toString);
+        assertEquals("Caa", inTransaction(() -> ratingRepository.findById(ratingId)).orElseThrow().getMoodysRating());
+    }
+
+    @Test
+    void versionedUpdateWritesOnlyChangedColumnsAndVersion() {
+        // Act
+        inTransaction(() -> {
+            Trade trade = tradeRepository.findById(tradeId).orElseThrow();
+            trade.setType("other");
+            return tradeRepository.saveAndFlush(trade);
+        });
+
+        // Assert
+        assertEquals(2, STATEMENTS.size());
+        String update = STATEMENTS.get(1);
+        assertTrue(update.contains("type=?") && update.contains("version=?"), update);
+        assertFalse(update.contains("account") || update.contains("buy_quantity"), update);
+        assertEquals(1, inTransaction(() -> tradeRepository.findById(tradeId)).orElseThrow().getVersion());
+    }
+
+    @Test
+    void bulkInsertSetsGeneratedIdsOnRows() {
+        // Arrange
+        List<Trade> rows = List.of(trade("a1"), trade("a2"), trade("a3"));
+
+        // Act
+        int inserted = inTransaction(() -> tradeRepository.batchInsert(rows));
+
+        // Assert
+        assertEquals(3, inserted);
+        assertEquals(3, rows.stream().map(Trade::getId).distinct().filter(id -> id != null && id > tradeId).count());
+        for (Trade row : rows) {
+            Trade saved = inTransaction(() -> tradeRepository.findById(row.getId())).orElseThrow();
+            assertEquals(row.getAccount(), saved.getAccount());
+            assertEquals(0, saved.getVersion());
+        }
+    }
+
+    private static Trade trade(String account) {
+        Trade trade = new Trade();
+        trade.setAccount(account);
+        trade.setType("type");
+        trade.setBuyQuantity(BigDecimal.ONE);
+        return trade;
+    }
+}
@@ -0,0 +1,80 @@
+package com.nnk.springboot.rules;
+
+import com.nnk.springboot.dto.TradeDto;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleCompilerTest {
+
+    private static final TradeDto WITHOUT_QUANTITY = new TradeDto(1, "Élan", "x", null);
+    private static final TradeDto WITH_QUANTITY = new TradeDto(2, "b ", "Y", new BigDecimal("20"));
+
+    private static Predicate<TradeDto> compile(String sqlPart) {
+        return RuleCompiler.compile(RuleParser.parse(sqlPart), RuleSchema.TRADE);
+    }
+
+    @Test
+    void negationOfAnUnknownComparisonOnNullIsNotSelected() {
+        // Act & Assert
+        assertFalse(compile("buyQuantity > 50").test(WITHOUT_QUANTITY));
+        assertFalse(compile("NOT buyQuantity > 50").test(WITHOUT_QUANTITY));
+        assertFalse(compile("buyQuantity NOT IN (1, 2)").test(WITHOUT_QUANTITY));
+        assertFalse(compile("buyQuantity NOT BETWEEN 1 AND 2").test(WITHOUT_QUANTITY));
+        assertFalse(compile("NOT (type = 'y' OR buyQuantity > 50)").test(WITHOUT_QUANTITY));
+        assertTrue(compile("NOT (type = 'y' AND buyQuantity > 50)").test(WITHOUT_QUANTITY));
+        assertTrue(compile("NOT NOT type = 'x' OR buyQuantity > 50").test(WITHOUT_QUANTITY));
+        assertTrue(compile("buyQuantity IS NULL").test(WITHOUT_QUANTITY));
+        assertFalse(compile("buyQuantity IS NOT NULL").test(WITHOUT_QUANTITY));
+        assertTrue(compile("NOT buyQuantity > 50").test(WITH_QUANTITY));
+        assertTrue(compile("buyQuantity BETWEEN 20 AND 20.0").test(WITH_QUANTITY));
+        assertTrue(compile("buyQuantity NOT IN (1, 2)").test(WITH_QUANTITY));
+    }
+
+    @Test
+    void stringsCompareLikeTheCaseAndAccentInsensitiveCollation() {
+        // Act & Assert
+        assertTrue(compile("account = 'B'").test(WITH_QUANTITY));
+        assertTrue(compile("account IN ('a', 'B')").test(WITH_QUANTITY));
+        assertFalse(compile("account NOT IN ('a', 'B')").test(WITH_QUANTITY));
+        assertTrue(compile("account < 'c' AND account > 'A'").test(WITH_QUANTITY));
+        assertTrue(compile("type = 'y'").test(WITH_QUANTITY));
+        assertTrue(compile("account = 'elan'").test(WITHOUT_QUANTITY));
+        assertTrue(compile("account LIKE 'EL%'").test(WITHOUT_QUANTITY));
+        assertTrue(compile("account LIKE '_lan'").test(WITHOUT_QUANTITY));
+        assertFalse(compile("account LIKE 'B'").test(WITH_QUANTITY));
+    }
+
+    @Test
+    void likeWildcardsMatchLikeSql() {
+        // Act & Assert
+        assertTrue(RuleCompiler.likeMatches("A1", "A_"));
+        assertFalse(RuleCompiler.likeMatches("A12", "A_"));
+        assertTrue(RuleCompiler.likeMatches("O'Neil", "%N%l"));
+        assertTrue(RuleCompiler.likeMatches("abcbd", "a%b%d"));
+        assertFalse(RuleCompiler.likeMatches("abcbe", "a%b%d"));
+        assertTrue(RuleCompiler.likeMatches("", "%%"));
+        assertFalse(RuleCompiler.likeMatches("", "_"));
+        assertTrue(RuleCompiler.likeMatches("x.*y", "x.*_"));
+        assertFalse(RuleCompiler.likeMatches("xay", "x.*_"));
+    }
+
+    @Test
+    void pathologicalPatternIsMatchedInBoundedTime() {
+        // Arrange : ".*a.*a...b" en expression régulière explore un nombre exponentiel de découpages
+        String value = "a".repeat(5_000);
+        String pattern = "%a".repeat(30) + "%b";
+
+        // Act
+        long t0 = System.nanoTime();
+        boolean matches = RuleCompiler.likeMatches(value, pattern);
+        long elapsedMs = (System.nanoTime() - t0) / 1_000_000;
+
+        // Assert
+        assertFalse(matches);
+        assertTrue(elapsedMs < 1000, "motif évalué en " + elapsedMs + " ms");
+    }
+}
@@ -0,0 +1,75 @@
+package com.nnk.springboot.rules;
+
+import com.nnk.springboot.rules.RuleExpression.And;
+import com.nnk.springboot.rules.RuleExpression.Comparison;
+import com.nnk.springboot.rules.RuleExpression.In;
+import com.nnk.springboot.rules.RuleExpression.IsNull;
+import com.nnk.springboot.rules.RuleExpression.Not;
+import com.nnk.springboot.rules.RuleExpression.Operator;
+import com.nnk.springboot.rules.RuleExpression.Or;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleParserTest {
+
+    private static Comparison eq(String field, Object literal) {
+        return new Comparison(field, Operator.EQ, literal);
+    }
+
+    @Test
+    void andBindsTighterThanOrAndNotTighterThanAnd() {
+        // Act
+        RuleExpression expression = RuleParser.parse("a = 1 OR NOT b = 2 AND c = 3");
+
+        // Assert
+        assertEquals(new Or(List.of(
+                eq("a", BigDecimal.ONE),
+                new And(List.of(new Not(eq("b", new BigDecimal("2"))), eq("c", new BigDecimal("3")))))), expression);
+        assertEquals(new And(List.of(
+                new Or(List.of(eq("a", BigDecimal.ONE), eq("b", new BigDecimal("2")))), eq("c", new BigDecimal("3")))),
+                RuleParser.parse("(a = 1 or b = 2) and c = 3"));
+    }
+
+    @Test
+    void betweenAndNegatedPredicatesAreDesugared() {
+        // Act & Assert
+        assertEquals(new And(List.of(
+                new Comparison("q", Operator.GE, new BigDecimal("2")),
+                new Comparison("q", Operator.LE, new BigDecimal("5.5")))), RuleParser.parse("q BETWEEN 2 AND 5.5"));
+        assertEquals(new Not(new And(List.of(
+                new Comparison("q", Operator.GE, new BigDecimal("2")),
+                new Comparison("q", Operator.LE, new BigDecimal("5"))))), RuleParser.parse("q NOT BETWEEN 2 AND 5"));
+        assertEquals(new Not(new In("type", List.of("x", "y"))), RuleParser.parse("type NOT IN ('x', 'y')"));
+        assertEquals(new IsNull("type"), RuleParser.parse("type IS NULL"));
+        assertEquals(new Not(new IsNull("type")), RuleParser.parse("type is not null"));
+    }
+
+    @Test
+    void quotedLiteralsAndQualifiedFieldsAreUnwrapped() {
+        // Act & Assert
+        assertEquals(eq("account", "O'Neil"), RuleParser.parse("t.account = 'O''Neil'"));
+        assertEquals(eq("account", ""), RuleParser.parse("account = ''"));
+        assertEquals(eq("account", "a AND b"), RuleParser.parse("account = 'a AND b'"));
+        assertThrows(RuleSyntaxException.class, () -> RuleParser.parse("account = 'O'Neil'"));
+        assertThrows(RuleSyntaxException.class, () -> RuleParser.parse("account = 'ouverte"));
+    }
+
+    @Test
+    void nestingDeeperThanMaxDepthIsRejected() {
+        // Arrange
+        String nested = "(".repeat(RuleParser.MAX_DEPTH + 1) + "account = 'A'" + ")".repeat(RuleParser.MAX_DEPTH + 1);
+        String negated = "NOT ".repeat(RuleParser.MAX_DEPTH + 1) + "account = 'A'";
+        String deepest = "(".repeat(RuleParser.MAX_DEPTH) + "account = 'A'" + ")".repeat(RuleParser.MAX_DEPTH);
+
+        // Act & Assert
+        assertThrows(RuleSyntaxException.class, () -> RuleParser.parse(nested));
+        assertThrows(RuleSyntaxException.class, () -> RuleParser.parse(negated));
+        assertThrows(RuleSyntaxException.class, () -> RuleParser.parse("(".repeat(100_000)));
+        assertDoesNotThrow(() -> RuleParser.parse(deepest));
+        assertDoesNotThrow(() -> RuleParser.parse("(a = 1) AND ".repeat(200) + "b = 2"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.changefeed.ChangeOperation;
+import com.nnk.springboot.domain.AuditEntry;
+import com.nnk.springboot.dto.AuditEntryDto;
+import com.nnk.springboot.dto.AuditHistoryDto;
+import com.nnk.springboot.repositories.AuditEntryRepository;
+import com.nnk.springboot.services.AuditService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditServiceImplTest {
+
+    @Mock
+    AuditEntryRepository auditEntryRepository;
+
+    @InjectMocks
+    AuditServiceImpl service;
+
+    private static List<AuditEntry> entries(int count) {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 2, 12, 0);
+        return LongStream.rangeClosed(1, count).mapToObj(id -> {
+            AuditEntry entry = new AuditEntry();
+            entry.setId(id);
+            entry.setOccurredAt(now.minusMinutes(id));
+            entry.setUsername("alice");
+            entry.setEntityType("trade");
+            entry.setOperation(ChangeOperation.UPDATE.name());
+            entry.setEntityId(7);
+            entry.setChanges("{}");
+            return entry;
+        }).toList();
+    }
+
+    @Test
+    void historyBeyondTheLimitIsFlaggedAsTruncated() {
+        // Arrange
+        when(auditEntryRepository.findHistory(eq("trade"), eq(7), isNull(), isNull(), eq(Limit.of(AuditService.MAX_ROWS + 1))))
+                .thenReturn(entries(AuditService.MAX_ROWS + 1));
+
+        // Act
+        AuditHistoryDto history = service.findHistory("trade", 7, null, null);
+
+        // Assert
+        assertTrue(history.isTruncated());
+        assertEquals(AuditService.MAX_ROWS, history.getEntries().size());
+        assertEquals(1L, history.getEntries().get(0).getId());
+    }
+
+    @Test
+    void completeHistoryIsNotTruncated() {
+        // Arrange
+        when(auditEntryRepository.findHistory(eq("trade"), eq(7), isNull(), isNull(), any(Limit.class)))
+                .thenReturn(entries(2));
+
+        // Act
+        AuditHistoryDto history = service.findHistory("trade", 7, null, null);
+
+        // Assert
+        assertFalse(history.isTruncated());
+        assertEquals(List.of(1L, 2L), history.getEntries().stream().map(AuditEntryDto::getId).toList());
+    }
+
+    @Test
+    void unknownEntityIsRejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.findHistory("nope", 7, null, null));
+        verifyNoInteractions(auditEntryRepository);
+    }
+}
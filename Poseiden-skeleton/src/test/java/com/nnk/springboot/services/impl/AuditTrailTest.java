@@ -0,0 +1,120 @@
+package com.nnk.springboot.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
+import com.nnk.springboot.domain.AuditEntry;
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.repositories.AuditEntryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditTrailTest {
+
+    @Mock
+    AuditEntryRepository auditEntryRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuditTrail auditTrail;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        auditTrail = new AuditTrail(new ObjectMapper(), auditEntryRepository, meterRegistry, 4, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<AuditEntry> written() {
+        ArgumentCaptor<List<AuditEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(auditEntryRepository, atLeastOnce()).insertAll(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    @Test
+    void updateRecordsUserAndChangedFieldsOnly() {
+        // Arrange
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", "n/a", List.of()));
+        BidListDto before = new BidListDto(7, "acc", "type", new BigDecimal("10.0000"), 2);
+        BidListDto after = new BidListDto(7, "acc", "other", new BigDecimal("10"), 3);
+
+        // Act
+        auditTrail.record(ChangeEntity.BID_LIST, ChangeOperation.UPDATE, 7, before, after);
+        auditTrail.flush();
+
+        // Assert
+        AuditEntry entry = written().get(0);
+        assertEquals("alice", entry.getUsername());
+        assertEquals("bidList", entry.getEntityType());
+        assertEquals("UPDATE", entry.getOperation());
+        assertEquals(7, entry.getEntityId());
+        assertNotNull(entry.getOccurredAt());
+        assertEquals("{\"type\":{\"from\":\"type\",\"to\":\"other\"},\"version\":{\"from\":2,\"to\":3}}", entry.getChanges());
+    }
+
+    @Test
+    void entriesAreBufferedOnlyAfterCommitAndWrittenInBatches() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        auditTrail.record(ChangeEntity.TRADE, ChangeOperation.DELETE, 1, null, null);
+        auditTrail.record(ChangeEntity.TRADE, ChangeOperation.DELETE, 2, null, null);
+        auditTrail.recordBulkInsert(ChangeEntity.TRADE, List.of(new TradeDto(11, "acc", "type", BigDecimal.ONE)), TradeDto::getId);
+        auditTrail.flush();
+        verifyNoInteractions(auditEntryRepository);
+
+        // Act
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        auditTrail.flush();
+
+        // Assert
+        verify(auditEntryRepository, times(2)).insertAll(anyList());
+        List<AuditEntry> entries = written();
+        assertEquals(3, entries.size());
+        assertEquals("system", entries.get(0).getUsername());
+        assertEquals("{}", entries.get(0).getChanges());
+        assertEquals("CREATE", entries.get(2).getOperation());
+        assertEquals(11, entries.get(2).getEntityId());
+        assertEquals("{\"account\":{\"to\":\"acc\"},\"type\":{\"to\":\"type\"},\"buyQuantity\":{\"to\":1}}", entries.get(2).getChanges());
+    }
+
+    @Test
+    void fullBufferAndFailedWritesAreCounted() {
+        // Arrange
+        doThrow(new IllegalStateException("base indisponible")).when(auditEntryRepository).insertAll(anyList());
+
+        // Act
+        for (int i = 0; i < 6; i++) {
+            auditTrail.record(ChangeEntity.RATING, ChangeOperation.CREATE, i, null, null);
+        }
+        auditTrail.flush();
+
+        // Assert
+        assertEquals(2.0, meterRegistry.get("audit.entries.dropped").counter().count());
+        assertEquals(4.0, meterRegistry.get("audit.entries.lost").counter().count());
+        assertEquals(0.0, meterRegistry.get("audit.buffer.size").gauge().value());
+    }
+}
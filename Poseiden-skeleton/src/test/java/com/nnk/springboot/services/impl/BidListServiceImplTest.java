@@ -1,15 +1,25 @@
 package com.nnk.springboot.services.impl;
 
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
 import com.nnk.springboot.domain.BidList;
 import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.BidListFilterDto;
 import com.nnk.springboot.mapper.BidListMapper;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
 import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.services.BidListService;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -24,9 +34,28 @@ class BidListServiceImplTest {
     @Mock
     BidListRepository bidListRepository;
 
+    @Mock
+    DtoProjectionRepository dtoProjectionRepository;
+
     @Mock
     BidListMapper bidListMapper;
 
+    @Mock
+    PositionAggregator positionAggregator;
+
+    @Spy
+    BulkImporter bulkImporter = new BulkImporter(Validation.buildDefaultValidatorFactory().getValidator(),
+            mock(PlatformTransactionManager.class));
+
+    @Mock
+    ChangeFeed changeFeed;
+
+    @Mock
+    AuditTrail auditTrail;
+
+    @Mock
+    ConcurrentUpdateResolver concurrentUpdateResolver;
+
     @InjectMocks
     BidListServiceImpl service;
 
@@ -55,8 +84,7 @@ class BidListServiceImplTest {
     @Test
     void testFindAll() {
         // Arrange
-        when(bidListRepository.findAll()).thenReturn(List.of(entity));
-        when(bidListMapper.toDto(entity)).thenReturn(dto);
+        when(dtoProjectionRepository.findAll(DtoProjection.BID_LIST, null, Sort.unsorted(), 0)).thenReturn(List.of(dto));
 
         // Act
         var result = service.findAll();
@@ -64,6 +92,123 @@ class BidListServiceImplTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(id, result.get(0).getId());
+        verifyNoInteractions(bidListMapper);
+    }
+
+    @Test
+    void testFindPageFirstPage() {
+        // Arrange
+        BidListDto secondDto = new BidListDto();
+        secondDto.setId(2);
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.BID_LIST), any(), eq(Sort.by(Sort.Direction.ASC, "id")), eq(2)))
+                .thenReturn(List.of(dto, secondDto));
+
+        // Act
+        var page = service.findPage(new BidListFilterDto(), null, null, 1);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertEquals(id, page.getNextCursor());
+        assertNull(page.getPreviousCursor());
+        verifyNoInteractions(bidListRepository, bidListMapper);
+    }
+
+    @Test
+    void testFindPageBefore() {
+        // Arrange
+        BidListFilterDto filter = new BidListFilterDto();
+        filter.setAccount("acc");
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.BID_LIST), any(), eq(Sort.by(Sort.Direction.DESC, "id")),
+                eq(BidListService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(List.of(dto));
+
+        // Act
+        var page = service.findPage(filter, null, 5, 10_000);
+
+        // Assert
+        assertEquals(BidListService.MAX_PAGE_SIZE, page.getSize());
+        assertEquals(1, page.getItems().size());
+        assertEquals(id, page.getNextCursor());
+        assertNull(page.getPreviousCursor());
+    }
+
+    @Test
+    void testFindPageSortedByAccountSeeksFromTheCursorRow() {
+        // Arrange
+        BidListFilterDto filter = new BidListFilterDto();
+        filter.setSort("account");
+        filter.setDir("desc");
+        when(dtoProjectionRepository.findById(DtoProjection.BID_LIST, 7)).thenReturn(Optional.of(dto));
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.BID_LIST), notNull(),
+                eq(Sort.by(Sort.Direction.DESC, "account").and(Sort.by(Sort.Direction.DESC, "id"))), eq(11)))
+                .thenReturn(List.of(dto));
+
+        // Act
+        var page = service.findPage(filter, 7, null, 10);
+
+        // Assert
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertEquals(id, page.getPreviousCursor());
+    }
+
+    @Test
+    void testFindPageBeforeReadsInReverseSortOrder() {
+        // Arrange
+        BidListFilterDto filter = new BidListFilterDto();
+        filter.setSort("type");
+        BidListDto secondDto = new BidListDto();
+        secondDto.setId(2);
+        secondDto.setType("type");
+        when(dtoProjectionRepository.findById(DtoProjection.BID_LIST, 9)).thenReturn(Optional.of(dto));
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.BID_LIST), notNull(),
+                eq(Sort.by(Sort.Direction.DESC, "type").and(Sort.by(Sort.Direction.DESC, "id"))), eq(2)))
+                .thenReturn(List.of(secondDto, dto));
+
+        // Act
+        var page = service.findPage(filter, null, 9, 1);
+
+        // Assert
+        assertEquals(List.of(secondDto), page.getItems());
+        assertEquals(2, page.getPreviousCursor());
+        assertEquals(2, page.getNextCursor());
+    }
+
+    @Test
+    void testFindPageBeforeDeletedCursorRowFallsBackToTheFirstPage() {
+        // Arrange
+        BidListFilterDto filter = new BidListFilterDto();
+        filter.setSort("type");
+        BidListDto secondDto = new BidListDto();
+        secondDto.setId(2);
+        when(dtoProjectionRepository.findById(DtoProjection.BID_LIST, 9)).thenReturn(Optional.empty());
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.BID_LIST), any(),
+                eq(Sort.by(Sort.Direction.ASC, "type").and(Sort.by(Sort.Direction.ASC, "id"))), eq(2)))
+                .thenReturn(List.of(dto, secondDto));
+
+        // Act
+        var page = service.findPage(filter, null, 9, 1);
+
+        // Assert
+        assertEquals(List.of(dto), page.getItems());
+        assertEquals(id, page.getNextCursor());
+        assertNull(page.getPreviousCursor());
+    }
+
+    @Test
+    void testFindPageIgnoresUnsortableProperty() {
+        // Arrange
+        BidListFilterDto filter = new BidListFilterDto();
+        filter.setSort("bidQuantity");
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.BID_LIST), notNull(), eq(Sort.by(Sort.Direction.ASC, "id")), eq(11)))
+                .thenReturn(List.of());
+
+        // Act
+        var page = service.findPage(filter, 3, null, 10);
+
+        // Assert
+        assertTrue(page.getItems().isEmpty());
+        verify(dtoProjectionRepository, never()).findById(any(), any());
     }
 
     @Test
@@ -89,13 +234,40 @@ class BidListServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(id, result.getId());
+        verify(positionAggregator).bidListChanged(null, dto);
+    }
+
+    @Test
+    void testImportAll() {
+        // Arrange
+        BidListDto invalid = new BidListDto();
+        invalid.setType("type");
+        BidListDto other = new BidListDto();
+        other.setAccount("acc2");
+        other.setType("type");
+        when(bidListMapper.toEntity(any(BidListDto.class))).thenReturn(new BidList());
+        when(bidListRepository.batchInsert(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        // Act
+        var report = service.importAll(List.of(dto, invalid, other).iterator());
+
+        // Assert
+        assertEquals(3, report.getReceived());
+        assertEquals(2, report.getInserted());
+        assertEquals(1, report.getRejected());
+        assertEquals(1, report.getErrors().get(0).getIndex());
+        assertEquals(List.of("account: Le compte est obligatoire."), report.getErrors().get(0).getMessages());
+        verify(bidListRepository, times(1)).batchInsert(anyList());
+        verify(bidListRepository, never()).save(any());
+        verify(positionAggregator, times(1)).bidListsImported(argThat(batch -> batch.size() == 2));
+        verify(changeFeed).recordBulkInsert(eq(ChangeEntity.BID_LIST), argThat((List<BidListDto> created) -> created.size() == 2), any());
+        verify(auditTrail).recordBulkInsert(eq(ChangeEntity.BID_LIST), argThat((List<BidListDto> created) -> created.size() == 2), any());
     }
 
     @Test
     void getBidList() {
         // Arrange
-        when(bidListRepository.findById(id)).thenReturn(Optional.of(entity));
-        when(bidListMapper.toDto(entity)).thenReturn(dto);
+        when(dtoProjectionRepository.findById(DtoProjection.BID_LIST_VERSIONED, id)).thenReturn(Optional.of(dto));
 
         // Act
         var result = service.getBidList(id);
@@ -108,12 +280,15 @@ class BidListServiceImplTest {
     @Test
     void delete() {
         // Arrange
-        when(bidListRepository.existsById(id)).thenReturn(true);
+        when(bidListRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(bidListMapper.toDto(entity)).thenReturn(dto);
 
         // Act
         service.delete(id);
 
         // Assert
-        verify(bidListRepository).deleteById(id);
+        verify(bidListRepository).delete(entity);
+        verify(positionAggregator).bidListChanged(dto, null);
+        verify(changeFeed).record(ChangeEntity.BID_LIST, ChangeOperation.DELETE, id, null);
     }
 }
\ No newline at end of file
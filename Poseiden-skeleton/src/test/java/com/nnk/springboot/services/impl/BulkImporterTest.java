@@ -0,0 +1,183 @@
+package com.nnk.springboot.services.impl;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.dto.BulkImportReportDto;
+import com.nnk.springboot.dto.BulkRowErrorDto;
+import com.nnk.springboot.dto.TradeDto;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkImporterTest {
+
+    /** Gestionnaire de transactions qui compte les commits et signale une transaction ouverte. */
+    private static class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+        boolean open;
+        int commits;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            open = true;
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            open = false;
+            commits++;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            open = false;
+        }
+    }
+
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private final BulkImporter importer = new BulkImporter(Validation.buildDefaultValidatorFactory().getValidator(), transactionManager);
+
+    @Test
+    void eachBatchIsCommittedInItsOwnTransactionAndRowsAreReadOutsideAnyTransaction() {
+        // Arrange
+        List<TradeDto> input = new ArrayList<>(IntStream.range(0, 5)
+                .mapToObj(i -> new TradeDto(null, "acc" + i, "type", BigDecimal.ONE))
+                .toList());
+        input.add(2, new TradeDto(null, null, "type", BigDecimal.ONE));
+        Iterator<TradeDto> source = input.iterator();
+        Iterator<TradeDto> rows = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                assertFalse(transactionManager.open, "ligne lue pendant une transaction");
+                return source.hasNext();
+            }
+
+            @Override
+            public TradeDto next() {
+                return source.next();
+            }
+        };
+        List<Integer> batchSizes = new ArrayList<>();
+
+        // Act
+        var report = importer.importAll("trades", rows, 2, TradeDto::getAccount, batch -> {
+            assertTrue(transactionManager.open);
+            batchSizes.add(batch.size());
+            return batch.size();
+        });
+
+        // Assert
+        assertEquals(6, report.getReceived());
+        assertEquals(5, report.getInserted());
+        assertEquals(1, report.getRejected());
+        assertEquals(2, report.getErrors().get(0).getIndex());
+        assertEquals(List.of(2, 2, 1), batchSizes);
+        assertEquals(3, transactionManager.commits);
+    }
+
+    @Test
+    void failedBatchIsRolledBackAndEarlierBatchesStayCommitted() {
+        // Arrange
+        List<TradeDto> input = IntStream.range(0, 4)
+                .mapToObj(i -> new TradeDto(null, "acc" + i, "type", BigDecimal.ONE))
+                .toList();
+
+        // Act
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> importer.importAll("trades", input.iterator(), 2, TradeDto::getAccount, batch -> {
+                    if (batch.contains("acc2")) {
+                        throw new IllegalStateException("insertion refusée");
+                    }
+                    return batch.size();
+                }));
+
+        // Assert
+        assertEquals("insertion refusée", failure.getMessage());
+        assertEquals(1, transactionManager.commits);
+        assertFalse(transactionManager.open);
+    }
+
+    @Test
+    void unreadableAndOverlongRowsAreRejectedAndReadingResumesOnTheNextRow() throws IOException {
+        // Arrange
+        String ndjson = """
+                {"account":"a1","type":"t","buyQuantity":1}
+                {"account":"a2","type":"t","buyQuantity":"beaucoup"}
+                {"account":"%s","type":"t","buyQuantity":1}
+                {"account":"a4","type":{"nested":true},"buyQuantity":1}
+                {"account":"a5","type":"t","buyQuantity":1}
+                """.formatted("x".repeat(31));
+        List<String> inserted = new ArrayList<>();
+
+        // Act
+        BulkImportReportDto report;
+        try (MappingIterator<TradeDto> rows = new ObjectMapper().readerFor(TradeDto.class).readValues(ndjson)) {
+            report = importer.importAll("trades", rows, 10, TradeDto::getAccount, batch -> {
+                inserted.addAll(batch);
+                return batch.size();
+            });
+        }
+
+        // Assert
+        assertEquals(5, report.getReceived());
+        assertEquals(2, report.getInserted());
+        assertEquals(3, report.getRejected());
+        assertEquals(List.of("a1", "a5"), inserted);
+        assertEquals(List.of(1L, 2L, 3L), report.getErrors().stream().map(BulkRowErrorDto::getIndex).toList());
+        assertTrue(report.getErrors().get(1).getMessages().get(0).startsWith("account:"));
+    }
+
+    @Test
+    void malformedJsonStopsReadingAndRowsReadBeforeAreStillInserted() throws IOException {
+        // Arrange
+        String json = "[{\"account\":\"a1\",\"type\":\"t\"},{\"account\":\"a2\",\"type\":\"t\"},{\"account\" \"a3\"}]";
+
+        // Act
+        BulkImportReportDto report;
+        try (MappingIterator<TradeDto> rows = new ObjectMapper().readerFor(TradeDto.class).readValues(json)) {
+            report = importer.importAll("trades", rows, 10, TradeDto::getAccount, List::size);
+        }
+
+        // Assert
+        assertEquals(3, report.getReceived());
+        assertEquals(2, report.getInserted());
+        assertEquals(1, report.getRejected());
+        assertEquals(2, report.getErrors().get(0).getIndex());
+        assertTrue(report.getErrors().get(0).getMessages().get(0).startsWith("JSON mal formé"));
+        assertEquals(1, transactionManager.commits);
+    }
+
+    @Test
+    void reportedErrorsAreCappedButAllRejectedRowsAreCounted() {
+        // Arrange
+        int invalid = BulkImporter.MAX_REPORTED_ERRORS + 50;
+        List<TradeDto> input = new ArrayList<>(IntStream.range(0, invalid)
+                .mapToObj(i -> new TradeDto(null, "", "type", BigDecimal.ONE))
+                .toList());
+        input.add(new TradeDto(null, "acc", "type", BigDecimal.ONE));
+
+        // Act
+        BulkImportReportDto report = importer.importAll("trades", input.iterator(), 10, TradeDto::getAccount, List::size);
+
+        // Assert
+        assertEquals(invalid, report.getRejected());
+        assertEquals(1, report.getInserted());
+        assertEquals(BulkImporter.MAX_REPORTED_ERRORS, report.getErrors().size());
+        assertEquals(0, report.getErrors().get(0).getIndex());
+    }
+}
@@ -0,0 +1,175 @@
+package com.nnk.springboot.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.ChangeBatchDto;
+import com.nnk.springboot.dto.ChangeEventDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.UserDto;
+import com.nnk.springboot.services.ChangeOffsetExpiredException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import reactor.core.Disposable;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    @TempDir
+    Path directory;
+
+    private final TableVersions tableVersions = new TableVersions();
+    private ChangeFeed changeFeed;
+    private ChangeFeedServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        changeFeed = new ChangeFeed(new ObjectMapper(), tableVersions, new SimpleMeterRegistry(), directory, DataSize.ofKilobytes(64), 4, 16);
+        service = new ChangeFeedServiceImpl(changeFeed);
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.close();
+    }
+
+    private static void completeTransaction(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(s -> s.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void eventsAreAppendedOnlyAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        changeFeed.record(ChangeEntity.USER, ChangeOperation.CREATE, 3, new UserDto(3, "bob", "Bob", "USER"));
+        changeFeed.recordBulkInsert(ChangeEntity.TRADE, List.<TradeDto>of(), TradeDto::getId);
+        assertEquals(0, changeFeed.nextOffset());
+
+        // Act
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.initSynchronization();
+        changeFeed.record(ChangeEntity.RATING, ChangeOperation.DELETE, 4, null);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        var events = changeFeed.read(0, 10);
+        assertEquals(1, events.size());
+        assertEquals(3, events.get(0).id());
+        String json = new String(events.get(0).payload(), StandardCharsets.UTF_8);
+        assertTrue(json.contains("\"username\":\"bob\""));
+        assertFalse(json.contains("\"password\":\""));
+        assertEquals(1, tableVersions.version(ChangeEntity.USER));
+        assertEquals(0, tableVersions.version(ChangeEntity.RATING));
+    }
+
+    @Test
+    void pollWaitsForNextWrite() throws Exception {
+        // Arrange
+        changeFeed.recordBulkInsert(ChangeEntity.BID_LIST, List.of(new BidListDto(12, "acc", "type", BigDecimal.ONE)), BidListDto::getId);
+        CompletableFuture<ChangeBatchDto> pending = service.poll(1, null, Duration.ofSeconds(5)).toFuture();
+        assertFalse(pending.isDone());
+
+        // Act
+        changeFeed.record(ChangeEntity.TRADE, ChangeOperation.DELETE, 8, null);
+        ChangeBatchDto batch = pending.get(5, TimeUnit.SECONDS);
+        ChangeBatchDto first = service.poll(0, 1, Duration.ZERO).block();
+
+        // Assert
+        assertEquals(1, batch.getEvents().size());
+        assertEquals(1, batch.getEvents().get(0).getOffset());
+        assertNull(batch.getEvents().get(0).getData());
+        assertEquals(2, batch.getNextOffset());
+        assertEquals(ChangeOperation.CREATE, first.getEvents().get(0).getOperation());
+        assertEquals(12, first.getEvents().get(0).getId());
+        assertTrue(first.getEvents().get(0).getData().contains("\"account\":\"acc\""));
+    }
+
+    @Test
+    void streamReplaysFromOffsetThenFollowsWrites() throws Exception {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            changeFeed.record(ChangeEntity.CURVE_POINT, ChangeOperation.UPDATE, i, null);
+        }
+        CompletableFuture<List<ChangeEventDto>> received = service.stream(1).take(3).collectList().toFuture();
+
+        // Act
+        changeFeed.record(ChangeEntity.RULE_NAME, ChangeOperation.DELETE, 5, null);
+        List<ChangeEventDto> events = received.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), events.stream().map(ChangeEventDto::getOffset).toList());
+        assertEquals("ruleName", events.get(2).getEntity());
+        assertEquals(5, events.get(2).getId());
+    }
+
+    @Test
+    void streamFromAnOffsetDroppedByRetentionEndsWithTheFirstOffset() {
+        // Arrange : 20 évènements de 16 Ko remplissent plus que les 4 segments de 64 Ko conservés
+        TradeDto large = new TradeDto(1, "a".repeat(16_000), "type", BigDecimal.ONE);
+        for (int i = 0; i < 20; i++) {
+            changeFeed.record(ChangeEntity.TRADE, ChangeOperation.UPDATE, i, large);
+        }
+        long firstOffset = changeFeed.firstOffset();
+
+        // Act
+        var error = assertThrows(ChangeOffsetExpiredException.class,
+                () -> service.stream(0).blockFirst(Duration.ofSeconds(5)));
+
+        // Assert
+        assertTrue(firstOffset > 0);
+        assertEquals(firstOffset, error.getFirstOffset());
+        assertEquals(firstOffset, service.stream(firstOffset).blockFirst(Duration.ofSeconds(5)).getOffset());
+    }
+
+    @Test
+    void subscribersReadOffTheWritingThreadAndPublishedOffsetsOnlyIncrease() throws Exception {
+        // Arrange
+        List<Long> offsets = new CopyOnWriteArrayList<>();
+        Disposable published = changeFeed.appendedOffsets().subscribe(offsets::add);
+        CompletableFuture<String> readingThread = service.stream(0)
+                .map(event -> Thread.currentThread().getName())
+                .next()
+                .toFuture();
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            int id = i;
+            writers.submit(() -> changeFeed.record(ChangeEntity.TRADE, ChangeOperation.DELETE, id, null));
+        }
+        writers.shutdown();
+        assertTrue(writers.awaitTermination(10, TimeUnit.SECONDS));
+        published.dispose();
+
+        // Assert
+        assertTrue(readingThread.get(5, TimeUnit.SECONDS).startsWith("boundedElastic"));
+        for (int i = 1; i < offsets.size(); i++) {
+            assertTrue(offsets.get(i) > offsets.get(i - 1), offsets.toString());
+        }
+        assertEquals(200L, offsets.get(offsets.size() - 1));
+    }
+}
@@ -0,0 +1,121 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.services.UpdateConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentUpdateResolverTest {
+
+    private static final List<ConcurrentUpdateResolver.Field<BidListDto>> FIELDS = List.of(
+            ConcurrentUpdateResolver.Field.of("account", BidListDto::getAccount, BidListDto::setAccount),
+            ConcurrentUpdateResolver.Field.of("type", BidListDto::getType, BidListDto::setType),
+            ConcurrentUpdateResolver.Field.of("bidQuantity", BidListDto::getBidQuantity, BidListDto::setBidQuantity));
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentUpdateResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        resolver = new ConcurrentUpdateResolver(meterRegistry, 100, Duration.ofMinutes(5));
+    }
+
+    private static BidListDto bid(String account, String type, String quantity, Integer version) {
+        return new BidListDto(7, account, type, quantity == null ? null : new BigDecimal(quantity), version);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("updates.conflicts").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void currentOrMissingVersionIsAppliedAsIs() {
+        // Arrange
+        BidListDto current = bid("A", "x", "1", 4);
+        BidListDto sameVersion = bid("B", "y", "2", 4);
+        BidListDto noVersion = bid("C", "z", "3", null);
+
+        // Act
+        resolver.resolve(ChangeEntity.BID_LIST, 7, sameVersion, 4, current, 4, false, FIELDS);
+        resolver.resolve(ChangeEntity.BID_LIST, 7, noVersion, null, current, 4, false, FIELDS);
+
+        // Assert
+        assertEquals("B", sameVersion.getAccount());
+        assertEquals("C", noVersion.getAccount());
+        assertTrue(meterRegistry.find("updates.conflicts").counters().isEmpty());
+    }
+
+    @Test
+    void mergeWithoutBaseSnapshotIsRejected() {
+        // Arrange
+        BidListDto current = bid("A", "x", "1", 4);
+
+        // Act
+        var ex = assertThrows(UpdateConflictException.class, () ->
+                resolver.resolve(ChangeEntity.BID_LIST, 7, bid("B", "x", "1", 3), 3, current, 4, true, FIELDS));
+
+        // Assert
+        assertSame(current, ex.getCurrent());
+        assertEquals(1.0, count("rejected"));
+    }
+
+    @Test
+    void mergeKeepsCurrentValuesOfFieldsTheClientDidNotChange() {
+        // Arrange
+        resolver.remember(ChangeEntity.BID_LIST, 7, 3, bid("A", "x", "1.00", 3));
+        BidListDto current = bid("A", "y", "5", 5);
+        BidListDto incoming = bid("B", "x", "1.0000", 3);
+
+        // Act
+        resolver.resolve(ChangeEntity.BID_LIST, 7, incoming, 3, current, 5, true, FIELDS);
+
+        // Assert
+        assertEquals("B", incoming.getAccount());
+        assertEquals("y", incoming.getType());
+        assertEquals(new BigDecimal("5"), incoming.getBidQuantity());
+        assertEquals(1.0, count("merged"));
+    }
+
+    @Test
+    void sameValueOnBothSidesIsNotAConflict() {
+        // Arrange
+        resolver.remember(ChangeEntity.BID_LIST, 7, 3, bid("A", "x", "1", 3));
+        BidListDto current = bid("A", "y", "2", 4);
+        BidListDto incoming = bid("B", "y", "1", 3);
+
+        // Act
+        resolver.resolve(ChangeEntity.BID_LIST, 7, incoming, 3, current, 4, true, FIELDS);
+
+        // Assert
+        assertEquals("B", incoming.getAccount());
+        assertEquals("y", incoming.getType());
+        assertEquals(new BigDecimal("2"), incoming.getBidQuantity());
+        assertThrows(UpdateConflictException.class, () ->
+                resolver.resolve(ChangeEntity.BID_LIST, 7, bid("A", "x", "4", 3), 3, current, 4, true, FIELDS));
+    }
+
+    @Test
+    void nullValueOfACompleteInputIsComparedWithTheBase() {
+        // Arrange
+        resolver.remember(ChangeEntity.BID_LIST, 7, 3, bid("A", "x", "1", 3));
+        BidListDto current = bid("A", "x", "2", 4);
+        BidListDto cleared = bid("A", "x", null, 3);
+
+        // Act
+        var ex = assertThrows(UpdateConflictException.class, () ->
+                resolver.resolve(ChangeEntity.BID_LIST, 7, cleared, 3, current, 4, true, FIELDS));
+
+        // Assert
+        assertEquals(List.of("bidQuantity"), ex.getFields());
+        assertNull(cleared.getBidQuantity());
+    }
+}
@@ -2,7 +2,11 @@ package com.nnk.springboot.services.impl;
 
 import com.nnk.springboot.domain.CurvePoint;
 import com.nnk.springboot.dto.CurvePointDto;
+import com.nnk.springboot.dto.CurvePointFilterDto;
+import com.nnk.springboot.dto.ListFilterDto;
 import com.nnk.springboot.mapper.CurvePointMapper;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
 import com.nnk.springboot.repositories.CurvePointRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,8 +14,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,9 +29,21 @@ class CurvePointServiceImplTest {
     @Mock
     CurvePointRepository curvePointRepository;
 
+    @Mock
+    DtoProjectionRepository dtoProjectionRepository;
+
     @Mock
     CurvePointMapper curvePointMapper;
 
+    @Mock
+    CurveIndex curveIndex;
+
+    @Mock
+    ChangeFeed changeFeed;
+
+    @Mock
+    AuditTrail auditTrail;
+
     @InjectMocks
     CurvePointServiceImpl service;
 
@@ -54,6 +72,25 @@ class CurvePointServiceImplTest {
         dto.setCreationDate(entity.getCreationDate());
     }
 
+    @Test
+    void findAllFiltered() {
+        // Arrange
+        CurvePointFilterDto filter = new CurvePointFilterDto();
+        filter.setCurveId(10);
+        filter.setSort("term");
+        Sort expected = Sort.by(Sort.Direction.ASC, "term").and(Sort.by(Sort.Direction.ASC, "id"));
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.CURVE_POINT), any(), eq(expected), eq(ListFilterDto.MAX_ROWS)))
+                .thenReturn(List.of(dto));
+
+        // Act
+        var result = service.findAll(filter);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(id, result.get(0).getId());
+        verifyNoInteractions(curvePointRepository, curvePointMapper);
+    }
+
     @Test
     void create() {
         // Arrange
@@ -77,13 +114,13 @@ class CurvePointServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(id, result.getId());
+        verify(curveIndex).evict(100);
     }
 
     @Test
     void getCurvePoint() {
         // Arrange
-        when(curvePointRepository.findById(id)).thenReturn(Optional.of(entity));
-        when(curvePointMapper.toDto(entity)).thenReturn(dto);
+        when(dtoProjectionRepository.findById(DtoProjection.CURVE_POINT, id)).thenReturn(Optional.of(dto));
 
         // Act
         var result = service.getCurvePoint(id);
@@ -113,17 +150,42 @@ class CurvePointServiceImplTest {
         assertEquals(id, result.getId());
         verify(curvePointMapper).updateEntity(entity, updateDto);
         verify(curvePointRepository).save(entity);
+        verify(curveIndex).evict(100);
+        verifyNoMoreInteractions(curveIndex);
+    }
+
+    @Test
+    void updateMovingPointToAnotherCurveEvictsBothCurves() {
+        // Arrange
+        CurvePointDto updateDto = new CurvePointDto();
+        updateDto.setCurveId(300);
+
+        when(curvePointRepository.findById(id)).thenReturn(Optional.of(entity));
+        doAnswer(inv -> {
+            entity.setCurveId(300);
+            return null;
+        }).when(curvePointMapper).updateEntity(entity, updateDto);
+        when(curvePointRepository.save(entity)).thenReturn(entity);
+        when(curvePointMapper.toDto(entity)).thenReturn(dto);
+
+        // Act
+        service.update(id, updateDto);
+
+        // Assert
+        verify(curveIndex).evict(100);
+        verify(curveIndex).evict(300);
     }
 
     @Test
     void delete() {
         // Arrange
-        when(curvePointRepository.existsById(id)).thenReturn(true);
+        when(curvePointRepository.findById(id)).thenReturn(Optional.of(entity));
 
         // Act
         service.delete(id);
 
         // Assert
-        verify(curvePointRepository).deleteById(id);
+        verify(curvePointRepository).delete(entity);
+        verify(curveIndex).evict(100);
     }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.dto.CurveInterpolationRequestDto;
+import com.nnk.springboot.dto.CurvePointDto;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
+import com.nnk.springboot.services.CurveNotFoundException;
+import com.nnk.springboot.services.InterpolationMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurveServiceImplTest {
+
+    private static final LocalDateTime JAN = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime FEB = LocalDateTime.of(2024, 2, 1, 0, 0);
+
+    @Mock
+    DtoProjectionRepository dtoProjectionRepository;
+
+    private CurveIndex curveIndex;
+    private CurveServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        curveIndex = new CurveIndex(dtoProjectionRepository);
+        service = new CurveServiceImpl(curveIndex);
+    }
+
+    private void stubPoints(List<CurvePointDto> points) {
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.CURVE_POINT), any(),
+                eq(Sort.by("asOfDate", "term", "id")), eq(0))).thenReturn(points);
+    }
+
+    private static CurvePointDto point(LocalDateTime asOfDate, double term, double value) {
+        return new CurvePointDto(null, 7, asOfDate, term, value, null);
+    }
+
+    private static CurveInterpolationRequestDto request(InterpolationMethod method, double... terms) {
+        return new CurveInterpolationRequestDto(null, method, terms);
+    }
+
+    @Test
+    void linearInterpolationWithFlatExtrapolation() {
+        // Arrange
+        stubPoints(List.of(point(JAN, 1.0, 10.0), point(JAN, 2.0, 20.0), point(JAN, 4.0, 10.0)));
+
+        // Act
+        var result = service.interpolate(7, request(InterpolationMethod.LINEAR, 0.0, 1.0, 1.5, 3.0, 4.0, 9.0));
+
+        // Assert
+        assertArrayEquals(new double[]{10.0, 10.0, 15.0, 15.0, 10.0, 10.0}, result.getValues(), 1e-12);
+        assertEquals(JAN, result.getAsOfDate());
+    }
+
+    @Test
+    void cubicSplineIsNaturalAndPassesThroughPoints() {
+        // Arrange : la spline naturelle de (0,0) (1,1) (2,0) vaut 1.5x - 0.5x^3 sur [0, 1]
+        stubPoints(List.of(point(JAN, 0.0, 0.0), point(JAN, 1.0, 1.0), point(JAN, 2.0, 0.0)));
+
+        // Act
+        var result = service.interpolate(7, request(InterpolationMethod.CUBIC_SPLINE, 0.5, 1.0, 1.5));
+
+        // Assert
+        assertArrayEquals(new double[]{0.6875, 1.0, 0.6875}, result.getValues(), 1e-12);
+    }
+
+    @Test
+    void picksLatestCurveAtOrBeforeRequestedDate() {
+        // Arrange
+        stubPoints(List.of(point(JAN, 1.0, 1.0), point(FEB, 1.0, 2.0)));
+
+        // Act
+        var latest = service.interpolate(7, request(InterpolationMethod.LINEAR, 1.0));
+        var january = service.interpolate(7, new CurveInterpolationRequestDto(
+                JAN.plusDays(10), InterpolationMethod.LINEAR, new double[]{1.0}));
+
+        // Assert
+        assertEquals(FEB, latest.getAsOfDate());
+        assertEquals(2.0, latest.getValues()[0]);
+        assertEquals(JAN, january.getAsOfDate());
+        assertEquals(1.0, january.getValues()[0]);
+        verify(dtoProjectionRepository, times(1)).findAll(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void duplicateTermKeepsLastPoint() {
+        // Arrange
+        stubPoints(List.of(point(JAN, 1.0, 10.0), point(JAN, 1.0, 11.0), point(JAN, 2.0, 20.0)));
+
+        // Act
+        var result = service.interpolate(7, request(InterpolationMethod.LINEAR, 1.0));
+
+        // Assert
+        assertEquals(11.0, result.getValues()[0]);
+    }
+
+    @Test
+    void evictReloadsCurve() {
+        // Arrange
+        stubPoints(List.of(point(JAN, 1.0, 10.0)));
+        service.interpolate(7, request(InterpolationMethod.LINEAR, 1.0));
+
+        // Act
+        curveIndex.evict(7);
+        service.interpolate(7, request(InterpolationMethod.LINEAR, 1.0));
+
+        // Assert
+        verify(dtoProjectionRepository, times(2)).findAll(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void loadOverlappingAnEvictionIsNotCached() {
+        // Arrange : une écriture validée pendant la lecture de la courbe
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.CURVE_POINT), any(),
+                eq(Sort.by("asOfDate", "term", "id")), eq(0)))
+                .thenAnswer(inv -> {
+                    curveIndex.evict(7);
+                    return List.of(point(JAN, 1.0, 10.0));
+                })
+                .thenReturn(List.of(point(JAN, 1.0, 30.0)));
+
+        // Act
+        var stale = service.interpolate(7, request(InterpolationMethod.LINEAR, 1.0));
+        var fresh = service.interpolate(7, request(InterpolationMethod.LINEAR, 1.0));
+
+        // Assert
+        assertEquals(10.0, stale.getValues()[0]);
+        assertEquals(30.0, fresh.getValues()[0]);
+        verify(dtoProjectionRepository, times(2)).findAll(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void unknownCurveThrowsAndIsNotCached() {
+        // Arrange
+        stubPoints(List.of());
+
+        // Act + Assert
+        assertThrows(CurveNotFoundException.class, () -> service.interpolate(7, request(InterpolationMethod.LINEAR, 1.0)));
+        assertThrows(CurveNotFoundException.class, () -> service.interpolate(7, request(InterpolationMethod.LINEAR, 1.0)));
+        verify(dtoProjectionRepository, times(2)).findAll(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void dateBeforeFirstCurveThrows() {
+        // Arrange
+        stubPoints(List.of(point(FEB, 1.0, 2.0)));
+
+        // Act + Assert
+        assertThrows(CurveNotFoundException.class, () -> service.interpolate(7,
+                new CurveInterpolationRequestDto(JAN, InterpolationMethod.LINEAR, new double[]{1.0})));
+    }
+}
@@ -0,0 +1,103 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.domain.User;
+import com.nnk.springboot.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    UserRepository userRepository;
+
+    SimpleMeterRegistry meterRegistry;
+    UserDetailsCache userDetailsCache;
+    CustomUserDetailsService service;
+
+    private User entity;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsCache = new UserDetailsCache(meterRegistry, 100, Duration.ofMinutes(5), Duration.ofSeconds(60));
+        service = new CustomUserDetailsService(userRepository, userDetailsCache);
+
+        entity = new User();
+        entity.setId(1);
+        entity.setUsername("john");
+        entity.setPassword("hashed");
+        entity.setRole("USER");
+    }
+
+    @Test
+    void loadUserByUsernameIsCached() {
+        // Arrange
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(entity));
+
+        // Act
+        var first = service.loadUserByUsername("john");
+        var second = service.loadUserByUsername("john");
+
+        // Assert
+        assertEquals("hashed", second.getPassword());
+        assertNotSame(first, second);
+        verify(userRepository, times(1)).findByUsername("john");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void evictForcesReload() {
+        // Arrange
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(entity));
+        service.loadUserByUsername("john");
+
+        // Act
+        userDetailsCache.evict("john");
+        entity.setRole("ADMIN");
+        var reloaded = service.loadUserByUsername("john");
+
+        // Assert
+        assertTrue(reloaded.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")));
+        verify(userRepository, times(2)).findByUsername("john");
+    }
+
+    @Test
+    void unknownUserIsNotCached() {
+        // Arrange
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost"));
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    void updatePasswordStoresNewHash() {
+        // Arrange
+        when(userRepository.findByUsername("john")).thenReturn(Optional.of(entity));
+        var current = service.loadUserByUsername("john");
+
+        // Act
+        var updated = service.updatePassword(current, "rehashed");
+
+        // Assert
+        assertEquals("rehashed", updated.getPassword());
+        assertEquals("rehashed", entity.getPassword());
+        verify(userRepository).save(entity);
+        assertEquals("rehashed", service.loadUserByUsername("john").getPassword());
+    }
+}
@@ -0,0 +1,226 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.domain.BidList;
+import com.nnk.springboot.domain.PositionSummary;
+import com.nnk.springboot.domain.PositionSummaryId;
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.PositionDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.repositories.AccountTypeTotal;
+import com.nnk.springboot.repositories.BidListRepository;
+import com.nnk.springboot.repositories.PositionSummaryRepository;
+import com.nnk.springboot.repositories.TradeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PositionAggregatorTest {
+
+    @Mock
+    TradeRepository tradeRepository;
+
+    @Mock
+    BidListRepository bidListRepository;
+
+    @Mock
+    PositionSummaryRepository positionSummaryRepository;
+
+    private PositionAggregator aggregator;
+    private PositionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new PositionAggregator(tradeRepository, bidListRepository, positionSummaryRepository);
+        service = new PositionServiceImpl(aggregator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static PositionDto position(List<PositionDto> positions, String account, String type) {
+        return positions.stream()
+                .filter(p -> p.getAccount().equals(account) && p.getType().equals(type))
+                .findFirst().orElse(null);
+    }
+
+    @Test
+    void rebuildMergesTradeAndBidListTotalsAndCheckpointsStaleRows() {
+        // Arrange
+        when(tradeRepository.sumBuyQuantityByAccountAndType()).thenReturn(List.of(
+                new AccountTypeTotal("A", "X", new BigDecimal("10.5"), 2L),
+                new AccountTypeTotal("B", "Y", null, 1L)));
+        when(bidListRepository.sumBidQuantityByAccountAndType()).thenReturn(List.of(
+                new AccountTypeTotal("A", "X", new BigDecimal("3"), 1L)));
+        when(positionSummaryRepository.findAllIds()).thenReturn(List.of(new PositionSummaryId("C", "Z")));
+
+        // Act
+        aggregator.afterSingletonsInstantiated();
+
+        // Assert
+        List<PositionDto> positions = service.findAll(null, null);
+        assertEquals(List.of("A", "B"), positions.stream().map(PositionDto::getAccount).toList());
+        PositionDto ax = position(positions, "A", "X");
+        assertEquals(0, new BigDecimal("10.5").compareTo(ax.getBuyQuantity()));
+        assertEquals(2, ax.getTradeCount());
+        assertEquals(0, new BigDecimal("3").compareTo(ax.getBidQuantity()));
+        assertEquals(1, ax.getBidCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(position(positions, "B", "Y").getBuyQuantity()));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PositionSummary>> upserts = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PositionSummaryId>> deletes = ArgumentCaptor.forClass(List.class);
+        verify(positionSummaryRepository).checkpoint(upserts.capture(), deletes.capture());
+        assertEquals(2, upserts.getValue().size());
+        assertEquals(List.of(new PositionSummaryId("C", "Z")), deletes.getValue());
+    }
+
+    @Test
+    void updatesMoveQuantitiesBetweenPositionsAndRemoveEmptyOnes() {
+        // Arrange
+        TradeDto created = new TradeDto(1, "A", "X", new BigDecimal("10"));
+        TradeDto moved = new TradeDto(1, "B", "X", new BigDecimal("4"));
+
+        // Act
+        aggregator.tradeChanged(null, created);
+        aggregator.tradeChanged(null, new TradeDto(2, "A", "X", new BigDecimal("1")));
+        aggregator.tradeChanged(created, moved);
+        aggregator.bidListChanged(null, new BidListDto(7, "B", "X", new BigDecimal("2")));
+
+        // Assert
+        List<PositionDto> positions = service.findAll(null, "X");
+        assertEquals(0, BigDecimal.ONE.compareTo(position(positions, "A", "X").getBuyQuantity()));
+        assertEquals(1, position(positions, "A", "X").getTradeCount());
+        PositionDto bx = position(positions, "B", "X");
+        assertEquals(0, new BigDecimal("4").compareTo(bx.getBuyQuantity()));
+        assertEquals(1, bx.getBidCount());
+
+        // Act
+        aggregator.tradeChanged(moved, null);
+        aggregator.bidListChanged(new BidListDto(7, "B", "X", new BigDecimal("2")), null);
+
+        // Assert
+        assertTrue(service.findAll("B", null).isEmpty());
+        assertEquals(1, service.findAll("A", "X").size());
+        assertFalse(aggregator.getAll().containsKey("B"));
+    }
+
+    @Test
+    void accountsAndTypesDifferingByCaseOrTrailingSpacesShareOnePosition() {
+        // Arrange
+        when(tradeRepository.sumBuyQuantityByAccountAndType()).thenReturn(List.of(
+                new AccountTypeTotal("abc", "Bond", new BigDecimal("1"), 1L),
+                new AccountTypeTotal("ABC ", "bond ", new BigDecimal("2"), 1L)));
+        when(bidListRepository.sumBidQuantityByAccountAndType()).thenReturn(List.of());
+        when(positionSummaryRepository.findAllIds()).thenReturn(List.of(new PositionSummaryId("Abc", "BOND")));
+
+        // Act
+        aggregator.afterSingletonsInstantiated();
+        aggregator.tradeChanged(null, new TradeDto(3, "aBc  ", "BoNd", new BigDecimal("4")));
+        aggregator.bidListChanged(null, new BidListDto(4, "ABC", "bond", new BigDecimal("5")));
+        aggregator.checkpoint();
+
+        // Assert
+        List<PositionDto> positions = service.findAll(null, null);
+        assertEquals(1, positions.size());
+        PositionDto position = positions.get(0);
+        assertEquals("ABC", position.getAccount());
+        assertEquals("BOND", position.getType());
+        assertEquals(0, new BigDecimal("7").compareTo(position.getBuyQuantity()));
+        assertEquals(3, position.getTradeCount());
+        assertEquals(1, position.getBidCount());
+        assertEquals(1, service.findAll("abc ", "Bond").size());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PositionSummary>> upserts = ArgumentCaptor.forClass(List.class);
+        verify(positionSummaryRepository, times(2)).checkpoint(upserts.capture(), anyList());
+        for (List<PositionSummary> written : upserts.getAllValues()) {
+            assertEquals(List.of(new PositionSummaryId("ABC", "BOND")),
+                    written.stream().map(PositionSummary::getId).toList());
+        }
+        assertEquals(0, new BigDecimal("7").compareTo(upserts.getValue().get(0).getBuyQuantity()));
+    }
+
+    @Test
+    void deltasAreAppliedOnlyAfterCommit() {
+        // Arrange
+        BidList row = new BidList();
+        row.setAccount("A");
+        row.setType("X");
+        row.setBidQuantity(new BigDecimal("5"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        aggregator.bidListsImported(List.of(row, row));
+        aggregator.tradeChanged(null, new TradeDto(1, "A", "X", new BigDecimal("1")));
+
+        // Assert
+        assertTrue(service.findAll(null, null).isEmpty());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+
+        // Act
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        PositionDto ax = position(service.findAll("A", null), "A", "X");
+        assertEquals(0, new BigDecimal("10").compareTo(ax.getBidQuantity()));
+        assertEquals(2, ax.getBidCount());
+        assertEquals(1, ax.getTradeCount());
+        assertFalse(TransactionSynchronizationManager.hasResource(aggregator));
+    }
+
+    @Test
+    void rolledBackDeltasAreDiscarded() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        aggregator.tradeChanged(null, new TradeDto(1, "A", "X", new BigDecimal("1")));
+
+        // Act
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertTrue(service.findAll(null, null).isEmpty());
+        assertFalse(TransactionSynchronizationManager.hasResource(aggregator));
+        aggregator.checkpoint();
+        verifyNoInteractions(positionSummaryRepository);
+    }
+
+    @Test
+    void failedCheckpointIsRetried() {
+        // Arrange
+        aggregator.tradeChanged(null, new TradeDto(1, "A", "X", new BigDecimal("1")));
+        doThrow(new org.springframework.dao.DataAccessResourceFailureException("down"))
+                .doNothing()
+                .when(positionSummaryRepository).checkpoint(anyList(), anyList());
+
+        // Act
+        aggregator.checkpoint();
+        aggregator.checkpoint();
+        aggregator.checkpoint();
+
+        // Assert
+        verify(positionSummaryRepository, times(2)).checkpoint(anyList(), anyList());
+    }
+}
@@ -1,15 +1,23 @@
 package com.nnk.springboot.services.impl;
 
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
 import com.nnk.springboot.domain.Rating;
 import com.nnk.springboot.dto.RatingDto;
+import com.nnk.springboot.dto.RatingFilterDto;
+import com.nnk.springboot.dto.ListFilterDto;
 import com.nnk.springboot.mapper.RatingMapper;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
 import com.nnk.springboot.repositories.RatingRepository;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,9 +31,18 @@ class RatingServiceImplTest {
     @Mock
     RatingRepository ratingRepository;
 
+    @Mock
+    DtoProjectionRepository dtoProjectionRepository;
+
     @Mock
     RatingMapper ratingMapper;
 
+    @Mock
+    ChangeFeed changeFeed;
+
+    @Mock
+    AuditTrail auditTrail;
+
     @InjectMocks
     RatingServiceImpl service;
 
@@ -55,8 +72,7 @@ class RatingServiceImplTest {
     @Test
     void findAll() {
         // Arrange
-        when(ratingRepository.findAll()).thenReturn(List.of(entity));
-        when(ratingMapper.toDto(entity)).thenReturn(dto);
+        when(dtoProjectionRepository.findAll(DtoProjection.RATING, null, Sort.unsorted(), 0)).thenReturn(List.of(dto));
 
         // Act
         var result = service.findAll();
@@ -64,13 +80,32 @@ class RatingServiceImplTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(id, result.get(0).getId());
+        verifyNoInteractions(ratingMapper);
+    }
+
+    @Test
+    void findAllFiltered() {
+        // Arrange
+        RatingFilterDto filter = new RatingFilterDto();
+        filter.setMoodysRating("Aaa");
+        filter.setSort("password");
+        Sort expected = Sort.by(Sort.Direction.ASC, "id");
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.RATING), any(), eq(expected), eq(ListFilterDto.MAX_ROWS)))
+                .thenReturn(List.of(dto));
+
+        // Act
+        var result = service.findAll(filter);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(id, result.get(0).getId());
+        verifyNoInteractions(ratingRepository, ratingMapper);
     }
 
     @Test
     void getRating() {
         // Arrange
-        when(ratingRepository.findById(id)).thenReturn(Optional.of(entity));
-        when(ratingMapper.toDto(entity)).thenReturn(dto);
+        when(dtoProjectionRepository.findById(DtoProjection.RATING, id)).thenReturn(Optional.of(dto));
 
         // Act
         var result = service.getRating(id);
@@ -129,18 +164,34 @@ class RatingServiceImplTest {
         assertEquals(id, result.getId());
         verify(ratingMapper).updateEntity(entity, updateDto);
         verify(ratingRepository).save(entity);
+        verify(auditTrail).record(ChangeEntity.RATING, ChangeOperation.UPDATE, id, dto, dto);
     }
 
     @Test
     void delete() {
         // Arrange
-        when(ratingRepository.existsById(id)).thenReturn(true);
+        when(ratingRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(ratingMapper.toDto(entity)).thenReturn(dto);
 
         // Act
         service.delete(id);
 
         // Assert
-        verify(ratingRepository).deleteById(id);
+        verify(ratingRepository).delete(entity);
+        verify(changeFeed).record(ChangeEntity.RATING, ChangeOperation.DELETE, id, null);
+        verify(auditTrail).record(ChangeEntity.RATING, ChangeOperation.DELETE, id, dto, null);
     }
-}
 
+    @Test
+    void deleteMissing() {
+        // Arrange
+        when(ratingRepository.findById(id)).thenReturn(Optional.empty());
+
+        // Act
+        assertThrows(EntityNotFoundException.class, () -> service.delete(id));
+
+        // Assert
+        verify(ratingRepository, never()).delete(any(Rating.class));
+        verifyNoInteractions(changeFeed, auditTrail);
+    }
+}
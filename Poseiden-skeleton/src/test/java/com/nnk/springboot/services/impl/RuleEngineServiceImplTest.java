@@ -0,0 +1,139 @@
+package com.nnk.springboot.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.dto.BidListDto;
+import com.nnk.springboot.dto.RuleErrorDto;
+import com.nnk.springboot.dto.RuleMatchDto;
+import com.nnk.springboot.dto.RuleNameDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RuleEngineServiceImplTest {
+
+    @Mock
+    DtoProjectionRepository dtoProjectionRepository;
+
+    private CompiledRuleCache compiledRuleCache;
+    private RuleEngineServiceImpl service;
+
+    private final List<TradeDto> trades = Arrays.asList(
+            new TradeDto(1, "A1", "x", new BigDecimal("10.00")),
+            new TradeDto(2, "B", "y", new BigDecimal("5")),
+            null,
+            new TradeDto(5, "A2", "z", null),
+            new TradeDto(9, "O'Neil", "x", new BigDecimal("100.5")));
+
+    @BeforeEach
+    void setUp() {
+        compiledRuleCache = new CompiledRuleCache(dtoProjectionRepository, new ObjectMapper());
+        service = new RuleEngineServiceImpl(compiledRuleCache);
+    }
+
+    private void stubRules(RuleNameDto... rules) {
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.RULE_NAME), isNull(), eq(Sort.by("id")), eq(0)))
+                .thenReturn(List.of(rules));
+    }
+
+    private static RuleNameDto rule(int id, String sqlPart, String json) {
+        return new RuleNameDto(id, "rule" + id, null, json, null, null, sqlPart);
+    }
+
+    private static int[] indexesOf(List<RuleMatchDto> results, int ruleId) {
+        return results.stream().filter(r -> r.getRuleId() == ruleId).findFirst().orElseThrow().getRecordIndexes();
+    }
+
+    @Test
+    void evaluateTradesCollectsMatchingIndexesPerRule() {
+        // Arrange
+        stubRules(
+                rule(1, "account LIKE 'A%' AND buy_quantity >= 10", null),
+                rule(2, "type IN ('x', 'y') AND NOT account = 'B'", null),
+                rule(3, null, "{\"account\": \"B\", \"buyQuantity\": 5.0}"),
+                rule(4, "t.trade_id BETWEEN 2 AND 5 OR account = 'O''Neil'", null),
+                rule(5, "buyQuantity = 10", null),
+                rule(6, "NOT buyQuantity > 50", null),
+                rule(7, "  ", ""));
+
+        // Act
+        var result = service.evaluateTrades(trades);
+
+        // Assert
+        assertEquals("trade", result.getRecordType());
+        assertEquals(5, result.getRecords());
+        assertEquals(6, result.getRules().size());
+        assertArrayEquals(new int[]{0}, indexesOf(result.getRules(), 1));
+        assertArrayEquals(new int[]{0, 4}, indexesOf(result.getRules(), 2));
+        assertArrayEquals(new int[]{1}, indexesOf(result.getRules(), 3));
+        assertArrayEquals(new int[]{1, 3, 4}, indexesOf(result.getRules(), 4));
+        assertArrayEquals(new int[]{0}, indexesOf(result.getRules(), 5));
+        assertArrayEquals(new int[]{0, 1}, indexesOf(result.getRules(), 6));
+        assertTrue(result.getInvalidRules().isEmpty());
+    }
+
+    @Test
+    void invalidRulesAreReportedAndSkipped() {
+        // Arrange
+        stubRules(
+                rule(1, "bid_quantity > 1", null),
+                rule(2, "account = ", null),
+                rule(3, "account > 5", null),
+                rule(4, null, "not json"),
+                rule(5, "type = 'x'", null));
+
+        // Act
+        var result = service.evaluateTrades(trades);
+
+        // Assert
+        assertEquals(List.of(5), result.getRules().stream().map(RuleMatchDto::getRuleId).toList());
+        assertEquals(List.of(1, 2, 3, 4), result.getInvalidRules().stream().map(RuleErrorDto::getRuleId).toList());
+        assertTrue(result.getInvalidRules().get(0).getError().contains("bid_quantity"));
+    }
+
+    @Test
+    void evaluateBidListsUsesBidListFields() {
+        // Arrange
+        stubRules(rule(1, "bid_quantity > 1 AND bid_list_id <> 3", null), rule(2, "buy_quantity > 1", null));
+        List<BidListDto> bids = List.of(
+                new BidListDto(3, "A", "x", new BigDecimal("2")),
+                new BidListDto(4, "A", "x", new BigDecimal("2")));
+
+        // Act
+        var result = service.evaluateBidLists(bids);
+
+        // Assert
+        assertArrayEquals(new int[]{1}, indexesOf(result.getRules(), 1));
+        assertEquals(2, result.getInvalidRules().get(0).getRuleId());
+    }
+
+    @Test
+    void compiledRulesAreCachedUntilEvicted() {
+        // Arrange
+        stubRules(rule(1, "type = 'x'", null));
+
+        // Act
+        service.evaluateTrades(trades);
+        service.evaluateTrades(trades);
+        compiledRuleCache.evict();
+        service.evaluateTrades(trades);
+
+        // Assert
+        verify(dtoProjectionRepository, times(2)).findAll(any(), any(), any(), anyInt());
+    }
+}
@@ -1,8 +1,14 @@
 package com.nnk.springboot.services.impl;
 
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
 import com.nnk.springboot.domain.RuleName;
 import com.nnk.springboot.dto.RuleNameDto;
+import com.nnk.springboot.dto.RuleNameFilterDto;
+import com.nnk.springboot.dto.ListFilterDto;
 import com.nnk.springboot.mapper.RuleNameMapper;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
 import com.nnk.springboot.repositories.RuleNameRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +16,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,9 +30,21 @@ class RuleNameServiceImplTest {
     @Mock
     RuleNameRepository ruleNameRepository;
 
+    @Mock
+    DtoProjectionRepository dtoProjectionRepository;
+
     @Mock
     RuleNameMapper ruleNameMapper;
 
+    @Mock
+    CompiledRuleCache compiledRuleCache;
+
+    @Mock
+    ChangeFeed changeFeed;
+
+    @Mock
+    AuditTrail auditTrail;
+
     @InjectMocks
     RuleNameServiceImpl service;
 
@@ -51,8 +70,7 @@ class RuleNameServiceImplTest {
     @Test
     void findAll() {
         // Arrange
-        when(ruleNameRepository.findAll()).thenReturn(List.of(entity));
-        when(ruleNameMapper.toDto(entity)).thenReturn(dto);
+        when(dtoProjectionRepository.findAll(DtoProjection.RULE_NAME, null, Sort.unsorted(), 0)).thenReturn(List.of(dto));
 
         // Act
         var result = service.findAll();
@@ -60,6 +78,26 @@ class RuleNameServiceImplTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(id, result.get(0).getId());
+        verifyNoInteractions(ruleNameMapper);
+    }
+
+    @Test
+    void findAllFiltered() {
+        // Arrange
+        RuleNameFilterDto filter = new RuleNameFilterDto();
+        filter.setName("rule");
+        filter.setSort("name");
+        Sort expected = Sort.by(Sort.Direction.ASC, "name").and(Sort.by(Sort.Direction.ASC, "id"));
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.RULE_NAME), any(), eq(expected), eq(ListFilterDto.MAX_ROWS)))
+                .thenReturn(List.of(dto));
+
+        // Act
+        var result = service.findAll(filter);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(id, result.get(0).getId());
+        verifyNoInteractions(ruleNameRepository, ruleNameMapper);
     }
 
     @Test
@@ -83,13 +121,13 @@ class RuleNameServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(id, result.getId());
+        verify(compiledRuleCache).evict();
     }
 
     @Test
     void getRuleName() {
         // Arrange
-        when(ruleNameRepository.findById(id)).thenReturn(Optional.of(entity));
-        when(ruleNameMapper.toDto(entity)).thenReturn(dto);
+        when(dtoProjectionRepository.findById(DtoProjection.RULE_NAME, id)).thenReturn(Optional.of(dto));
 
         // Act
         var result = service.getRuleName(id);
@@ -118,17 +156,34 @@ class RuleNameServiceImplTest {
         assertEquals(id, result.getId());
         verify(ruleNameMapper).updateEntity(entity, updateDto);
         verify(ruleNameRepository).save(entity);
+        verify(compiledRuleCache).evict();
     }
 
     @Test
     void delete() {
         // Arrange
         when(ruleNameRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(ruleNameMapper.toDto(entity)).thenReturn(dto);
 
         // Act
         service.delete(id);
 
         // Assert
         verify(ruleNameRepository).delete(entity);
+        verify(auditTrail).record(ChangeEntity.RULE_NAME, ChangeOperation.DELETE, id, dto, null);
+        verify(compiledRuleCache).evict();
+    }
+
+    @Test
+    void deleteMissing() {
+        // Arrange
+        when(ruleNameRepository.findById(id)).thenReturn(Optional.empty());
+
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> service.delete(id));
+
+        // Assert
+        verify(ruleNameRepository, never()).delete(any(RuleName.class));
+        verifyNoInteractions(compiledRuleCache, changeFeed);
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package com.nnk.springboot.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nnk.springboot.domain.Trade;
+import com.nnk.springboot.services.ExportFormat;
+import jakarta.persistence.EntityManager;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradeExportServiceImplTest {
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    ScrollableResults<Trade> cursor;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    TradeExportServiceImpl service;
+
+    private Session session;
+    private Trade first;
+    private Trade second;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        first = new Trade();
+        first.setId(1);
+        first.setAccount("acc");
+        first.setType("type");
+        first.setBuyQuantity(new BigDecimal("10.5000"));
+
+        second = new Trade();
+        second.setId(2);
+        second.setAccount("a,\"b\"");
+        second.setType("type");
+
+        session = mock(Session.class);
+        SelectionQuery<Trade> query = mock(SelectionQuery.class, RETURNS_SELF);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.createSelectionQuery(anyString(), eq(Trade.class))).thenReturn(query);
+        doReturn(cursor).when(query).scroll(ScrollMode.FORWARD_ONLY);
+        when(cursor.next()).thenReturn(true, true, false);
+        when(cursor.get()).thenReturn(first, second);
+
+        ReflectionTestUtils.setField(service, "fetchSize", 100);
+        ReflectionTestUtils.setField(service, "chunkSize", 1);
+    }
+
+    @Test
+    void exportCsv() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = service.export(ExportFormat.CSV, out);
+
+        // Assert
+        assertEquals(2, rows);
+        assertEquals("id,account,type,buy_quantity\n1,acc,type,10.5000\n2,\"a,\"\"b\"\"\",type,\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(session, times(2)).clear();
+        verify(cursor).close();
+    }
+
+    @Test
+    void exportNdjson() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = service.export(ExportFormat.NDJSON, out);
+
+        // Assert
+        assertEquals(2, rows);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("acc", objectMapper.readTree(lines[0]).get("account").asText());
+        assertTrue(objectMapper.readTree(lines[1]).get("buyQuantity").isNull());
+    }
+}
@@ -1,17 +1,32 @@
 package com.nnk.springboot.services.impl;
 
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
 import com.nnk.springboot.domain.Trade;
 import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.TradeFilterDto;
+import com.nnk.springboot.dto.ListFilterDto;
 import com.nnk.springboot.mapper.TradeMapper;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
 import com.nnk.springboot.repositories.TradeRepository;
+import com.nnk.springboot.services.TradeService;
+import com.nnk.springboot.services.UpdateConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,9 +39,29 @@ class TradeServiceImplTest {
     @Mock
     TradeRepository tradeRepository;
 
+    @Mock
+    DtoProjectionRepository dtoProjectionRepository;
+
     @Mock
     TradeMapper tradeMapper;
 
+    @Mock
+    PositionAggregator positionAggregator;
+
+    @Spy
+    BulkImporter bulkImporter = new BulkImporter(Validation.buildDefaultValidatorFactory().getValidator(),
+            mock(PlatformTransactionManager.class));
+
+    @Mock
+    ChangeFeed changeFeed;
+
+    @Mock
+    AuditTrail auditTrail;
+
+    @Spy
+    ConcurrentUpdateResolver concurrentUpdateResolver =
+            new ConcurrentUpdateResolver(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
     @InjectMocks
     TradeServiceImpl service;
 
@@ -55,8 +90,7 @@ class TradeServiceImplTest {
     @Test
     void findAll() {
         // Arrange
-        when(tradeRepository.findAll()).thenReturn(List.of(entity));
-        when(tradeMapper.toDto(entity)).thenReturn(dto);
+        when(dtoProjectionRepository.findAll(DtoProjection.TRADE, null, Sort.unsorted(), 0)).thenReturn(List.of(dto));
 
         // Act
         var result = service.findAll();
@@ -64,6 +98,84 @@ class TradeServiceImplTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(id, result.get(0).getId());
+        verifyNoInteractions(tradeMapper);
+    }
+
+    @Test
+    void findAllFiltered() {
+        // Arrange
+        TradeFilterDto filter = new TradeFilterDto();
+        filter.setAccount("acc");
+        filter.setSort("buyQuantity");
+        filter.setDir("desc");
+        Sort expected = Sort.by(Sort.Direction.DESC, "buyQuantity").and(Sort.by(Sort.Direction.DESC, "id"));
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.TRADE), any(), eq(expected), eq(ListFilterDto.MAX_ROWS)))
+                .thenReturn(List.of(dto));
+
+        // Act
+        var result = service.findAll(filter);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(id, result.get(0).getId());
+        verifyNoInteractions(tradeRepository, tradeMapper);
+    }
+
+    @Test
+    void findPageNextPage() {
+        // Arrange
+        TradeDto secondDto = new TradeDto(2, "acc", "type", null);
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.TRADE), any(), eq(Sort.by(Sort.Direction.ASC, "id")), eq(2)))
+                .thenReturn(List.of(dto, secondDto));
+
+        // Act
+        var page = service.findPage(new TradeFilterDto(), 0, null, 1);
+
+        // Assert
+        assertEquals(List.of(dto), page.getItems());
+        assertEquals(id, page.getNextCursor());
+        assertEquals(id, page.getPreviousCursor());
+        verifyNoInteractions(tradeRepository, tradeMapper);
+    }
+
+    @Test
+    void findPageIsBoundedToMaxPageSize() {
+        // Arrange
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.TRADE), any(), eq(Sort.by(Sort.Direction.DESC, "id")),
+                eq(TradeService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(List.of(dto));
+
+        // Act
+        var page = service.findPage(new TradeFilterDto(), null, 5, 10_000);
+
+        // Assert
+        assertEquals(TradeService.MAX_PAGE_SIZE, page.getSize());
+        assertEquals(id, page.getNextCursor());
+        assertNull(page.getPreviousCursor());
+    }
+
+    @Test
+    void importAll() {
+        // Arrange
+        TradeDto invalid = new TradeDto(null, "acc", null, new BigDecimal("-1"));
+        when(tradeMapper.toEntity(any(TradeDto.class))).thenReturn(new Trade());
+        when(tradeRepository.batchInsert(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+
+        // Act
+        var report = service.importAll(Arrays.asList(dto, invalid, null, new TradeDto(null, "a", "t", null)).iterator());
+
+        // Assert
+        assertEquals(4, report.getReceived());
+        assertEquals(2, report.getInserted());
+        assertEquals(2, report.getRejected());
+        assertEquals(List.of("buyQuantity: La quantité d'achat doit être positive ou nulle.", "type: Le type est obligatoire."),
+                report.getErrors().get(0).getMessages());
+        assertEquals(List.of("Ligne vide."), report.getErrors().get(1).getMessages());
+        verify(tradeRepository, times(1)).batchInsert(anyList());
+        verify(positionAggregator).tradesImported(argThat(batch -> batch.size() == 2));
+        verify(changeFeed).recordBulkInsert(eq(ChangeEntity.TRADE), argThat((List<TradeDto> created) -> created.size() == 2), any());
+        verify(auditTrail).recordBulkInsert(eq(ChangeEntity.TRADE), argThat((List<TradeDto> created) -> created.size() == 2), any());
+        verify(tradeRepository, never()).save(any());
     }
 
     @Test
@@ -89,13 +201,14 @@ class TradeServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(id, result.getId());
+        verify(positionAggregator).tradeChanged(null, dto);
+        verify(changeFeed).record(ChangeEntity.TRADE, ChangeOperation.CREATE, id, dto);
     }
 
     @Test
     void getTrade() {
         // Arrange
-        when(tradeRepository.findById(id)).thenReturn(Optional.of(entity));
-        when(tradeMapper.toDto(entity)).thenReturn(dto);
+        when(dtoProjectionRepository.findById(DtoProjection.TRADE_VERSIONED, id)).thenReturn(Optional.of(dto));
 
         // Act
         var result = service.getTrade(id);
@@ -114,28 +227,98 @@ class TradeServiceImplTest {
         updateDto.setBuyQuantity(new BigDecimal("30.00"));
 
         when(tradeRepository.findById(id)).thenReturn(Optional.of(entity));
-        when(tradeRepository.save(entity)).thenReturn(entity);
+        when(tradeRepository.saveAndFlush(entity)).thenReturn(entity);
         when(tradeMapper.toDto(entity)).thenReturn(dto);
 
         // Act
-        var result = service.update(id, updateDto);
+        var result = service.update(id, updateDto, false);
 
         // Assert
         assertNotNull(result);
         assertEquals(id, result.getId());
         verify(tradeMapper).updateEntity(entity, updateDto);
-        verify(tradeRepository).save(entity);
+        verify(tradeRepository).saveAndFlush(entity);
+        verify(positionAggregator).tradeChanged(dto, dto);
+        verify(changeFeed).record(ChangeEntity.TRADE, ChangeOperation.UPDATE, id, dto);
+        verify(auditTrail).record(ChangeEntity.TRADE, ChangeOperation.UPDATE, id, dto, dto);
+    }
+
+    private static TradeDto trade(String account, String type, String quantity, Integer version) {
+        return new TradeDto(1, account, type, new BigDecimal(quantity), version);
+    }
+
+    @Test
+    void updateWithStaleVersionIsRejectedWithCurrentState() {
+        // Arrange
+        entity.setVersion(3);
+        dto.setVersion(3);
+        when(tradeRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(tradeMapper.toDto(entity)).thenReturn(dto);
+
+        // Act
+        var ex = assertThrows(UpdateConflictException.class,
+                () -> service.update(id, trade("acc2", "type", "10.00", 2), false));
+
+        // Assert
+        assertSame(dto, ex.getCurrent());
+        assertTrue(ex.getFields().isEmpty());
+        verify(tradeRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(changeFeed, auditTrail);
+    }
+
+    @Test
+    void updateWithStaleVersionMergesFieldsChangedOnOneSide() {
+        // Arrange
+        concurrentUpdateResolver.remember(ChangeEntity.TRADE, id, 2, trade("acc", "type", "10.00", 2));
+        entity.setVersion(3);
+        TradeDto current = trade("acc", "typeB", "10.00", 3);
+        TradeDto incoming = trade("acc2", "type", "10.0", 2);
+        when(tradeRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(tradeMapper.toDto(entity)).thenReturn(current);
+        when(tradeRepository.saveAndFlush(entity)).thenReturn(entity);
+
+        // Act
+        service.update(id, incoming, true);
+
+        // Assert
+        assertEquals("acc2", incoming.getAccount());
+        assertEquals("typeB", incoming.getType());
+        verify(tradeMapper).updateEntity(entity, incoming);
+        verify(tradeRepository).saveAndFlush(entity);
+    }
+
+    @Test
+    void updateWithStaleVersionIsRejectedWhenBothSidesChangedTheSameField() {
+        // Arrange
+        concurrentUpdateResolver.remember(ChangeEntity.TRADE, id, 2, trade("acc", "type", "10.00", 2));
+        entity.setVersion(3);
+        TradeDto current = trade("acc", "typeB", "10.00", 3);
+        when(tradeRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(tradeMapper.toDto(entity)).thenReturn(current);
+
+        // Act
+        var ex = assertThrows(UpdateConflictException.class,
+                () -> service.update(id, trade("acc2", "typeC", "10.00", 2), true));
+
+        // Assert
+        assertEquals(List.of("type"), ex.getFields());
+        assertSame(current, ex.getCurrent());
+        verify(tradeMapper, never()).updateEntity(any(), any());
     }
 
     @Test
     void delete() {
         // Arrange
         when(tradeRepository.findById(id)).thenReturn(Optional.of(entity));
+        when(tradeMapper.toDto(entity)).thenReturn(dto);
 
         // Act
         service.delete(id);
 
         // Assert
         verify(tradeRepository).delete(entity);
+        verify(positionAggregator).tradeChanged(dto, null);
+        verify(changeFeed).record(ChangeEntity.TRADE, ChangeOperation.DELETE, id, null);
+        verify(auditTrail).record(ChangeEntity.TRADE, ChangeOperation.DELETE, id, dto, null);
     }
 }
\ No newline at end of file
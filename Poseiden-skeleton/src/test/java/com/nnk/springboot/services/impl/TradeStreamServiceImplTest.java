@@ -0,0 +1,108 @@
+package com.nnk.springboot.services.impl;
+
+import com.nnk.springboot.dto.KeysetPageDto;
+import com.nnk.springboot.dto.TradeDto;
+import com.nnk.springboot.dto.TradeFilterDto;
+import com.nnk.springboot.services.TradeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradeStreamServiceImplTest {
+
+    @Mock
+    TradeService tradeService;
+
+    private TradeStreamServiceImpl service;
+    private final TradeFilterDto filter = new TradeFilterDto();
+
+    @BeforeEach
+    void setUp() {
+        service = new TradeStreamServiceImpl(tradeService, 2, Duration.ofMillis(200));
+    }
+
+    private static TradeDto trade(int id) {
+        return new TradeDto(id, "acc", "type", BigDecimal.ONE);
+    }
+
+    @Test
+    void streamReadsChunksUntilLastPage() {
+        // Arrange
+        when(tradeService.findPage(filter, null, null, 2)).thenReturn(new KeysetPageDto<>(List.of(trade(1), trade(2)), 2, 2, null));
+        when(tradeService.findPage(filter, 2, null, 2)).thenReturn(new KeysetPageDto<>(List.of(trade(5), trade(7)), 2, 7, 5));
+        when(tradeService.findPage(filter, 7, null, 2)).thenReturn(new KeysetPageDto<>(List.of(trade(9)), 2, null, 9));
+
+        // Act
+        List<TradeDto> result = service.stream(filter).collectList().block();
+
+        // Assert
+        assertEquals(List.of(1, 2, 5, 7, 9), result.stream().map(TradeDto::getId).toList());
+        verify(tradeService, times(3)).findPage(any(), any(), isNull(), eq(2));
+    }
+
+    @Test
+    void streamReadsOnlyWhatIsRequested() {
+        // Arrange
+        when(tradeService.findPage(filter, null, null, 2)).thenReturn(new KeysetPageDto<>(List.of(trade(1), trade(2)), 2, 2, null));
+        lenient().when(tradeService.findPage(filter, 2, null, 2)).thenReturn(new KeysetPageDto<>(List.of(trade(3), trade(4)), 2, 4, 3));
+
+        // Act
+        Flux<TradeDto> stream = service.stream(filter);
+        List<TradeDto> first = stream.take(1).collectList().block();
+
+        // Assert
+        assertEquals(1, first.size());
+        verify(tradeService, atMost(2)).findPage(any(), any(), any(), anyInt());
+        verify(tradeService, never()).findPage(filter, 4, null, 2);
+    }
+
+    @Test
+    void emptyStream() {
+        // Arrange
+        when(tradeService.findPage(filter, null, null, 2)).thenReturn(new KeysetPageDto<>(List.of(), 2, null, null));
+
+        // Act & Assert
+        assertEquals(List.of(), service.stream(filter).collectList().block());
+    }
+
+    @Test
+    void streamIsCancelledWhenTheClientStopsReading() throws Exception {
+        // Arrange
+        when(tradeService.findPage(filter, null, null, 2)).thenReturn(new KeysetPageDto<>(List.of(trade(1), trade(2)), 2, 2, null));
+        lenient().when(tradeService.findPage(filter, 2, null, 2)).thenReturn(new KeysetPageDto<>(List.of(trade(3)), 2, null, 3));
+        CompletableFuture<Throwable> failure = new CompletableFuture<>();
+
+        // Act : un seul trade demandé, le suivant jamais (écriture bloquée)
+        service.stream(filter).subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnError(Throwable throwable) {
+                failure.complete(throwable);
+            }
+        });
+
+        // Assert
+        assertInstanceOf(TimeoutException.class, failure.get(5, TimeUnit.SECONDS));
+        verify(tradeService, atMost(2)).findPage(any(), any(), any(), anyInt());
+    }
+}
@@ -1,7 +1,13 @@
 package com.nnk.springboot.services.impl;
 
+import com.nnk.springboot.changefeed.ChangeEntity;
+import com.nnk.springboot.changefeed.ChangeOperation;
 import com.nnk.springboot.dto.UserDto;
+import com.nnk.springboot.dto.UserFilterDto;
+import com.nnk.springboot.dto.ListFilterDto;
 import com.nnk.springboot.mapper.UserMapper;
+import com.nnk.springboot.repositories.DtoProjection;
+import com.nnk.springboot.repositories.DtoProjectionRepository;
 import com.nnk.springboot.repositories.UserRepository;
 import com.nnk.springboot.domain.User;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +17,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
@@ -25,12 +32,24 @@ class UserServiceImplTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    DtoProjectionRepository dtoProjectionRepository;
+
     @Mock
     PasswordEncoder passwordEncoder;
 
     @Mock
     UserMapper userMapper;
 
+    @Mock
+    UserDetailsCache userDetailsCache;
+
+    @Mock
+    ChangeFeed changeFeed;
+
+    @Mock
+    AuditTrail auditTrail;
+
     @InjectMocks
     UserServiceImpl service;
 
@@ -60,8 +79,7 @@ class UserServiceImplTest {
     @Test
     void findAll() {
         // Arrange
-        when(userRepository.findAll()).thenReturn(List.of(entity));
-        when(userMapper.toDto(entity)).thenReturn(dto);
+        when(dtoProjectionRepository.findAll(DtoProjection.USER, null, Sort.unsorted(), 0)).thenReturn(List.of(dto));
 
         // Act
         var result = service.findAll();
@@ -69,6 +87,27 @@ class UserServiceImplTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(id, result.get(0).getId());
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    void findAllFiltered() {
+        // Arrange
+        UserFilterDto filter = new UserFilterDto();
+        filter.setRole("USER");
+        filter.setSort("username");
+        filter.setDir("DESC");
+        Sort expected = Sort.by(Sort.Direction.DESC, "username").and(Sort.by(Sort.Direction.DESC, "id"));
+        when(dtoProjectionRepository.findAll(eq(DtoProjection.USER), any(), eq(expected), eq(ListFilterDto.MAX_ROWS)))
+                .thenReturn(List.of(dto));
+
+        // Act
+        var result = service.findAll(filter);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(id, result.get(0).getId());
+        verifyNoInteractions(userRepository, userMapper);
     }
 
     @Test
@@ -119,6 +158,7 @@ class UserServiceImplTest {
         verify(passwordEncoder).encode("newSecret");
         verify(userMapper).updateEntity(eq(entity), any(UserDto.class));
         verify(userRepository).save(entity);
+        verify(userDetailsCache, atLeastOnce()).evict("john");
     }
 
     @Test
@@ -131,13 +171,13 @@ class UserServiceImplTest {
 
         // Assert
         verify(userRepository).delete(entity);
+        verify(userDetailsCache).evict("john");
     }
 
     @Test
     void getUser() {
         // Arrange
-        when(userRepository.findById(id)).thenReturn(Optional.of(entity));
-        when(userMapper.toDto(entity)).thenReturn(dto);
+        when(dtoProjectionRepository.findById(DtoProjection.USER, id)).thenReturn(Optional.of(dto));
 
         // Act
         var result = service.getUser(id);
@@ -163,6 +203,7 @@ class UserServiceImplTest {
         assertEquals(id, result.getId());
         verify(passwordEncoder).encode("pwd");
         verify(userRepository).save(any(User.class));
+        verify(changeFeed).record(ChangeEntity.USER, ChangeOperation.CREATE, id, dto);
     }
 
     @Test
@@ -180,5 +221,7 @@ class UserServiceImplTest {
         assertEquals(id, result.getId());
         assertEquals("MANAGER", entity.getRole());
         verify(userRepository).save(entity);
+        verify(userDetailsCache).evict("john");
+        verify(changeFeed).record(ChangeEntity.USER, ChangeOperation.UPDATE, id, dto);
     }
 }
\ No newline at end of file